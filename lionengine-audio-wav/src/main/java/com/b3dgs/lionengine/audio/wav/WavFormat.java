@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.audio.wav;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -26,6 +27,7 @@ import java.util.concurrent.Executors;
 import javax.sound.sampled.Mixer;
 
 import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.audio.AudioFormat;
 
 /**
@@ -59,12 +61,27 @@ public final class WavFormat implements AudioFormat
         WavFormat.mixer = mixer;
     }
 
+    /** Software mixer, <code>null</code> to play each sound on its own line. */
+    private final WavMixer wavMixer;
+
     /**
-     * Create a wav format.
+     * Create a wav format, playing each sound on its own line.
      */
     public WavFormat()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a wav format, playing sounds with a software mixer, which is closed with the format.
+     * 
+     * @param wavMixer The software mixer, <code>null</code> to play each sound on its own line.
+     */
+    public WavFormat(WavMixer wavMixer)
     {
         super();
+
+        this.wavMixer = wavMixer;
     }
 
     /*
@@ -74,6 +91,10 @@ public final class WavFormat implements AudioFormat
     @Override
     public Wav loadAudio(Media media)
     {
+        if (wavMixer != null)
+        {
+            return new WavMixed(wavMixer, media);
+        }
         return new WavImpl(EXECUTOR, media);
     }
 
@@ -86,6 +107,20 @@ public final class WavFormat implements AudioFormat
     @Override
     public void close()
     {
-        EXECUTOR.shutdownNow();
+        if (wavMixer == null)
+        {
+            EXECUTOR.shutdownNow();
+        }
+        else
+        {
+            try
+            {
+                wavMixer.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import com.b3dgs.lionengine.Align;
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.audio.PlayerAbstract;
+
+/**
+ * Wav audio implementation played by a {@link WavMixer}.
+ */
+final class WavMixed implements Wav
+{
+    /** Mixer reference. */
+    private final WavMixer mixer;
+    /** Sound file reference. */
+    private final Media media;
+    /** Volume used. */
+    private volatile int volume = PlayerAbstract.VOLUME_MAX;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param mixer The mixer reference.
+     * @param media The audio sound media.
+     * @throws LionEngineException If media is <code>null</code>
+     */
+    WavMixed(WavMixer mixer, Media media)
+    {
+        super();
+
+        Check.notNull(media);
+
+        this.mixer = mixer;
+        this.media = media;
+    }
+
+    /*
+     * Wav
+     */
+
+    @Override
+    public void play()
+    {
+        play(Align.CENTER);
+    }
+
+    @Override
+    public void play(Align alignment)
+    {
+        mixer.play(this, media, volume, WavMixer.getPan(alignment));
+    }
+
+    @Override
+    public void stop()
+    {
+        mixer.stop(this);
+    }
+
+    @Override
+    public void setVolume(int volume)
+    {
+        Check.superiorOrEqual(volume, 0);
+        Check.inferiorOrEqual(volume, 100);
+
+        this.volume = volume;
+    }
+}
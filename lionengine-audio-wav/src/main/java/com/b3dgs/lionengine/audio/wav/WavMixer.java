@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sound.sampled.AudioFormat;
+
+import com.b3dgs.lionengine.Align;
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Software mixer, playing any number of sounds on a single {@link WavSink} from one audio thread.
+ * <p>
+ * Each {@link Media} is decoded once into a cached PCM sample (see {@link #load(Media)}), then each play starts a
+ * voice with its own volume and pan. Voices count is capped, the oldest voice being stolen when none is free.
+ * </p>
+ * <p>
+ * Long sounds such as musics should be streamed instead (see {@link #loadStream(Media, boolean)}): they are never
+ * cached nor fully loaded, each streamed voice only holding a small fixed buffer, and can loop without gap.
+ * </p>
+ * <p>
+ * Usage with {@link WavFormat}:
+ * </p>
+ * 
+ * <pre>
+ * AudioFactory.addFormat(new WavFormat(new WavMixer(new WavSinkLine(), 32)));
+ * </pre>
+ */
+public final class WavMixer implements Closeable
+{
+    /** Output sample rate. */
+    public static final int RATE = 44_100;
+    /** Output format (16 bits signed stereo little endian). */
+    public static final AudioFormat FORMAT = new AudioFormat(RATE, 16, 2, true, false);
+    /** Frames mixed per block. */
+    private static final int FRAMES = 512;
+    /** Idle wait in milliseconds. */
+    private static final long IDLE = 100L;
+
+    /**
+     * Get pan value from alignment.
+     * 
+     * @param alignment The alignment value.
+     * @return The pan value.
+     * @throws LionEngineException If unsupported alignment.
+     */
+    static double getPan(Align alignment)
+    {
+        switch (alignment)
+        {
+            case CENTER:
+                return 0.0;
+            case RIGHT:
+                return 1.0;
+            case LEFT:
+                return -1.0;
+            default:
+                throw new LionEngineException(alignment);
+        }
+    }
+
+    /** Decoded samples cache. */
+    private final Map<Media, WavSample> cache = new ConcurrentHashMap<>();
+    /** Active voices. */
+    private final WavVoices voices;
+    /** Output sink. */
+    private final WavSink sink;
+    /** Mixer thread. */
+    private final Thread thread;
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /**
+     * Create mixer and start its thread.
+     * 
+     * @param sink The output sink.
+     * @param voices The maximum number of voices.
+     * @throws LionEngineException If invalid arguments or unable to open sink.
+     */
+    public WavMixer(WavSink sink, int voices)
+    {
+        super();
+
+        Check.notNull(sink);
+
+        this.voices = new WavVoices(voices);
+        this.sink = sink;
+        try
+        {
+            sink.open(FORMAT);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception);
+        }
+        thread = new Thread(this::mix, WavMixer.class.getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Decode sound if not already cached.
+     * 
+     * @param media The sound media.
+     * @throws LionEngineException If unable to decode sound.
+     */
+    public void load(Media media)
+    {
+        getSample(media);
+    }
+
+    /**
+     * Play sound.
+     * 
+     * @param owner The voice owner, used by {@link #stop(Object)}.
+     * @param media The sound media.
+     * @param volume The volume in percent between included range <code>[0 - 100]</code>.
+     * @param pan The pan between included range <code>[-1.0 - 1.0]</code> (left to right).
+     * @throws LionEngineException If invalid arguments or unable to decode sound.
+     */
+    public void play(Object owner, Media media, int volume, double pan)
+    {
+        Check.notNull(owner);
+        Check.superiorOrEqual(volume, 0);
+        Check.inferiorOrEqual(volume, 100);
+        Check.superiorOrEqual(pan, -1.0);
+        Check.inferiorOrEqual(pan, 1.0);
+
+        voices.play(owner, getSample(media), volume, pan);
+    }
+
+    /**
+     * Play sound by streaming it, without decoding nor caching it. Only uncompressed PCM wav is supported.
+     * 
+     * @param owner The voice owner, used by {@link #stop(Object)}.
+     * @param media The sound media.
+     * @param volume The volume in percent between included range <code>[0 - 100]</code>.
+     * @param pan The pan between included range <code>[-1.0 - 1.0]</code> (left to right).
+     * @param loop <code>true</code> to loop until stopped, <code>false</code> to play once.
+     * @throws LionEngineException If invalid arguments or unable to open stream.
+     */
+    public void stream(Object owner, Media media, int volume, double pan, boolean loop)
+    {
+        Check.notNull(owner);
+        Check.notNull(media);
+        Check.superiorOrEqual(volume, 0);
+        Check.inferiorOrEqual(volume, 100);
+        Check.superiorOrEqual(pan, -1.0);
+        Check.inferiorOrEqual(pan, 1.0);
+
+        final WavStream stream;
+        try
+        {
+            stream = new WavStream(media, loop);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, media);
+        }
+        voices.stream(owner, stream, volume, pan);
+    }
+
+    /**
+     * Load a streamed sound, played with {@link #stream(Object, Media, int, double, boolean)}.
+     * 
+     * @param media The sound media.
+     * @param loop <code>true</code> to loop until stopped, <code>false</code> to play once.
+     * @return The streamed sound.
+     * @throws LionEngineException If invalid argument.
+     */
+    public Wav loadStream(Media media, boolean loop)
+    {
+        return new WavStreamed(this, media, loop);
+    }
+
+    /**
+     * Stop all voices of owner.
+     * 
+     * @param owner The voices owner.
+     */
+    public void stop(Object owner)
+    {
+        voices.stop(owner);
+    }
+
+    /**
+     * Get the active voices count.
+     * 
+     * @return The active voices count.
+     */
+    public int getActive()
+    {
+        return voices.getActive();
+    }
+
+    /**
+     * Clear decoded samples cache. Playing voices are not affected.
+     */
+    public void clearCache()
+    {
+        cache.clear();
+    }
+
+    /**
+     * Get decoded sample, decoding it once.
+     * 
+     * @param media The sound media.
+     * @return The decoded sample.
+     * @throws LionEngineException If unable to decode sound.
+     */
+    WavSample getSample(Media media)
+    {
+        Check.notNull(media);
+
+        WavSample sample = cache.get(media);
+        if (sample == null)
+        {
+            try
+            {
+                sample = WavSample.decode(media);
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, media);
+            }
+            final WavSample previous = cache.putIfAbsent(media, sample);
+            if (previous != null)
+            {
+                sample = previous;
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Mix voices to sink until closed.
+     */
+    private void mix()
+    {
+        final byte[] data = new byte[FRAMES * FORMAT.getFrameSize()];
+        while (!closed)
+        {
+            try
+            {
+                if (voices.await(IDLE))
+                {
+                    voices.read(FRAMES);
+                    voices.mix(data, FRAMES);
+                    sink.write(data, data.length);
+                }
+                else
+                {
+                    voices.release();
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                voices.clear();
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+        }
+    }
+
+    /*
+     * Closeable
+     */
+
+    /**
+     * Stop mixer thread and close sink.
+     * 
+     * @throws IOException If error on closing sink.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        voices.clear();
+        try
+        {
+            thread.join();
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        voices.release();
+        sink.close();
+    }
+}
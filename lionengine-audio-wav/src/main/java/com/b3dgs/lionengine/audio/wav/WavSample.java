@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Decoded sound, stored as 16 bits signed stereo samples at {@link WavMixer#RATE}.
+ */
+final class WavSample
+{
+    /** Decode error. */
+    static final String ERROR_DECODE = "Unable to decode sound: ";
+    /** Read buffer size. */
+    private static final int BUFFER = 16_384;
+    /** Output channels. */
+    private static final int CHANNELS = 2;
+
+    /**
+     * Decode sound.
+     * 
+     * @param media The sound media.
+     * @return The decoded sound.
+     * @throws IOException If unable to decode sound.
+     */
+    static WavSample decode(Media media) throws IOException
+    {
+        try (InputStream stream = new BufferedInputStream(media.getInputStream());
+             AudioInputStream source = AudioSystem.getAudioInputStream(stream))
+        {
+            final AudioFormat format = source.getFormat();
+            final AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+            try (AudioInputStream input = AudioSystem.getAudioInputStream(pcm, source))
+            {
+                return new WavSample(convert(read(input), format.getChannels(), format.getSampleRate()));
+            }
+        }
+        catch (final UnsupportedAudioFileException | IllegalArgumentException exception)
+        {
+            throw new IOException(ERROR_DECODE + media.getPath(), exception);
+        }
+    }
+
+    /**
+     * Read all input data.
+     * 
+     * @param input The audio input.
+     * @return The read data.
+     * @throws IOException If error when reading.
+     */
+    private static byte[] read(AudioInputStream input) throws IOException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER];
+        int read;
+        while ((read = input.read(buffer, 0, buffer.length)) > 0)
+        {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Convert 16 bits signed little endian data to stereo samples at mixer rate, using linear interpolation.
+     * 
+     * @param data The source data.
+     * @param channels The source channels.
+     * @param rate The source sample rate.
+     * @return The converted samples.
+     */
+    private static short[] convert(byte[] data, int channels, float rate)
+    {
+        final int count = data.length / (channels * 2);
+        final double step = rate / WavMixer.RATE;
+        final int frames = (int) Math.floor((count - 1) / step) + 1;
+        final short[] samples = new short[Math.max(0, frames) * CHANNELS];
+        for (int frame = 0; frame < frames; frame++)
+        {
+            final double position = frame * step;
+            final int index = (int) position;
+            final double ratio = position - index;
+            for (int channel = 0; channel < CHANNELS; channel++)
+            {
+                final int source = Math.min(channel, channels - 1);
+                final int current = getSample(data, index, source, channels);
+                final int next = getSample(data, Math.min(index + 1, count - 1), source, channels);
+                samples[frame * CHANNELS + channel] = (short) Math.round(current + (next - current) * ratio);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Get source sample.
+     * 
+     * @param data The source data.
+     * @param frame The frame index.
+     * @param channel The channel index.
+     * @param channels The channels number.
+     * @return The sample value.
+     */
+    private static int getSample(byte[] data, int frame, int channel, int channels)
+    {
+        final int index = (frame * channels + channel) * 2;
+        return data[index] & 0xFF | data[index + 1] << 8;
+    }
+
+    /** Interleaved stereo samples. */
+    private final short[] samples;
+
+    /**
+     * Create sample.
+     * 
+     * @param samples The interleaved stereo samples.
+     */
+    WavSample(short[] samples)
+    {
+        super();
+
+        this.samples = samples;
+    }
+
+    /**
+     * Get the interleaved stereo samples.
+     * 
+     * @return The samples.
+     */
+    short[] getSamples()
+    {
+        return samples;
+    }
+
+    /**
+     * Get the frames number.
+     * 
+     * @return The frames number.
+     */
+    int getFrames()
+    {
+        return samples.length / CHANNELS;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Output of {@link WavMixer}, receiving the mixed data.
+ * <p>
+ * Data is written from the mixer thread. A blocking sink (such as a sound line) paces the mixer, whereas a non
+ * blocking sink is fed as fast as voices are mixed.
+ * </p>
+ * 
+ * @see WavSinkLine
+ * @see WavSinkVoid
+ * @see WavSinkFile
+ */
+public interface WavSink extends Closeable
+{
+    /**
+     * Open sink.
+     * 
+     * @param format The data format.
+     * @throws IOException If unable to open sink.
+     */
+    void open(AudioFormat format) throws IOException;
+
+    /**
+     * Write data.
+     * 
+     * @param data The data to write.
+     * @param length The data length in bytes.
+     * @throws IOException If unable to write data.
+     */
+    void write(byte[] data, int length) throws IOException;
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Sink recording data in memory, saved as a wav file on close.
+ */
+public final class WavSinkFile implements WavSink
+{
+    /** Recorded data. */
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    /** Output file. */
+    private final Media media;
+    /** Data format. */
+    private AudioFormat format;
+
+    /**
+     * Create sink.
+     * 
+     * @param media The output file.
+     * @throws com.b3dgs.lionengine.LionEngineException If invalid argument.
+     */
+    public WavSinkFile(Media media)
+    {
+        super();
+
+        Check.notNull(media);
+
+        this.media = media;
+    }
+
+    /*
+     * WavSink
+     */
+
+    @Override
+    public synchronized void open(AudioFormat format)
+    {
+        this.format = format;
+        data.reset();
+    }
+
+    @Override
+    public synchronized void write(byte[] data, int length)
+    {
+        this.data.write(data, 0, length);
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (format != null)
+        {
+            final byte[] bytes = data.toByteArray();
+            final long frames = bytes.length / format.getFrameSize();
+            try (AudioInputStream input = new AudioInputStream(new ByteArrayInputStream(bytes), format, frames))
+            {
+                AudioSystem.write(input, AudioFileFormat.Type.WAVE, media.getFile());
+            }
+            format = null;
+        }
+    }
+}
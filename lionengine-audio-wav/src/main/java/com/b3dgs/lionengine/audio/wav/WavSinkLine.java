@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Sink playing data on a sound line, using the mixer defined by
+ * {@link WavFormat#setMixer(javax.sound.sampled.Mixer.Info)}.
+ */
+public final class WavSinkLine implements WavSink
+{
+    /** Line buffer in frames. */
+    private static final int BUFFER = 4096;
+
+    /** Sound line, <code>null</code> if not opened. */
+    private SourceDataLine dataLine;
+
+    /**
+     * Create sink.
+     */
+    public WavSinkLine()
+    {
+        super();
+    }
+
+    /*
+     * WavSink
+     */
+
+    @Override
+    public void open(AudioFormat format) throws IOException
+    {
+        try
+        {
+            if (WavFormat.mixer != null)
+            {
+                dataLine = AudioSystem.getSourceDataLine(format, WavFormat.mixer);
+            }
+            else
+            {
+                dataLine = AudioSystem.getSourceDataLine(format);
+            }
+            dataLine.open(format, BUFFER * format.getFrameSize());
+            dataLine.start();
+        }
+        catch (final LineUnavailableException | IllegalArgumentException exception)
+        {
+            throw new IOException(exception);
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int length)
+    {
+        dataLine.write(data, 0, length);
+    }
+
+    @Override
+    public void close()
+    {
+        if (dataLine != null)
+        {
+            dataLine.drain();
+            dataLine.stop();
+            dataLine.close();
+            dataLine = null;
+        }
+    }
+}
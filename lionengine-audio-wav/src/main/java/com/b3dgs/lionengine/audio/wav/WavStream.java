@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Streamed sound, read by blocks and converted on the fly to 16 bits signed stereo frames at {@link WavMixer#RATE}.
+ * <p>
+ * Only a fixed size buffer is held in memory, whatever the sound length. Files are read through a {@link FileChannel}
+ * and rewound by position, other medias are read from their stream, reopened on rewind. When looping, the first frame
+ * is read right after the last one and interpolation goes on across the loop point, so there is no gap.
+ * </p>
+ * <p>
+ * Only uncompressed PCM data is supported (8 bits unsigned or 16 bits signed, mono or stereo).
+ * </p>
+ */
+final class WavStream implements Closeable
+{
+    /** Unsupported format error. */
+    static final String ERROR_FORMAT = "Unsupported stream format: ";
+    /** Read buffer size. */
+    private static final int BUFFER = 16_384;
+    /** Header buffer size. */
+    private static final int HEADER = 16;
+    /** Output channels. */
+    private static final int CHANNELS = 2;
+    /** PCM format tag. */
+    private static final int PCM = 1;
+    /** Chunk identifier length. */
+    private static final int ID = 4;
+    /** Riff chunk identifier. */
+    private static final String RIFF = "RIFF";
+    /** Wave format identifier. */
+    private static final String WAVE = "WAVE";
+    /** Format chunk identifier. */
+    private static final String FMT = "fmt ";
+    /** Data chunk identifier. */
+    private static final String DATA = "data";
+    /** Unsigned 8 bits offset. */
+    private static final int UNSIGNED = 128;
+
+    /** Read buffer. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+    /** Header buffer. */
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+    /** Current frame. */
+    private final int[] current = new int[CHANNELS];
+    /** Next frame. */
+    private final int[] next = new int[CHANNELS];
+    /** Sound media. */
+    private final Media media;
+    /** Loop flag. */
+    private final boolean loop;
+    /** Opened channel. */
+    private ReadableByteChannel channel;
+    /** Source sample rate. */
+    private int rate;
+    /** Source channels. */
+    private int channels;
+    /** Source bits per sample. */
+    private int bits;
+    /** Source frame size in bytes. */
+    private int frameSize;
+    /** Data chunk start in bytes. */
+    private long dataStart;
+    /** Data chunk size in bytes (frame aligned). */
+    private long dataSize;
+    /** Data bytes remaining to read before end or loop. */
+    private long remaining;
+    /** Interpolation phase between current and next frame, in <code>[0 - RATE[</code>. */
+    private int phase;
+    /** Next frame is after the end. */
+    private boolean end;
+    /** Current frame is after the end. */
+    private boolean exhausted;
+
+    /**
+     * Open stream.
+     * 
+     * @param media The sound media.
+     * @param loop <code>true</code> to loop forever, <code>false</code> to stop at end.
+     * @throws IOException If unable to open or unsupported format.
+     */
+    WavStream(Media media, boolean loop) throws IOException
+    {
+        super();
+
+        this.media = media;
+        this.loop = loop;
+        buffer.flip();
+        open();
+        try
+        {
+            if (!readFrame(current))
+            {
+                exhausted = true;
+            }
+            else if (!readFrame(next))
+            {
+                end = true;
+                System.arraycopy(current, 0, next, 0, CHANNELS);
+            }
+        }
+        catch (final IOException exception)
+        {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Read frames as interleaved stereo samples.
+     * 
+     * @param samples The output samples (must be at least <code>frames * 2</code> long).
+     * @param frames The maximum number of frames to read.
+     * @return The number of frames read, lower than <code>frames</code> only if end has been reached.
+     * @throws IOException If error when reading.
+     */
+    int read(short[] samples, int frames) throws IOException
+    {
+        int read = 0;
+        while (read < frames && !exhausted)
+        {
+            if (end && phase > 0)
+            {
+                exhausted = true;
+                break;
+            }
+            final double ratio = phase / (double) WavMixer.RATE;
+            for (int i = 0; i < CHANNELS; i++)
+            {
+                samples[read * CHANNELS + i] = (short) Math.round(current[i] + (next[i] - current[i]) * ratio);
+            }
+            read++;
+            phase += rate;
+            while (phase >= WavMixer.RATE && !exhausted)
+            {
+                phase -= WavMixer.RATE;
+                advance();
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Check if stream is still opened.
+     * 
+     * @return <code>true</code> if opened, <code>false</code> if closed.
+     */
+    boolean isOpen()
+    {
+        return channel.isOpen();
+    }
+
+    /**
+     * Open channel and read header until data chunk.
+     * 
+     * @throws IOException If unable to open or unsupported format.
+     */
+    private void open() throws IOException
+    {
+        final File file = media.getFile();
+        if (file.isFile())
+        {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        else
+        {
+            channel = Channels.newChannel(media.getInputStream());
+        }
+        try
+        {
+            readHeader();
+        }
+        catch (final IOException exception)
+        {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Read header until data chunk, which is then ready to be read.
+     * 
+     * @throws IOException If unsupported format.
+     */
+    private void readHeader() throws IOException
+    {
+        readBytes(ID * 3);
+        final String riff = readId();
+        header.getInt();
+        if (!RIFF.equals(riff) || !WAVE.equals(readId()))
+        {
+            throw new IOException(ERROR_FORMAT + media.getPath());
+        }
+        long position = ID * 3L;
+        while (true)
+        {
+            readBytes(ID * 2);
+            final String id = readId();
+            final long size = header.getInt() & 0xFFFF_FFFFL;
+            position += ID * 2L;
+            if (DATA.equals(id))
+            {
+                if (frameSize == 0)
+                {
+                    throw new IOException(ERROR_FORMAT + media.getPath());
+                }
+                dataStart = position;
+                dataSize = size - size % frameSize;
+                remaining = dataSize;
+                return;
+            }
+            if (FMT.equals(id))
+            {
+                readFormat(size);
+            }
+            else
+            {
+                skip(size);
+            }
+            skip(size & 1L);
+            position += size + (size & 1L);
+        }
+    }
+
+    /**
+     * Read format chunk.
+     * 
+     * @param size The chunk size.
+     * @throws IOException If unsupported format.
+     */
+    private void readFormat(long size) throws IOException
+    {
+        if (size < HEADER)
+        {
+            throw new IOException(ERROR_FORMAT + media.getPath());
+        }
+        readBytes(HEADER);
+        final int tag = header.getShort();
+        channels = header.getShort();
+        rate = header.getInt();
+        header.getInt();
+        header.getShort();
+        bits = header.getShort();
+        if (tag != PCM || channels < 1 || channels > CHANNELS || bits != Byte.SIZE && bits != Short.SIZE || rate <= 0)
+        {
+            throw new IOException(ERROR_FORMAT + media.getPath());
+        }
+        frameSize = channels * bits / Byte.SIZE;
+        skip(size - HEADER);
+    }
+
+    /**
+     * Read header bytes.
+     * 
+     * @param length The number of bytes to read.
+     * @throws IOException If end reached.
+     */
+    private void readBytes(int length) throws IOException
+    {
+        header.clear();
+        header.limit(length);
+        while (header.hasRemaining())
+        {
+            if (channel.read(header) < 0)
+            {
+                throw new EOFException(ERROR_FORMAT + media.getPath());
+            }
+        }
+        header.flip();
+    }
+
+    /**
+     * Read chunk identifier from header.
+     * 
+     * @return The chunk identifier.
+     */
+    private String readId()
+    {
+        final byte[] id = new byte[ID];
+        header.get(id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Skip header bytes.
+     * 
+     * @param length The number of bytes to skip.
+     * @throws IOException If end reached.
+     */
+    private void skip(long length) throws IOException
+    {
+        if (channel instanceof FileChannel)
+        {
+            final FileChannel file = (FileChannel) channel;
+            file.position(file.position() + length);
+        }
+        else
+        {
+            long left = length;
+            while (left > 0)
+            {
+                final int count = (int) Math.min(HEADER, left);
+                readBytes(count);
+                left -= count;
+            }
+        }
+    }
+
+    /**
+     * Move to the beginning of data.
+     * 
+     * @throws IOException If unable to rewind.
+     */
+    private void rewind() throws IOException
+    {
+        if (channel instanceof FileChannel)
+        {
+            ((FileChannel) channel).position(dataStart);
+            remaining = dataSize;
+        }
+        else
+        {
+            channel.close();
+            open();
+        }
+    }
+
+    /**
+     * Fill buffer with data, rewinding if looping.
+     * 
+     * @return <code>true</code> if at least one frame is available, <code>false</code> else.
+     * @throws IOException If error when reading.
+     */
+    private boolean fill() throws IOException
+    {
+        buffer.compact();
+        while (buffer.hasRemaining())
+        {
+            if (remaining == 0)
+            {
+                if (!loop || dataSize == 0)
+                {
+                    break;
+                }
+                rewind();
+            }
+            final int limit = buffer.limit();
+            buffer.limit(buffer.position() + (int) Math.min(buffer.remaining(), remaining));
+            final int read = channel.read(buffer);
+            buffer.limit(limit);
+            if (read < 0)
+            {
+                // Truncated data, ignore partial frame and loop on what has really been read
+                buffer.position(buffer.position() - buffer.position() % frameSize);
+                dataSize -= remaining;
+                dataSize -= dataSize % frameSize;
+                remaining = 0;
+            }
+            else if (read == 0)
+            {
+                break;
+            }
+            else
+            {
+                remaining -= read;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= frameSize;
+    }
+
+    /**
+     * Read next source frame as stereo.
+     * 
+     * @param frame The frame output.
+     * @return <code>true</code> if read, <code>false</code> if end reached.
+     * @throws IOException If error when reading.
+     */
+    private boolean readFrame(int[] frame) throws IOException
+    {
+        if (buffer.remaining() < frameSize && !fill())
+        {
+            return false;
+        }
+        for (int i = 0; i < channels; i++)
+        {
+            if (bits == Short.SIZE)
+            {
+                frame[i] = buffer.getShort();
+            }
+            else
+            {
+                frame[i] = (buffer.get() & 0xFF) - UNSIGNED << Byte.SIZE;
+            }
+        }
+        if (channels == 1)
+        {
+            frame[1] = frame[0];
+        }
+        return true;
+    }
+
+    /**
+     * Move to next source frame.
+     * 
+     * @throws IOException If error when reading.
+     */
+    private void advance() throws IOException
+    {
+        if (end)
+        {
+            exhausted = true;
+        }
+        else
+        {
+            System.arraycopy(next, 0, current, 0, CHANNELS);
+            if (!readFrame(next))
+            {
+                end = true;
+                System.arraycopy(current, 0, next, 0, CHANNELS);
+            }
+        }
+    }
+
+    /*
+     * Closeable
+     */
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
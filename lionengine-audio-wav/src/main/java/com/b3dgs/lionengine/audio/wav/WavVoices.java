@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Active voices of the {@link WavMixer}, mixed in software.
+ * <p>
+ * Voices count is capped: when no voice is free, the oldest one is stolen, streamed voices being stolen only if there
+ * is no other choice. Each voice has its own volume and pan, converted to fixed point left and right gains. This class
+ * is Thread-Safe.
+ * </p>
+ * <p>
+ * Streamed voices are read by the mixing thread with {@link #read(int)} before each {@link #mix(byte[], int)}, without
+ * holding the voices lock, so playing and stopping never wait for disk. They are closed by the mixing thread too, once
+ * finished, stopped or stolen.
+ * </p>
+ */
+final class WavVoices
+{
+    /** Gain fixed point shift. */
+    private static final int SHIFT = 8;
+    /** Unity gain. */
+    private static final int UNITY = 1 << SHIFT;
+    /** Volume maximum. */
+    private static final double VOLUME_MAX = 100.0;
+
+    /**
+     * Get the gain of a side.
+     * 
+     * @param volume The volume in percent.
+     * @param balance The side balance (pan applied to side, <code>1.0</code> for full side).
+     * @return The fixed point gain.
+     */
+    private static int getGain(int volume, double balance)
+    {
+        return (int) Math.round(volume / VOLUME_MAX * Math.min(1.0, balance) * UNITY);
+    }
+
+    /** Voices. */
+    private final Voice[] voices;
+    /** Streamed voices being read, used by mixing thread only. */
+    private final Voice[] reading;
+    /** Removed streamed voices to close (guarded by this). */
+    private final List<Voice> removed = new ArrayList<>();
+    /** Removed streamed voices being closed, used by mixing thread only. */
+    private final List<Voice> closing = new ArrayList<>();
+    /** Active voices count. */
+    private int count;
+    /** Next voice order. */
+    private long order;
+    /** Mixing buffer. */
+    private long[] buffer = new long[0];
+
+    /**
+     * Create voices.
+     * 
+     * @param max The maximum number of voices.
+     * @throws com.b3dgs.lionengine.LionEngineException If invalid argument.
+     */
+    WavVoices(int max)
+    {
+        super();
+
+        Check.superiorStrict(max, 0);
+
+        voices = new Voice[max];
+        reading = new Voice[max];
+    }
+
+    /**
+     * Start a voice, stealing the oldest one if none is free.
+     * 
+     * @param owner The voice owner.
+     * @param sample The sample to play.
+     * @param volume The volume in percent.
+     * @param pan The pan in <code>[-1.0 - 1.0]</code> (left to right).
+     */
+    synchronized void play(Object owner, WavSample sample, int volume, double pan)
+    {
+        start(new Voice(owner,
+                        sample.getSamples(),
+                        null,
+                        getGain(volume, 1.0 - pan),
+                        getGain(volume, 1.0 + pan),
+                        order++));
+    }
+
+    /**
+     * Start a streamed voice, stealing the oldest one if none is free. Stream is closed by the voice.
+     * 
+     * @param owner The voice owner.
+     * @param stream The stream to play.
+     * @param volume The volume in percent.
+     * @param pan The pan in <code>[-1.0 - 1.0]</code> (left to right).
+     */
+    synchronized void stream(Object owner, WavStream stream, int volume, double pan)
+    {
+        start(new Voice(owner, new short[0], stream, getGain(volume, 1.0 - pan), getGain(volume, 1.0 + pan), order++));
+    }
+
+    /**
+     * Stop all voices of owner.
+     * 
+     * @param owner The voices owner.
+     */
+    synchronized void stop(Object owner)
+    {
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (voices[i].owner == owner)
+            {
+                remove(i);
+            }
+        }
+    }
+
+    /**
+     * Stop all voices, waking up waiting thread.
+     */
+    synchronized void clear()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            voices[i].release(removed);
+        }
+        Arrays.fill(voices, null);
+        count = 0;
+        notifyAll();
+    }
+
+    /**
+     * Get the active voices count.
+     * 
+     * @return The active voices count.
+     */
+    synchronized int getActive()
+    {
+        return count;
+    }
+
+    /**
+     * Wait until at least one voice is active.
+     * 
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return <code>true</code> if a voice is active, <code>false</code> else.
+     * @throws InterruptedException If interrupted.
+     */
+    synchronized boolean await(long timeout) throws InterruptedException
+    {
+        if (count == 0)
+        {
+            wait(timeout);
+        }
+        return count > 0;
+    }
+
+    /**
+     * Close removed streamed voices, and read next frames of active ones, without holding the voices lock. Must only be
+     * called by the mixing thread.
+     * 
+     * @param frames The number of frames to read, as next mixed.
+     */
+    void read(int frames)
+    {
+        final int streamed;
+        synchronized (this)
+        {
+            int n = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (voices[i].stream != null)
+                {
+                    reading[n] = voices[i];
+                    n++;
+                }
+            }
+            streamed = n;
+        }
+        release();
+        for (int i = 0; i < streamed; i++)
+        {
+            reading[i].read(frames);
+            reading[i] = null;
+        }
+    }
+
+    /**
+     * Close removed streamed voices. Must only be called by the mixing thread, or once it is stopped.
+     */
+    void release()
+    {
+        synchronized (this)
+        {
+            closing.addAll(removed);
+            removed.clear();
+        }
+        for (final Voice voice : closing)
+        {
+            voice.close();
+        }
+        closing.clear();
+    }
+
+    /**
+     * Mix active voices as 16 bits signed stereo little endian data. Finished voices are removed. Streamed voices are
+     * only mixed once read with {@link #read(int)}.
+     * 
+     * @param data The output data (must be at least <code>frames * 4</code> long).
+     * @param frames The number of frames to mix.
+     */
+    synchronized void mix(byte[] data, int frames)
+    {
+        final int length = frames * 2;
+        if (buffer.length < length)
+        {
+            buffer = new long[length];
+        }
+        Arrays.fill(buffer, 0, length, 0L);
+
+        for (int i = count - 1; i >= 0; i--)
+        {
+            if (voices[i].mix(buffer, frames))
+            {
+                remove(i);
+            }
+        }
+        for (int i = 0; i < length; i++)
+        {
+            final int value = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, buffer[i] >> SHIFT));
+            data[i * 2] = (byte) value;
+            data[i * 2 + 1] = (byte) (value >> 8);
+        }
+    }
+
+    /**
+     * Start voice, stealing the oldest one if none is free.
+     * 
+     * @param voice The voice to start.
+     */
+    private void start(Voice voice)
+    {
+        if (count < voices.length)
+        {
+            voices[count] = voice;
+            count++;
+        }
+        else
+        {
+            int oldest = 0;
+            for (int i = 1; i < count; i++)
+            {
+                if (voices[i].isOlder(voices[oldest]))
+                {
+                    oldest = i;
+                }
+            }
+            voices[oldest].release(removed);
+            voices[oldest] = voice;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Remove voice, replaced by the last one.
+     * 
+     * @param index The voice index.
+     */
+    private void remove(int index)
+    {
+        voices[index].release(removed);
+        count--;
+        voices[index] = voices[count];
+        voices[count] = null;
+    }
+
+    /**
+     * Active voice.
+     */
+    private static final class Voice
+    {
+        /** Voice owner. */
+        private final Object owner;
+        /** Played samples (stream output if streamed). */
+        private short[] samples;
+        /** Played stream (<code>null</code> if not streamed). */
+        private final WavStream stream;
+        /** Left gain. */
+        private final int left;
+        /** Right gain. */
+        private final int right;
+        /** Start order. */
+        private final long order;
+        /** Current sample index. */
+        private int position;
+        /** Played samples limit. */
+        private int limit;
+        /** Stream frames read and not mixed yet. */
+        private boolean filled;
+        /** Stream end reached. */
+        private boolean ended;
+
+        /**
+         * Create voice.
+         * 
+         * @param owner The voice owner.
+         * @param samples The played samples.
+         * @param stream The played stream (<code>null</code> if not streamed).
+         * @param left The left gain.
+         * @param right The right gain.
+         * @param order The start order.
+         */
+        Voice(Object owner, short[] samples, WavStream stream, int left, int right, long order)
+        {
+            super();
+
+            this.owner = owner;
+            this.samples = samples;
+            this.stream = stream;
+            this.left = left;
+            this.right = right;
+            this.order = order;
+            limit = samples.length;
+        }
+
+        /**
+         * Add voice to mix.
+         * 
+         * @param mix The mixing buffer.
+         * @param frames The number of frames to mix.
+         * @return <code>true</code> if voice is finished, <code>false</code> else.
+         */
+        boolean mix(long[] mix, int frames)
+        {
+            if (stream != null && !filled)
+            {
+                return false;
+            }
+            final int length = Math.min(frames * 2, limit - position);
+            for (int i = 0; i < length; i += 2)
+            {
+                mix[i] += samples[position + i] * left;
+                mix[i + 1] += samples[position + i + 1] * right;
+            }
+            position += length;
+            if (stream != null)
+            {
+                filled = false;
+                return ended;
+            }
+            return position >= limit;
+        }
+
+        /**
+         * Check if voice should be stolen before another one.
+         * 
+         * @param other The other voice.
+         * @return <code>true</code> if older or not streamed while other is, <code>false</code> else.
+         */
+        boolean isOlder(Voice other)
+        {
+            if ((stream == null) != (other.stream == null))
+            {
+                return stream == null;
+            }
+            return order < other.order;
+        }
+
+        /**
+         * Add to removed voices if streamed, to be closed by mixing thread.
+         * 
+         * @param removed The removed streamed voices.
+         */
+        void release(List<Voice> removed)
+        {
+            if (stream != null)
+            {
+                removed.add(this);
+            }
+        }
+
+        /**
+         * Close stream.
+         */
+        void close()
+        {
+            try
+            {
+                stream.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+
+        /**
+         * Read next stream frames into samples, reused between reads.
+         * 
+         * @param frames The number of frames to read.
+         */
+        void read(int frames)
+        {
+            if (samples.length < frames * 2)
+            {
+                samples = new short[frames * 2];
+            }
+            position = 0;
+            try
+            {
+                final int read = stream.read(samples, frames);
+                limit = read * 2;
+                ended = read < frames;
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                limit = 0;
+                ended = true;
+            }
+            filled = true;
+        }
+    }
+}
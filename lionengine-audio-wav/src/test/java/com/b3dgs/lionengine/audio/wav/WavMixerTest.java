@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import static com.b3dgs.lionengine.UtilAssert.assertCause;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Align;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.audio.AudioFactory;
+
+/**
+ * Test {@link WavMixer} and {@link WavMixed}.
+ */
+public final class WavMixerTest
+{
+    /** Temporary folder. */
+    private static final String TEMP = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Prepare the test.
+     */
+    @BeforeAll
+    public static void prepareTest()
+    {
+        Medias.setLoadFromJar(WavMixerTest.class);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void cleanUp()
+    {
+        Medias.setLoadFromJar(null);
+    }
+
+    /**
+     * Read all samples of a wav file.
+     * 
+     * @param stream The wav stream.
+     * @return The samples.
+     * @throws IOException If error.
+     * @throws UnsupportedAudioFileException If error.
+     */
+    private static short[] read(InputStream stream) throws IOException, UnsupportedAudioFileException
+    {
+        try (AudioInputStream input = AudioSystem.getAudioInputStream(stream))
+        {
+            final byte[] data = new byte[(int) input.getFrameLength() * input.getFormat().getFrameSize()];
+            int offset = 0;
+            int read;
+            while (offset < data.length && (read = input.read(data, offset, data.length - offset)) > 0)
+            {
+                offset += read;
+            }
+            final short[] samples = new short[data.length / 2];
+            for (int i = 0; i < samples.length; i++)
+            {
+                samples[i] = (short) (data[i * 2] & 0xFF | data[i * 2 + 1] << 8);
+            }
+            return samples;
+        }
+    }
+
+    /**
+     * Wait until mixer has no more active voice.
+     * 
+     * @param mixer The mixer reference.
+     * @throws InterruptedException If interrupted.
+     */
+    private static void waitIdle(WavMixer mixer) throws InterruptedException
+    {
+        for (int i = 0; i < Constant.THOUSAND && mixer.getActive() > 0; i++)
+        {
+            Thread.sleep(Constant.DECADE);
+        }
+        assertEquals(0, mixer.getActive());
+    }
+
+    /**
+     * Test sample is decoded once.
+     * 
+     * @throws IOException If error.
+     * @throws UnsupportedAudioFileException If error.
+     */
+    @Test
+    public void testDecode() throws IOException, UnsupportedAudioFileException
+    {
+        final Media media = Medias.create("sound.wav");
+        try (WavMixer mixer = new WavMixer(new WavSinkVoid(), 4))
+        {
+            final WavSample sample = mixer.getSample(media);
+
+            assertTrue(sample == mixer.getSample(media));
+
+            try (InputStream stream = media.getInputStream())
+            {
+                final short[] expected = read(stream);
+                assertEquals(expected.length, sample.getSamples().length);
+                assertEquals(expected[expected.length / 2], sample.getSamples()[expected.length / 2]);
+            }
+
+            mixer.clearCache();
+
+            assertTrue(sample != mixer.getSample(media));
+        }
+    }
+
+    /**
+     * Test mono 8 bits sound at half rate decoding.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDecodeConvert() throws IOException
+    {
+        final byte[] data = new byte[]
+        {
+            (byte) 128, (byte) 192, (byte) 64
+        };
+        final AudioFormat format = new AudioFormat(WavMixer.RATE / 2.0F, 8, 1, false, false);
+        final File file = new File(TEMP, "mono.wav");
+        try (AudioInputStream input = new AudioInputStream(new ByteArrayInputStream(data), format, data.length))
+        {
+            AudioSystem.write(input, AudioFileFormat.Type.WAVE, file);
+        }
+        Medias.setResourcesDirectory(TEMP);
+        try
+        {
+            final short[] samples = WavSample.decode(Medias.create(file.getName())).getSamples();
+
+            assertEquals(10, samples.length);
+            for (int i = 0; i < samples.length; i += 2)
+            {
+                assertEquals(samples[i], samples[i + 1]);
+            }
+            assertTrue(samples[4] > 0);
+            assertTrue(samples[8] < 0);
+            assertEquals(Math.round((samples[0] + samples[4]) / 2.0), samples[2]);
+            assertEquals(Math.round((samples[4] + samples[8]) / 2.0), samples[6]);
+        }
+        finally
+        {
+            Medias.setLoadFromJar(WavMixerTest.class);
+            assertTrue(file.delete());
+        }
+    }
+
+    /**
+     * Test invalid sound.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalid() throws IOException
+    {
+        try (WavMixer mixer = new WavMixer(new WavSinkVoid(), 4))
+        {
+            assertCause(() -> mixer.play(this, Medias.create("invalid.wav"), 100, 0.0), IOException.class);
+        }
+    }
+
+    /**
+     * Test mix to file.
+     * 
+     * @throws IOException If error.
+     * @throws UnsupportedAudioFileException If error.
+     * @throws InterruptedException If error.
+     */
+    @Test
+    public void testFile() throws IOException, UnsupportedAudioFileException, InterruptedException
+    {
+        final Media media = Medias.create("sound.wav");
+        final short[] expected = WavSample.decode(media).getSamples();
+        final File file = new File(TEMP, "mixed.wav");
+        Medias.setResourcesDirectory(TEMP);
+        final WavMixer mixer = new WavMixer(new WavSinkFile(Medias.create(file.getName())), 4);
+        Medias.setLoadFromJar(WavMixerTest.class);
+        try
+        {
+            mixer.play(this, media, 100, 0.0);
+            waitIdle(mixer);
+            mixer.close();
+
+            final short[] samples = read(file.toURI().toURL().openStream());
+
+            assertTrue(samples.length >= expected.length);
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertEquals(expected[i], samples[i]);
+            }
+            for (int i = expected.length; i < samples.length; i++)
+            {
+                assertEquals(0, samples[i]);
+            }
+        }
+        finally
+        {
+            assertTrue(file.delete());
+        }
+    }
+
+    /**
+     * Test streamed mix to file, and looping stream stop.
+     * 
+     * @throws IOException If error.
+     * @throws UnsupportedAudioFileException If error.
+     * @throws InterruptedException If error.
+     */
+    @Test
+    public void testStream() throws IOException, UnsupportedAudioFileException, InterruptedException
+    {
+        final Media media = Medias.create("sound.wav");
+        final short[] expected = WavSample.decode(media).getSamples();
+        final File file = new File(TEMP, "streamed.wav");
+        Medias.setResourcesDirectory(TEMP);
+        final WavMixer mixer = new WavMixer(new WavSinkFile(Medias.create(file.getName())), 4);
+        Medias.setLoadFromJar(WavMixerTest.class);
+        try
+        {
+            mixer.loadStream(media, false).play();
+            waitIdle(mixer);
+
+            final Wav music = mixer.loadStream(media, true);
+            music.play();
+            Thread.sleep(Constant.HUNDRED);
+
+            assertEquals(1, mixer.getActive());
+
+            music.stop();
+
+            assertEquals(0, mixer.getActive());
+
+            mixer.close();
+
+            final short[] samples = read(file.toURI().toURL().openStream());
+
+            assertTrue(samples.length >= expected.length);
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertEquals(expected[i], samples[i]);
+            }
+        }
+        finally
+        {
+            assertTrue(file.delete());
+        }
+    }
+
+    /**
+     * Test wav format with mixer.
+     * 
+     * @throws InterruptedException If error.
+     */
+    @Test
+    public void testFormat() throws InterruptedException
+    {
+        final WavSinkVoid sink = new WavSinkVoid();
+        final WavMixer mixer = new WavMixer(sink, 2);
+        AudioFactory.addFormat(new WavFormat(mixer));
+        try
+        {
+            final Wav wav = AudioFactory.loadAudio(Medias.create("sound.wav"), Wav.class);
+            wav.setVolume(50);
+            wav.play();
+            wav.play(Align.LEFT);
+            wav.play(Align.RIGHT);
+
+            assertTrue(mixer.getActive() <= 2);
+
+            wav.stop();
+
+            assertEquals(0, mixer.getActive());
+
+            wav.play(Align.CENTER);
+            waitIdle(mixer);
+
+            assertTrue(sink.getWritten() > 0L);
+        }
+        finally
+        {
+            AudioFactory.clearFormats();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+
+/**
+ * Test {@link WavStream}.
+ */
+public final class WavStreamTest
+{
+    /** Temporary folder. */
+    private static final String TEMP = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Prepare the test.
+     */
+    @BeforeAll
+    public static void prepareTest()
+    {
+        Medias.setResourcesDirectory(TEMP);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void cleanUp()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create a wav file in temporary folder.
+     * 
+     * @param name The file name.
+     * @param format The audio format.
+     * @param data The audio data.
+     * @return The created media.
+     * @throws IOException If error.
+     */
+    private static Media create(String name, AudioFormat format, byte[] data) throws IOException
+    {
+        final File file = new File(TEMP, name);
+        final long frames = data.length / format.getFrameSize();
+        try (AudioInputStream input = new AudioInputStream(new ByteArrayInputStream(data), format, frames))
+        {
+            AudioSystem.write(input, AudioFileFormat.Type.WAVE, file);
+        }
+        return Medias.create(name);
+    }
+
+    /** Mixed data. */
+    private final byte[] data = new byte[4 * 4];
+
+    /**
+     * Test stream is the same as decoded sample, reading by blocks.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testStream() throws IOException
+    {
+        Medias.setLoadFromJar(WavStreamTest.class);
+        try
+        {
+            final Media media = Medias.create("sound.wav");
+            final short[] expected = WavSample.decode(media).getSamples();
+            final short[] samples = new short[200];
+            int offset = 0;
+            try (WavStream stream = new WavStream(media, false))
+            {
+                int read;
+                while ((read = stream.read(samples, 100)) > 0)
+                {
+                    for (int i = 0; i < read * 2; i++)
+                    {
+                        assertEquals(expected[offset + i], samples[i]);
+                    }
+                    offset += read * 2;
+                }
+            }
+            assertEquals(expected.length, offset);
+        }
+        finally
+        {
+            Medias.setResourcesDirectory(TEMP);
+        }
+    }
+
+    /**
+     * Test loop has no gap, loop point being in the middle of a block.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLoop() throws IOException
+    {
+        final short[] source = new short[]
+        {
+            1, -1, 2, -2, 3, -3, 4, -4, 5, -5
+        };
+        final byte[] bytes = new byte[source.length * 2];
+        for (int i = 0; i < source.length; i++)
+        {
+            bytes[i * 2] = (byte) source[i];
+            bytes[i * 2 + 1] = (byte) (source[i] >> 8);
+        }
+        final Media media = create("loop.wav", WavMixer.FORMAT, bytes);
+        final short[] samples = new short[8];
+        try (WavStream stream = new WavStream(media, true))
+        {
+            for (int block = 0; block < 6; block++)
+            {
+                assertEquals(4, stream.read(samples, 4));
+                for (int i = 0; i < samples.length; i++)
+                {
+                    assertEquals(source[(block * samples.length + i) % source.length], samples[i]);
+                }
+            }
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+        }
+    }
+
+    /**
+     * Test mono 8 bits sound at half rate conversion, and interpolation across loop point.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testConvert() throws IOException
+    {
+        final AudioFormat format = new AudioFormat(WavMixer.RATE / 2.0F, 8, 1, false, false);
+        final Media media = create("mono.wav", format, new byte[]
+        {
+            (byte) 128, (byte) 192, (byte) 64
+        });
+        final short[] samples = new short[16];
+        try
+        {
+            try (WavStream stream = new WavStream(media, false))
+            {
+                assertEquals(5, stream.read(samples, 8));
+                assertEquals(0, stream.read(samples, 8));
+            }
+            assertEquals(0, samples[0]);
+            assertEquals(8192, samples[2]);
+            assertEquals(16384, samples[4]);
+            assertEquals(0, samples[6]);
+            assertEquals(-16384, samples[8]);
+
+            try (WavStream stream = new WavStream(media, true))
+            {
+                assertEquals(8, stream.read(samples, 8));
+            }
+            final int[] expected = new int[]
+            {
+                0, 8192, 16384, 0, -16384, -8192, 0, 8192
+            };
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertEquals(expected[i], samples[i * 2]);
+                assertEquals(expected[i], samples[i * 2 + 1]);
+            }
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+        }
+    }
+
+    /**
+     * Test unsupported formats.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testUnsupported() throws IOException
+    {
+        final AudioFormat format = new AudioFormat(WavMixer.RATE, 24, 1, true, false);
+        final Media media = create("unsupported.wav", format, new byte[6]);
+        try
+        {
+            assertThrows(IOException.class,
+                         () -> new WavStream(media, false).close(),
+                         WavStream.ERROR_FORMAT + media.getPath());
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+        }
+
+        Medias.setLoadFromJar(WavStreamTest.class);
+        try
+        {
+            final Media invalid = Medias.create("invalid.wav");
+            assertThrows(IOException.class,
+                         () -> new WavStream(invalid, false).close(),
+                         WavStream.ERROR_FORMAT + invalid.getPath());
+        }
+        finally
+        {
+            Medias.setResourcesDirectory(TEMP);
+        }
+    }
+
+    /**
+     * Test streamed voice is only mixed once read, is stolen last, and is closed by mixing thread when stopped.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testVoices() throws IOException
+    {
+        final Media media = create("voice.wav", WavMixer.FORMAT, new byte[]
+        {
+            1, 0, 1, 0
+        });
+        try
+        {
+            final Object music = new Object();
+            final WavVoices voices = new WavVoices(2);
+            voices.stream(music, new WavStream(media, true), 100, 0.0);
+            voices.play(this, new WavSample(new short[]
+            {
+                10, 10
+            }), 100, 0.0);
+            voices.play(this, new WavSample(new short[]
+            {
+                100, 100
+            }), 100, 0.0);
+            voices.mix(data, 4);
+
+            assertEquals(100, data[0]);
+            assertEquals(0, data[4]);
+            assertEquals(1, voices.getActive());
+
+            voices.read(4);
+            voices.mix(data, 4);
+
+            assertEquals(1, data[0]);
+            assertEquals(1, data[4]);
+            assertEquals(1, voices.getActive());
+
+            final WavStream stream = new WavStream(media, true);
+            voices.stream(music, stream, 100, 0.0);
+            voices.stop(music);
+
+            assertEquals(0, voices.getActive());
+            assertTrue(stream.isOpen());
+
+            voices.release();
+
+            assertFalse(stream.isOpen());
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.audio.wav;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link WavVoices}.
+ */
+public final class WavVoicesTest
+{
+    /**
+     * Get mixed sample.
+     * 
+     * @param data The mixed data.
+     * @param frame The frame index.
+     * @param channel The channel index.
+     * @return The sample value.
+     */
+    private static int get(byte[] data, int frame, int channel)
+    {
+        final int index = (frame * 2 + channel) * 2;
+        return data[index] & 0xFF | data[index + 1] << 8;
+    }
+
+    /** Sample test. */
+    private final WavSample sample = new WavSample(new short[]
+    {
+        1000, -1000, 2000, -2000, 3000, -3000
+    });
+    /** Mixed data. */
+    private final byte[] data = new byte[4 * 4];
+
+    /**
+     * Test invalid voices count.
+     */
+    @Test
+    public void testInvalidVoices()
+    {
+        assertThrows(() -> new WavVoices(0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test mix until voice end.
+     */
+    @Test
+    public void testMix()
+    {
+        final WavVoices voices = new WavVoices(2);
+        voices.play(this, sample, 100, 0.0);
+
+        assertEquals(1, voices.getActive());
+
+        voices.mix(data, 2);
+
+        assertEquals(1000, get(data, 0, 0));
+        assertEquals(-1000, get(data, 0, 1));
+        assertEquals(2000, get(data, 1, 0));
+        assertEquals(-2000, get(data, 1, 1));
+        assertEquals(1, voices.getActive());
+
+        voices.mix(data, 4);
+
+        assertEquals(3000, get(data, 0, 0));
+        assertEquals(-3000, get(data, 0, 1));
+        assertEquals(0, get(data, 1, 0));
+        assertEquals(0, get(data, 3, 1));
+        assertEquals(0, voices.getActive());
+    }
+
+    /**
+     * Test volume and pan.
+     */
+    @Test
+    public void testVolumePan()
+    {
+        final WavVoices voices = new WavVoices(2);
+        voices.play(this, sample, 50, -1.0);
+        voices.mix(data, 1);
+
+        assertEquals(500, get(data, 0, 0));
+        assertEquals(0, get(data, 0, 1));
+
+        voices.clear();
+        voices.play(this, sample, 100, 0.5);
+        voices.mix(data, 1);
+
+        assertEquals(500, get(data, 0, 0));
+        assertEquals(-1000, get(data, 0, 1));
+    }
+
+    /**
+     * Test mix clipping.
+     */
+    @Test
+    public void testClip()
+    {
+        final WavSample loud = new WavSample(new short[]
+        {
+            Short.MAX_VALUE, Short.MIN_VALUE
+        });
+        final WavVoices voices = new WavVoices(2);
+        voices.play(this, loud, 100, 0.0);
+        voices.play(this, loud, 100, 0.0);
+        voices.mix(data, 1);
+
+        assertEquals(Short.MAX_VALUE, get(data, 0, 0));
+        assertEquals(Short.MIN_VALUE, get(data, 0, 1));
+    }
+
+    /**
+     * Test oldest voice stealing.
+     */
+    @Test
+    public void testSteal()
+    {
+        final WavVoices voices = new WavVoices(2);
+        voices.play(this, new WavSample(new short[]
+        {
+            1, 1
+        }), 100, 0.0);
+        voices.play(this, new WavSample(new short[]
+        {
+            10, 10
+        }), 100, 0.0);
+        voices.play(this, new WavSample(new short[]
+        {
+            100, 100
+        }), 100, 0.0);
+
+        assertEquals(2, voices.getActive());
+
+        voices.mix(data, 1);
+
+        assertEquals(110, get(data, 0, 0));
+    }
+
+    /**
+     * Test stop by owner.
+     */
+    @Test
+    public void testStop()
+    {
+        final Object other = new Object();
+        final WavVoices voices = new WavVoices(4);
+        voices.play(this, sample, 100, 0.0);
+        voices.play(other, sample, 100, 0.0);
+        voices.play(this, sample, 100, 0.0);
+        voices.stop(this);
+
+        assertEquals(1, voices.getActive());
+
+        voices.mix(data, 1);
+
+        assertEquals(1000, get(data, 0, 0));
+
+        voices.clear();
+
+        assertEquals(0, voices.getActive());
+    }
+}
@@ -91,6 +91,18 @@ final class GraphicAwt implements Graphic
         g.copyArea(x, y, width, height, dx, dy);
     }
 
+    @Override
+    public void setClip(int x, int y, int width, int height)
+    {
+        g.setClip(x, y, width, height);
+    }
+
+    @Override
+    public void resetClip()
+    {
+        g.setClip(null);
+    }
+
     @Override
     public void drawImage(ImageSurface image, int x, int y)
     {
@@ -21,6 +21,8 @@ import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.GraphicsEnvironment;
 import java.awt.IllegalComponentStateException;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.image.BufferStrategy;
@@ -155,6 +157,35 @@ abstract class ScreenAwtAbstract extends ScreenAbstract implements FocusListener
         componentForMouse.addFocusListener(this);
     }
 
+    /**
+     * Prepare the exposed listener, notified when component is shown or resized.
+     */
+    private void prepareExposedListener()
+    {
+        componentForMouse.addComponentListener(new ComponentAdapter()
+        {
+            @Override
+            public void componentShown(ComponentEvent event)
+            {
+                notifyExposed();
+            }
+
+            @Override
+            public void componentResized(ComponentEvent event)
+            {
+                notifyExposed();
+            }
+        });
+    }
+
+    /**
+     * Notify listeners that displayed content has to be presented again.
+     */
+    protected final void notifyExposed()
+    {
+        listeners.forEach(ScreenListener::notifyExposed);
+    }
+
     /*
      * Screen
      */
@@ -165,6 +196,7 @@ abstract class ScreenAwtAbstract extends ScreenAbstract implements FocusListener
         super.start();
         setResolution(config.getOutput());
         prepareFocusListener();
+        prepareExposedListener();
         addDeviceKeyboard();
         addDeviceMouse();
         buf.show();
@@ -181,6 +213,10 @@ abstract class ScreenAwtAbstract extends ScreenAbstract implements FocusListener
     public void update()
     {
         buf.show();
+        if (buf.contentsLost() || buf.contentsRestored())
+        {
+            notifyExposed();
+        }
         graphics.setGraphic(buf.getDrawGraphics());
     }
 
@@ -263,11 +299,13 @@ abstract class ScreenAwtAbstract extends ScreenAbstract implements FocusListener
     public void focusGained(FocusEvent event)
     {
         listeners.forEach(ScreenListener::notifyFocusGained);
+        notifyExposed();
     }
 
     @Override
     public void focusLost(FocusEvent event)
     {
         listeners.forEach(ScreenListener::notifyFocusLost);
+        notifyExposed();
     }
 }
@@ -84,6 +84,18 @@ class ScreenBaseAwt extends ScreenAwtAbstract
             {
                 listeners.forEach(ScreenListener::notifyClosed);
             }
+
+            @Override
+            public void windowDeiconified(WindowEvent event)
+            {
+                notifyExposed();
+            }
+
+            @Override
+            public void windowActivated(WindowEvent event)
+            {
+                notifyExposed();
+            }
         });
         jframe.setResizable(false);
         jframe.setUndecorated(false);
@@ -17,25 +17,143 @@
  */
 package com.b3dgs.lionengine.headless.graphic;
 
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.Origin;
+import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.graphic.ColorGradient;
 import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Main interface with the graphic output, representing the screen buffer.
+ * <p>
+ * Software rasterizer working on the {@link ImageBufferHeadless} pixels, following AWT rules: source over alpha
+ * blending, nearest neighbor scaling, pixel centers coverage for filled shapes, inclusive outlines and lines. Opaque
+ * image blits and opaque fills are performed row by row with {@link System#arraycopy(Object, int, Object, int, int)}
+ * and {@link Arrays#fill(int[], int, int, int)}.
+ * </p>
  */
 final class GraphicHeadless implements Graphic
 {
+    /** Channel mask. */
+    private static final int MASK = 0xFF;
+    /** Opaque alpha value. */
+    private static final int OPAQUE = 0xFF_00_00_00;
+    /** Pixel center offset. */
+    private static final double CENTER = 0.5;
+
+    /**
+     * Blend source color over destination color.
+     * 
+     * @param src The source ARGB color.
+     * @param dst The destination ARGB color.
+     * @return The blended color.
+     */
+    private static int blend(int src, int dst)
+    {
+        final int sa = src >>> Constant.BYTE_4;
+        final int da = dst >>> Constant.BYTE_4;
+        final int result;
+        if (sa == MASK || da == 0)
+        {
+            result = src;
+        }
+        else if (sa == 0)
+        {
+            result = dst;
+        }
+        else
+        {
+            final int inv = MASK - sa;
+            final int dw = da * inv;
+            final int oa = sa * MASK + dw;
+            final int half = oa / 2;
+            final int r = ((src >> Constant.BYTE_3 & MASK) * sa * MASK + (dst >> Constant.BYTE_3 & MASK) * dw + half)
+                          / oa;
+            final int g = ((src >> Constant.BYTE_2 & MASK) * sa * MASK + (dst >> Constant.BYTE_2 & MASK) * dw + half)
+                          / oa;
+            final int b = ((src & MASK) * sa * MASK + (dst & MASK) * dw + half) / oa;
+            final int a = (oa + MASK / 2) / MASK;
+            result = a << Constant.BYTE_4 | r << Constant.BYTE_3 | g << Constant.BYTE_2 | b;
+        }
+        return result;
+    }
+
+    /**
+     * Interpolate two colors channel by channel, as an opaque color.
+     * 
+     * @param color1 The first color.
+     * @param color2 The second color.
+     * @param t The progress from first to second color in [0, 1].
+     * @return The interpolated color.
+     */
+    private static int interpolate(int color1, int color2, double t)
+    {
+        final int r1 = color1 >> Constant.BYTE_3 & MASK;
+        final int g1 = color1 >> Constant.BYTE_2 & MASK;
+        final int b1 = color1 & MASK;
+        final int r = (int) (r1 + ((color2 >> Constant.BYTE_3 & MASK) - r1) * t + CENTER);
+        final int g = (int) (g1 + ((color2 >> Constant.BYTE_2 & MASK) - g1) * t + CENTER);
+        final int b = (int) (b1 + ((color2 & MASK) - b1) * t + CENTER);
+        return OPAQUE | r << Constant.BYTE_3 | g << Constant.BYTE_2 | b;
+    }
+
+    /**
+     * Get the horizontal span of an ellipse on a row, as pixels with center inside.
+     * 
+     * @param cx The ellipse horizontal center.
+     * @param rx The ellipse horizontal radius.
+     * @param dy The vertical distance from pixel center to ellipse center, normalized by vertical radius.
+     * @param span The span output (first and last included pixel), first greater than last if empty.
+     */
+    private static void span(double cx, double rx, double dy, int[] span)
+    {
+        final double square = 1.0 - dy * dy;
+        if (square <= 0.0)
+        {
+            span[0] = 1;
+            span[1] = 0;
+        }
+        else
+        {
+            final double half = rx * Math.sqrt(square);
+            span[0] = (int) Math.ceil(cx - half - CENTER);
+            span[1] = (int) Math.ceil(cx + half - CENTER) - 1;
+        }
+    }
+
     /** Graphic representation. */
     private ImageBufferHeadless g;
     /** Current color. */
     private ColorRgba color = ColorRgba.WHITE;
     /** Color gradient. */
     private ColorGradient gradient;
+    /** Clip defined flag. */
+    private boolean clip;
+    /** Clip horizontal location. */
+    private int clipX;
+    /** Clip vertical location. */
+    private int clipY;
+    /** Clip width. */
+    private int clipWidth;
+    /** Clip height. */
+    private int clipHeight;
+    /** Current drawable area minimum horizontal location (included). */
+    private int minX;
+    /** Current drawable area minimum vertical location (included). */
+    private int minY;
+    /** Current drawable area maximum horizontal location (excluded). */
+    private int maxX;
+    /** Current drawable area maximum vertical location (excluded). */
+    private int maxY;
+    /** Source columns cache for scaled drawing. */
+    private int[] columns = new int[0];
 
     /**
      * Internal constructor.
@@ -57,6 +175,264 @@ final class GraphicHeadless implements Graphic
         this.g = g;
     }
 
+    /**
+     * Compute the drawable area from buffer bounds and clip.
+     * 
+     * @return <code>true</code> if something can be drawn, <code>false</code> else.
+     */
+    private boolean prepare()
+    {
+        if (g == null)
+        {
+            return false;
+        }
+        minX = 0;
+        minY = 0;
+        maxX = g.getWidth();
+        maxY = g.getHeight();
+        if (clip)
+        {
+            minX = Math.max(minX, clipX);
+            minY = Math.max(minY, clipY);
+            maxX = Math.min(maxX, clipX + clipWidth);
+            maxY = Math.min(maxY, clipY + clipHeight);
+        }
+        return minX < maxX && minY < maxY;
+    }
+
+    /**
+     * Fill a rectangle in drawable area, without preparing it.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The rectangle width.
+     * @param height The rectangle height.
+     * @param rgba The color value.
+     * @param replace <code>true</code> to replace pixels, <code>false</code> to blend.
+     */
+    private void fill(int x, int y, int width, int height, int rgba, boolean replace)
+    {
+        final int sx = Math.max(minX, x);
+        final int sy = Math.max(minY, y);
+        final int ex = Math.min(maxX, x + width);
+        final int ey = Math.min(maxY, y + height);
+        final int alpha = rgba >>> Constant.BYTE_4;
+        if (sx >= ex || sy >= ey || alpha == 0 && !replace)
+        {
+            return;
+        }
+
+        final int[] pixels = g.getBuffer();
+        final int scan = g.getWidth();
+        for (int j = sy; j < ey; j++)
+        {
+            final int offset = j * scan;
+            if (replace || alpha == MASK)
+            {
+                Arrays.fill(pixels, offset + sx, offset + ex, rgba);
+            }
+            else
+            {
+                for (int i = offset + sx; i < offset + ex; i++)
+                {
+                    pixels[i] = blend(rgba, pixels[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw a pixel in drawable area, without preparing it.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param rgba The color value.
+     */
+    private void plot(int x, int y, int rgba)
+    {
+        if (x >= minX && x < maxX && y >= minY && y < maxY)
+        {
+            final int[] pixels = g.getBuffer();
+            final int index = y * g.getWidth() + x;
+            pixels[index] = blend(rgba, pixels[index]);
+        }
+    }
+
+    /**
+     * Blit image at location, without scaling.
+     * 
+     * @param surface The image to draw.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    private void blit(ImageBufferHeadless surface, int x, int y)
+    {
+        final int width = surface.getWidth();
+        final int sx = Math.max(minX, x);
+        final int sy = Math.max(minY, y);
+        final int ex = Math.min(maxX, x + width);
+        final int ey = Math.min(maxY, y + surface.getHeight());
+        if (sx >= ex || sy >= ey)
+        {
+            return;
+        }
+
+        final int[] src = surface.getBuffer();
+        final int[] dst = g.getBuffer();
+        final int scan = g.getWidth();
+        final int length = ex - sx;
+        final boolean opaque = Transparency.OPAQUE == surface.getTransparency();
+        for (int j = sy; j < ey; j++)
+        {
+            final int srcOffset = (j - y) * width + sx - x;
+            final int dstOffset = j * scan + sx;
+            if (opaque)
+            {
+                System.arraycopy(src, srcOffset, dst, dstOffset, length);
+            }
+            else
+            {
+                for (int i = 0; i < length; i++)
+                {
+                    dst[dstOffset + i] = blend(src[srcOffset + i], dst[dstOffset + i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw scaled image, with nearest neighbor sampling. Negative scale flips image.
+     * 
+     * @param surface The image to draw.
+     * @param dx1 The destination location mapped to first source location.
+     * @param dy1 The destination location mapped to first source location.
+     * @param dx2 The destination location mapped to last source location.
+     * @param dy2 The destination location mapped to last source location.
+     * @param sx1 The first horizontal source location.
+     * @param sy1 The first vertical source location.
+     * @param scaleX The horizontal scale (destination pixels per source pixel).
+     * @param scaleY The vertical scale (destination pixels per source pixel).
+     */
+    private void drawScaled(ImageBufferHeadless surface,
+                            int dx1,
+                            int dy1,
+                            int dx2,
+                            int dy2,
+                            int sx1,
+                            int sy1,
+                            double scaleX,
+                            double scaleY)
+    {
+        final int sx = Math.max(minX, Math.min(dx1, dx2));
+        final int sy = Math.max(minY, Math.min(dy1, dy2));
+        final int ex = Math.min(maxX, Math.max(dx1, dx2));
+        final int ey = Math.min(maxY, Math.max(dy1, dy2));
+        if (sx >= ex || sy >= ey)
+        {
+            return;
+        }
+
+        final int width = surface.getWidth();
+        final int height = surface.getHeight();
+        final int length = ex - sx;
+        if (columns.length < length)
+        {
+            columns = new int[length];
+        }
+        for (int i = 0; i < length; i++)
+        {
+            columns[i] = sx1 + (int) Math.ceil((sx + i + CENTER - dx1) / scaleX) - 1;
+        }
+
+        final int[] src = surface.getBuffer();
+        final int[] dst = g.getBuffer();
+        final int scan = g.getWidth();
+        for (int j = sy; j < ey; j++)
+        {
+            final int row = sy1 + (int) Math.ceil((j + CENTER - dy1) / scaleY) - 1;
+            if (row >= 0 && row < height)
+            {
+                final int srcOffset = row * width;
+                final int dstOffset = j * scan + sx;
+                for (int i = 0; i < length; i++)
+                {
+                    final int column = columns[i];
+                    if (column >= 0 && column < width)
+                    {
+                        dst[dstOffset + i] = blend(src[srcOffset + column], dst[dstOffset + i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill an ellipse.
+     * 
+     * @param x The bounds horizontal location.
+     * @param y The bounds vertical location.
+     * @param width The bounds width.
+     * @param height The bounds height.
+     * @param rgba The color value.
+     */
+    private void fillOval(int x, int y, int width, int height, int rgba)
+    {
+        final double rx = width / 2.0;
+        final double ry = height / 2.0;
+        final double cx = x + rx;
+        final double cy = y + ry;
+        final int[] span = new int[2];
+        for (int j = Math.max(minY, y); j < Math.min(maxY, y + height); j++)
+        {
+            span(cx, rx, (j + CENTER - cy) / ry, span);
+            fill(span[0], j, span[1] - span[0] + 1, 1, rgba, false);
+        }
+    }
+
+    /**
+     * Draw an ellipse outline, as pixels between the outer and inner ellipses of a one pixel pen.
+     * 
+     * @param x The bounds horizontal location.
+     * @param y The bounds vertical location.
+     * @param width The bounds width.
+     * @param height The bounds height.
+     * @param rgba The color value.
+     */
+    private void strokeOval(int x, int y, int width, int height, int rgba)
+    {
+        final double cx = x + width / 2.0 + CENTER;
+        final double cy = y + height / 2.0 + CENTER;
+        final double outerX = (width + 1) / 2.0;
+        final double outerY = (height + 1) / 2.0;
+        final double innerX = (width - 1) / 2.0;
+        final double innerY = (height - 1) / 2.0;
+        final int[] outer = new int[2];
+        final int[] inner = new int[2];
+        for (int j = Math.max(minY, y); j < Math.min(maxY, y + height + 1); j++)
+        {
+            final double dy = j + CENTER - cy;
+            span(cx, outerX, dy / outerY, outer);
+            if (innerX > 0.0 && innerY > 0.0)
+            {
+                span(cx, innerX, dy / innerY, inner);
+            }
+            else
+            {
+                inner[0] = 1;
+                inner[1] = 0;
+            }
+            if (inner[0] > inner[1])
+            {
+                fill(outer[0], j, outer[1] - outer[0] + 1, 1, rgba, false);
+            }
+            else
+            {
+                fill(outer[0], j, inner[0] - outer[0], 1, rgba, false);
+                fill(inner[1] + 1, j, outer[1] - inner[1], 1, rgba, false);
+            }
+        }
+    }
+
     /*
      * Graphic
      */
@@ -64,12 +440,9 @@ final class GraphicHeadless implements Graphic
     @Override
     public void clear(int x, int y, int width, int height)
     {
-        for (int i = x; i < width; i++)
+        if (prepare())
         {
-            for (int j = y; j < height; j++)
-            {
-                g.setRgb(x, y, ColorRgba.BLACK.getRgba());
-            }
+            fill(x, y, width, height, ColorRgba.BLACK.getRgba(), true);
         }
     }
 
@@ -82,65 +455,137 @@ final class GraphicHeadless implements Graphic
     @Override
     public void copyArea(int x, int y, int width, int height, int dx, int dy)
     {
-        // Nothing to do
+        if (!prepare())
+        {
+            return;
+        }
+        final int sx = Math.max(Math.max(0, x), minX - dx);
+        final int sy = Math.max(Math.max(0, y), minY - dy);
+        final int ex = Math.min(Math.min(g.getWidth(), x + width), maxX - dx);
+        final int ey = Math.min(Math.min(g.getHeight(), y + height), maxY - dy);
+        if (sx < ex && sy < ey)
+        {
+            final int[] pixels = g.getBuffer();
+            final int scan = g.getWidth();
+            final int rows = ey - sy;
+            for (int k = 0; k < rows; k++)
+            {
+                final int j;
+                if (dy > 0)
+                {
+                    j = ey - 1 - k;
+                }
+                else
+                {
+                    j = sy + k;
+                }
+                System.arraycopy(pixels, j * scan + sx, pixels, (j + dy) * scan + sx + dx, ex - sx);
+            }
+        }
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height)
+    {
+        clip = true;
+        clipX = x;
+        clipY = y;
+        clipWidth = width;
+        clipHeight = height;
+    }
+
+    @Override
+    public void resetClip()
+    {
+        clip = false;
     }
 
     @Override
     public void drawImage(ImageSurface image, int x, int y)
     {
-        final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
+        if (prepare())
         {
-            for (int j = y; j < image.getHeight(); j++)
-            {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
-            }
+            blit(image.getSurface(), x, y);
         }
     }
 
     @Override
     public void drawImage(ImageSurface image, Transform transform, int x, int y)
     {
-        final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
+        final double scaleX = transform.getScaleX();
+        final double scaleY = transform.getScaleY();
+        if (Double.compare(scaleX, 1.0) == 0 && Double.compare(scaleY, 1.0) == 0)
         {
-            for (int j = y; j < image.getHeight(); j++)
+            drawImage(image, x, y);
+        }
+        else if (prepare() && Double.compare(scaleX, 0.0) != 0 && Double.compare(scaleY, 0.0) != 0)
+        {
+            final ImageBufferHeadless surface = image.getSurface();
+            final int width = (int) Math.ceil(surface.getWidth() * Math.abs(scaleX));
+            final int height = (int) Math.ceil(surface.getHeight() * Math.abs(scaleY));
+            final int dx1;
+            final int dx2;
+            if (scaleX < 0.0)
             {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
+                dx1 = x + width;
+                dx2 = x;
             }
+            else
+            {
+                dx1 = x;
+                dx2 = x + width;
+            }
+            final int dy1;
+            final int dy2;
+            if (scaleY < 0.0)
+            {
+                dy1 = y + height;
+                dy2 = y;
+            }
+            else
+            {
+                dy1 = y;
+                dy2 = y + height;
+            }
+            drawScaled(surface, dx1, dy1, dx2, dy2, 0, 0, scaleX, scaleY);
         }
     }
 
     @Override
     public void drawImage(ImageSurface image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2)
     {
-        // Nothing to do
+        if (dx1 != dx2 && dy1 != dy2 && sx1 != sx2 && sy1 != sy2 && prepare())
+        {
+            final ImageBufferHeadless surface = image.getSurface();
+            final double scaleX = (dx2 - dx1) / (double) (sx2 - sx1);
+            final double scaleY = (dy2 - dy1) / (double) (sy2 - sy1);
+            drawScaled(surface, dx1, dy1, dx2, dy2, sx1, sy1, scaleX, scaleY);
+        }
     }
 
     @Override
     public void drawRect(int x, int y, int width, int height, boolean fill)
     {
+        if (!prepare())
+        {
+            return;
+        }
+        final int rgba = color.getRgba();
         if (fill)
         {
-            for (int i = x; i < width; i++)
-            {
-                for (int j = y; j < height; j++)
-                {
-                    g.setRgb(x, y, color.getRgba());
-                }
-            }
+            fill(x, y, width, height, rgba, false);
         }
-        else
+        else if (width >= 0 && height >= 0)
         {
-            for (int i = x; i < width; i++)
-            {
-                g.setRgb(i, y, color.getRgba());
-                g.setRgb(i, y + height - 1, color.getRgba());
-            }
-            for (int j = y; j < height; j++)
+            fill(x, y, width + 1, 1, rgba, false);
+            if (height > 0)
             {
-                g.setRgb(x, j, color.getRgba());
-                g.setRgb(x + width - 1, j, color.getRgba());
+                fill(x, y + height, width + 1, 1, rgba, false);
+                fill(x, y + 1, 1, height - 1, rgba, false);
+                if (width > 0)
+                {
+                    fill(x + width, y + 1, 1, height - 1, rgba, false);
+                }
             }
         }
     }
@@ -156,11 +601,62 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawGradient(int x, int y, int width, int height)
     {
-        for (int i = x; i < width; i++)
+        if (gradient == null || !prepare())
+        {
+            return;
+        }
+        final int sx = Math.max(minX, x);
+        final int sy = Math.max(minY, y);
+        final int ex = Math.min(maxX, x + width);
+        final int ey = Math.min(maxY, y + height);
+        if (sx >= ex || sy >= ey)
+        {
+            return;
+        }
+
+        final int color1 = OPAQUE | gradient.getColor1().getRgba();
+        final int color2 = OPAQUE | gradient.getColor2().getRgba();
+        final double vx = gradient.getX2() - (double) gradient.getX1();
+        final double vy = gradient.getY2() - (double) gradient.getY1();
+        final double length = vx * vx + vy * vy;
+        final int[] pixels = g.getBuffer();
+        final int scan = g.getWidth();
+
+        if (Double.compare(length, 0.0) == 0)
+        {
+            fill(sx, sy, ex - sx, ey - sy, color1, true);
+        }
+        else if (Double.compare(vy, 0.0) == 0)
+        {
+            final int first = sy * scan + sx;
+            for (int i = sx; i < ex; i++)
+            {
+                final double t = UtilMath.clamp((i - gradient.getX1()) * vx / length, 0.0, 1.0);
+                pixels[first + i - sx] = interpolate(color1, color2, t);
+            }
+            for (int j = sy + 1; j < ey; j++)
+            {
+                System.arraycopy(pixels, first, pixels, j * scan + sx, ex - sx);
+            }
+        }
+        else if (Double.compare(vx, 0.0) == 0)
         {
-            for (int j = y; j < height; j++)
+            for (int j = sy; j < ey; j++)
             {
-                g.setRgb(x, y, gradient.getColor1().getRgba());
+                final double t = UtilMath.clamp((j - gradient.getY1()) * vy / length, 0.0, 1.0);
+                Arrays.fill(pixels, j * scan + sx, j * scan + ex, interpolate(color1, color2, t));
+            }
+        }
+        else
+        {
+            for (int j = sy; j < ey; j++)
+            {
+                final double py = (j - gradient.getY1()) * vy;
+                for (int i = sx; i < ex; i++)
+                {
+                    final double t = UtilMath.clamp(((i - gradient.getX1()) * vx + py) / length, 0.0, 1.0);
+                    pixels[j * scan + i] = interpolate(color1, color2, t);
+                }
             }
         }
     }
@@ -176,30 +672,36 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawLine(int x1, int y1, int x2, int y2)
     {
-        final double dx = x1 - (double) x2;
-        final double dy = y1 - (double) y2;
-        final double norm = Math.sqrt(dx * dx + dy * dy);
-        final double sx;
-        final double sy;
-        if (Double.compare(norm, 0.0) == 0)
+        if (!prepare())
         {
-            sx = 0;
-            sy = 0;
+            return;
         }
-        else
-        {
-            sx = dx / norm;
-            sy = dy / norm;
-        }
-
-        double x = x1;
-        double y = y1;
-
-        for (int count = 0; count < norm; count++)
+        final int rgba = color.getRgba();
+        final int dx = Math.abs(x2 - x1);
+        final int dy = -Math.abs(y2 - y1);
+        final int sx = Integer.signum(x2 - x1);
+        final int sy = Integer.signum(y2 - y1);
+        int x = x1;
+        int y = y1;
+        int error = dx + dy;
+        while (true)
         {
-            g.setRgb((int) Math.floor(x), (int) Math.floor(y), color.getRgba());
-            x += sx;
-            y += sy;
+            plot(x, y, rgba);
+            if (x == x2 && y == y2)
+            {
+                break;
+            }
+            final int error2 = 2 * error;
+            if (error2 >= dy)
+            {
+                error += dy;
+                x += sx;
+            }
+            if (error2 <= dx)
+            {
+                error += dx;
+                y += sy;
+            }
         }
     }
 
@@ -215,13 +717,25 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawOval(int x, int y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        if (width >= 0 && height >= 0 && prepare())
+        {
+            if (fill)
+            {
+                fillOval(x, y, width, height, color.getRgba());
+            }
+            else
+            {
+                strokeOval(x, y, width, height, color.getRgba());
+            }
+        }
     }
 
     @Override
     public void drawOval(Viewer viewer, Origin origin, double x, double y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        final int px = (int) origin.getX(viewer.getViewpointX(x), width);
+        final int py = (int) origin.getY(viewer.getViewpointY(y), height);
+        drawOval(px, py, width, height, fill);
     }
 
     @Override
@@ -247,6 +761,7 @@ final class GraphicHeadless implements Graphic
         {
             g = null;
         }
+        clip = false;
     }
 
     @Override
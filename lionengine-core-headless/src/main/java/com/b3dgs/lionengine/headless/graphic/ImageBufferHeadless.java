@@ -100,6 +100,16 @@ final class ImageBufferHeadless implements ImageBuffer
         transparency = image.getTransparency();
     }
 
+    /**
+     * Get the raw pixels, row by row, as ARGB values.
+     * 
+     * @return The pixels buffer.
+     */
+    int[] getBuffer()
+    {
+        return buffer;
+    }
+
     /*
      * ImageBuffer
      */
@@ -132,17 +142,9 @@ final class ImageBufferHeadless implements ImageBuffer
     public void setRgb(int startX, int startY, int w, int h, int[] rgbArray, int offset, int scansize)
     {
         int yoff = offset;
-        int off;
-        int color;
-
         for (int y = startY; y < startY + h; y++, yoff += scansize)
         {
-            off = yoff;
-            for (int x = startX; x < startX + w; x++)
-            {
-                color = rgbArray[off++];
-                buffer[y * width + x] = color;
-            }
+            System.arraycopy(rgbArray, yoff, buffer, y * width + startX, w);
         }
     }
 
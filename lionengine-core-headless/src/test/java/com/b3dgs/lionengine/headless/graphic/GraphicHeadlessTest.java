@@ -18,20 +18,150 @@
 package com.b3dgs.lionengine.headless.graphic;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.graphic.ColorGradient;
 import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicTest;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Test {@link GraphicHeadless}.
  */
 public final class GraphicHeadlessTest extends GraphicTest
 {
+    /** Test image size. */
+    private static final int SIZE = 32;
+    /** Channel tolerance. */
+    private static final int TOLERANCE = 2;
+
+    /**
+     * Create the source image, with opaque, translucent and transparent areas.
+     * 
+     * @param transparency The image transparency.
+     * @return The created image.
+     */
+    private static BufferedImage createSource(Transparency transparency)
+    {
+        final BufferedImage image = new BufferedImage(8, 6, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                final int alpha;
+                if (Transparency.OPAQUE == transparency || x < 4)
+                {
+                    alpha = 0xFF;
+                }
+                else
+                {
+                    alpha = x * 30 % 0x100;
+                }
+                image.setRGB(x, y, alpha << 24 | x * 30 << 16 | y * 40 << 8 | 0x80);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Copy image to an headless buffer.
+     * 
+     * @param image The image to copy.
+     * @param transparency The buffer transparency.
+     * @return The created buffer.
+     */
+    private static ImageBufferHeadless copy(BufferedImage image, Transparency transparency)
+    {
+        final ImageBufferHeadless buffer = new ImageBufferHeadless(image.getWidth(),
+                                                                   image.getHeight(),
+                                                                   transparency);
+        buffer.setRgb(0,
+                      0,
+                      image.getWidth(),
+                      image.getHeight(),
+                      image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()),
+                      0,
+                      image.getWidth());
+        return buffer;
+    }
+
+    /**
+     * Render with both headless and AWT on the same background, and check that results are similar.
+     * 
+     * @param headless The headless rendering.
+     * @param awt The AWT rendering.
+     * @param ratio The maximum ratio of different pixels.
+     */
+    private static void assertRendering(BiConsumer<Graphic, ImageBufferHeadless> headless,
+                                        BiConsumer<Graphics2D, BufferedImage> awt,
+                                        double ratio)
+    {
+        final BufferedImage expected = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                expected.setRGB(x, y, 0xFF_00_00_00 | x * 8 << 16 | y * 8);
+            }
+        }
+        final ImageBufferHeadless buffer = copy(expected, Transparency.BITMASK);
+
+        final Graphics2D g2d = expected.createGraphics();
+        awt.accept(g2d, expected);
+        g2d.dispose();
+
+        final Graphic g = buffer.createGraphic();
+        headless.accept(g, buffer);
+        g.dispose();
+
+        int errors = 0;
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                if (!isSimilar(expected.getRGB(x, y), buffer.getRgb(x, y)))
+                {
+                    errors++;
+                }
+            }
+        }
+        assertTrue(errors <= SIZE * SIZE * ratio, "Different pixels: " + errors);
+    }
+
+    /**
+     * Check if two colors are similar.
+     * 
+     * @param expected The expected color.
+     * @param actual The actual color.
+     * @return <code>true</code> if similar, <code>false</code> else.
+     */
+    private static boolean isSimilar(int expected, int actual)
+    {
+        for (int shift = 0; shift < 32; shift += 8)
+        {
+            if (Math.abs((expected >>> shift & 0xFF) - (actual >>> shift & 0xFF)) > TOLERANCE)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Prepare tests.
      */
@@ -51,4 +181,181 @@ public final class GraphicHeadlessTest extends GraphicTest
 
         assertEquals(ColorRgba.BLACK.getRgba(), Graphics.applyMask(image, ColorRgba.TRANSPARENT).getRgb(0, 0));
     }
+
+    /**
+     * Test rectangles rendering.
+     */
+    @Test
+    public void testRect()
+    {
+        assertRendering((g, b) ->
+        {
+            g.setColor(new ColorRgba(200, 100, 50, 128));
+            g.drawRect(4, 5, 10, 12, true);
+            g.setColor(ColorRgba.GREEN);
+            g.drawRect(-2, 20, 40, 6, false);
+            g.drawRect(8, 2, 0, 0, false);
+        }, (g, b) ->
+        {
+            g.setColor(new Color(200, 100, 50, 128));
+            g.fillRect(4, 5, 10, 12);
+            g.setColor(Color.GREEN);
+            g.drawRect(-2, 20, 40, 6);
+            g.drawRect(8, 2, 0, 0);
+        }, 0.0);
+    }
+
+    /**
+     * Test clear and clip.
+     */
+    @Test
+    public void testClearClip()
+    {
+        assertRendering((g, b) ->
+        {
+            g.clear(2, 2, 10, 10);
+            g.setClip(8, 8, 10, 10);
+            g.setColor(ColorRgba.RED);
+            g.drawRect(0, 0, SIZE, SIZE, true);
+            g.resetClip();
+            g.drawRect(30, 30, 5, 5, true);
+        }, (g, b) ->
+        {
+            g.setColor(Color.BLACK);
+            g.fillRect(2, 2, 10, 10);
+            g.setClip(8, 8, 10, 10);
+            g.setColor(Color.RED);
+            g.fillRect(0, 0, SIZE, SIZE);
+            g.setClip(null);
+            g.fillRect(30, 30, 5, 5);
+        }, 0.0);
+    }
+
+    /**
+     * Test images rendering.
+     */
+    @Test
+    public void testImage()
+    {
+        for (final Transparency transparency : new Transparency[]
+        {
+            Transparency.OPAQUE, Transparency.TRANSLUCENT
+        })
+        {
+            final BufferedImage source = createSource(transparency);
+            final ImageBuffer image = copy(source, transparency);
+
+            assertRendering((g, b) ->
+            {
+                g.drawImage(image, -3, 2);
+                g.drawImage(image, 20, 28);
+                g.drawImage(image, 10, 10, 26, 22, 0, 0, 8, 6);
+                g.drawImage(image, 8, 0, 0, 6, 0, 0, 8, 6);
+                g.drawImage(image, 24, 0, 28, 6, 6, 0, 2, 6);
+            }, (g, b) ->
+            {
+                g.drawImage(source, -3, 2, null);
+                g.drawImage(source, 20, 28, null);
+                g.drawImage(source, 10, 10, 26, 22, 0, 0, 8, 6, null);
+                g.drawImage(source, 8, 0, 0, 6, 0, 0, 8, 6, null);
+                g.drawImage(source, 24, 0, 28, 6, 6, 0, 2, 6, null);
+            }, 0.0);
+        }
+    }
+
+    /**
+     * Test transformed image rendering.
+     */
+    @Test
+    public void testTransform()
+    {
+        final BufferedImage source = createSource(Transparency.TRANSLUCENT);
+        final ImageBuffer image = copy(source, Transparency.TRANSLUCENT);
+        final Transform transform = Graphics.createTransform();
+        transform.scale(2.5, 1.5);
+
+        assertRendering((g, b) -> g.drawImage(image, transform, 3, 4), (g, b) ->
+        {
+            final AffineTransform at = AffineTransform.getScaleInstance(2.5, 1.5);
+            g.drawImage(source, new AffineTransformOp(at, AffineTransformOp.TYPE_NEAREST_NEIGHBOR), 3, 4);
+        }, 0.0);
+    }
+
+    /**
+     * Test lines and ovals rendering.
+     */
+    @Test
+    public void testShapes()
+    {
+        assertRendering((g, b) ->
+        {
+            g.setColor(ColorRgba.YELLOW);
+            g.drawLine(1, 1, 30, 9);
+            g.drawLine(5, 30, 2, 12);
+            g.drawLine(20, 20, 20, 20);
+            g.drawOval(2, 2, 14, 10, true);
+            g.drawOval(12, 14, 16, 12, false);
+        }, (g, b) ->
+        {
+            g.setColor(Color.YELLOW);
+            g.drawLine(1, 1, 30, 9);
+            g.drawLine(5, 30, 2, 12);
+            g.drawLine(20, 20, 20, 20);
+            g.fillOval(2, 2, 14, 10);
+            g.drawOval(12, 14, 16, 12);
+        }, 0.02);
+    }
+
+    /**
+     * Test gradient rendering.
+     */
+    @Test
+    public void testGradient()
+    {
+        for (final int[] vector : new int[][]
+        {
+            {
+                4, 0, 28, 0
+            },
+            {
+                0, 30, 0, 2
+            },
+            {
+                2, 4, 25, 27
+            }
+        })
+        {
+            assertRendering((g, b) ->
+            {
+                g.setColorGradient(new ColorGradient(vector[0],
+                                                     vector[1],
+                                                     ColorRgba.RED,
+                                                     vector[2],
+                                                     vector[3],
+                                                     ColorRgba.BLUE));
+                g.drawGradient(1, 2, 28, 26);
+            }, (g, b) ->
+            {
+                g.setPaint(new GradientPaint(vector[0], vector[1], Color.RED, vector[2], vector[3], Color.BLUE));
+                g.fillRect(1, 2, 28, 26);
+            }, 0.0);
+        }
+    }
+
+    /**
+     * Test copy area.
+     */
+    @Test
+    public void testCopyArea()
+    {
+        assertRendering((g, b) ->
+        {
+            g.copyArea(2, 2, 20, 20, 5, 7);
+            g.copyArea(10, 10, 20, 20, -4, -3);
+        }, (g, b) ->
+        {
+            g.copyArea(2, 2, 20, 20, 5, 7);
+            g.copyArea(10, 10, 20, 20, -4, -3);
+        }, 0.0);
+    }
 }
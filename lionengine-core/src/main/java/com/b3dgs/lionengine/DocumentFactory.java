@@ -33,13 +33,16 @@ import org.xml.sax.SAXException;
 /**
  * Document factory implementation for DOM.
  * <p>
- * This class is Thread-Safe.
+ * This class is Thread-Safe: as document builders are not, each thread uses its own one, so documents are parsed
+ * concurrently.
  * </p>
  */
 final class DocumentFactory
 {
-    /** Load factory. */
-    private static DocumentBuilder documentBuilder;
+    /** Load builders, one per thread. */
+    private static final ThreadLocal<DocumentBuilder> BUILDERS = ThreadLocal.withInitial(DocumentFactory::newBuilder);
+    /** Load factory, used under class lock. */
+    private static DocumentBuilderFactory documentBuilderFactory;
     /** Save factory. */
     private static TransformerFactory transformerFactory;
 
@@ -51,7 +54,7 @@ final class DocumentFactory
      */
     public static Document createDocument()
     {
-        return getDocumentFactory().newDocument();
+        return BUILDERS.get().newDocument();
     }
 
     /**
@@ -66,9 +69,10 @@ final class DocumentFactory
     {
         Check.notNull(input);
 
+        final DocumentBuilder builder = BUILDERS.get();
         try
         {
-            return getDocumentFactory().parse(input);
+            return builder.parse(input);
         }
         catch (final SAXException exception)
         {
@@ -84,20 +88,24 @@ final class DocumentFactory
      */
     public static Transformer createTransformer() throws TransformerConfigurationException
     {
-        return getTransformerFactory().newTransformer();
+        final TransformerFactory factory = getTransformerFactory();
+        synchronized (factory)
+        {
+            return factory.newTransformer();
+        }
     }
 
     /**
-     * Get the document factory.
+     * Create a document builder for the current thread.
      * 
-     * @return The document factory.
+     * @return The document builder.
      * @throws LionEngineException If unable to create builder.
      */
-    private static synchronized DocumentBuilder getDocumentFactory()
+    private static synchronized DocumentBuilder newBuilder()
     {
-        if (documentBuilder == null)
+        if (documentBuilderFactory == null)
         {
-            final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory = DocumentBuilderFactory.newInstance();
             documentBuilderFactory.setIgnoringElementContentWhitespace(true);
             try
             {
@@ -107,17 +115,17 @@ final class DocumentFactory
             {
                 Verbose.exception(exception);
             }
-            try
-            {
-                documentBuilder = documentBuilderFactory.newDocumentBuilder();
-                documentBuilder.setErrorHandler(null);
-            }
-            catch (final ParserConfigurationException exception)
-            {
-                throw new LionEngineException(exception);
-            }
         }
-        return documentBuilder;
+        try
+        {
+            final DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setErrorHandler(null);
+            return documentBuilder;
+        }
+        catch (final ParserConfigurationException exception)
+        {
+            throw new LionEngineException(exception);
+        }
     }
 
     /**
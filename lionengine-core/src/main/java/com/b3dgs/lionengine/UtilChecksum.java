@@ -82,8 +82,13 @@ public final class UtilChecksum
     {
         Check.notNull(bytes);
 
+        final byte[] digest;
+        synchronized (SHA512)
+        {
+            digest = SHA512.digest(bytes);
+        }
         final StringBuilder builder = new StringBuilder(MAX_LENGTH);
-        for (final byte b : SHA512.digest(bytes))
+        for (final byte b : digest)
         {
             builder.append(0xFF & b);
         }
@@ -20,12 +20,14 @@ package com.b3dgs.lionengine;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Tools related to files handling.
@@ -39,6 +41,8 @@ public final class UtilFile
     static final String ERROR_DIRECTORY = "Not a directory: ";
     /** Error delete file. */
     static final String ERROR_DELETE_FILE = "File not deleted: ";
+    /** Temporary file extension, renamed once written. */
+    static final String EXTENSION_TEMP = ".tmp";
 
     /**
      * Get the file name without its extension.
@@ -200,6 +204,31 @@ public final class UtilFile
         }
     }
 
+    /**
+     * Write a media atomically: content is written to a temporary file next to it, which then replaces the media.
+     * Concurrent readers never see a partially written media.
+     * 
+     * @param media The media to write (must not be <code>null</code>).
+     * @param writer The content writer, called with the temporary media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments or unable to write or rename file.
+     */
+    public static void saveAtomic(Media media, Consumer<Media> writer)
+    {
+        Check.notNull(media);
+        Check.notNull(writer);
+
+        final Media temp = Medias.create(media.getPath() + EXTENSION_TEMP);
+        writer.accept(temp);
+        try
+        {
+            Files.move(temp.getFile().toPath(), media.getFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, media);
+        }
+    }
+
     /**
      * Check if the path exists.
      * 
@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Compiled binary cache of XML files, read by {@link XmlReader} instead of parsing XML when the media is found.
+ * <p>
+ * {@link #compile(Media, Media)} is an ahead of time compiler converting all XML files of a resources tree in a single
+ * file, with a table of distinct strings shared by all documents. Once {@link #load(Media)} is called, the cache
+ * file is memory mapped (or read once if inside a jar), and documents are built from it without XML parsing nor file
+ * opening. Media not found in cache are parsed as usual. The cache must be compiled again when XML files change.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ */
+public final class XmlCache
+{
+    /** Invalid cache error. */
+    static final String ERROR_FORMAT = "Invalid XML cache";
+    /** XML extension. */
+    private static final String EXTENSION = Constant.DOT + "xml";
+    /** File identifier. */
+    private static final int MAGIC = 0x4C_58_4D_43;
+    /** Format version. */
+    private static final int VERSION = 1;
+    /** Element node. */
+    private static final byte NODE_ELEMENT = 0;
+    /** Text node. */
+    private static final byte NODE_TEXT = 1;
+    /** Loaded cache, <code>null</code> if none. */
+    private static volatile Pack pack;
+
+    /**
+     * Compile all XML files found in folder and its sub folders in a single cache file.
+     * 
+     * @param folder The resources folder (must not be <code>null</code>).
+     * @param output The cache file (must not be <code>null</code>).
+     * @return The number of compiled XML files.
+     * @throws LionEngineException If invalid arguments, error when reading XML or writing cache.
+     */
+    public static int compile(Media folder, Media output)
+    {
+        Check.notNull(folder);
+        Check.notNull(output);
+
+        final List<Media> medias = new ArrayList<>();
+        collect(folder, medias);
+
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final Map<Integer, Integer> entries = new LinkedHashMap<>();
+        try (DataOutputStream out = new DataOutputStream(data))
+        {
+            for (final Media media : medias)
+            {
+                final XmlReader reader = new XmlReader(media);
+                entries.put(getString(strings, media.getPath()), Integer.valueOf(out.size()));
+                writeElement(out, strings, reader.getElement());
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, output, ERROR_FORMAT);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(output.getOutputStream()))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            for (final String string : strings.keySet())
+            {
+                final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(entries.size());
+            for (final Map.Entry<Integer, Integer> entry : entries.entrySet())
+            {
+                out.writeInt(entry.getKey().intValue());
+                out.writeInt(entry.getValue().intValue());
+            }
+            data.writeTo(out);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, output, ERROR_FORMAT);
+        }
+        return medias.size();
+    }
+
+    /**
+     * Load a cache compiled with {@link #compile(Media, Media)}, replacing the current one.
+     * 
+     * @param media The cache file (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument or invalid cache.
+     */
+    public static void load(Media media)
+    {
+        Check.notNull(media);
+
+        try
+        {
+            pack = new Pack(read(media));
+        }
+        catch (final IOException | BufferUnderflowException | IllegalArgumentException exception)
+        {
+            throw new LionEngineException(exception, media, ERROR_FORMAT);
+        }
+    }
+
+    /**
+     * Unload current cache, all XML are parsed again.
+     */
+    public static void unload()
+    {
+        pack = null;
+    }
+
+    /**
+     * Check if media is in loaded cache.
+     * 
+     * @param media The media to check (must not be <code>null</code>).
+     * @return <code>true</code> if in cache, <code>false</code> else.
+     * @throws LionEngineException If invalid argument.
+     */
+    public static boolean contains(Media media)
+    {
+        Check.notNull(media);
+
+        final Pack current = pack;
+        return current != null && current.offsets.containsKey(media.getPath());
+    }
+
+    /**
+     * Create the document of a media from cache.
+     * 
+     * @param media The XML media.
+     * @return The document, <code>null</code> if no cache or media not in cache.
+     */
+    static Document get(Media media)
+    {
+        final Pack current = pack;
+        if (current == null)
+        {
+            return null;
+        }
+        final Integer offset = current.offsets.get(media.getPath());
+        if (offset == null)
+        {
+            return null;
+        }
+        final ByteBuffer buffer = current.data.duplicate();
+        buffer.position(offset.intValue());
+
+        final Document document = DocumentFactory.createDocument();
+        document.appendChild(readElement(buffer, document, current.strings));
+        return document;
+    }
+
+    /**
+     * Collect XML files recursively.
+     * 
+     * @param folder The current folder.
+     * @param medias The collected XML files.
+     */
+    private static void collect(Media folder, List<Media> medias)
+    {
+        for (final Media media : folder.getMedias())
+        {
+            final File file = media.getFile();
+            if (file.isDirectory())
+            {
+                collect(media, medias);
+            }
+            else if (media.getPath().endsWith(EXTENSION))
+            {
+                medias.add(media);
+            }
+        }
+    }
+
+    /**
+     * Read cache file content, memory mapped if possible.
+     * 
+     * @param media The cache file.
+     * @return The cache content.
+     * @throws IOException If error when reading.
+     */
+    private static ByteBuffer read(Media media) throws IOException
+    {
+        final File file = media.getFile();
+        if (file != null && file.isFile())
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        try (InputStream input = media.getInputStream())
+        {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            UtilStream.copy(input, output);
+            return ByteBuffer.wrap(output.toByteArray());
+        }
+    }
+
+    /**
+     * Get the string index, adding it to table if new.
+     * 
+     * @param strings The strings table.
+     * @param string The string value.
+     * @return The string index.
+     */
+    private static int getString(Map<String, Integer> strings, String string)
+    {
+        return strings.computeIfAbsent(string, s -> Integer.valueOf(strings.size())).intValue();
+    }
+
+    /**
+     * Write element, its attributes and its children.
+     * 
+     * @param out The output data.
+     * @param strings The strings table.
+     * @param element The element to write.
+     * @throws IOException If error when writing.
+     */
+    private static void writeElement(DataOutputStream out, Map<String, Integer> strings, Element element)
+            throws IOException
+    {
+        out.writeInt(getString(strings, element.getTagName()));
+
+        final NamedNodeMap attributes = element.getAttributes();
+        out.writeInt(attributes.getLength());
+        for (int i = 0; i < attributes.getLength(); i++)
+        {
+            final Node attribute = attributes.item(i);
+            out.writeInt(getString(strings, attribute.getNodeName()));
+            out.writeInt(getString(strings, attribute.getNodeValue()));
+        }
+
+        final NodeList children = element.getChildNodes();
+        final List<Node> nodes = new ArrayList<>(children.getLength());
+        for (int i = 0; i < children.getLength(); i++)
+        {
+            final Node node = children.item(i);
+            if (node instanceof Element || node.getNodeType() == Node.TEXT_NODE
+                || node.getNodeType() == Node.CDATA_SECTION_NODE)
+            {
+                nodes.add(node);
+            }
+        }
+        out.writeInt(nodes.size());
+        for (final Node node : nodes)
+        {
+            if (node instanceof Element)
+            {
+                out.writeByte(NODE_ELEMENT);
+                writeElement(out, strings, (Element) node);
+            }
+            else
+            {
+                out.writeByte(NODE_TEXT);
+                out.writeInt(getString(strings, node.getNodeValue()));
+            }
+        }
+    }
+
+    /**
+     * Read element, its attributes and its children.
+     * 
+     * @param buffer The cache data, positioned on element.
+     * @param document The document owner.
+     * @param strings The strings table.
+     * @return The element read.
+     */
+    private static Element readElement(ByteBuffer buffer, Document document, String[] strings)
+    {
+        final Element element = document.createElement(strings[buffer.getInt()]);
+
+        final int attributes = buffer.getInt();
+        for (int i = 0; i < attributes; i++)
+        {
+            element.setAttribute(strings[buffer.getInt()], strings[buffer.getInt()]);
+        }
+
+        final int children = buffer.getInt();
+        for (int i = 0; i < children; i++)
+        {
+            if (buffer.get() == NODE_ELEMENT)
+            {
+                element.appendChild(readElement(buffer, document, strings));
+            }
+            else
+            {
+                element.appendChild(document.createTextNode(strings[buffer.getInt()]));
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private XmlCache()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+
+    /**
+     * Loaded cache content.
+     */
+    private static final class Pack
+    {
+        /** Strings table, interned. */
+        private final String[] strings;
+        /** Element offset in data by media path. */
+        private final Map<String, Integer> offsets;
+        /** Elements data. */
+        private final ByteBuffer data;
+
+        /**
+         * Read cache header.
+         * 
+         * @param buffer The cache content.
+         * @throws IllegalArgumentException If invalid format.
+         */
+        Pack(ByteBuffer buffer)
+        {
+            super();
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            {
+                throw new IllegalArgumentException(ERROR_FORMAT);
+            }
+
+            strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++)
+            {
+                final byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+            }
+
+            final int entries = buffer.getInt();
+            offsets = new HashMap<>(entries);
+            for (int i = 0; i < entries; i++)
+            {
+                offsets.put(strings[buffer.getInt()], Integer.valueOf(buffer.getInt()));
+            }
+            data = buffer.slice();
+        }
+    }
+}
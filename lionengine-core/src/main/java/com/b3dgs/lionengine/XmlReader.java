@@ -50,6 +50,30 @@ public class XmlReader
     /** Root reference. */
     protected final Element root;
 
+    /**
+     * Load document from {@link XmlCache} if available, else parse media.
+     * 
+     * @param media The XML media path.
+     * @return The loaded document.
+     * @throws LionEngineException If error when loading media.
+     */
+    private static Document load(Media media)
+    {
+        final Document cached = XmlCache.get(media);
+        if (cached != null)
+        {
+            return cached;
+        }
+        try (InputStream input = media.getInputStream())
+        {
+            return DocumentFactory.createDocument(input);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, media, ERROR_READING);
+        }
+    }
+
     /**
      * Create node from media.
      * 
@@ -62,15 +86,8 @@ public class XmlReader
 
         Check.notNull(media);
 
-        try (InputStream input = media.getInputStream())
-        {
-            document = DocumentFactory.createDocument(input);
-            root = document.getDocumentElement();
-        }
-        catch (final IOException exception)
-        {
-            throw new LionEngineException(exception, media, ERROR_READING);
-        }
+        document = load(media);
+        root = document.getDocumentElement();
     }
 
     /**
@@ -55,6 +55,21 @@ public interface Graphic
      */
     void copyArea(int x, int y, int width, int height, int dx, int dy);
 
+    /**
+     * Restrict next drawings to the specified rectangle.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The clip width.
+     * @param height The clip height.
+     */
+    void setClip(int x, int y, int width, int height);
+
+    /**
+     * Remove the drawing restriction set by {@link #setClip(int, int, int, int)}.
+     */
+    void resetClip();
+
     /**
      * Draw an image to the graphic.
      * 
@@ -32,6 +32,8 @@ public final class Graphics
 {
     /** Factory graphic implementation. */
     private static volatile FactoryGraphic factoryGraphic;
+    /** Shared images cache (<code>null</code> if disabled). */
+    private static volatile ImageBufferCache cache;
 
     /**
      * Set the graphic factory used.
@@ -43,6 +45,26 @@ public final class Graphics
         Graphics.factoryGraphic = factoryGraphic;
     }
 
+    /**
+     * Set the images cache used by drawables loaded from media. Disabled by default.
+     * 
+     * @param cache The images cache (<code>null</code> to disable).
+     */
+    public static void setCache(ImageBufferCache cache)
+    {
+        Graphics.cache = cache;
+    }
+
+    /**
+     * Get the images cache used by drawables loaded from media.
+     * 
+     * @return The images cache, <code>null</code> if disabled.
+     */
+    public static ImageBufferCache getCache()
+    {
+        return cache;
+    }
+
     /**
      * Create a screen.
      * 
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Shared cache of decoded {@link ImageBuffer}, keyed by {@link Media}.
+ * <p>
+ * Each {@link #acquire(Media)} must be followed by a {@link #release(Media)} once the buffer is not used anymore.
+ * Referenced buffers are always kept. Unreferenced buffers are kept in least recently used order and disposed when
+ * the total size exceeds the budget. Concurrent acquisitions of the same media wait for a single decoding.
+ * </p>
+ * <p>
+ * Acquired buffers are shared, they must not be modified nor disposed by the caller.
+ * </p>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ * 
+ * @see Graphics#setCache(ImageBufferCache)
+ */
+public final class ImageBufferCache
+{
+    /** Release error. */
+    static final String ERROR_RELEASE = "Media not acquired";
+    /** Bytes per pixel. */
+    private static final int PIXEL_BYTES = 4;
+
+    /**
+     * Get the estimated size of a buffer.
+     * 
+     * @param buffer The buffer reference.
+     * @return The size in bytes.
+     */
+    private static long getSize(ImageBuffer buffer)
+    {
+        return (long) buffer.getWidth() * buffer.getHeight() * PIXEL_BYTES;
+    }
+
+    /**
+     * Wait for entry decoding.
+     * 
+     * @param entry The entry to wait.
+     * @return The decoded buffer.
+     * @throws LionEngineException If error when reading image.
+     */
+    private static ImageBuffer await(Entry entry)
+    {
+        try
+        {
+            return entry.future.join();
+        }
+        catch (final CompletionException exception)
+        {
+            if (exception.getCause() instanceof LionEngineException)
+            {
+                throw (LionEngineException) exception.getCause();
+            }
+            throw new LionEngineException(exception);
+        }
+    }
+
+    /** Cached entries. */
+    private final Map<Media, Entry> entries = new HashMap<>();
+    /** Unreferenced entries, least recently used first. */
+    private final Map<Media, Entry> unused = new LinkedHashMap<>();
+    /** Unreferenced bytes budget. */
+    private final long budget;
+    /** Cached bytes. */
+    private long bytes;
+    /** Hits count. */
+    private long hits;
+    /** Misses count. */
+    private long misses;
+    /** Evictions count. */
+    private long evictions;
+    /** Total decoding time in nano seconds. */
+    private long decodeTime;
+
+    /**
+     * Create cache.
+     * 
+     * @param budget The maximum cached bytes before disposing unreferenced buffers (must be superior or equal to 0).
+     * @throws LionEngineException If invalid argument.
+     */
+    public ImageBufferCache(long budget)
+    {
+        super();
+
+        Check.superiorOrEqual(budget, 0);
+
+        this.budget = budget;
+    }
+
+    /**
+     * Get the buffer of a media, decoded only if not already cached.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @return The shared buffer.
+     * @throws LionEngineException If invalid argument or error when reading image.
+     */
+    public ImageBuffer acquire(Media media)
+    {
+        Check.notNull(media);
+
+        final Entry entry;
+        final boolean decode;
+        synchronized (this)
+        {
+            final Entry cached = entries.get(media);
+            decode = cached == null;
+            if (decode)
+            {
+                entry = new Entry();
+                entries.put(media, entry);
+                misses++;
+            }
+            else
+            {
+                entry = cached;
+                unused.remove(media);
+                hits++;
+            }
+            entry.references++;
+        }
+        if (decode)
+        {
+            return decode(media, entry);
+        }
+        return await(entry);
+    }
+
+    /**
+     * Release a buffer previously acquired. Buffer is kept until budget is exceeded.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument or media not acquired.
+     */
+    public synchronized void release(Media media)
+    {
+        Check.notNull(media);
+
+        final Entry entry = entries.get(media);
+        if (entry == null || entry.references == 0)
+        {
+            throw new LionEngineException(media, ERROR_RELEASE);
+        }
+        entry.references--;
+        if (entry.references == 0)
+        {
+            unused.put(media, entry);
+            evict(budget);
+        }
+    }
+
+    /**
+     * Dispose all unreferenced buffers.
+     */
+    public synchronized void clear()
+    {
+        evict(0L);
+    }
+
+    /**
+     * Check if media is cached.
+     * 
+     * @param media The image media.
+     * @return <code>true</code> if cached or being decoded, <code>false</code> else.
+     */
+    public synchronized boolean contains(Media media)
+    {
+        return entries.containsKey(media);
+    }
+
+    /**
+     * Get the budget.
+     * 
+     * @return The unreferenced bytes budget.
+     */
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Get the cached bytes, including referenced buffers.
+     * 
+     * @return The cached bytes.
+     */
+    public synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Get the number of acquisitions served from cache.
+     * 
+     * @return The hits count.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Get the number of acquisitions which required a decoding.
+     * 
+     * @return The misses count.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Get the number of disposed buffers.
+     * 
+     * @return The evictions count.
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Get the total decoding time.
+     * 
+     * @return The decoding time in nano seconds.
+     */
+    public synchronized long getDecodeTime()
+    {
+        return decodeTime;
+    }
+
+    /**
+     * Decode media and notify waiting acquisitions.
+     * 
+     * @param media The image media.
+     * @param entry The entry to complete.
+     * @return The decoded buffer.
+     * @throws LionEngineException If error when reading image.
+     */
+    private ImageBuffer decode(Media media, Entry entry)
+    {
+        final long start = System.nanoTime();
+        final ImageBuffer buffer;
+        try
+        {
+            buffer = Graphics.getImageBuffer(media);
+        }
+        catch (final LionEngineException exception)
+        {
+            synchronized (this)
+            {
+                entries.remove(media);
+            }
+            entry.future.completeExceptionally(exception);
+            throw exception;
+        }
+        synchronized (this)
+        {
+            entry.buffer = buffer;
+            entry.bytes = getSize(buffer);
+            bytes += entry.bytes;
+            decodeTime += System.nanoTime() - start;
+            evict(budget);
+        }
+        entry.future.complete(buffer);
+        return buffer;
+    }
+
+    /**
+     * Dispose least recently used unreferenced buffers until cached bytes fit the limit.
+     * 
+     * @param limit The bytes limit.
+     */
+    private void evict(long limit)
+    {
+        final Iterator<Map.Entry<Media, Entry>> iterator = unused.entrySet().iterator();
+        while (bytes > limit && iterator.hasNext())
+        {
+            final Map.Entry<Media, Entry> next = iterator.next();
+            final Entry entry = next.getValue();
+            iterator.remove();
+            entries.remove(next.getKey());
+            bytes -= entry.bytes;
+            evictions++;
+            entry.buffer.dispose();
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry
+    {
+        /** Decoding result. */
+        private final CompletableFuture<ImageBuffer> future = new CompletableFuture<>();
+        /** Decoded buffer (<code>null</code> while decoding). */
+        private ImageBuffer buffer;
+        /** Buffer size in bytes. */
+        private long bytes;
+        /** References count. */
+        private int references;
+
+        /**
+         * Create entry.
+         */
+        Entry()
+        {
+            super();
+        }
+    }
+}
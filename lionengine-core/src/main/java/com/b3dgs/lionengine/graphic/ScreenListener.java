@@ -36,4 +36,13 @@ public interface ScreenListener
      * Called when screen has been closed. May be called by another thread.
      */
     void notifyClosed();
+
+    /**
+     * Called when displayed content may have been lost and must be presented again (window exposed or restored, focus
+     * changed, buffer contents lost). May be called by another thread. Does nothing by default.
+     */
+    default void notifyExposed()
+    {
+        // Nothing by default
+    }
 }
@@ -26,6 +26,7 @@ import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferCache;
 
 /**
  * Image implementation.
@@ -43,6 +44,8 @@ final class ImageImpl implements Image
     private final int height;
     /** Image surface (can be <code>null</code>). */
     private ImageBuffer surface;
+    /** Cache where surface has been acquired (<code>null</code> if none). */
+    private ImageBufferCache cache;
     /** Origin point. */
     private Origin origin = Origin.TOP_LEFT;
     /** Image horizontal position. */
@@ -137,7 +140,15 @@ final class ImageImpl implements Image
             }
             throw new LionEngineException(ERROR_ALREADY_LOADED);
         }
-        surface = Graphics.getImageBuffer(media);
+        cache = Graphics.getCache();
+        if (cache == null)
+        {
+            surface = Graphics.getImageBuffer(media);
+        }
+        else
+        {
+            surface = cache.acquire(media);
+        }
     }
 
     @Override
@@ -149,7 +160,12 @@ final class ImageImpl implements Image
     @Override
     public void dispose()
     {
-        if (surface != null)
+        if (cache != null)
+        {
+            cache.release(media);
+            cache = null;
+        }
+        else if (surface != null)
         {
             surface.dispose();
         }
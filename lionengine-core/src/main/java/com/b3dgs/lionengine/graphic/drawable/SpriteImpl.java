@@ -30,10 +30,15 @@ import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferCache;
 import com.b3dgs.lionengine.graphic.UtilColor;
 
 /**
  * Sprite implementation.
+ * <p>
+ * A sprite loaded from media is only equal to itself, even if its surface is shared by {@link ImageBufferCache}. A
+ * sprite created with an existing surface is equal to any other sprite created with the same surface.
+ * </p>
  */
 class SpriteImpl implements Sprite
 {
@@ -46,6 +51,10 @@ class SpriteImpl implements Sprite
     private ImageBuffer surface;
     /** Sprite original surface (<code>null</code> if surface unmodified). */
     private ImageBuffer surfaceOriginal;
+    /** Surface shared by cache (<code>null</code> if not acquired from cache). */
+    private ImageBuffer surfaceShared;
+    /** Cache where surface has been acquired (<code>null</code> if none). */
+    private ImageBufferCache cache;
     /** Origin point. */
     private Origin origin = Origin.TOP_LEFT;
     /** Mirror flag. */
@@ -184,7 +193,14 @@ class SpriteImpl implements Sprite
     {
         if (surfaceOriginal == null)
         {
-            surfaceOriginal = Graphics.getImageBuffer(surface);
+            if (surface == surfaceShared)
+            {
+                surfaceOriginal = surface;
+            }
+            else
+            {
+                surfaceOriginal = Graphics.getImageBuffer(surface);
+            }
         }
     }
 
@@ -203,7 +219,16 @@ class SpriteImpl implements Sprite
             }
             throw new LionEngineException(ERROR_ALREADY_LOADED);
         }
-        surface = Graphics.getImageBuffer(media);
+        cache = Graphics.getCache();
+        if (cache == null)
+        {
+            surface = Graphics.getImageBuffer(media);
+        }
+        else
+        {
+            surfaceShared = cache.acquire(media);
+            surface = surfaceShared;
+        }
     }
 
     @Override
@@ -215,10 +240,16 @@ class SpriteImpl implements Sprite
     @Override
     public void dispose()
     {
-        if (surface != null)
+        if (surface != null && surface != surfaceShared)
         {
             surface.dispose();
         }
+        if (surfaceShared != null)
+        {
+            cache.release(media);
+            surfaceShared = null;
+            cache = null;
+        }
     }
 
     @Override
@@ -304,6 +335,11 @@ class SpriteImpl implements Sprite
     @Override
     public final void setFade(int alpha, int fade)
     {
+        if (surfaceShared != null && surface == surfaceShared)
+        {
+            lazySurfaceBackup();
+            surface = Graphics.getImageBuffer(surfaceOriginal);
+        }
         if (rgb == null)
         {
             rgb = new int[width][height];
@@ -384,16 +420,13 @@ class SpriteImpl implements Sprite
     @Override
     public int hashCode()
     {
-        final int prime = 31;
-        int result = 1;
-        if (surface != null)
+        if (media != null)
         {
-            result = prime * result + surface.hashCode();
-        }
-        else
-        {
-            result = prime * result + media.hashCode();
+            return super.hashCode();
         }
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + surface.hashCode();
         return result;
     }
 
@@ -409,6 +442,6 @@ class SpriteImpl implements Sprite
             return false;
         }
         final SpriteImpl other = (SpriteImpl) object;
-        return surface == other.surface;
+        return media == null && other.media == null && surface == other.surface;
     }
 }
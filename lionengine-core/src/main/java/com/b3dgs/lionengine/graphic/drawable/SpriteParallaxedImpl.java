@@ -23,6 +23,7 @@ import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferCache;
 
 /**
  * Parallaxed sprite implementation.
@@ -84,7 +85,16 @@ final class SpriteParallaxedImpl implements SpriteParallaxed
     @Override
     public void load(boolean alpha)
     {
-        ImageBuffer surface = Graphics.getImageBuffer(media);
+        final ImageBufferCache cache = Graphics.getCache();
+        ImageBuffer surface;
+        if (cache == null)
+        {
+            surface = Graphics.getImageBuffer(media);
+        }
+        else
+        {
+            surface = cache.acquire(media);
+        }
 
         if (0 != Double.compare(factorH, 1.0) || 0 != Double.compare(factorV, 1.0))
         {
@@ -96,6 +106,10 @@ final class SpriteParallaxedImpl implements SpriteParallaxed
         lineWidth = (int) Math.floor(surface.getWidth() * sx / 100.0);
         lineHeight = (int) Math.floor(surface.getHeight() / (double) linesNumber * sy / 100.0);
         lines = Graphics.splitImage(surface, 1, linesNumber);
+        if (cache != null)
+        {
+            cache.release(media);
+        }
 
         final double factH = sx / 100.0 / AMPLITUDE_FACTOR;
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+/**
+ * Screen region changed since last render, as the union of all added rectangles, in source resolution coordinates.
+ * <p>
+ * Rectangles are clipped to the region bounds. This class is not thread safe, it is expected to be filled during
+ * update, and consumed during render.
+ * </p>
+ */
+public final class DirtyRegion
+{
+    /** Bounds width. */
+    private int width;
+    /** Bounds height. */
+    private int height;
+    /** Union minimum horizontal location. */
+    private int minX;
+    /** Union minimum vertical location. */
+    private int minY;
+    /** Union maximum horizontal location (excluded). */
+    private int maxX;
+    /** Union maximum vertical location (excluded). */
+    private int maxY;
+
+    /**
+     * Create region.
+     * 
+     * @param width The bounds width.
+     * @param height The bounds height.
+     */
+    public DirtyRegion(int width, int height)
+    {
+        super();
+
+        setBounds(width, height);
+    }
+
+    /**
+     * Add a changed rectangle.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The rectangle width.
+     * @param height The rectangle height.
+     */
+    public void add(int x, int y, int width, int height)
+    {
+        final int sx = Math.max(0, x);
+        final int sy = Math.max(0, y);
+        final int ex = Math.min(this.width, x + width);
+        final int ey = Math.min(this.height, y + height);
+
+        if (sx < ex && sy < ey)
+        {
+            minX = Math.min(minX, sx);
+            minY = Math.min(minY, sy);
+            maxX = Math.max(maxX, ex);
+            maxY = Math.max(maxY, ey);
+        }
+    }
+
+    /**
+     * Mark the whole bounds as changed.
+     */
+    public void addAll()
+    {
+        minX = 0;
+        minY = 0;
+        maxX = width;
+        maxY = height;
+    }
+
+    /**
+     * Clear region, considering nothing changed.
+     */
+    public void clear()
+    {
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = 0;
+        maxY = 0;
+    }
+
+    /**
+     * Check if nothing changed.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    public boolean isEmpty()
+    {
+        return minX >= maxX;
+    }
+
+    /**
+     * Get the union horizontal location.
+     * 
+     * @return The horizontal location.
+     */
+    public int getX()
+    {
+        return minX;
+    }
+
+    /**
+     * Get the union vertical location.
+     * 
+     * @return The vertical location.
+     */
+    public int getY()
+    {
+        return minY;
+    }
+
+    /**
+     * Get the union width.
+     * 
+     * @return The width (<code>0</code> if empty).
+     */
+    public int getWidth()
+    {
+        return Math.max(0, maxX - minX);
+    }
+
+    /**
+     * Get the union height.
+     * 
+     * @return The height (<code>0</code> if empty).
+     */
+    public int getHeight()
+    {
+        return Math.max(0, maxY - minY);
+    }
+
+    /**
+     * Set the region bounds and mark them as changed.
+     * 
+     * @param width The bounds width.
+     * @param height The bounds height.
+     */
+    void setBounds(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        addAll();
+    }
+}
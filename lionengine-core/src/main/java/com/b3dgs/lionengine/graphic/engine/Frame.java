@@ -32,6 +32,16 @@ public interface Frame extends Updatable
         // Does nothing by default
     }
 
+    /**
+     * Check if frame has to be rendered. Always <code>true</code> by default.
+     * 
+     * @return <code>true</code> if frame changed since last render, <code>false</code> else.
+     */
+    default boolean isDirty()
+    {
+        return true;
+    }
+
     /**
      * Render updated frame.
      */
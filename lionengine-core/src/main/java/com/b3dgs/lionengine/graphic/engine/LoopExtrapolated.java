@@ -74,9 +74,12 @@ public final class LoopExtrapolated implements Loop
                 final long lastTime = System.nanoTime();
 
                 frame.update(extrp);
-                screen.preUpdate();
-                frame.render();
-                screen.update();
+                if (frame.isDirty())
+                {
+                    screen.preUpdate();
+                    frame.render();
+                    screen.update();
+                }
 
                 while (sync && System.nanoTime() - lastTime < maxFrameTimeNano)
                 {
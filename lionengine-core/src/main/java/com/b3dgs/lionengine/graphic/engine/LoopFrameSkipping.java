@@ -103,9 +103,12 @@ public final class LoopFrameSkipping implements Loop
                 }
                 while (acc > maxFrameTimeNano);
 
-                screen.preUpdate();
-                frame.render();
-                screen.update();
+                if (frame.isDirty())
+                {
+                    screen.preUpdate();
+                    frame.render();
+                    screen.update();
+                }
 
                 while (sync && System.nanoTime() - firstTimeNano < maxFrameTimeNano)
                 {
@@ -70,9 +70,12 @@ public final class LoopLocked implements Loop
                 final long lastTime = System.nanoTime();
 
                 frame.update(Constant.EXTRP);
-                screen.preUpdate();
-                frame.render();
-                screen.update();
+                if (frame.isDirty())
+                {
+                    screen.preUpdate();
+                    frame.render();
+                    screen.update();
+                }
 
                 while (sync && System.nanoTime() - lastTime < maxFrameTimeNano)
                 {
@@ -58,9 +58,12 @@ public final class LoopUnlocked implements Loop
                 final long lastTime = System.nanoTime();
 
                 frame.update(Constant.EXTRP);
-                screen.preUpdate();
-                frame.render();
-                screen.update();
+                if (frame.isDirty())
+                {
+                    screen.preUpdate();
+                    frame.render();
+                    screen.update();
+                }
 
                 frame.computeFrameRate(lastTime, Math.max(lastTime + 1, System.nanoTime()));
             }
@@ -128,6 +128,32 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
         renderer.setFilter(filter);
     }
 
+    /**
+     * Enable or disable dirty rendering, disabled by default.
+     * <p>
+     * When enabled, the screen is rendered in a buffer preserved between frames. Only the {@link #getDirtyRegion()}
+     * area is rendered again (clipped, so {@link #render(Graphic)} must still draw everything covering it, background
+     * included), and nothing is rendered nor flipped while region is empty.
+     * </p>
+     * 
+     * @param enabled <code>true</code> to enable, <code>false</code> to render the whole screen on each frame.
+     */
+    public final void setDirtyRendering(boolean enabled)
+    {
+        renderer.setDirtyRendering(enabled);
+    }
+
+    /**
+     * Get the region changed since last render, in source resolution coordinates. Whole screen is marked as changed on
+     * resolution change. Used only when dirty rendering is enabled.
+     * 
+     * @return The dirty region.
+     */
+    public final DirtyRegion getDirtyRegion()
+    {
+        return renderer.getDirtyRegion();
+    }
+
     /**
      * Get main frame location x.
      * 
@@ -228,6 +254,12 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
                 Sequence.this.update(extrp);
             }
 
+            @Override
+            public boolean isDirty()
+            {
+                return renderer.isDirty();
+            }
+
             @Override
             public void render()
             {
@@ -379,4 +411,14 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     {
         end();
     }
+
+    /**
+     * {@inheritDoc}
+     * Render whole screen again when dirty rendering is enabled.
+     */
+    @Override
+    public final void notifyExposed()
+    {
+        renderer.expose();
+    }
 }
@@ -43,6 +43,8 @@ final class SequenceRenderer
     private final Config config;
     /** Renderer target. */
     private final Renderable target;
+    /** Changed region since last render. */
+    private final DirtyRegion dirty;
     /** Source resolution. */
     private Resolution source;
     /** Filter reference. */
@@ -55,6 +57,10 @@ final class SequenceRenderer
     private Screen screen;
     /** Pending cursor visibility. */
     private Boolean cursorVisibility = Boolean.TRUE;
+    /** Dirty rendering enabled flag. */
+    private boolean dirtyRendering;
+    /** Screen exposed flag, whole screen has to be rendered again (may be set by another thread). */
+    private volatile boolean exposed;
 
     /**
      * Constructor base.
@@ -75,6 +81,7 @@ final class SequenceRenderer
         config = context.getConfig();
         graphic = Graphics.createGraphic();
         this.target = target;
+        dirty = new DirtyRegion(resolution.getWidth(), resolution.getHeight());
     }
 
     /**
@@ -98,6 +105,53 @@ final class SequenceRenderer
         transform = getTransform();
     }
 
+    /**
+     * Enable or disable dirty rendering. When enabled, rendering is always performed in a buffer preserved between
+     * frames, where only the changed region is rendered again.
+     * 
+     * @param enabled <code>true</code> to enable, <code>false</code> to render the whole screen on each frame.
+     */
+    void setDirtyRendering(boolean enabled)
+    {
+        if (dirtyRendering != enabled)
+        {
+            dirtyRendering = enabled;
+            if (screen != null)
+            {
+                initResolution(source);
+            }
+        }
+    }
+
+    /**
+     * Get the changed region since last render.
+     * 
+     * @return The dirty region.
+     */
+    DirtyRegion getDirtyRegion()
+    {
+        return dirty;
+    }
+
+    /**
+     * Mark screen as exposed, so whole screen is rendered again on next frame. May be called by another thread.
+     */
+    void expose()
+    {
+        exposed = true;
+    }
+
+    /**
+     * Check if frame has to be rendered.
+     * 
+     * @return <code>true</code> if dirty rendering is disabled, screen exposed or region changed, <code>false</code>
+     *         else.
+     */
+    boolean isDirty()
+    {
+        return !dirtyRendering || exposed || !dirty.isEmpty();
+    }
+
     /**
      * Initialize resolution.
      * 
@@ -113,10 +167,14 @@ final class SequenceRenderer
         screen.onSourceChanged(source);
         final int width = source.getWidth();
         final int height = source.getHeight();
+        dirty.setBounds(width, height);
 
         // Standard rendering
         final Resolution output = config.getOutput();
-        if (FilterNone.INSTANCE.equals(filter) && width == output.getWidth() && height == output.getHeight())
+        if (!dirtyRendering
+            && FilterNone.INSTANCE.equals(filter)
+            && width == output.getWidth()
+            && height == output.getHeight())
         {
             buf = null;
             transform = null;
@@ -185,7 +243,22 @@ final class SequenceRenderer
             }
             else
             {
-                target.render(graphic);
+                if (dirtyRendering && exposed)
+                {
+                    exposed = false;
+                    dirty.addAll();
+                }
+                if (!dirtyRendering)
+                {
+                    target.render(graphic);
+                }
+                else if (!dirty.isEmpty())
+                {
+                    graphic.setClip(dirty.getX(), dirty.getY(), dirty.getWidth(), dirty.getHeight());
+                    target.render(graphic);
+                    graphic.resetClip();
+                    dirty.clear();
+                }
                 g.drawImage(filter.filter(buf), transform, 0, 0);
             }
         }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Split image processing in horizontal bands of rows, processed in parallel on the common pool.
+ * <p>
+ * Bands only partition the written rows: each band may read any row of the source, so neighbor rows at band edges
+ * are read from the shared source array instead of being copied. The last band is processed on the caller thread.
+ * All bands are done when processing returns, even if one failed, so buffers can be safely reused by the next call.
+ * </p>
+ */
+final class Bands
+{
+    /** Minimum rows per band, smaller images are processed on the caller thread only. */
+    static final int MIN_ROWS = 32;
+
+    /**
+     * Band processing.
+     */
+    @FunctionalInterface
+    interface Band
+    {
+        /**
+         * Process rows.
+         * 
+         * @param start The first row (included).
+         * @param end The last row (excluded).
+         */
+        void process(int start, int end);
+    }
+
+    /**
+     * Process rows in parallel bands, and wait for all bands to be processed.
+     * 
+     * @param rows The number of rows.
+     * @param band The band processing.
+     * @throws RuntimeException If a band failed, once all bands are done.
+     */
+    static void process(int rows, Band band)
+    {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final int count = Math.min(pool.getParallelism() + 1, rows / MIN_ROWS);
+        if (count > 1)
+        {
+            final ForkJoinTask<?>[] forked = new ForkJoinTask<?>[count - 1];
+            for (int i = 0; i < count - 1; i++)
+            {
+                final int start = rows * i / count;
+                final int end = rows * (i + 1) / count;
+                forked[i] = pool.submit(() -> band.process(start, end));
+            }
+            try
+            {
+                band.process(rows * (count - 1) / count, rows);
+            }
+            finally
+            {
+                for (final ForkJoinTask<?> task : forked)
+                {
+                    task.quietlyJoin();
+                }
+            }
+            for (final ForkJoinTask<?> task : forked)
+            {
+                task.join();
+            }
+        }
+        else if (rows > 0)
+        {
+            band.process(0, rows);
+        }
+    }
+
+    /**
+     * Get an array of the requested size, reusing the current one if it has the same size.
+     * 
+     * @param current The current array (can be <code>null</code>).
+     * @param size The requested size.
+     * @return The current array if same size, a new one else.
+     */
+    static int[] reuse(int[] current, int size)
+    {
+        if (current != null && current.length == size)
+        {
+            return current;
+        }
+        return new int[size];
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Bands()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -27,23 +27,27 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * Bilinear filter implementation.
  * <p>
+ * Each pass is processed in parallel horizontal bands, pixel buffers are reused between calls of same size.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
 public class FilterBilinear implements Filter
 {
+    /** Filter radius. */
+    private static final int RADIUS = 1;
+    /** Divide table. */
+    private static final int[] DIVIDE = createDivide(RADIUS);
+
     /**
-     * Compute bilinear filtering.
+     * Create the divide table.
      * 
-     * @param in The source pixels.
-     * @param out The destination pixels.
-     * @param width The image width.
-     * @param height The image height.
      * @param radius The radius used.
+     * @return The divide table.
      */
-    private static void compute(int[] in, int[] out, int width, int height, int radius)
+    private static int[] createDivide(int radius)
     {
-        final int widthMinus1 = width - 1;
         final int tableSize = 2 * radius + 1;
         final int[] divide = new int[Constant.UNSIGNED_BYTE * tableSize];
 
@@ -51,11 +55,28 @@ public class FilterBilinear implements Filter
         {
             divide[i] = i / tableSize;
         }
+        return divide;
+    }
 
-        int inIndex = 0;
-        for (int y = 0; y < height; y++)
+    /**
+     * Compute bilinear filtering.
+     * 
+     * @param in The source pixels.
+     * @param out The destination pixels.
+     * @param width The image width.
+     * @param height The image height.
+     * @param radius The radius used.
+     * @param start The first row (included).
+     * @param end The last row (excluded).
+     */
+    private static void compute(int[] in, int[] out, int width, int height, int radius, int start, int end)
+    {
+        final int widthMinus1 = width - 1;
+
+        int inIndex = start * width;
+        for (int y = start; y < end; y++)
         {
-            compute(in, out, y, inIndex, divide, width, widthMinus1, height, radius);
+            compute(in, out, y, inIndex, DIVIDE, width, widthMinus1, height, radius);
             inIndex += width;
         }
     }
@@ -129,6 +150,11 @@ public class FilterBilinear implements Filter
         }
     }
 
+    /** Source pixels, reused between calls. */
+    private int[] inPixels;
+    /** Intermediate pixels, reused between calls. */
+    private int[] outPixels;
+
     /**
      * Create the filter.
      */
@@ -142,20 +168,22 @@ public class FilterBilinear implements Filter
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    public synchronized ImageBuffer filter(ImageBuffer source)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
 
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
+        inPixels = Bands.reuse(inPixels, width * height);
+        outPixels = Bands.reuse(outPixels, width * height);
+        final int[] in = inPixels;
+        final int[] out = outPixels;
+        source.getRgb(0, 0, width, height, in, 0, width);
 
-        compute(inPixels, outPixels, width, height, 1);
-        compute(outPixels, inPixels, height, width, 1);
+        Bands.process(height, (start, end) -> compute(in, out, width, height, RADIUS, start, end));
+        Bands.process(width, (start, end) -> compute(out, in, height, width, RADIUS, start, end));
 
         final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
+        dest.setRgb(0, 0, width, height, in, 0, width);
         return dest;
     }
 
@@ -17,7 +17,13 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
@@ -26,6 +32,14 @@ import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * Blur filter implementation.
+ * <p>
+ * Each pass is processed in parallel horizontal bands, pixel buffers are reused between calls of same size, and
+ * gaussian kernels and box divide tables are cached by radius in small least recently used caches, so animating
+ * the radius does not grow memory. The {@link #MODE_BOX} approximation uses three sliding window box passes,
+ * with a cost independent from radius. {@link #filter(ImageBuffer)} returns a new image owned by the caller. Result
+ * can also be written in a caller destination with {@link #filter(ImageBuffer, ImageBuffer)}, or in a destination
+ * owned by the filter with {@link #filterPooled(ImageBuffer)}.
+ * </p>
  */
 public class FilterBlur implements Filter
 {
@@ -33,10 +47,22 @@ public class FilterBlur implements Filter
     public static final int CLAMP_EDGES = 0;
     /** Wrap edges. */
     public static final int WRAP_EDGES = 1;
+    /** Gaussian kernel mode. */
+    public static final int MODE_GAUSSIAN = 0;
+    /** Box approximation mode. */
+    public static final int MODE_BOX = 1;
     /** Default radius. */
     private static final float RADIUS_DEFAULT = 1.5F;
     /** Minimum size. */
     private static final int MIN_SIZE = 3;
+    /** Box passes, three passes approximate a gaussian. */
+    private static final int BOX_PASSES = 3;
+    /** Max number of cached kernels, and of cached divide tables. */
+    static final int CACHE_SIZE = 16;
+    /** Kernels cache by radius. */
+    private static final Cache<Float, Kernel> KERNELS = new Cache<>(CACHE_SIZE);
+    /** Box divide tables cache by box radius. */
+    private static final Cache<Integer, int[]> DIVIDES = new Cache<>(CACHE_SIZE);
 
     /**
      * Compute blur.
@@ -48,14 +74,24 @@ public class FilterBlur implements Filter
      * @param height The image height.
      * @param alpha The alpha flag.
      * @param edge The edge flag.
+     * @param start The first row (included).
+     * @param end The last row (excluded).
      */
-    private static void compute(Kernel kernel, int[] in, int[] out, int width, int height, boolean alpha, int edge)
+    private static void compute(Kernel kernel,
+                                int[] in,
+                                int[] out,
+                                int width,
+                                int height,
+                                boolean alpha,
+                                int edge,
+                                int start,
+                                int end)
     {
         final float[] matrix = kernel.getMatrix();
         final int cols = kernel.getWidth();
         final int cols2 = cols / 2;
 
-        for (int y = 0; y < height; y++)
+        for (int y = start; y < end; y++)
         {
             int index = y;
             final int ioffset = y * width;
@@ -127,37 +163,105 @@ public class FilterBlur implements Filter
     }
 
     /**
-     * Check the edge value.
+     * Compute box blur with a sliding window, the output being transposed.
      * 
+     * @param in The source pixels.
+     * @param out The destination pixels.
      * @param width The image width.
-     * @param x The current horizontal pixel.
-     * @param col The column size.
+     * @param height The image height.
+     * @param radius The box radius.
+     * @param divide The divide table, giving rounded average of a channel sum.
+     * @param alpha The alpha flag.
      * @param edge The edge flag.
-     * @return The edge offset.
+     * @param start The first row (included).
+     * @param end The last row (excluded).
      */
-    private static int checkEdge(int width, int x, int col, int edge)
+    private static void computeBox(int[] in,
+                                   int[] out,
+                                   int width,
+                                   int height,
+                                   int radius,
+                                   int[] divide,
+                                   boolean alpha,
+                                   int edge,
+                                   int start,
+                                   int end)
     {
-        int ix = x + col;
-        if (ix < 0)
+        for (int y = start; y < end; y++)
         {
-            if (edge == CLAMP_EDGES)
+            final int ioffset = y * width;
+            int a = 0;
+            int r = 0;
+            int g = 0;
+            int b = 0;
+            for (int col = -radius; col <= radius; col++)
             {
-                ix = 0;
+                final int rgb = in[ioffset + checkEdge(width, 0, col, edge)];
+                a += rgb >>> Constant.BYTE_4;
+                r += rgb >> Constant.BYTE_3 & 0xFF;
+                g += rgb >> Constant.BYTE_2 & 0xFF;
+                b += rgb & 0xFF;
             }
-            else
+
+            int index = y;
+            for (int x = 0; x < width; x++)
             {
-                ix = (x + width) % width;
+                final int ia;
+                if (alpha)
+                {
+                    ia = divide[a];
+                }
+                else
+                {
+                    ia = 0xFF;
+                }
+                out[index] = ia << Constant.BYTE_4
+                             | divide[r] << Constant.BYTE_3
+                             | divide[g] << Constant.BYTE_2
+                             | divide[b];
+                index += height;
+
+                int added = x + radius + 1;
+                if (added >= width)
+                {
+                    added = checkEdge(width, x, radius + 1, edge);
+                }
+                int removed = x - radius;
+                if (removed < 0)
+                {
+                    removed = checkEdge(width, x, -radius, edge);
+                }
+                final int add = in[ioffset + added];
+                final int remove = in[ioffset + removed];
+                a += (add >>> Constant.BYTE_4) - (remove >>> Constant.BYTE_4);
+                r += (add >> Constant.BYTE_3 & 0xFF) - (remove >> Constant.BYTE_3 & 0xFF);
+                g += (add >> Constant.BYTE_2 & 0xFF) - (remove >> Constant.BYTE_2 & 0xFF);
+                b += (add & 0xFF) - (remove & 0xFF);
             }
         }
-        else if (ix >= width)
+    }
+
+    /**
+     * Check the edge value.
+     * 
+     * @param width The image width.
+     * @param x The current horizontal pixel.
+     * @param col The column size.
+     * @param edge The edge flag.
+     * @return The edge offset.
+     */
+    private static int checkEdge(int width, int x, int col, int edge)
+    {
+        int ix = x + col;
+        if (ix < 0 || ix >= width)
         {
             if (edge == CLAMP_EDGES)
             {
-                ix = width - 1;
+                ix = UtilMath.clamp(ix, 0, width - 1);
             }
             else
             {
-                ix = (x + width) % width;
+                ix = Math.floorMod(ix, width);
             }
         }
         return ix;
@@ -167,11 +271,9 @@ public class FilterBlur implements Filter
      * Create a blur kernel.
      * 
      * @param radius The blur radius.
-     * @param width The image width.
-     * @param height The image height.
      * @return The blur kernel.
      */
-    private static Kernel createKernel(float radius, int width, int height)
+    private static Kernel createKernel(float radius)
     {
         final int r = (int) Math.ceil(radius);
         final int rows = r * 2 + 1;
@@ -203,10 +305,48 @@ public class FilterBlur implements Filter
             matrix[i] /= total;
         }
 
-        final float[] data = new float[width * height];
-        System.arraycopy(matrix, 0, data, 0, rows);
+        return new Kernel(rows, matrix);
+    }
+
+    /**
+     * Get the number of cached kernels and divide tables.
+     * 
+     * @return The cached values number.
+     */
+    static int getCached()
+    {
+        return KERNELS.size() + DIVIDES.size();
+    }
+
+    /**
+     * Create the box divide table, giving the rounded average of a channel sum.
+     * 
+     * @param radius The box radius.
+     * @return The divide table.
+     */
+    private static int[] createDivide(int radius)
+    {
+        final int size = radius * 2 + 1;
+        final int[] divide = new int[Constant.UNSIGNED_BYTE * size];
+        for (int i = 0; i < divide.length; i++)
+        {
+            divide[i] = (i + size / 2) / size;
+        }
+        return divide;
+    }
 
-        return new Kernel(rows, data);
+    /**
+     * Get the box radius of three passes approximating the gaussian kernel of the blur radius. Box variance is
+     * <code>(size * size - 1) / 12</code>, summed for each pass, and gaussian sigma is a third of blur radius.
+     * 
+     * @param radius The blur radius.
+     * @return The box radius.
+     */
+    private static int getBoxRadius(float radius)
+    {
+        final double sigma = radius / 3.0;
+        final double size = Math.sqrt(12.0 * sigma * sigma / BOX_PASSES + 1.0);
+        return Math.max(0, (int) Math.round((size - 1.0) / 2.0));
     }
 
     /**
@@ -226,6 +366,14 @@ public class FilterBlur implements Filter
     private volatile boolean alpha = true;
     /** Edge mode. */
     private volatile int edge = CLAMP_EDGES;
+    /** Blur mode. */
+    private volatile int mode = MODE_GAUSSIAN;
+    /** Pooled destination, reused between calls of same size. */
+    private ImageBuffer destination;
+    /** Source pixels, reused between calls. */
+    private int[] inPixels;
+    /** Intermediate pixels, reused between calls. */
+    private int[] outPixels;
 
     /**
      * Create the filter.
@@ -267,12 +415,117 @@ public class FilterBlur implements Filter
         this.edge = edge;
     }
 
+    /**
+     * Set the blur mode.
+     * 
+     * @param mode The blur mode.
+     * @see #MODE_GAUSSIAN
+     * @see #MODE_BOX
+     */
+    public void setMode(int mode)
+    {
+        this.mode = mode;
+    }
+
+    /**
+     * Apply filter to source, and write result in destination.
+     * 
+     * @param source The image source (must not be <code>null</code>).
+     * @param destination The image destination (must not be <code>null</code> and of source size).
+     * @return The destination.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public synchronized ImageBuffer filter(ImageBuffer source, ImageBuffer destination)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.equality(destination.getWidth(), source.getWidth());
+        Check.equality(destination.getHeight(), source.getHeight());
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+
+        inPixels = Bands.reuse(inPixels, width * height);
+        final int[] in = inPixels;
+        source.getRgb(0, 0, width, height, in, 0, width);
+        if (width >= MIN_SIZE && height >= MIN_SIZE)
+        {
+            outPixels = Bands.reuse(outPixels, width * height);
+            compute(in, outPixels, width, height);
+        }
+        destination.setRgb(0, 0, width, height, in, 0, width);
+
+        return destination;
+    }
+
+    /**
+     * Apply filter to source, and write result in a destination owned by the filter, reused by each call of same size.
+     * <p>
+     * Returned image is only valid until next call, and must not be disposed nor kept by caller. Use
+     * {@link #filter(ImageBuffer)} to get an image owned by caller.
+     * </p>
+     * 
+     * @param source The image source (must not be <code>null</code>).
+     * @return The filter destination, or source if too small to be filtered.
+     * @throws LionEngineException If invalid argument.
+     */
+    public synchronized ImageBuffer filterPooled(ImageBuffer source)
+    {
+        Check.notNull(source);
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        if (width < MIN_SIZE || height < MIN_SIZE)
+        {
+            return source;
+        }
+        if (destination == null || destination.getWidth() != width || destination.getHeight() != height)
+        {
+            if (destination != null)
+            {
+                destination.dispose();
+            }
+            destination = Graphics.createImageBuffer(width, height, source.getTransparentColor());
+        }
+        return filter(source, destination);
+    }
+
+    /**
+     * Compute blur passes. Each pass is transposed, so an even number of passes leaves result in source.
+     * 
+     * @param in The source pixels, and result.
+     * @param out The intermediate pixels.
+     * @param width The image width.
+     * @param height The image height.
+     */
+    private void compute(int[] in, int[] out, int width, int height)
+    {
+        final boolean a = alpha;
+        final int e = edge;
+        if (mode == MODE_BOX)
+        {
+            final int r = getBoxRadius(radius);
+            final int[] divide = DIVIDES.get(Integer.valueOf(r), FilterBlur::createDivide);
+            for (int i = 0; i < BOX_PASSES; i++)
+            {
+                Bands.process(height, (start, end) -> computeBox(in, out, width, height, r, divide, a, e, start, end));
+                Bands.process(width, (start, end) -> computeBox(out, in, height, width, r, divide, a, e, start, end));
+            }
+        }
+        else
+        {
+            final Kernel kernel = KERNELS.get(Float.valueOf(radius), FilterBlur::createKernel);
+            Bands.process(height, (start, end) -> compute(kernel, in, out, width, height, a, e, start, end));
+            Bands.process(width, (start, end) -> compute(kernel, out, in, height, width, a, e, start, end));
+        }
+    }
+
     /*
      * Filter
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    public synchronized ImageBuffer filter(ImageBuffer source)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
@@ -281,17 +534,7 @@ public class FilterBlur implements Filter
             return source;
         }
 
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
-        source.getRgb(0, 0, width, height, inPixels, 0, width);
-
-        final Kernel kernel = createKernel(radius, width, height);
-        compute(kernel, inPixels, outPixels, width, height, alpha, edge);
-        compute(kernel, outPixels, inPixels, height, width, alpha, edge);
-
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
-        dest.setRgb(0, 0, width, height, inPixels, 0, width);
-        return dest;
+        return filter(source, Graphics.createImageBuffer(width, height, source.getTransparentColor()));
     }
 
     @Override
@@ -301,4 +544,60 @@ public class FilterBlur implements Filter
         transform.scale(scaleX, scaleY);
         return transform;
     }
+
+    /**
+     * Least recently used cache, evicting eldest entry when full. This class is Thread-Safe.
+     * 
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    private static final class Cache<K, V>
+    {
+        /** Cached values in access order. */
+        private final Map<K, V> values;
+
+        /**
+         * Create cache.
+         * 
+         * @param max The max number of entries.
+         */
+        Cache(int max)
+        {
+            super();
+
+            values = new LinkedHashMap<K, V>(max, 0.75F, true)
+            {
+                /** Serial UID. */
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+                {
+                    return size() > max;
+                }
+            };
+        }
+
+        /**
+         * Get cached value, creating it if missing.
+         * 
+         * @param key The key.
+         * @param factory The value factory.
+         * @return The cached value.
+         */
+        synchronized V get(K key, Function<K, V> factory)
+        {
+            return values.computeIfAbsent(key, factory);
+        }
+
+        /**
+         * Get the number of cached values.
+         * 
+         * @return The cached values number.
+         */
+        synchronized int size()
+        {
+            return values.size();
+        }
+    }
 }
@@ -25,11 +25,21 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * HQ2X implementation.
  * <p>
+ * Image is scaled in parallel horizontal bands, pixel buffers are reused between calls of same size.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
 public final class FilterHq2x implements Filter
 {
+    /** Scaler, reused between calls of same size. */
+    private RawScale2x scaler;
+    /** Source pixels, reused between calls. */
+    private int[] srcData;
+    /** Scaled pixels, reused between calls. */
+    private int[] dstData;
+
     /**
      * Create an Hq2x filter.
      */
@@ -43,14 +53,18 @@ public final class FilterHq2x implements Filter
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    public synchronized ImageBuffer filter(ImageBuffer source)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
+        if (scaler == null || scaler.getWidth() != width || scaler.getHeight() != height)
+        {
+            scaler = new RawScale2x(width, height);
+        }
+        srcData = Bands.reuse(srcData, width * height);
+        dstData = Bands.reuse(dstData, width * height * RawScale2x.SCALE * RawScale2x.SCALE);
         source.getRgb(0, 0, width, height, srcData, 0, width);
 
-        final RawScale2x scaler = new RawScale2x(width, height);
         final ImageBuffer image = Graphics.createImageBuffer(width * RawScale2x.SCALE,
                                                              height * RawScale2x.SCALE,
                                                              source.getTransparentColor());
@@ -58,7 +72,7 @@ public final class FilterHq2x implements Filter
                      0,
                      width * RawScale2x.SCALE,
                      height * RawScale2x.SCALE,
-                     scaler.getScaledData(srcData),
+                     scaler.getScaledData(srcData, dstData),
                      0,
                      width * RawScale2x.SCALE);
 
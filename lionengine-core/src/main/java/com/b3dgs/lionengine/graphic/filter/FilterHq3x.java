@@ -25,11 +25,21 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * HQ3X implementation.
  * <p>
+ * Image is scaled in parallel horizontal bands, pixel buffers are reused between calls of same size.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
 public final class FilterHq3x implements Filter
 {
+    /** Scaler, reused between calls of same size. */
+    private RawScale3x scaler;
+    /** Source pixels, reused between calls. */
+    private int[] srcData;
+    /** Scaled pixels, reused between calls. */
+    private int[] dstData;
+
     /**
      * Create an Hq3x filter.
      */
@@ -43,14 +53,18 @@ public final class FilterHq3x implements Filter
      */
 
     @Override
-    public ImageBuffer filter(ImageBuffer source)
+    public synchronized ImageBuffer filter(ImageBuffer source)
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
+        if (scaler == null || scaler.getWidth() != width || scaler.getHeight() != height)
+        {
+            scaler = new RawScale3x(width, height);
+        }
+        srcData = Bands.reuse(srcData, width * height);
+        dstData = Bands.reuse(dstData, width * height * RawScale3x.SCALE * RawScale3x.SCALE);
         source.getRgb(0, 0, width, height, srcData, 0, width);
 
-        final RawScale3x scaler = new RawScale3x(width, height);
         final ImageBuffer image = Graphics.createImageBuffer(width * RawScale3x.SCALE,
                                                              height * RawScale3x.SCALE,
                                                              source.getTransparentColor());
@@ -58,7 +72,7 @@ public final class FilterHq3x implements Filter
                      0,
                      width * RawScale3x.SCALE,
                      height * RawScale3x.SCALE,
-                     scaler.getScaledData(srcData),
+                     scaler.getScaledData(srcData, dstData),
                      0,
                      width * RawScale3x.SCALE);
         return image;
@@ -45,26 +45,48 @@ final class RawScale2x
     }
 
     /**
-     * Get the scaled data.
+     * Get the scaled data, processed in parallel horizontal bands.
      * 
      * @param srcImage The image source.
-     * @return The data array.
+     * @param dstImage The image destination (must be of source length multiplied by square scale).
+     * @return The destination data array.
      */
-    int[] getScaledData(int[] srcImage)
+    int[] getScaledData(int[] srcImage, int[] dstImage)
     {
-        final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
-
-        for (int y = 0; y < height; y++)
+        Bands.process(height, (start, end) ->
         {
-            for (int x = 0; x < width; x++)
+            for (int y = start; y < end; y++)
             {
-                process(srcImage, dstImage, x, y);
+                for (int x = 0; x < width; x++)
+                {
+                    process(srcImage, dstImage, x, y);
+                }
             }
-        }
+        });
 
         return dstImage;
     }
 
+    /**
+     * Get the data width.
+     * 
+     * @return The data width.
+     */
+    int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the data height.
+     * 
+     * @return The data height.
+     */
+    int getHeight()
+    {
+        return height;
+    }
+
     /**
      * Set destination pixel.
      * 
@@ -17,24 +17,34 @@
  */
 package com.b3dgs.lionengine.graphic.raster;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilChecksum;
 import com.b3dgs.lionengine.UtilConversion;
 import com.b3dgs.lionengine.UtilFile;
 import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Verbose;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.ImageFormat;
 
 /**
  * Represents a rastered image.
+ * <p>
+ * Rasters are generated in parallel. If a cache folder is defined with {@link #setCache(Media)}, generated rasters
+ * are stored in a sub folder named by the checksum of source pixels and raster data, and loaded from it next time
+ * instead of being generated.
+ * </p>
  */
 public class RasterImage
 {
@@ -44,6 +54,18 @@ public class RasterImage
     public static final int MAX_RASTERS_R = MAX_RASTERS * 2 - 1;
     /** Maximum rasters M. */
     public static final int MAX_RASTERS_M = MAX_RASTERS - 1;
+    /** Rasters cache folder, <code>null</code> if disabled. */
+    private static volatile Media cache;
+
+    /**
+     * Set the folder where generated rasters are cached. Disabled by default.
+     * 
+     * @param folder The cache folder, <code>null</code> to disable cache.
+     */
+    public static void setCache(Media folder)
+    {
+        cache = folder;
+    }
 
     /**
      * Get raster color.
@@ -68,6 +90,38 @@ public class RasterImage
         return force * UtilMath.cos(i * amplitude + offset);
     }
 
+    /**
+     * Write raster data values, used by checksum.
+     * 
+     * @param buffer The buffer to write to.
+     * @param data The raster data.
+     */
+    private static void putRasterData(ByteBuffer buffer, RasterData data)
+    {
+        buffer.putDouble(data.getForce());
+        buffer.putInt(data.getAmplitude());
+        buffer.putInt(data.getOffset());
+        buffer.putInt(data.getType());
+    }
+
+    /**
+     * Save raster to a temporary file, renamed once fully written.
+     * 
+     * @param rasterBuffer The raster to save.
+     * @param media The raster media.
+     */
+    private static void saveAtomic(ImageBuffer rasterBuffer, Media media)
+    {
+        try
+        {
+            UtilFile.saveAtomic(media, temp -> Graphics.saveImage(rasterBuffer, temp));
+        }
+        catch (final LionEngineException exception)
+        {
+            Verbose.exception(exception, media.getPath());
+        }
+    }
+
     /** List of rasters. */
     private final List<ImageBuffer> rasters = new ArrayList<>(MAX_RASTERS);
     /** Original image. */
@@ -141,19 +195,27 @@ public class RasterImage
 
         final Raster raster = Raster.load(rasterFile);
         final int max = UtilConversion.boolToInt(rasterSmooth) + 1;
+        final String folder = prefix + Constant.UNDERSCORE + UtilFile.removeExtension(rasterFile.getName());
+        final Media cacheFolder = getCacheFolder(raster);
+        final ImageBuffer[] buffers = new ImageBuffer[max * MAX_RASTERS];
 
-        for (int m = 0; m < max; m++)
+        surface.prepare();
+        IntStream.range(0, buffers.length).parallel().forEach(index ->
         {
-            for (int i = 0; i < MAX_RASTERS; i++)
+            final String file = String.valueOf(index) + Constant.DOT + ImageFormat.PNG;
+            final Media rasterMedia = Medias.create(rasterFile.getParentPath(), folder, file);
+            final Media cacheMedia;
+            if (cacheFolder == null)
             {
-                final String folder = prefix + Constant.UNDERSCORE + UtilFile.removeExtension(rasterFile.getName());
-                final String file = String.valueOf(i + m * MAX_RASTERS) + Constant.DOT + ImageFormat.PNG;
-                final Media rasterMedia = Medias.create(rasterFile.getParentPath(), folder, file);
-
-                final ImageBuffer rasterBuffer = createRaster(rasterMedia, raster, i, save);
-                rasters.add(rasterBuffer);
+                cacheMedia = null;
             }
-        }
+            else
+            {
+                cacheMedia = Medias.create(cacheFolder.getPath(), file);
+            }
+            buffers[index] = createRaster(rasterMedia, cacheMedia, raster, index % MAX_RASTERS, save);
+        });
+        rasters.addAll(Arrays.asList(buffers));
     }
 
     /**
@@ -207,16 +269,52 @@ public class RasterImage
         return rasterSmooth;
     }
 
+    /**
+     * Get the cache folder of this image and raster, named by the checksum of source pixels and raster data.
+     * 
+     * @param raster The raster data.
+     * @return The cache folder, <code>null</code> if cache is disabled.
+     */
+    private Media getCacheFolder(Raster raster)
+    {
+        final Media folder = cache;
+        if (folder == null)
+        {
+            return null;
+        }
+
+        final int width = surface.getWidth();
+        final int height = surface.getHeight();
+        final int[] pixels = surface.getRgb(0, 0, width, height, new int[width * height], 0, width);
+        final int rasterBytes = (Double.BYTES + Integer.BYTES * 3) * 3;
+        final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * (pixels.length + 2) + rasterBytes);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.asIntBuffer().put(pixels);
+        buffer.position(buffer.position() + Integer.BYTES * pixels.length);
+        putRasterData(buffer, raster.getRed());
+        putRasterData(buffer, raster.getGreen());
+        putRasterData(buffer, raster.getBlue());
+
+        final Media media = Medias.create(folder.getPath(), UtilChecksum.getSha(buffer.array()));
+        if (media.getFile().mkdirs())
+        {
+            Verbose.info("Raster cache created: ", media.getPath());
+        }
+        return media;
+    }
+
     /**
      * Create raster from data or load from cache.
      * 
      * @param rasterMedia The raster media.
+     * @param cacheMedia The raster cache media, <code>null</code> if cache is disabled.
      * @param raster The raster data.
      * @param i The raster index.
      * @param save <code>true</code> to save generated raster, <code>false</code> else.
      * @return The created raster.
      */
-    private ImageBuffer createRaster(Media rasterMedia, Raster raster, int i, boolean save)
+    private ImageBuffer createRaster(Media rasterMedia, Media cacheMedia, Raster raster, int i, boolean save)
     {
         final ImageBuffer rasterBuffer;
         if (rasterMedia.exists())
@@ -224,19 +322,27 @@ public class RasterImage
             rasterBuffer = Graphics.getImageBuffer(rasterMedia);
             rasterBuffer.prepare();
         }
+        else if (cacheMedia != null && cacheMedia.exists())
+        {
+            rasterBuffer = Graphics.getImageBuffer(cacheMedia);
+            rasterBuffer.prepare();
+        }
         else
         {
             final double fr = getRasterFactor(i, raster.getRed());
             final double fg = getRasterFactor(i, raster.getGreen());
             final double fb = getRasterFactor(i, raster.getBlue());
 
-            surface.prepare();
             rasterBuffer = Graphics.getRasterBuffer(surface, fr, fg, fb);
 
             if (save)
             {
                 Graphics.saveImage(rasterBuffer, rasterMedia);
             }
+            if (cacheMedia != null)
+            {
+                saveAtomic(rasterBuffer, cacheMedia);
+            }
         }
         return rasterBuffer;
     }
@@ -18,6 +18,7 @@
 package com.b3dgs.lionengine;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
@@ -26,6 +27,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.stream.IntStream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -64,6 +66,27 @@ public final class DocumentFactoryTest
         }
     }
 
+    /**
+     * Test create document from several threads, each one using its own builder.
+     */
+    @Test
+    public void testCreateDocumentConcurrent()
+    {
+        final long count = IntStream.range(0, 64).parallel().mapToObj(i ->
+        {
+            try (InputStream input = DocumentFactoryTest.class.getResourceAsStream("type.xml"))
+            {
+                return DocumentFactory.createDocument(input);
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception);
+            }
+        }).filter(document -> document.getDocumentElement() != null).count();
+
+        assertEquals(64L, count);
+    }
+
     /**
      * Test create document malformed.
      * 
@@ -110,10 +133,12 @@ public final class DocumentFactoryTest
     @Test
     public void testMissingFeature() throws Exception
     {
-        final Object old = UtilReflection.getField(DocumentFactory.class, "documentBuilder");
-        final Field field = DocumentFactory.class.getDeclaredField("documentBuilder");
+        final ThreadLocal<?> builders = UtilReflection.getField(DocumentFactory.class, "BUILDERS");
+        final Object old = UtilReflection.getField(DocumentFactory.class, "documentBuilderFactory");
+        final Field field = DocumentFactory.class.getDeclaredField("documentBuilderFactory");
         UtilReflection.setAccessible(field, true);
         field.set(DocumentFactory.class, null);
+        builders.remove();
 
         final String oldFactory = System.getProperty(DocumentBuilderFactory.class.getName());
         System.setProperty(DocumentBuilderFactory.class.getName(), Factory.class.getName());
@@ -136,6 +161,7 @@ public final class DocumentFactoryTest
             }
             field.set(DocumentFactory.class, old);
             UtilReflection.setAccessible(field, false);
+            builders.remove();
         }
     }
 
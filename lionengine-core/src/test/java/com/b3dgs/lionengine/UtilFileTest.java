@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine;
 
+import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertIterableEquals;
@@ -26,6 +27,9 @@ import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -312,6 +316,49 @@ public final class UtilFileTest
                      UtilFile.ERROR_DELETE_FILE + new File("void").getAbsolutePath());
     }
 
+    /**
+     * Test atomic save, media being replaced only once fully written.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveAtomic() throws IOException
+    {
+        Medias.setLoadFromJar(null);
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        try
+        {
+            final Media media = Medias.create("atomic.txt");
+            UtilFile.saveAtomic(media, temp ->
+            {
+                assertFalse(media.exists());
+                try (OutputStream output = temp.getOutputStream())
+                {
+                    output.write("data".getBytes(StandardCharsets.UTF_8));
+                }
+                catch (final IOException exception)
+                {
+                    throw new LionEngineException(exception);
+                }
+            });
+
+            assertTrue(media.exists());
+            assertFalse(Medias.create(media.getPath() + UtilFile.EXTENSION_TEMP).exists());
+            assertEquals("data", new String(Files.readAllBytes(media.getFile().toPath()), StandardCharsets.UTF_8));
+
+            UtilFile.deleteFile(media.getFile());
+            assertCause(() -> UtilFile.saveAtomic(media, temp ->
+            {
+                // Nothing written
+            }), NoSuchFileException.class);
+        }
+        finally
+        {
+            Medias.setResourcesDirectory(null);
+            Medias.setLoadFromJar(UtilFileTest.class);
+        }
+    }
+
     /**
      * Test exists path.
      * 
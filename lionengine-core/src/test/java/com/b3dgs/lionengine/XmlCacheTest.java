@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link XmlCache}.
+ */
+public final class XmlCacheTest
+{
+    /** Test folder. */
+    private static Media folder;
+    /** First file. */
+    private static Media first;
+    /** Second file, in sub folder. */
+    private static Media second;
+    /** Cache file. */
+    private static Media cache;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        folder = Medias.create("xmlcache");
+        assertTrue(Medias.create("xmlcache", "sub").getFile().mkdirs());
+
+        first = Medias.create("xmlcache", "first.xml");
+        final Xml root = new Xml("root");
+        root.writeInteger("value", 1);
+        root.createChild("child").setText("text é");
+        final Xml node = root.createChild("node");
+        node.writeString("name", "a");
+        node.createChild("leaf").writeBoolean("flag", true);
+        root.createChild("node").writeString("name", "b");
+        root.save(first);
+
+        second = Medias.create("xmlcache", "sub", "second.xml");
+        final Xml other = new Xml("other");
+        other.writeDouble("value", 2.5);
+        other.save(second);
+
+        cache = Medias.create("xmlcache.bin");
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        UtilFolder.deleteDirectory(folder.getFile());
+        assertTrue(cache.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Clean up cache.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        XmlCache.unload();
+    }
+
+    /**
+     * Test constructor.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    public void testConstructor() throws Exception
+    {
+        assertPrivateConstructor(XmlCache.class);
+    }
+
+    /**
+     * Test cached content is the same as parsed content.
+     */
+    @Test
+    public void testCompile()
+    {
+        assertEquals(2, XmlCache.compile(folder, cache));
+
+        final Xml expected = new Xml(first);
+        XmlCache.load(cache);
+
+        assertTrue(XmlCache.contains(first));
+        assertTrue(XmlCache.contains(second));
+        assertFalse(XmlCache.contains(cache));
+
+        final Xml cached = new Xml(first);
+        assertEquals(expected.getNodeName(), cached.getNodeName());
+        assertEquals(1, cached.readInteger("value"));
+        assertEquals("text é", cached.getChild("child").getText());
+
+        final Collection<Xml> nodes = cached.getChildren("node");
+        assertEquals(2, nodes.size());
+        final Xml node = nodes.iterator().next();
+        assertEquals("a", node.readString("name"));
+        assertTrue(node.getChild("leaf").readBoolean("flag"));
+
+        assertEquals(2.5, new Xml(second).readDouble("value"));
+    }
+
+    /**
+     * Test cache is used instead of file, and file is used again once unloaded.
+     */
+    @Test
+    public void testLoadUnload()
+    {
+        XmlCache.compile(folder, cache);
+        XmlCache.load(cache);
+
+        final Xml changed = new Xml("other");
+        changed.writeDouble("value", 3.5);
+        changed.save(second);
+
+        assertEquals(2.5, new Xml(second).readDouble("value"));
+
+        XmlCache.unload();
+
+        assertFalse(XmlCache.contains(second));
+        assertEquals(3.5, new Xml(second).readDouble("value"));
+
+        final Xml restore = new Xml("other");
+        restore.writeDouble("value", 2.5);
+        restore.save(second);
+    }
+
+    /**
+     * Test invalid cache.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalid() throws IOException
+    {
+        final Media invalid = Medias.create("xmlcache", "invalid.bin");
+        try (OutputStream output = invalid.getOutputStream())
+        {
+            output.write(new byte[]
+            {
+                1, 2, 3, 4, 5, 6, 7, 8
+            });
+        }
+
+        assertThrows(() -> XmlCache.load(invalid), "[" + invalid.getPath() + "] " + XmlCache.ERROR_FORMAT);
+        assertFalse(XmlCache.contains(first));
+        assertTrue(invalid.getFile().delete());
+    }
+}
@@ -60,6 +60,18 @@ public class GraphicMock implements Graphic
         // Mock
     }
 
+    @Override
+    public void setClip(int x, int y, int width, int height)
+    {
+        // Mock
+    }
+
+    @Override
+    public void resetClip()
+    {
+        // Mock
+    }
+
     @Override
     public void drawImage(ImageSurface image, int x, int y)
     {
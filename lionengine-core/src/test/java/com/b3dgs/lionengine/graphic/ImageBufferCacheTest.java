@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.graphic.drawable.Drawable;
+import com.b3dgs.lionengine.graphic.drawable.Sprite;
+
+/**
+ * Test {@link ImageBufferCache}.
+ */
+public final class ImageBufferCacheTest
+{
+    /** Image size in bytes. */
+    private static final long SIZE = 64L * 32L * 4L;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setLoadFromJar(ImageBufferCacheTest.class);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setLoadFromJar(null);
+    }
+
+    /** Decoding count. */
+    private final AtomicInteger decoded = new AtomicInteger();
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void beforeTest()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock()
+        {
+            @Override
+            public ImageBuffer getImageBuffer(Media media)
+            {
+                decoded.incrementAndGet();
+                return new ImageBufferMock(64, 32);
+            }
+        });
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        Graphics.setCache(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Test acquire and release with metrics.
+     */
+    @Test
+    public void testAcquireRelease()
+    {
+        final ImageBufferCache cache = new ImageBufferCache(SIZE);
+        final Media media = Medias.create("image.png");
+
+        final ImageBuffer first = cache.acquire(media);
+        final ImageBuffer second = cache.acquire(media);
+
+        assertEquals(first, second);
+        assertEquals(1, decoded.get());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(1L, cache.getHits());
+        assertEquals(SIZE, cache.getBytes());
+        assertEquals(SIZE, cache.getBudget());
+        assertTrue(cache.getDecodeTime() > 0L);
+
+        cache.release(media);
+        cache.release(media);
+
+        assertTrue(cache.contains(media));
+        assertEquals(first, cache.acquire(media));
+        assertEquals(1, decoded.get());
+
+        cache.release(media);
+        cache.clear();
+
+        assertFalse(cache.contains(media));
+        assertEquals(0L, cache.getBytes());
+        assertEquals(1L, cache.getEvictions());
+        assertThrows(() -> cache.release(media), "[image.png] " + ImageBufferCache.ERROR_RELEASE);
+    }
+
+    /**
+     * Test least recently used unreferenced buffers are evicted when budget is exceeded.
+     */
+    @Test
+    public void testBudget()
+    {
+        final ImageBufferCache cache = new ImageBufferCache(SIZE * 2);
+        final Media media1 = Medias.create("image1.png");
+        final Media media2 = Medias.create("image2.png");
+        final Media media3 = Medias.create("image3.png");
+
+        cache.acquire(media1);
+        cache.acquire(media2);
+        cache.acquire(media3);
+
+        assertEquals(SIZE * 3, cache.getBytes());
+        assertEquals(0L, cache.getEvictions());
+
+        cache.release(media2);
+        cache.release(media1);
+
+        assertFalse(cache.contains(media2));
+        assertTrue(cache.contains(media1));
+        assertEquals(SIZE * 2, cache.getBytes());
+
+        cache.acquire(media1);
+        cache.release(media3);
+
+        assertTrue(cache.contains(media1));
+        assertTrue(cache.contains(media3));
+        assertEquals(1L, cache.getEvictions());
+    }
+
+    /**
+     * Test concurrent acquisitions wait for a single decoding.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        final CountDownLatch block = new CountDownLatch(1);
+        final CountDownLatch start = new CountDownLatch(1);
+        Graphics.setFactoryGraphic(new FactoryGraphicMock()
+        {
+            @Override
+            public ImageBuffer getImageBuffer(Media media)
+            {
+                decoded.incrementAndGet();
+                start.countDown();
+                try
+                {
+                    assertTrue(block.await(5L, TimeUnit.SECONDS));
+                }
+                catch (final InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return new ImageBufferMock(64, 32);
+            }
+        });
+        final ImageBufferCache cache = new ImageBufferCache(0L);
+        final Media media = Medias.create("image.png");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<ImageBuffer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.acquire(media)));
+            assertTrue(start.await(5L, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++)
+            {
+                results.add(executor.submit(() -> cache.acquire(media)));
+            }
+            while (cache.getHits() < 3L)
+            {
+                Thread.yield();
+            }
+            block.countDown();
+
+            final ImageBuffer buffer = results.get(0).get();
+            for (final Future<ImageBuffer> result : results)
+            {
+                assertEquals(buffer, result.get());
+            }
+            assertEquals(1, decoded.get());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test sprites share cached surface, and modified sprites do not alter it.
+     */
+    @Test
+    public void testSprite()
+    {
+        final ImageBufferCache cache = new ImageBufferCache(SIZE);
+        Graphics.setCache(cache);
+        final Media media = Medias.create("image.png");
+
+        final Sprite sprite1 = Drawable.loadSprite(media);
+        final Sprite sprite2 = Drawable.loadSprite(media);
+        sprite1.load();
+        sprite2.load();
+
+        assertEquals(sprite1.getSurface(), sprite2.getSurface());
+        assertEquals(1, decoded.get());
+
+        final int rgb = sprite1.getSurface().getRgb(0, 0);
+        sprite2.setAlpha(128);
+
+        assertNotEquals(sprite1.getSurface(), sprite2.getSurface());
+        assertEquals(rgb, sprite1.getSurface().getRgb(0, 0));
+
+        sprite1.dispose();
+        sprite2.dispose();
+
+        assertTrue(cache.contains(media));
+        assertEquals(SIZE, cache.getBytes());
+        assertThrows(() -> cache.release(media), "[image.png] " + ImageBufferCache.ERROR_RELEASE);
+    }
+}
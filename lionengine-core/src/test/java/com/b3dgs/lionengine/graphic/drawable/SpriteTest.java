@@ -27,6 +27,9 @@ import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -43,6 +46,7 @@ import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferCache;
 import com.b3dgs.lionengine.graphic.filter.FilterBilinear;
 
 /**
@@ -461,6 +465,45 @@ public final class SpriteTest
         surface.dispose();
     }
 
+    /**
+     * Test equals with cache, where sprites loaded from the same media share their surface but remain different.
+     */
+    @Test
+    public void testEqualsCache()
+    {
+        Graphics.setCache(new ImageBufferCache(Long.MAX_VALUE));
+        try
+        {
+            final Media media = Medias.create("image.png");
+            final Sprite sprite1 = new SpriteImpl(media);
+            final Sprite sprite2 = new SpriteImpl(media);
+            sprite1.load();
+            sprite2.load();
+
+            assertEquals(sprite1.getSurface(), sprite2.getSurface());
+            assertNotEquals(sprite1, sprite2);
+
+            final Set<Sprite> sprites = new HashSet<>();
+            sprites.add(sprite1);
+            sprites.add(sprite2);
+            assertEquals(2, sprites.size());
+
+            final int hash = sprite1.hashCode();
+            sprite1.setFade(128, 128);
+
+            assertEquals(hash, sprite1.hashCode());
+            assertTrue(sprites.contains(sprite1));
+            assertNotEquals(sprite1, sprite2);
+
+            sprite1.dispose();
+            sprite2.dispose();
+        }
+        finally
+        {
+            Graphics.setCache(null);
+        }
+    }
+
     /**
      * Test hash code.
      */
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link DirtyRegion}.
+ */
+public final class DirtyRegionTest
+{
+    /**
+     * Test union of rectangles, clipped to bounds.
+     */
+    @Test
+    public void testUnion()
+    {
+        final DirtyRegion region = new DirtyRegion(320, 240);
+
+        assertFalse(region.isEmpty());
+        assertEquals(0, region.getX());
+        assertEquals(0, region.getY());
+        assertEquals(320, region.getWidth());
+        assertEquals(240, region.getHeight());
+
+        region.clear();
+
+        assertTrue(region.isEmpty());
+        assertEquals(0, region.getWidth());
+        assertEquals(0, region.getHeight());
+
+        region.add(10, 20, 5, 5);
+        region.add(100, 50, 10, 20);
+
+        assertFalse(region.isEmpty());
+        assertEquals(10, region.getX());
+        assertEquals(20, region.getY());
+        assertEquals(100, region.getWidth());
+        assertEquals(50, region.getHeight());
+
+        region.clear();
+        region.add(-10, 230, 20, 20);
+
+        assertEquals(0, region.getX());
+        assertEquals(230, region.getY());
+        assertEquals(10, region.getWidth());
+        assertEquals(10, region.getHeight());
+    }
+
+    /**
+     * Test rectangles out of bounds, and bounds change.
+     */
+    @Test
+    public void testBounds()
+    {
+        final DirtyRegion region = new DirtyRegion(320, 240);
+        region.clear();
+        region.add(320, 0, 10, 10);
+        region.add(-10, 0, 10, 10);
+        region.add(0, 0, 0, 10);
+
+        assertTrue(region.isEmpty());
+
+        region.setBounds(640, 480);
+
+        assertEquals(640, region.getWidth());
+        assertEquals(480, region.getHeight());
+
+        region.clear();
+        region.addAll();
+
+        assertEquals(0, region.getX());
+        assertEquals(0, region.getY());
+        assertEquals(640, region.getWidth());
+        assertEquals(480, region.getHeight());
+    }
+}
@@ -18,6 +18,7 @@
 package com.b3dgs.lionengine.graphic.engine;
 
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -58,5 +59,6 @@ public final class FrameTest
         frame.check();
 
         assertFalse(result.get());
+        assertTrue(frame.isDirty());
     }
 }
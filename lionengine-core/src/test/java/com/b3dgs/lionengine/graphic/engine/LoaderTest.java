@@ -141,6 +141,15 @@ public final class LoaderTest
         Loader.start(CONFIG, SequenceArgumentsMock.class, new Object()).await();
     }
 
+    /**
+     * Test with a sequence using dirty rendering.
+     */
+    @Test
+    public void testSequenceDirty()
+    {
+        Loader.start(CONFIG, SequenceDirtyMock.class).await();
+    }
+
     /**
      * Test with timed out screen.
      */
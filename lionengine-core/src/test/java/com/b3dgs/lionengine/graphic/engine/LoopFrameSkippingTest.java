@@ -22,6 +22,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.AfterAll;
@@ -65,6 +66,7 @@ public final class LoopFrameSkippingTest
     private final AtomicLong tick = new AtomicLong();
     private final AtomicLong maxTick = new AtomicLong(4);
     private final AtomicLong pause = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
     private final Loop loop = new LoopFrameSkipping();
     private final CountDownLatch latch = new CountDownLatch(1);
 
@@ -87,6 +89,12 @@ public final class LoopFrameSkippingTest
                 }
             }
 
+            @Override
+            public boolean isDirty()
+            {
+                return dirty.get();
+            }
+
             @Override
             public void render()
             {
@@ -130,6 +138,26 @@ public final class LoopFrameSkippingTest
         assertTrue(computed.get() > 0, String.valueOf(computed.get()));
     }
 
+    /**
+     * Test loop with unchanged frame, which is not rendered.
+     */
+    @Test
+    public void testClean()
+    {
+        ScreenMock.setScreenWait(false);
+
+        final Screen screen = new ScreenMock(new Config(new Resolution(320, 240, 50), 16, true));
+        dirty.set(false);
+
+        final Thread thread = getTask(screen);
+        thread.start();
+
+        assertTimeout(1000L, thread::join);
+        assertEquals(maxTick.get(), tick.get());
+        assertEquals(0L, rendered.get());
+        assertTrue(computed.get() > 0, String.valueOf(computed.get()));
+    }
+
     /**
      * Test with slow rendering.
      */
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.graphic.Graphic;
+
+/**
+ * Sequence with dirty rendering mock.
+ */
+final class SequenceDirtyMock extends Sequence
+{
+    private final AtomicInteger rendered = new AtomicInteger();
+    private int tick;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     */
+    SequenceDirtyMock(Context context)
+    {
+        super(context, UtilTests.RESOLUTION_320_240, new LoopUnlocked());
+
+        setDirtyRendering(true);
+    }
+
+    @Override
+    public void load()
+    {
+        assertFalse(getDirtyRegion().isEmpty());
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        tick++;
+        if (tick == 2)
+        {
+            assertEquals(1, rendered.get());
+            assertTrue(getDirtyRegion().isEmpty());
+        }
+        else if (tick == 3)
+        {
+            assertEquals(1, rendered.get());
+            getDirtyRegion().add(10, 10, 5, 5);
+        }
+        else if (tick == 4)
+        {
+            assertEquals(2, rendered.get());
+            assertTrue(getDirtyRegion().isEmpty());
+            notifyExposed();
+        }
+        else if (tick == 5)
+        {
+            assertEquals(3, rendered.get());
+            assertTrue(getDirtyRegion().isEmpty());
+            setDirtyRendering(false);
+        }
+        else if (tick == 6)
+        {
+            assertEquals(4, rendered.get());
+            end();
+        }
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        rendered.incrementAndGet();
+    }
+}
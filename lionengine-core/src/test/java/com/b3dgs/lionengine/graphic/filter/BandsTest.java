@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link Bands}.
+ */
+public final class BandsTest
+{
+    /**
+     * Test that each row is processed exactly once, and bands are contiguous.
+     */
+    @Test
+    public void testProcess()
+    {
+        for (final int rows : new int[]
+        {
+            0, 1, Bands.MIN_ROWS - 1, Bands.MIN_ROWS * 2, 1081
+        })
+        {
+            final AtomicIntegerArray counts = new AtomicIntegerArray(rows);
+            Bands.process(rows, (start, end) ->
+            {
+                assertTrue(start < end);
+                for (int y = start; y < end; y++)
+                {
+                    counts.incrementAndGet(y);
+                }
+            });
+            for (int y = 0; y < rows; y++)
+            {
+                assertEquals(1, counts.get(y));
+            }
+        }
+    }
+
+    /**
+     * Test that forked bands are done when the caller thread band fails.
+     */
+    @Test
+    public void testCallerFailure()
+    {
+        final int rows = Bands.MIN_ROWS * 2;
+        final AtomicInteger done = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> Bands.process(rows, (start, end) ->
+        {
+            if (end == rows)
+            {
+                throw new IllegalStateException("band");
+            }
+            try
+            {
+                Thread.sleep(50L);
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            done.addAndGet(end - start);
+        }), "band");
+
+        assertEquals(rows / 2, done.get());
+    }
+
+    /**
+     * Test array reuse.
+     */
+    @Test
+    public void testReuse()
+    {
+        final int[] array = Bands.reuse(null, 4);
+
+        assertEquals(4, array.length);
+        assertTrue(array == Bands.reuse(array, 4));
+        assertNotEquals(array, Bands.reuse(array, 5));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter a frame with each filter, at low resolution, 1080p and 4K. Scaling filters output is 2 or 3 times larger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterBenchmark
+{
+    /** Large blur radius. */
+    private static final float LARGE_RADIUS = 24.0F;
+
+    /** Frame resolution. */
+    @Param({"320x240", "1920x1080", "3840x2160"})
+    private String resolution;
+    /** Source frame. */
+    private ImageBuffer source;
+    /** Blur filter. */
+    private Filter blur;
+    /** Large radius gaussian blur filter, with pooled destination. */
+    private FilterBlur blurLarge;
+    /** Large radius box blur filter, with pooled destination. */
+    private FilterBlur blurBox;
+    /** Bilinear filter. */
+    private Filter bilinear;
+    /** Hq2x filter. */
+    private Filter hq2x;
+    /** Hq3x filter. */
+    private Filter hq3x;
+
+    /**
+     * Create frame and filters.
+     */
+    @Setup
+    public void setup()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+
+        final String[] size = resolution.split("x");
+        final int width = Integer.parseInt(size[0]);
+        final int height = Integer.parseInt(size[1]);
+        source = Graphics.createImageBuffer(width, height);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                source.setRgb(x, y, 0xFF_00_00_00 | x / 8 % 3 * 0x7F_00_00 | y / 8 % 5 * 0x3F);
+            }
+        }
+
+        blur = new FilterBlur();
+        blurLarge = new FilterBlur();
+        blurLarge.setRadius(LARGE_RADIUS);
+        blurBox = new FilterBlur();
+        blurBox.setRadius(LARGE_RADIUS);
+        blurBox.setMode(FilterBlur.MODE_BOX);
+        bilinear = new FilterBilinear();
+        hq2x = new FilterHq2x();
+        hq3x = new FilterHq3x();
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        source.dispose();
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Apply blur.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer blur()
+    {
+        return blur.filter(source);
+    }
+
+    /**
+     * Apply large radius gaussian blur.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer blurLarge()
+    {
+        return blurLarge.filterPooled(source);
+    }
+
+    /**
+     * Apply large radius box blur.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer blurBox()
+    {
+        return blurBox.filterPooled(source);
+    }
+
+    /**
+     * Apply bilinear.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer bilinear()
+    {
+        return bilinear.filter(source);
+    }
+
+    /**
+     * Apply hq2x, using {@link RawScale2x}.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer hq2x()
+    {
+        return hq2x.filter(source);
+    }
+
+    /**
+     * Apply hq3x, using {@link RawScale3x}.
+     * 
+     * @return The filtered image.
+     */
+    @Benchmark
+    public ImageBuffer hq3x()
+    {
+        return hq3x.filter(source);
+    }
+}
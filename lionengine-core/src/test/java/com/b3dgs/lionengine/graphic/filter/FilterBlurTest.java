@@ -18,8 +18,11 @@
 package com.b3dgs.lionengine.graphic.filter;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -105,6 +108,140 @@ public final class FilterBlurTest
         filtered.dispose();
     }
 
+    /**
+     * Test that reused buffers do not change result, with images large enough to be processed in several bands.
+     */
+    @Test
+    public void testReuse()
+    {
+        final ImageBuffer large = Graphics.createImageBuffer(Bands.MIN_ROWS * 3, Bands.MIN_ROWS * 5);
+        final ImageBuffer small = Graphics.createImageBuffer(Bands.MIN_ROWS, Bands.MIN_ROWS * 2);
+        for (final ImageBuffer image : new ImageBuffer[]
+        {
+            large, small
+        })
+        {
+            for (int y = 0; y < image.getHeight(); y++)
+            {
+                for (int x = 0; x < image.getWidth(); x++)
+                {
+                    image.setRgb(x, y, 0xFF_00_00_00 | (x * 31 + y * 17) % 0x100 << 16 | (x ^ y) & 0xFF);
+                }
+            }
+        }
+
+        final FilterBlur blur = new FilterBlur();
+        final ImageBuffer expected = blur.filter(large);
+        final ImageBuffer other = blur.filter(small);
+        final ImageBuffer filtered = blur.filter(large);
+
+        for (int y = 0; y < large.getHeight(); y++)
+        {
+            for (int x = 0; x < large.getWidth(); x++)
+            {
+                assertEquals(expected.getRgb(x, y), filtered.getRgb(x, y));
+            }
+        }
+
+        large.dispose();
+        small.dispose();
+        expected.dispose();
+        other.dispose();
+        filtered.dispose();
+    }
+
+    /**
+     * Test kernels and divide tables cache stays bounded with an animated radius.
+     */
+    @Test
+    public void testCacheBounded()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(8, 8);
+        final FilterBlur blur = new FilterBlur();
+        for (int i = 1; i < 200; i++)
+        {
+            blur.setRadius(i / 4.0F);
+            blur.setMode(FilterBlur.MODE_GAUSSIAN);
+            assertNotNull(blur.filterPooled(image));
+            blur.setMode(FilterBlur.MODE_BOX);
+            assertNotNull(blur.filterPooled(image));
+
+            assertTrue(FilterBlur.getCached() <= FilterBlur.CACHE_SIZE * 2);
+        }
+        image.dispose();
+    }
+
+    /**
+     * Test box mode, against gaussian mode on a flat image and a single dot.
+     */
+    @Test
+    public void testBox()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(16, 16);
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                image.setRgb(x, y, 0xFF_40_80_C0);
+            }
+        }
+        final FilterBlur blur = new FilterBlur();
+        blur.setMode(FilterBlur.MODE_BOX);
+        blur.setRadius(9.0F);
+
+        final ImageBuffer flat = blur.filter(image);
+        assertEquals(0xFF_40_80_C0, flat.getRgb(0, 0));
+        assertEquals(0xFF_40_80_C0, flat.getRgb(8, 8));
+
+        image.setRgb(8, 8, 0xFF_FF_FF_FF);
+        final ImageBuffer box = blur.filter(image);
+        blur.setMode(FilterBlur.MODE_GAUSSIAN);
+        final ImageBuffer gaussian = blur.filter(image);
+
+        assertTrue(box.getRgb(8, 8) != 0xFF_FF_FF_FF);
+        assertTrue(box.getRgb(8, 8) != 0xFF_40_80_C0);
+        assertTrue(Math.abs((box.getRgb(8, 8) & 0xFF) - (gaussian.getRgb(8, 8) & 0xFF)) < 4);
+        assertTrue(Math.abs((box.getRgb(10, 8) & 0xFF) - (gaussian.getRgb(10, 8) & 0xFF)) < 4);
+
+        image.dispose();
+        flat.dispose();
+        box.dispose();
+        gaussian.dispose();
+    }
+
+    /**
+     * Test caller destination and pooled destination.
+     */
+    @Test
+    public void testDestination()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(8, 8);
+        image.setRgb(4, 4, 0xFF_FF_FF_FF);
+        final ImageBuffer destination = Graphics.createImageBuffer(8, 8);
+        final FilterBlur blur = new FilterBlur();
+        final ImageBuffer expected = blur.filter(image);
+
+        assertTrue(destination == blur.filter(image, destination));
+        assertEquals(expected.getRgb(4, 4), destination.getRgb(4, 4));
+        assertEquals(expected.getRgb(3, 4), destination.getRgb(3, 4));
+        assertFalse(blur.filter(image) == blur.filter(image));
+
+        final ImageBuffer pooled = blur.filterPooled(image);
+
+        assertTrue(pooled == blur.filterPooled(image));
+        assertFalse(pooled == blur.filter(image));
+        assertEquals(expected.getRgb(4, 4), pooled.getRgb(4, 4));
+
+        final ImageBuffer other = Graphics.createImageBuffer(9, 8);
+        assertFalse(pooled == blur.filterPooled(other));
+        assertThrows(() -> blur.filter(other, destination), "Invalid argument: 8 is not equal to 9");
+
+        image.dispose();
+        destination.dispose();
+        expected.dispose();
+        other.dispose();
+    }
+
     /**
      * Test without pixel.
      */
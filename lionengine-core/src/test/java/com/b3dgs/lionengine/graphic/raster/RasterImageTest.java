@@ -21,6 +21,8 @@ import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.io.File;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -178,4 +180,54 @@ public final class RasterImageTest
             UtilFolder.deleteDirectory(folder.getFile());
         }
     }
+
+    /**
+     * Test checksum cache, shared by images of same content only.
+     */
+    @Test
+    public void testChecksumCache()
+    {
+        final Media mediaRaster = Medias.create("raster.xml");
+        final Media cache = Medias.create("checksum");
+        RasterImage.setCache(cache);
+        try
+        {
+            final RasterImage raster = new RasterImage(new ImageBufferMock(100, 200), mediaRaster, 100, true);
+            raster.loadRasters(50);
+
+            assertEquals(30, raster.getRasters().size());
+            assertEquals(100, raster.getRaster(0).getWidth());
+            assertEquals(1, cache.getFile().listFiles().length);
+
+            final File folder = cache.getFile().listFiles()[0];
+            for (int i = 0; i < 30; i++)
+            {
+                final File file = new File(folder, i + Constant.DOT + ImageFormat.PNG);
+
+                assertTrue(file.isFile(), file.getAbsolutePath());
+            }
+
+            final RasterImage cached = new RasterImage(new ImageBufferMock(100, 200), mediaRaster, 100, true);
+            cached.loadRasters(50);
+
+            assertEquals(30, cached.getRasters().size());
+            assertEquals(64, cached.getRaster(0).getWidth());
+            assertEquals(32, cached.getRaster(29).getHeight());
+            assertEquals(1, cache.getFile().listFiles().length);
+
+            final ImageBufferMock other = new ImageBufferMock(100, 200);
+            other.setRgb(1, 2, 3);
+            final RasterImage generated = new RasterImage(other, mediaRaster, 100, false);
+            generated.loadRasters(50);
+
+            assertEquals(15, generated.getRasters().size());
+            assertEquals(100, generated.getRaster(0).getWidth());
+            assertEquals(2, cache.getFile().listFiles().length);
+        }
+        finally
+        {
+            RasterImage.setCache(null);
+            UtilFolder.deleteDirectory(cache.getFile());
+        }
+    }
 }
@@ -17,11 +17,18 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.Collection;
+
 import com.b3dgs.lionengine.Updatable;
 
 /**
  * Describe the main component requirement, which is aimed to provide {@link Updatable} feature for a {@link Featurable}
  * .
+ * <p>
+ * A component declaring the types it reads and writes ({@link #getReads()}, {@link #getWrites()}) may be updated by
+ * {@link Handler} on a worker thread, concurrently with the components it does not conflict with. Components which do
+ * not declare them are updated alone, on the handler thread, in their order.
+ * </p>
  * 
  * @see Updatable
  */
@@ -34,4 +41,53 @@ public interface ComponentUpdater
      * @param featurables The featurables reference.
      */
     void update(double extrp, Handlables featurables);
+
+    /**
+     * Get the types read during update (featurable or feature types).
+     * 
+     * @return The read types, <code>null</code> if undeclared (component is then updated alone).
+     */
+    default Collection<Class<?>> getReads()
+    {
+        return null;
+    }
+
+    /**
+     * Get the types written during update (featurable or feature types).
+     * 
+     * @return The written types, <code>null</code> if undeclared (component is then updated alone).
+     */
+    default Collection<Class<?>> getWrites()
+    {
+        return null;
+    }
+
+    /**
+     * Check if component can be updated from a worker thread, concurrently with non conflicting components. Override
+     * to opt out, even with declared types.
+     * <p>
+     * A worker updated component may only access the types it declared, and may request
+     * {@link Handler#add(Featurable)}, {@link Handler#remove(com.b3dgs.lionengine.game.FeatureProvider)},
+     * {@link Handler#removeAll()} or featurable destruction, which are queued until next update. It must not add or
+     * remove components or listeners, nor access any other shared state without its own synchronization.
+     * </p>
+     * 
+     * @return <code>true</code> if thread safe, <code>false</code> to be updated alone on the handler thread.
+     */
+    default boolean isThreadSafe()
+    {
+        return true;
+    }
+
+    /**
+     * Check if component can be updated concurrently on disjoint partitions of the featurables. Each partition only
+     * provides a contiguous part of each type from {@link Handlables#get(Class)}, so component must not access an
+     * object from another one.
+     * 
+     * @return <code>true</code> if can be partitioned, <code>false</code> else.
+     */
+    default boolean isPartitioned()
+    {
+        return false;
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.graphic.engine.DirtyRegion;
+import com.b3dgs.lionengine.graphic.engine.Sequence;
+
+/**
+ * Report screen changes to the {@link DirtyRegion} used by {@link Sequence#setDirtyRendering(boolean)}.
+ * <p>
+ * Old and new bounds of each tracked {@link Transformable} are marked on transform, with a margin in any direction
+ * as origin is unknown. Whole screen is marked when viewer moves, so tracker should be refreshed after camera moves.
+ * </p>
+ */
+public class DirtyTracker extends FeaturableModel implements TransformableListener
+{
+    /** Dirty region. */
+    private final DirtyRegion region;
+    /** Viewer reference. */
+    private final Viewer viewer;
+    /** Bounds margin. */
+    private int margin;
+    /** Last viewer horizontal location. */
+    private double x = Double.NaN;
+    /** Last viewer vertical location. */
+    private double y = Double.NaN;
+
+    /**
+     * Create tracker.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link Viewer}</li>
+     * <li>{@link DirtyRegion}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     */
+    public DirtyTracker(Services services)
+    {
+        super();
+
+        viewer = services.get(Viewer.class);
+        region = services.get(DirtyRegion.class);
+
+        addFeature(new RefreshableModel(extrp ->
+        {
+            if (Double.compare(x, viewer.getX()) != 0 || Double.compare(y, viewer.getY()) != 0)
+            {
+                region.addAll();
+                x = viewer.getX();
+                y = viewer.getY();
+            }
+        }));
+    }
+
+    /**
+     * Set bounds margin, for renderings larger than transformable size.
+     * 
+     * @param margin The margin in pixel.
+     */
+    public void setMargin(int margin)
+    {
+        this.margin = margin;
+    }
+
+    /**
+     * Track the specified featurable.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link Transformable}</li>
+     * </ul>
+     * 
+     * @param featurable The featurable to track.
+     * @throws LionEngineException If missing feature.
+     */
+    public void track(Featurable featurable)
+    {
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.addListener(this);
+        notifyTransformed(transformable);
+    }
+
+    /**
+     * Stop tracking the specified featurable, marking its current bounds.
+     * <p>
+     * The {@link Featurable} must have:
+     * </p>
+     * <ul>
+     * <li>{@link Transformable}</li>
+     * </ul>
+     * 
+     * @param featurable The featurable to untrack.
+     * @throws LionEngineException If missing feature.
+     */
+    public void untrack(Featurable featurable)
+    {
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.removeListener(this);
+        add(transformable.getX(), transformable.getY(), transformable.getWidth(), transformable.getHeight());
+    }
+
+    /**
+     * Mark bounds on screen.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The width.
+     * @param height The height.
+     */
+    private void add(double x, double y, int width, int height)
+    {
+        final int w = width + margin;
+        final int h = height + margin;
+        final int sx = (int) Math.floor(viewer.getViewpointX(x)) - w;
+        final int sy = (int) Math.floor(viewer.getViewpointY(y)) - h;
+        region.add(sx, sy, w * 2 + 1, h * 2 + 1);
+    }
+
+    /*
+     * TransformableListener
+     */
+
+    @Override
+    public void notifyTransformed(Transformable transformable)
+    {
+        add(transformable.getOldX(),
+            transformable.getOldY(),
+            transformable.getOldWidth(),
+            transformable.getOldHeight());
+        add(transformable.getX(), transformable.getY(), transformable.getWidth(), transformable.getHeight());
+    }
+}
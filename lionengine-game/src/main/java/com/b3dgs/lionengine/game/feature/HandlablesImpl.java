@@ -18,11 +18,13 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilReflection;
@@ -30,16 +32,82 @@ import com.b3dgs.lionengine.game.Feature;
 
 /**
  * Handlables implementation.
+ * <p>
+ * Types of an object are computed once per concrete class and cached. Each type stores its objects in a dense array,
+ * in insertion order, removed by swapping with the last one, so add and remove only cost the number of types of the
+ * featurable and its features.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
     /** Featurable not found error. */
     static final String ERROR_FEATURABLE_NOT_FOUND = "Featurable not found: ";
+    /** Featurable types by concrete class. */
+    private static final Map<Class<?>, Class<?>[]> FEATURABLE_TYPES = new ConcurrentHashMap<>();
+    /** Feature types by concrete class. */
+    private static final Map<Class<?>, Class<?>[]> FEATURE_TYPES = new ConcurrentHashMap<>();
+
+    /**
+     * Get the featurable types: its class, and the interfaces of each class level.
+     * 
+     * @param type The featurable class.
+     * @return The featurable types.
+     */
+    private static Class<?>[] getFeaturableTypes(Class<?> type)
+    {
+        Class<?>[] types = FEATURABLE_TYPES.get(type);
+        if (types == null)
+        {
+            final Set<Class<?>> found = new LinkedHashSet<>();
+            found.add(type);
+            Class<?> current = type;
+            while (current != null)
+            {
+                for (final Class<?> other : current.getInterfaces())
+                {
+                    found.add(other);
+                }
+                current = current.getSuperclass();
+            }
+            types = found.toArray(new Class<?>[found.size()]);
+            FEATURABLE_TYPES.put(type, types);
+        }
+        return types;
+    }
+
+    /**
+     * Get the feature types: each type it is referenced as by the featurable, and their feature interfaces.
+     * 
+     * @param featurable The featurable owner.
+     * @param feature The feature reference.
+     * @return The feature types.
+     */
+    private static Class<?>[] getFeatureTypes(Featurable featurable, Feature feature)
+    {
+        Class<?>[] types = FEATURE_TYPES.get(feature.getClass());
+        if (types == null)
+        {
+            final Set<Class<?>> found = new LinkedHashSet<>();
+            for (final Class<? extends Feature> type : featurable.getFeaturesType())
+            {
+                if (featurable.getFeature(type) == feature)
+                {
+                    found.add(type);
+                    found.addAll(UtilReflection.getInterfaces(type, Feature.class));
+                }
+            }
+            types = found.toArray(new Class<?>[found.size()]);
+            FEATURE_TYPES.put(feature.getClass(), types);
+        }
+        return types;
+    }
 
     /** List of featurables (key is the featurable ID). */
     private final Map<Integer, Featurable> featurables = new HashMap<>();
-    /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items = new HashMap<>();
+    /** Featurables membership (key is the featurable ID). */
+    private final Map<Integer, Membership> memberships = new HashMap<>();
+    /** List of typed items (key is the feature type). Concurrent as it may be read by parallel components. */
+    private final Map<Class<?>, TypeList> items = new ConcurrentHashMap<>();
 
     /**
      * Create the handlables.
@@ -56,24 +124,30 @@ final class HandlablesImpl implements Handlables
      */
     public void add(Featurable featurable)
     {
-        featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
+        final Integer id = featurable.getFeature(Identifiable.class).getId();
+        remove(featurable, id);
+        featurables.put(id, featurable);
 
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        final Class<?>[] featurableTypes = getFeaturableTypes(featurable.getClass());
+        int count = featurableTypes.length;
+        for (final Feature feature : featurable.getFeatures())
         {
-            addType(type, featurable);
+            count += getFeatureTypes(featurable, feature).length;
         }
 
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+        final Membership membership = new Membership(count);
+        for (final Class<?> type : featurableTypes)
         {
-            final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            getList(type).add(featurable, membership);
+        }
+        for (final Feature feature : featurable.getFeatures())
+        {
+            for (final Class<?> type : getFeatureTypes(featurable, feature))
             {
-                addType(other, object);
+                getList(type).add(feature, membership);
             }
         }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
+        memberships.put(id, membership);
     }
 
     /**
@@ -84,24 +158,14 @@ final class HandlablesImpl implements Handlables
      */
     public void remove(Featurable featurable, Integer id)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            remove(type, featurable);
-        }
-
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+        final Membership membership = memberships.remove(id);
+        if (membership != null)
         {
-            final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            for (int i = membership.size - 1; i >= 0; i--)
             {
-                remove(other, object);
+                membership.lists[i].remove(membership.slots[i]);
             }
-
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
-
         featurables.remove(id);
     }
 
@@ -116,71 +180,36 @@ final class HandlablesImpl implements Handlables
     }
 
     /**
-     * Add a type from its interface.
+     * Get the list of a type, created if needed.
      * 
-     * @param type The type interface.
-     * @param object The type value.
-     */
-    private void addType(Class<?> type, Object object)
-    {
-        if (!items.containsKey(type))
-        {
-            items.put(type, new HashSet<>());
-        }
-        items.get(type).add(object);
-    }
-
-    /**
-     * Add object parent super type.
-     * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
-     */
-    private void addSuperClass(Object object, Class<?> type)
-    {
-        for (final Class<?> types : type.getInterfaces())
-        {
-            addType(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            addSuperClass(object, parent);
-        }
-    }
-
-    /**
-     * Remove object parent super type.
-     * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param type The type reference.
+     * @return The type list.
      */
-    private void removeSuperClass(Object object, Class<?> type)
+    private TypeList getList(Class<?> type)
     {
-        for (final Class<?> types : type.getInterfaces())
+        TypeList list = items.get(type);
+        if (list == null)
         {
-            remove(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            removeSuperClass(object, parent);
+            list = items.computeIfAbsent(type, key -> new TypeList());
         }
+        return list;
     }
 
     /**
-     * Remove the object from its type list.
+     * Get a contiguous partition of the featurables of this type. Partitions are computed from the current size when
+     * iterated.
      * 
-     * @param type The type reference.
-     * @param object The object reference.
+     * @param <I> The featurable interface type.
+     * @param type The expected type.
+     * @param partition The partition index.
+     * @param partitions The number of partitions.
+     * @return The featurables of this type in partition.
      */
-    private void remove(Class<?> type, Object object)
+    @SuppressWarnings("unchecked")
+    public <I> Iterable<I> get(Class<I> type, int partition, int partitions)
     {
-        final Set<?> set = items.get(type);
-        if (set != null)
-        {
-            set.remove(object);
-        }
+        final TypeList list = getList(type);
+        return () -> (Iterator<I>) list.iterator(partition, partitions);
     }
 
     /*
@@ -202,12 +231,7 @@ final class HandlablesImpl implements Handlables
     @SuppressWarnings("unchecked")
     public <I> Iterable<I> get(Class<I> type)
     {
-        final Set<?> typeFeaturables = items.get(type);
-        if (typeFeaturables != null)
-        {
-            return (Iterable<I>) typeFeaturables;
-        }
-        return Collections.emptySet();
+        return (Iterable<I>) getList(type);
     }
 
     @Override
@@ -215,4 +239,192 @@ final class HandlablesImpl implements Handlables
     {
         return featurables.values();
     }
+
+    /**
+     * Lists and slots where a featurable and its features are stored.
+     */
+    private static final class Membership
+    {
+        /** Type lists. */
+        private final TypeList[] lists;
+        /** Slot in each type list. */
+        private final int[] slots;
+        /** Number of memberships. */
+        private int size;
+
+        /**
+         * Create membership.
+         * 
+         * @param capacity The number of memberships.
+         */
+        Membership(int capacity)
+        {
+            super();
+
+            lists = new TypeList[capacity];
+            slots = new int[capacity];
+        }
+    }
+
+    /**
+     * Dense list of objects of a type. Iteration is a live view.
+     */
+    private static final class TypeList implements Iterable<Object>
+    {
+        /** Default capacity. */
+        private static final int CAPACITY = 8;
+
+        /** Objects. */
+        private Object[] objects = new Object[CAPACITY];
+        /** Membership of each object. */
+        private Membership[] owners = new Membership[CAPACITY];
+        /** Membership index of each object. */
+        private int[] entries = new int[CAPACITY];
+        /** Number of objects. */
+        private int size;
+
+        /**
+         * Create list.
+         */
+        TypeList()
+        {
+            super();
+        }
+
+        /**
+         * Add object at the end, and register its slot in membership.
+         * 
+         * @param object The object to add.
+         * @param membership The object membership.
+         */
+        void add(Object object, Membership membership)
+        {
+            if (size == objects.length)
+            {
+                final int capacity = size * 2;
+                final Object[] newObjects = new Object[capacity];
+                final Membership[] newOwners = new Membership[capacity];
+                final int[] newEntries = new int[capacity];
+                System.arraycopy(objects, 0, newObjects, 0, size);
+                System.arraycopy(owners, 0, newOwners, 0, size);
+                System.arraycopy(entries, 0, newEntries, 0, size);
+                objects = newObjects;
+                owners = newOwners;
+                entries = newEntries;
+            }
+            final int entry = membership.size;
+            membership.lists[entry] = this;
+            membership.slots[entry] = size;
+            membership.size++;
+
+            objects[size] = object;
+            owners[size] = membership;
+            entries[size] = entry;
+            size++;
+        }
+
+        /**
+         * Remove object at slot, replaced by the last one.
+         * 
+         * @param slot The object slot.
+         */
+        void remove(int slot)
+        {
+            final int last = size - 1;
+            if (slot != last)
+            {
+                objects[slot] = objects[last];
+                owners[slot] = owners[last];
+                entries[slot] = entries[last];
+                owners[slot].slots[entries[slot]] = slot;
+            }
+            objects[last] = null;
+            owners[last] = null;
+            size = last;
+        }
+
+        /**
+         * Get an iterator on a contiguous partition, computed from current size.
+         * 
+         * @param partition The partition index.
+         * @param partitions The number of partitions.
+         * @return The partition iterator.
+         */
+        Iterator<Object> iterator(int partition, int partitions)
+        {
+            final long count = size;
+            return new Range((int) (count * partition / partitions), (int) (count * (partition + 1) / partitions));
+        }
+
+        /*
+         * Iterable
+         */
+
+        @Override
+        public Iterator<Object> iterator()
+        {
+            return new Iterator<Object>()
+            {
+                /** Current index. */
+                private int index;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return index < size;
+                }
+
+                @Override
+                public Object next()
+                {
+                    if (index >= size)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return objects[index++];
+                }
+            };
+        }
+
+        /**
+         * Fixed range iterator.
+         */
+        private final class Range implements Iterator<Object>
+        {
+            /** Range end (excluded). */
+            private final int end;
+            /** Current index. */
+            private int index;
+
+            /**
+             * Create range.
+             * 
+             * @param start The range start (included).
+             * @param end The range end (excluded).
+             */
+            Range(int start, int end)
+            {
+                super();
+
+                index = start;
+                this.end = end;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < end;
+            }
+
+            @Override
+            public Object next()
+            {
+                if (index >= end)
+                {
+                    throw new NoSuchElementException();
+                }
+                return objects[index++];
+            }
+        }
+    }
 }
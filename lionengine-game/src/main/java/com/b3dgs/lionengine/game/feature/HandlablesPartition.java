@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+/**
+ * Handlables view of a partition, used to update a partitioned {@link ComponentUpdater}. Only types access is
+ * partitioned, other accesses are delegated to the whole handlables.
+ */
+final class HandlablesPartition implements Handlables
+{
+    /** Handlables reference. */
+    private final HandlablesImpl featurables;
+    /** Partition index. */
+    private final int partition;
+    /** Number of partitions. */
+    private final int partitions;
+
+    /**
+     * Create partition.
+     * 
+     * @param featurables The handlables reference.
+     * @param partition The partition index.
+     * @param partitions The number of partitions.
+     */
+    HandlablesPartition(HandlablesImpl featurables, int partition, int partitions)
+    {
+        super();
+
+        this.featurables = featurables;
+        this.partition = partition;
+        this.partitions = partitions;
+    }
+
+    /*
+     * Handlables
+     */
+
+    @Override
+    public Featurable get(Integer id)
+    {
+        return featurables.get(id);
+    }
+
+    @Override
+    public <I> Iterable<I> get(Class<I> type)
+    {
+        return featurables.get(type, partition, partitions);
+    }
+
+    @Override
+    public Iterable<Featurable> values()
+    {
+        return featurables.values();
+    }
+}
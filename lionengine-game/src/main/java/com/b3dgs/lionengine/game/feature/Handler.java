@@ -21,8 +21,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Updatable;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.graphic.Graphic;
@@ -31,6 +36,17 @@ import com.b3dgs.lionengine.graphic.Renderable;
 /**
  * Designed to handle {@link Featurable}, updating and rendering a set of components.
  * Modifications on the list can be done at any time because they are applied at the beginning of the next update.
+ * <p>
+ * Updaters are scheduled in stages, keeping their order: a component declaring its read and written types (see
+ * {@link ComponentUpdater#getReads()}) joins the earliest stage after the last one containing a conflicting component
+ * (one writes a type the other reads or writes). Components of a stage are updated concurrently on a fork join pool,
+ * partitioned components being split on disjoint parts of the featurables, so result is the same as a sequential
+ * update. Undeclared or not thread safe components are updated alone, on the handler thread.
+ * </p>
+ * <p>
+ * Add and remove requests ({@link #add(Featurable)}, {@link #remove(FeatureProvider)}, {@link #removeAll()} and
+ * featurable destruction) are queued under a lock, so they can be called from worker threads.
+ * </p>
  * 
  * @see HandlerListener
  * @see ComponentUpdater
@@ -46,16 +62,24 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     private final Collection<ComponentRenderer> renderers = new ArrayList<>();
     /** List of featurables. */
     private final HandlablesImpl featurables = new HandlablesImpl();
-    /** To add list. */
+    /** To add list (guarded by {@link #lock}). */
     private final Map<Integer, Featurable> toAdd = new HashMap<>();
-    /** To remove list. */
+    /** To remove list (guarded by {@link #lock}). */
     private final Collection<Integer> toRemove = new HashSet<>();
+    /** Add and remove lists lock. */
+    private final Object lock = new Object();
     /** Services reference. */
     private final Services services;
+    /** Updaters schedule (<code>null</code> if must be computed). */
+    private List<Stage> stages;
+    /** Pool used for parallel update. */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    /** Parallel update flag. */
+    private boolean parallel = true;
     /** Will remove flag. */
-    private boolean willRemove;
+    private volatile boolean willRemove;
     /** Will add flag. */
-    private boolean willAdd;
+    private volatile boolean willAdd;
 
     /**
      * Create a handler.
@@ -98,6 +122,7 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     public final void addComponent(ComponentUpdater component)
     {
         updaters.add(component);
+        stages = null;
         services.add(component);
         if (component instanceof HandlerListener)
         {
@@ -121,6 +146,30 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
         }
     }
 
+    /**
+     * Enable or disable parallel update of components. Enabled by default, on the common pool.
+     * 
+     * @param parallel <code>true</code> to update non conflicting components concurrently, <code>false</code> to
+     *            update all components sequentially on the handler thread.
+     */
+    public final void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Set the pool used for parallel update. Its parallelism is the number of partitions of partitioned components.
+     * 
+     * @param pool The pool reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public final void setPool(ForkJoinPool pool)
+    {
+        Check.notNull(pool);
+
+        this.pool = pool;
+    }
+
     /**
      * Add a featurable to the list. Will be added at the beginning of {@link #update(double)} call.
      * If this function is called during {@link #update(double)}, it will be delayed to next {@link #update(double)}
@@ -135,8 +184,11 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     {
         final Identifiable identifiable = featurable.getFeature(Identifiable.class);
         identifiable.addListener(this);
-        toAdd.put(identifiable.getId(), featurable);
-        willAdd = true;
+        synchronized (lock)
+        {
+            toAdd.put(identifiable.getId(), featurable);
+            willAdd = true;
+        }
     }
 
     /**
@@ -148,8 +200,12 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void remove(FeatureProvider featurable)
     {
-        toRemove.add(featurable.getFeature(Identifiable.class).getId());
-        willRemove = true;
+        final Integer id = featurable.getFeature(Identifiable.class).getId();
+        synchronized (lock)
+        {
+            toRemove.add(id);
+            willRemove = true;
+        }
     }
 
     /**
@@ -159,8 +215,12 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void removeAll()
     {
-        toRemove.addAll(featurables.getIds());
-        willRemove = true;
+        final Collection<Integer> ids = featurables.getIds();
+        synchronized (lock)
+        {
+            toRemove.addAll(ids);
+            willRemove = true;
+        }
     }
 
     /**
@@ -173,12 +233,153 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
         return featurables.getIds().size();
     }
 
+    /**
+     * Check if component can be updated concurrently.
+     * 
+     * @param component The component to check.
+     * @return <code>true</code> if types are declared and component is thread safe, <code>false</code> else.
+     */
+    private static boolean isConcurrent(ComponentUpdater component)
+    {
+        return component.getReads() != null && component.getWrites() != null && component.isThreadSafe();
+    }
+
+    /**
+     * Check if types overlap (same type or one assignable from the other).
+     * 
+     * @param first The first types.
+     * @param second The second types.
+     * @return <code>true</code> if at least one type is shared, <code>false</code> else.
+     */
+    private static boolean overlaps(Collection<Class<?>> first, Collection<Class<?>> second)
+    {
+        for (final Class<?> a : first)
+        {
+            for (final Class<?> b : second)
+            {
+                if (a.isAssignableFrom(b) || b.isAssignableFrom(a))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if concurrent components conflict (one writes a type the other reads or writes).
+     * 
+     * @param first The first component.
+     * @param second The second component.
+     * @return <code>true</code> if conflicting, <code>false</code> else.
+     */
+    private static boolean conflicts(ComponentUpdater first, ComponentUpdater second)
+    {
+        return overlaps(first.getWrites(), second.getWrites())
+               || overlaps(first.getWrites(), second.getReads())
+               || overlaps(first.getReads(), second.getWrites());
+    }
+
+    /**
+     * Get the updaters schedule, computed if needed.
+     * 
+     * @return The stages.
+     */
+    private List<Stage> getStages()
+    {
+        if (stages == null)
+        {
+            final List<Stage> scheduled = new ArrayList<>();
+            for (final ComponentUpdater component : updaters)
+            {
+                if (isConcurrent(component))
+                {
+                    int index = scheduled.size();
+                    for (int i = scheduled.size() - 1; i >= 0 && !scheduled.get(i).conflicts(component); i--)
+                    {
+                        index = i;
+                    }
+                    if (index == scheduled.size())
+                    {
+                        scheduled.add(new Stage(false));
+                    }
+                    scheduled.get(index).components.add(component);
+                }
+                else
+                {
+                    final Stage stage = new Stage(true);
+                    stage.components.add(component);
+                    scheduled.add(stage);
+                }
+            }
+            stages = scheduled;
+        }
+        return stages;
+    }
+
+    /**
+     * Update stage components concurrently. The last task is run on the handler thread.
+     * 
+     * @param extrp The extrapolation value.
+     * @param stage The stage to update.
+     */
+    private void update(double extrp, Stage stage)
+    {
+        final List<Runnable> tasks = new ArrayList<>();
+        final int partitions = pool.getParallelism();
+        for (final ComponentUpdater component : stage.components)
+        {
+            if (component.isPartitioned() && partitions > 1)
+            {
+                for (int i = 0; i < partitions; i++)
+                {
+                    final Handlables partition = new HandlablesPartition(featurables, i, partitions);
+                    tasks.add(() -> component.update(extrp, partition));
+                }
+            }
+            else
+            {
+                tasks.add(() -> component.update(extrp, featurables));
+            }
+        }
+
+        final int last = tasks.size() - 1;
+        final List<ForkJoinTask<?>> forked = new ArrayList<>(last);
+        try
+        {
+            for (int i = 0; i < last; i++)
+            {
+                forked.add(pool.submit(tasks.get(i)));
+            }
+            tasks.get(last).run();
+        }
+        finally
+        {
+            // Never leave a task running on featurables, even if handler thread task failed
+            for (final ForkJoinTask<?> task : forked)
+            {
+                task.quietlyJoin();
+            }
+        }
+        for (final ForkJoinTask<?> task : forked)
+        {
+            task.join();
+        }
+    }
+
     /**
      * Update the add list. Prepare features, add to main list and notify listeners.
      */
     private void updateAdd()
     {
-        for (final Featurable featurable : toAdd.values())
+        final Collection<Featurable> added;
+        synchronized (lock)
+        {
+            added = new ArrayList<>(toAdd.values());
+            toAdd.clear();
+            willAdd = false;
+        }
+        for (final Featurable featurable : added)
         {
             featurables.add(featurable);
             for (final HandlerListener listener : listeners)
@@ -191,8 +392,6 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
                 transformable.teleport(transformable.getX(), transformable.getY());
             }
         }
-        toAdd.clear();
-        willAdd = false;
     }
 
     /**
@@ -200,9 +399,19 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     private void updateRemove()
     {
-        for (final Integer id : toRemove)
+        final Collection<Integer> removed;
+        synchronized (lock)
+        {
+            removed = new ArrayList<>(toRemove);
+        }
+        for (final Integer id : removed)
         {
-            if (toAdd.remove(id) == null)
+            final Featurable pending;
+            synchronized (lock)
+            {
+                pending = toAdd.remove(id);
+            }
+            if (pending == null)
             {
                 final Featurable featurable = featurables.get(id);
                 for (final HandlerListener listener : listeners)
@@ -213,8 +422,12 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
                 featurables.remove(featurable, id);
             }
         }
-        toRemove.clear();
-        willRemove = false;
+        // Removed once handled, as destruction notification adds them again
+        synchronized (lock)
+        {
+            toRemove.removeAll(removed);
+            willRemove = !toRemove.isEmpty();
+        }
     }
 
     /*
@@ -254,9 +467,26 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
         {
             updateAdd();
         }
-        for (final ComponentUpdater component : updaters)
+        if (parallel)
         {
-            component.update(extrp, featurables);
+            for (final Stage stage : getStages())
+            {
+                if (stage.exclusive)
+                {
+                    stage.components.get(0).update(extrp, featurables);
+                }
+                else
+                {
+                    update(extrp, stage);
+                }
+            }
+        }
+        else
+        {
+            for (final ComponentUpdater component : updaters)
+            {
+                component.update(extrp, featurables);
+            }
         }
     }
 
@@ -280,7 +510,55 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     @Override
     public final void notifyDestroyed(Integer id)
     {
-        toRemove.add(id);
-        willRemove = true;
+        synchronized (lock)
+        {
+            toRemove.add(id);
+            willRemove = true;
+        }
+    }
+
+    /**
+     * Group of components updated together.
+     */
+    private static final class Stage
+    {
+        /** Components in stage. */
+        private final List<ComponentUpdater> components = new ArrayList<>();
+        /** Exclusive flag (single component updated on handler thread). */
+        private final boolean exclusive;
+
+        /**
+         * Create stage.
+         * 
+         * @param exclusive <code>true</code> if single component updated on handler thread, <code>false</code> else.
+         */
+        Stage(boolean exclusive)
+        {
+            super();
+
+            this.exclusive = exclusive;
+        }
+
+        /**
+         * Check if component conflicts with stage.
+         * 
+         * @param component The concurrent component to check.
+         * @return <code>true</code> if exclusive stage or conflicting with a stage component, <code>false</code> else.
+         */
+        boolean conflicts(ComponentUpdater component)
+        {
+            if (exclusive)
+            {
+                return true;
+            }
+            for (final ComponentUpdater other : components)
+            {
+                if (Handler.conflicts(other, component))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
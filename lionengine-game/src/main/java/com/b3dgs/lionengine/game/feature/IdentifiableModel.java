@@ -35,12 +35,12 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
     private static int lastId;
 
     /**
-     * Get the next unused ID.
+     * Get the next unused ID. Synchronized as featurables may be created from {@link Handler} worker threads.
      * 
      * @return The next unused ID.
      * @throws LionEngineException If there is more than {@link Integer#MAX_VALUE} at the same time.
      */
-    private static Integer getFreeId()
+    private static synchronized Integer getFreeId()
     {
         if (IDS.size() == Integer.MAX_VALUE)
         {
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+/**
+ * Broadphase representation, storing collidables bounds and searching the couples of collidables whose bounds
+ * overlap, before their collisions are checked by {@link ComponentCollision}.
+ * <p>
+ * Collidables are referenced by a slot index, given when added. Bounds are inclusive, and each overlapping couple must
+ * be reported once per search, in any order.
+ * </p>
+ * 
+ * @see BroadphaseGrid
+ * @see BroadphaseSweepAndPrune
+ * @see BroadphaseTree
+ */
+public interface Broadphase
+{
+    /**
+     * Add a collidable, not searched until its first {@link #move(int, double, double, double, double)}.
+     * 
+     * @param collidable The collidable reference.
+     * @return The collidable slot.
+     */
+    int add(Collidable collidable);
+
+    /**
+     * Remove collidable. Its slot may be reused by a next {@link #add(Collidable)}.
+     * 
+     * @param slot The collidable slot.
+     */
+    void remove(int slot);
+
+    /**
+     * Update collidable bounds.
+     * 
+     * @param slot The collidable slot.
+     * @param minX The min horizontal location.
+     * @param minY The min vertical location.
+     * @param maxX The max horizontal location.
+     * @param maxY The max vertical location.
+     */
+    void move(int slot, double minX, double minY, double maxX, double maxY);
+
+    /**
+     * Search the couples whose bounds overlap. Result is available with {@link #getPairsCount()},
+     * {@link #getFirst(int)} and {@link #getSecond(int)} until next search.
+     */
+    void search();
+
+    /**
+     * Get number of couples found by last search.
+     * 
+     * @return The couples count.
+     */
+    int getPairsCount();
+
+    /**
+     * Get first collidable of couple.
+     * 
+     * @param index The couple index.
+     * @return The first collidable.
+     */
+    Collidable getFirst(int index);
+
+    /**
+     * Get second collidable of couple.
+     * 
+     * @param index The couple index.
+     * @return The second collidable.
+     */
+    Collidable getSecond(int index);
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+/**
+ * Broadphase base implementation, storing collidables and their bounds by slot in primitive arrays, and the couples
+ * found by search. Arrays only grow, so nothing is allocated once the highest number of collidables and couples has
+ * been reached.
+ */
+public abstract class BroadphaseAbstract implements Broadphase
+{
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Collidable by slot. */
+    private Collidable[] collidables = new Collidable[DEFAULT_CAPACITY];
+    /** Slot min horizontal location. */
+    private double[] minX = new double[DEFAULT_CAPACITY];
+    /** Slot min vertical location. */
+    private double[] minY = new double[DEFAULT_CAPACITY];
+    /** Slot max horizontal location. */
+    private double[] maxX = new double[DEFAULT_CAPACITY];
+    /** Slot max vertical location. */
+    private double[] maxY = new double[DEFAULT_CAPACITY];
+    /** Slot bounds defined flag. */
+    private boolean[] stored = new boolean[DEFAULT_CAPACITY];
+    /** Free slots stack. */
+    private int[] freeSlots = new int[DEFAULT_CAPACITY];
+    /** Free slots count. */
+    private int freeSlotsCount;
+    /** Number of slots used or freed. */
+    private int slots;
+    /** Pairs found by last search (first, second). */
+    private int[] pairs = new int[DEFAULT_CAPACITY * 2];
+    /** Number of pairs found by last search. */
+    private int pairsCount;
+
+    /**
+     * Create broadphase.
+     */
+    protected BroadphaseAbstract()
+    {
+        super();
+    }
+
+    /**
+     * Called when slots capacity grew. Implementation must grow its own slots arrays.
+     * 
+     * @param capacity The new slots capacity.
+     */
+    protected abstract void onGrown(int capacity);
+
+    /**
+     * Called when slot bounds changed.
+     * 
+     * @param slot The moved slot.
+     * @param added <code>true</code> if first bounds of slot, <code>false</code> if bounds were already defined.
+     */
+    protected abstract void onMoved(int slot, boolean added);
+
+    /**
+     * Called before slot with defined bounds is removed.
+     * 
+     * @param slot The removed slot.
+     */
+    protected abstract void onRemoved(int slot);
+
+    /**
+     * Called on search, must {@link #addPair(int, int)} once for each couple of slots with overlapping bounds.
+     */
+    protected abstract void onSearch();
+
+    /**
+     * Store a found couple.
+     * 
+     * @param slotA The first slot.
+     * @param slotB The second slot.
+     */
+    protected final void addPair(int slotA, int slotB)
+    {
+        if (pairsCount * 2 == pairs.length)
+        {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[pairsCount * 2] = slotA;
+        pairs[pairsCount * 2 + 1] = slotB;
+        pairsCount++;
+    }
+
+    /**
+     * Check if slots bounds overlap, edges included.
+     * 
+     * @param slotA The first slot.
+     * @param slotB The second slot.
+     * @return <code>true</code> if overlap, <code>false</code> else.
+     */
+    protected final boolean overlaps(int slotA, int slotB)
+    {
+        return minX[slotA] <= maxX[slotB]
+               && minX[slotB] <= maxX[slotA]
+               && minY[slotA] <= maxY[slotB]
+               && minY[slotB] <= maxY[slotA];
+    }
+
+    /**
+     * Get number of slots used or freed. Slots are in <code>[0, slots[</code>.
+     * 
+     * @return The slots count.
+     */
+    protected final int getSlots()
+    {
+        return slots;
+    }
+
+    /**
+     * Check if slot is used and has defined bounds.
+     * 
+     * @param slot The slot index.
+     * @return <code>true</code> if stored, <code>false</code> else.
+     */
+    protected final boolean isStored(int slot)
+    {
+        return stored[slot];
+    }
+
+    /**
+     * Get slot min horizontal location.
+     * 
+     * @param slot The slot index.
+     * @return The min horizontal location.
+     */
+    protected final double getMinX(int slot)
+    {
+        return minX[slot];
+    }
+
+    /**
+     * Get slot min vertical location.
+     * 
+     * @param slot The slot index.
+     * @return The min vertical location.
+     */
+    protected final double getMinY(int slot)
+    {
+        return minY[slot];
+    }
+
+    /**
+     * Get slot max horizontal location.
+     * 
+     * @param slot The slot index.
+     * @return The max horizontal location.
+     */
+    protected final double getMaxX(int slot)
+    {
+        return maxX[slot];
+    }
+
+    /**
+     * Get slot max vertical location.
+     * 
+     * @param slot The slot index.
+     * @return The max vertical location.
+     */
+    protected final double getMaxY(int slot)
+    {
+        return maxY[slot];
+    }
+
+    /**
+     * Grow slots arrays.
+     */
+    private void growSlots()
+    {
+        final int capacity = collidables.length * 2;
+        collidables = Arrays.copyOf(collidables, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        stored = Arrays.copyOf(stored, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        onGrown(capacity);
+    }
+
+    /*
+     * Broadphase
+     */
+
+    @Override
+    public final int add(Collidable collidable)
+    {
+        final int slot;
+        if (freeSlotsCount > 0)
+        {
+            freeSlotsCount--;
+            slot = freeSlots[freeSlotsCount];
+        }
+        else
+        {
+            if (slots == collidables.length)
+            {
+                growSlots();
+            }
+            slot = slots;
+            slots++;
+        }
+        collidables[slot] = collidable;
+        stored[slot] = false;
+        return slot;
+    }
+
+    @Override
+    public final void remove(int slot)
+    {
+        if (stored[slot])
+        {
+            onRemoved(slot);
+            stored[slot] = false;
+        }
+        collidables[slot] = null;
+        freeSlots[freeSlotsCount] = slot;
+        freeSlotsCount++;
+    }
+
+    @Override
+    public final void move(int slot, double minX, double minY, double maxX, double maxY)
+    {
+        this.minX[slot] = minX;
+        this.minY[slot] = minY;
+        this.maxX[slot] = maxX;
+        this.maxY[slot] = maxY;
+        final boolean added = !stored[slot];
+        stored[slot] = true;
+        onMoved(slot, added);
+    }
+
+    @Override
+    public final void search()
+    {
+        pairsCount = 0;
+        onSearch();
+    }
+
+    @Override
+    public final int getPairsCount()
+    {
+        return pairsCount;
+    }
+
+    @Override
+    public final Collidable getFirst(int index)
+    {
+        return collidables[pairs[index * 2]];
+    }
+
+    @Override
+    public final Collidable getSecond(int index)
+    {
+        return collidables[pairs[index * 2 + 1]];
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Uniform grid broadphase, efficient when collidables are evenly spread and have a similar size, lower than the cell
+ * size.
+ * <p>
+ * Cells are stored in an open addressing hash table keyed by their packed <code>long</code> location, each cell
+ * referencing a linked list of entries stored in <code>int</code> arrays. The table is rebuilt without empty cells
+ * when filled.
+ * </p>
+ * <p>
+ * A couple sharing several cells is only checked by the first shared cell (top left one).
+ * </p>
+ */
+public final class BroadphaseGrid extends BroadphaseAbstract
+{
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** Free table slot. */
+    private static final int FREE = -2;
+    /** No entry. */
+    private static final int NONE = -1;
+    /** Hash multiplier. */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Pack cell location.
+     * 
+     * @param cx The horizontal cell.
+     * @param cy The vertical cell.
+     * @return The cell key.
+     */
+    private static long pack(int cx, int cy)
+    {
+        return (long) cx << Integer.SIZE | cy & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * Find the table index of a key, or the free index where it should be stored.
+     * 
+     * @param table The keys table.
+     * @param tableHeads The heads table.
+     * @param key The key to find.
+     * @return The table index.
+     */
+    private static int find(long[] table, int[] tableHeads, long key)
+    {
+        final int mask = tableHeads.length - 1;
+        int index = (int) (key * MIX >>> Integer.SIZE) & mask;
+        while (tableHeads[index] != FREE && table[index] != key)
+        {
+            index = index + 1 & mask;
+        }
+        return index;
+    }
+
+    /** Cell size in pixel. */
+    private final double cellSize;
+    /** Slot min horizontal cell. */
+    private int[] cellMinX = new int[DEFAULT_CAPACITY];
+    /** Slot min vertical cell. */
+    private int[] cellMinY = new int[DEFAULT_CAPACITY];
+    /** Slot max horizontal cell. */
+    private int[] cellMaxX = new int[DEFAULT_CAPACITY];
+    /** Slot max vertical cell. */
+    private int[] cellMaxY = new int[DEFAULT_CAPACITY];
+    /** Cell keys. */
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    /** Cell first entry, {@link #FREE} if table slot is free. */
+    private int[] heads = new int[DEFAULT_CAPACITY];
+    /** Spare cell keys, used when rebuilding table. */
+    private long[] spareKeys = new long[DEFAULT_CAPACITY];
+    /** Spare cell heads, used when rebuilding table. */
+    private int[] spareHeads = new int[DEFAULT_CAPACITY];
+    /** Number of table slots used (including cells without entry). */
+    private int cells;
+    /** Entry slot. */
+    private int[] entrySlots = new int[DEFAULT_CAPACITY];
+    /** Entry next entry (cell list or free list). */
+    private int[] entryNext = new int[DEFAULT_CAPACITY];
+    /** First free entry. */
+    private int freeEntry = NONE;
+    /** Number of entries used or freed. */
+    private int entries;
+
+    /**
+     * Create grid.
+     * 
+     * @param cellSize The cell size in pixel (must be strictly positive).
+     * @throws LionEngineException If invalid cell size.
+     */
+    public BroadphaseGrid(int cellSize)
+    {
+        super();
+
+        Check.superiorStrict(cellSize, 0);
+
+        this.cellSize = cellSize;
+        Arrays.fill(heads, FREE);
+        Arrays.fill(spareHeads, FREE);
+    }
+
+    /**
+     * Search couples in cell.
+     * 
+     * @param cx The horizontal cell.
+     * @param cy The vertical cell.
+     * @param head The cell first entry.
+     */
+    private void searchCell(int cx, int cy, int head)
+    {
+        for (int a = head; a != NONE; a = entryNext[a])
+        {
+            final int slotA = entrySlots[a];
+            for (int b = entryNext[a]; b != NONE; b = entryNext[b])
+            {
+                final int slotB = entrySlots[b];
+                if (Math.max(cellMinX[slotA], cellMinX[slotB]) == cx
+                    && Math.max(cellMinY[slotA], cellMinY[slotB]) == cy
+                    && overlaps(slotA, slotB))
+                {
+                    addPair(slotA, slotB);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove slot from all its cells.
+     * 
+     * @param slot The slot to remove.
+     */
+    private void removeCells(int slot)
+    {
+        for (int cy = cellMinY[slot]; cy <= cellMaxY[slot]; cy++)
+        {
+            for (int cx = cellMinX[slot]; cx <= cellMaxX[slot]; cx++)
+            {
+                removeEntry(pack(cx, cy), slot);
+            }
+        }
+    }
+
+    /**
+     * Add slot to cell.
+     * 
+     * @param key The cell key.
+     * @param slot The slot to add.
+     */
+    private void addEntry(long key, int slot)
+    {
+        int index = find(keys, heads, key);
+        if (heads[index] == FREE)
+        {
+            if ((cells + 1) * 2 > heads.length)
+            {
+                rebuild();
+                index = find(keys, heads, key);
+            }
+            keys[index] = key;
+            heads[index] = NONE;
+            cells++;
+        }
+        final int entry;
+        if (freeEntry != NONE)
+        {
+            entry = freeEntry;
+            freeEntry = entryNext[entry];
+        }
+        else
+        {
+            if (entries == entrySlots.length)
+            {
+                entrySlots = Arrays.copyOf(entrySlots, entries * 2);
+                entryNext = Arrays.copyOf(entryNext, entries * 2);
+            }
+            entry = entries;
+            entries++;
+        }
+        entrySlots[entry] = slot;
+        entryNext[entry] = heads[index];
+        heads[index] = entry;
+    }
+
+    /**
+     * Remove slot from cell.
+     * 
+     * @param key The cell key.
+     * @param slot The slot to remove.
+     */
+    private void removeEntry(long key, int slot)
+    {
+        final int index = find(keys, heads, key);
+        int previous = NONE;
+        for (int entry = heads[index]; entry >= 0; entry = entryNext[entry])
+        {
+            if (entrySlots[entry] == slot)
+            {
+                if (previous == NONE)
+                {
+                    heads[index] = entryNext[entry];
+                }
+                else
+                {
+                    entryNext[previous] = entryNext[entry];
+                }
+                entryNext[entry] = freeEntry;
+                freeEntry = entry;
+                return;
+            }
+            previous = entry;
+        }
+    }
+
+    /**
+     * Rebuild table without the empty cells, growing it if still too filled.
+     */
+    private void rebuild()
+    {
+        int live = 0;
+        for (final int head : heads)
+        {
+            if (head >= 0)
+            {
+                live++;
+            }
+        }
+        if ((live + 1) * 4 > heads.length)
+        {
+            spareKeys = new long[heads.length * 2];
+            spareHeads = new int[heads.length * 2];
+            Arrays.fill(spareHeads, FREE);
+        }
+        cells = 0;
+        for (int i = 0; i < heads.length; i++)
+        {
+            if (heads[i] >= 0)
+            {
+                final int index = find(spareKeys, spareHeads, keys[i]);
+                spareKeys[index] = keys[i];
+                spareHeads[index] = heads[i];
+                cells++;
+            }
+        }
+        final long[] oldKeys = keys;
+        final int[] oldHeads = heads;
+        keys = spareKeys;
+        heads = spareHeads;
+        if (oldHeads.length == heads.length)
+        {
+            spareKeys = oldKeys;
+            spareHeads = oldHeads;
+        }
+        else
+        {
+            spareKeys = new long[heads.length];
+            spareHeads = new int[heads.length];
+        }
+        Arrays.fill(spareHeads, FREE);
+    }
+
+    /*
+     * BroadphaseAbstract
+     */
+
+    @Override
+    protected void onGrown(int capacity)
+    {
+        cellMinX = Arrays.copyOf(cellMinX, capacity);
+        cellMinY = Arrays.copyOf(cellMinY, capacity);
+        cellMaxX = Arrays.copyOf(cellMaxX, capacity);
+        cellMaxY = Arrays.copyOf(cellMaxY, capacity);
+    }
+
+    @Override
+    protected void onMoved(int slot, boolean added)
+    {
+        final int x1 = (int) Math.floor(getMinX(slot) / cellSize);
+        final int y1 = (int) Math.floor(getMinY(slot) / cellSize);
+        final int x2 = (int) Math.floor(getMaxX(slot) / cellSize);
+        final int y2 = (int) Math.floor(getMaxY(slot) / cellSize);
+
+        if (!added)
+        {
+            if (cellMinX[slot] == x1 && cellMinY[slot] == y1 && cellMaxX[slot] == x2 && cellMaxY[slot] == y2)
+            {
+                return;
+            }
+            removeCells(slot);
+        }
+        cellMinX[slot] = x1;
+        cellMinY[slot] = y1;
+        cellMaxX[slot] = x2;
+        cellMaxY[slot] = y2;
+        for (int cy = y1; cy <= y2; cy++)
+        {
+            for (int cx = x1; cx <= x2; cx++)
+            {
+                addEntry(pack(cx, cy), slot);
+            }
+        }
+    }
+
+    @Override
+    protected void onRemoved(int slot)
+    {
+        removeCells(slot);
+    }
+
+    @Override
+    protected void onSearch()
+    {
+        for (int i = 0; i < heads.length; i++)
+        {
+            final int head = heads[i];
+            if (head >= 0 && entryNext[head] != NONE)
+            {
+                final long key = keys[i];
+                searchCell((int) (key >> Integer.SIZE), (int) key, head);
+            }
+        }
+    }
+}
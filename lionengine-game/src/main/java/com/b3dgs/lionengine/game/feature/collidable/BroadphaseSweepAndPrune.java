@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+/**
+ * Sweep and prune broadphase, efficient for dense areas of collidables of any size, as long as they are not aligned
+ * on the horizontal axis.
+ * <p>
+ * Slots are kept sorted by their min horizontal location, using an insertion sort on each search which is close to
+ * linear as collidables move a little between two searches. Then each slot is compared to the next ones until their
+ * min horizontal location is after its max horizontal location.
+ * </p>
+ */
+public final class BroadphaseSweepAndPrune extends BroadphaseAbstract
+{
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Stored slots, sorted by min horizontal location on search. */
+    private int[] order = new int[DEFAULT_CAPACITY];
+    /** Number of stored slots. */
+    private int count;
+
+    /**
+     * Create sweep and prune.
+     */
+    public BroadphaseSweepAndPrune()
+    {
+        super();
+    }
+
+    /**
+     * Sort slots by min horizontal location.
+     */
+    private void sort()
+    {
+        for (int i = 1; i < count; i++)
+        {
+            final int slot = order[i];
+            final double min = getMinX(slot);
+            int j = i - 1;
+            while (j >= 0 && getMinX(order[j]) > min)
+            {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slot;
+        }
+    }
+
+    /*
+     * BroadphaseAbstract
+     */
+
+    @Override
+    protected void onGrown(int capacity)
+    {
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    @Override
+    protected void onMoved(int slot, boolean added)
+    {
+        if (added)
+        {
+            order[count] = slot;
+            count++;
+        }
+    }
+
+    @Override
+    protected void onRemoved(int slot)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (order[i] == slot)
+            {
+                System.arraycopy(order, i + 1, order, i, count - i - 1);
+                count--;
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void onSearch()
+    {
+        sort();
+        for (int i = 0; i < count; i++)
+        {
+            final int slotA = order[i];
+            final double maxX = getMaxX(slotA);
+            final double minY = getMinY(slotA);
+            final double maxY = getMaxY(slotA);
+            for (int j = i + 1; j < count; j++)
+            {
+                final int slotB = order[j];
+                if (getMinX(slotB) > maxX)
+                {
+                    break;
+                }
+                if (getMinY(slotB) <= maxY && minY <= getMaxY(slotB))
+                {
+                    addPair(slotA, slotB);
+                }
+            }
+        }
+    }
+}
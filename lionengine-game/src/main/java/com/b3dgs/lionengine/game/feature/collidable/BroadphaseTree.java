@@ -0,0 +1,624 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Dynamic bounding box tree broadphase, efficient for large sparse worlds and collidables of very different sizes.
+ * <p>
+ * Each collidable is a leaf storing its bounds enlarged by a margin, so the tree is only updated when a collidable
+ * leaves its enlarged bounds. Leaves are inserted next to the sibling giving the lowest perimeter increase, and each
+ * updated node may swap a child with a grand child when it reduces the tree perimeter. Nodes are stored in primitive
+ * arrays, and couples are found by traversing the tree against itself.
+ * </p>
+ */
+public final class BroadphaseTree extends BroadphaseAbstract
+{
+    /** Default margin in pixel. */
+    public static final double DEFAULT_MARGIN = 16.0;
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** No node. */
+    private static final int NONE = -1;
+    /** Values per node bounds. */
+    private static final int BOUNDS = 4;
+    /** Min horizontal offset in bounds. */
+    private static final int MIN_X = 0;
+    /** Min vertical offset in bounds. */
+    private static final int MIN_Y = 1;
+    /** Max horizontal offset in bounds. */
+    private static final int MAX_X = 2;
+    /** Max vertical offset in bounds. */
+    private static final int MAX_Y = 3;
+
+    /** Bounds margin. */
+    private final double margin;
+    /** Leaf node by slot. */
+    private int[] leaves = new int[DEFAULT_CAPACITY];
+    /** Node bounds, interleaved to share cache lines (min x, min y, max x, max y). */
+    private double[] bounds = new double[DEFAULT_CAPACITY * BOUNDS];
+    /** Node parent, or next free node. */
+    private int[] parents = new int[DEFAULT_CAPACITY];
+    /** Node first child, {@link #NONE} for leaf. */
+    private int[] children1 = new int[DEFAULT_CAPACITY];
+    /** Node second child, {@link #NONE} for leaf. */
+    private int[] children2 = new int[DEFAULT_CAPACITY];
+    /** Node height (<code>0</code> for leaf). */
+    private int[] heights = new int[DEFAULT_CAPACITY];
+    /** Node slot (leaf only). */
+    private int[] slots = new int[DEFAULT_CAPACITY];
+    /** Nodes couples to check stack. */
+    private int[] stack = new int[DEFAULT_CAPACITY];
+    /** Number of nodes used or freed. */
+    private int nodes;
+    /** First free node. */
+    private int freeNode = NONE;
+    /** Root node. */
+    private int root = NONE;
+
+    /**
+     * Create tree with {@link #DEFAULT_MARGIN}.
+     */
+    public BroadphaseTree()
+    {
+        this(DEFAULT_MARGIN);
+    }
+
+    /**
+     * Create tree.
+     * 
+     * @param margin The margin added around collidables bounds in pixel (must be positive).
+     * @throws LionEngineException If invalid margin.
+     */
+    public BroadphaseTree(double margin)
+    {
+        super();
+
+        Check.superiorOrEqual(margin, 0.0);
+
+        this.margin = margin;
+    }
+
+    /**
+     * Get tree height.
+     * 
+     * @return The tree height (<code>0</code> if empty or single leaf).
+     */
+    public int getHeight()
+    {
+        if (root == NONE)
+        {
+            return 0;
+        }
+        return heights[root];
+    }
+
+    /**
+     * Get a free node, growing arrays if needed.
+     * 
+     * @return The node index.
+     */
+    private int allocateNode()
+    {
+        final int node;
+        if (freeNode != NONE)
+        {
+            node = freeNode;
+            freeNode = parents[node];
+        }
+        else
+        {
+            if (nodes == parents.length)
+            {
+                growNodes();
+            }
+            node = nodes;
+            nodes++;
+        }
+        parents[node] = NONE;
+        children1[node] = NONE;
+        children2[node] = NONE;
+        heights[node] = 0;
+        return node;
+    }
+
+    /**
+     * Release node.
+     * 
+     * @param node The node index.
+     */
+    private void releaseNode(int node)
+    {
+        parents[node] = freeNode;
+        heights[node] = NONE;
+        freeNode = node;
+    }
+
+    /**
+     * Grow nodes arrays.
+     */
+    private void growNodes()
+    {
+        final int capacity = parents.length * 2;
+        bounds = Arrays.copyOf(bounds, capacity * BOUNDS);
+        parents = Arrays.copyOf(parents, capacity);
+        children1 = Arrays.copyOf(children1, capacity);
+        children2 = Arrays.copyOf(children2, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+    }
+
+    /**
+     * Check if node is a leaf.
+     * 
+     * @param node The node index.
+     * @return <code>true</code> if leaf, <code>false</code> else.
+     */
+    private boolean isLeaf(int node)
+    {
+        return children1[node] == NONE;
+    }
+
+    /**
+     * Set node bounds as the union of two nodes bounds.
+     * 
+     * @param node The node to set.
+     * @param a The first node.
+     * @param b The second node.
+     */
+    private void setUnion(int node, int a, int b)
+    {
+        final int n = node * BOUNDS;
+        final int i = a * BOUNDS;
+        final int j = b * BOUNDS;
+        bounds[n + MIN_X] = Math.min(bounds[i + MIN_X], bounds[j + MIN_X]);
+        bounds[n + MIN_Y] = Math.min(bounds[i + MIN_Y], bounds[j + MIN_Y]);
+        bounds[n + MAX_X] = Math.max(bounds[i + MAX_X], bounds[j + MAX_X]);
+        bounds[n + MAX_Y] = Math.max(bounds[i + MAX_Y], bounds[j + MAX_Y]);
+    }
+
+    /**
+     * Update node height and bounds from its children.
+     * 
+     * @param node The node to update.
+     * @return <code>true</code> if height or bounds changed, <code>false</code> else.
+     */
+    private boolean refresh(int node)
+    {
+        final int child1 = children1[node];
+        final int child2 = children2[node];
+        final int height = 1 + Math.max(heights[child1], heights[child2]);
+        final int n = node * BOUNDS;
+        final int i = child1 * BOUNDS;
+        final int j = child2 * BOUNDS;
+        final double x1 = Math.min(bounds[i + MIN_X], bounds[j + MIN_X]);
+        final double y1 = Math.min(bounds[i + MIN_Y], bounds[j + MIN_Y]);
+        final double x2 = Math.max(bounds[i + MAX_X], bounds[j + MAX_X]);
+        final double y2 = Math.max(bounds[i + MAX_Y], bounds[j + MAX_Y]);
+        final boolean changed = height != heights[node]
+                                || Double.compare(x1, bounds[n + MIN_X]) != 0
+                                || Double.compare(y1, bounds[n + MIN_Y]) != 0
+                                || Double.compare(x2, bounds[n + MAX_X]) != 0
+                                || Double.compare(y2, bounds[n + MAX_Y]) != 0;
+        heights[node] = height;
+        bounds[n + MIN_X] = x1;
+        bounds[n + MIN_Y] = y1;
+        bounds[n + MAX_X] = x2;
+        bounds[n + MAX_Y] = y2;
+        return changed;
+    }
+
+    /**
+     * Get node perimeter.
+     * 
+     * @param node The node index.
+     * @return The node perimeter.
+     */
+    private double getPerimeter(int node)
+    {
+        final int i = node * BOUNDS;
+        return 2.0 * (bounds[i + MAX_X] - bounds[i + MIN_X] + bounds[i + MAX_Y] - bounds[i + MIN_Y]);
+    }
+
+    /**
+     * Get perimeter of the union of two nodes.
+     * 
+     * @param a The first node.
+     * @param b The second node.
+     * @return The union perimeter.
+     */
+    private double getPerimeter(int a, int b)
+    {
+        final int i = a * BOUNDS;
+        final int j = b * BOUNDS;
+        final double width = Math.max(bounds[i + MAX_X], bounds[j + MAX_X])
+                             - Math.min(bounds[i + MIN_X], bounds[j + MIN_X]);
+        final double height = Math.max(bounds[i + MAX_Y], bounds[j + MAX_Y])
+                              - Math.min(bounds[i + MIN_Y], bounds[j + MIN_Y]);
+        return 2.0 * (width + height);
+    }
+
+    /**
+     * Get the cost of descending to child when inserting leaf.
+     * 
+     * @param child The child node.
+     * @param leaf The inserted leaf.
+     * @param inheritance The cost inherited from parents.
+     * @return The descending cost.
+     */
+    private double getCost(int child, int leaf, double inheritance)
+    {
+        if (isLeaf(child))
+        {
+            return getPerimeter(child, leaf) + inheritance;
+        }
+        return getPerimeter(child, leaf) - getPerimeter(child) + inheritance;
+    }
+
+    /**
+     * Replace a child of parent.
+     * 
+     * @param parent The parent node, {@link #NONE} if child was root.
+     * @param oldChild The old child.
+     * @param newChild The new child.
+     */
+    private void replaceChild(int parent, int oldChild, int newChild)
+    {
+        if (parent == NONE)
+        {
+            root = newChild;
+        }
+        else if (children1[parent] == oldChild)
+        {
+            children1[parent] = newChild;
+        }
+        else
+        {
+            children2[parent] = newChild;
+        }
+    }
+
+    /**
+     * Insert leaf in tree.
+     * 
+     * @param leaf The leaf node.
+     */
+    private void insertLeaf(int leaf)
+    {
+        if (root == NONE)
+        {
+            root = leaf;
+            parents[leaf] = NONE;
+            return;
+        }
+
+        int sibling = root;
+        while (!isLeaf(sibling))
+        {
+            final double area = getPerimeter(sibling);
+            final double combined = getPerimeter(sibling, leaf);
+            final double cost = 2.0 * combined;
+            final double inheritance = 2.0 * (combined - area);
+            final double cost1 = getCost(children1[sibling], leaf, inheritance);
+            final double cost2 = getCost(children2[sibling], leaf, inheritance);
+            if (cost < cost1 && cost < cost2)
+            {
+                break;
+            }
+            if (cost1 < cost2)
+            {
+                sibling = children1[sibling];
+            }
+            else
+            {
+                sibling = children2[sibling];
+            }
+        }
+
+        final int oldParent = parents[sibling];
+        final int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        setUnion(newParent, leaf, sibling);
+        heights[newParent] = heights[sibling] + 1;
+        replaceChild(oldParent, sibling, newParent);
+        children1[newParent] = sibling;
+        children2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        fixUpwards(oldParent);
+    }
+
+    /**
+     * Remove leaf from tree.
+     * 
+     * @param leaf The leaf node.
+     */
+    private void removeLeaf(int leaf)
+    {
+        if (leaf == root)
+        {
+            root = NONE;
+            return;
+        }
+        final int parent = parents[leaf];
+        final int grandParent = parents[parent];
+        final int sibling;
+        if (children1[parent] == leaf)
+        {
+            sibling = children2[parent];
+        }
+        else
+        {
+            sibling = children1[parent];
+        }
+        replaceChild(grandParent, parent, sibling);
+        parents[sibling] = grandParent;
+        releaseNode(parent);
+        fixUpwards(grandParent);
+    }
+
+    /**
+     * Optimize and refresh nodes from node to root. Stops as soon as a node is left unchanged, as its parents are then
+     * already up to date.
+     * 
+     * @param start The first node to fix.
+     */
+    private void fixUpwards(int start)
+    {
+        int node = start;
+        while (node != NONE)
+        {
+            if (heights[node] > 1)
+            {
+                rotate(node);
+            }
+            if (!refresh(node))
+            {
+                break;
+            }
+            node = parents[node];
+        }
+    }
+
+    /**
+     * Swap a child of node with a grand child, if it reduces the perimeter of the child sibling.
+     * 
+     * @param a The node to optimize.
+     */
+    private void rotate(int a)
+    {
+        final int b = children1[a];
+        final int c = children2[a];
+        double best = 0.0;
+        int child = NONE;
+        int grandChild = NONE;
+        if (!isLeaf(c))
+        {
+            final double perimeter = getPerimeter(c);
+            final double gainF = perimeter - getPerimeter(b, children2[c]);
+            final double gainG = perimeter - getPerimeter(b, children1[c]);
+            if (gainF > best)
+            {
+                best = gainF;
+                child = b;
+                grandChild = children1[c];
+            }
+            if (gainG > best)
+            {
+                best = gainG;
+                child = b;
+                grandChild = children2[c];
+            }
+        }
+        if (!isLeaf(b))
+        {
+            final double perimeter = getPerimeter(b);
+            final double gainD = perimeter - getPerimeter(c, children2[b]);
+            final double gainE = perimeter - getPerimeter(c, children1[b]);
+            if (gainD > best)
+            {
+                best = gainD;
+                child = c;
+                grandChild = children1[b];
+            }
+            if (gainE > best)
+            {
+                child = c;
+                grandChild = children2[b];
+            }
+        }
+        if (child != NONE)
+        {
+            final int sibling = parents[grandChild];
+            replaceChild(sibling, grandChild, child);
+            parents[child] = sibling;
+            replaceChild(a, child, grandChild);
+            parents[grandChild] = a;
+            refresh(sibling);
+        }
+    }
+
+    /**
+     * Set leaf bounds from slot bounds with margin.
+     * 
+     * @param leaf The leaf node.
+     * @param slot The slot index.
+     */
+    private void setBounds(int leaf, int slot)
+    {
+        final int i = leaf * BOUNDS;
+        bounds[i + MIN_X] = getMinX(slot) - margin;
+        bounds[i + MIN_Y] = getMinY(slot) - margin;
+        bounds[i + MAX_X] = getMaxX(slot) + margin;
+        bounds[i + MAX_Y] = getMaxY(slot) + margin;
+    }
+
+    /**
+     * Check if leaf bounds contain slot bounds.
+     * 
+     * @param leaf The leaf node.
+     * @param slot The slot index.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    private boolean contains(int leaf, int slot)
+    {
+        final int i = leaf * BOUNDS;
+        return bounds[i + MIN_X] <= getMinX(slot)
+               && bounds[i + MIN_Y] <= getMinY(slot)
+               && bounds[i + MAX_X] >= getMaxX(slot)
+               && bounds[i + MAX_Y] >= getMaxY(slot);
+    }
+
+    /**
+     * Check if nodes bounds overlap, edges included.
+     * 
+     * @param a The first node.
+     * @param b The second node.
+     * @return <code>true</code> if overlap, <code>false</code> else.
+     */
+    private boolean overlapsNodes(int a, int b)
+    {
+        final int i = a * BOUNDS;
+        final int j = b * BOUNDS;
+        return bounds[i + MIN_X] <= bounds[j + MAX_X]
+               && bounds[j + MIN_X] <= bounds[i + MAX_X]
+               && bounds[i + MIN_Y] <= bounds[j + MAX_Y]
+               && bounds[j + MIN_Y] <= bounds[i + MAX_Y];
+    }
+
+    /**
+     * Push a couple of nodes to check.
+     * 
+     * @param size The current stack size.
+     * @param a The first node.
+     * @param b The second node.
+     * @return The new stack size.
+     */
+    private int push(int size, int a, int b)
+    {
+        if (size + 2 > stack.length)
+        {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[size] = a;
+        stack[size + 1] = b;
+        return size + 2;
+    }
+
+    /**
+     * Check a couple of nodes, adding the overlapping leaves couple, or pushing the children couples to check.
+     * 
+     * @param size The current stack size.
+     * @param a The first node.
+     * @param b The second node.
+     * @return The new stack size.
+     */
+    private int check(int size, int a, int b)
+    {
+        if (a == b)
+        {
+            if (isLeaf(a))
+            {
+                return size;
+            }
+            final int next = push(push(size, children1[a], children1[a]), children2[a], children2[a]);
+            return push(next, children1[a], children2[a]);
+        }
+        if (!overlapsNodes(a, b))
+        {
+            return size;
+        }
+        final boolean leafA = isLeaf(a);
+        final boolean leafB = isLeaf(b);
+        if (leafA && leafB)
+        {
+            if (overlaps(slots[a], slots[b]))
+            {
+                addPair(slots[a], slots[b]);
+            }
+            return size;
+        }
+        if (leafB || !leafA && heights[a] >= heights[b])
+        {
+            return push(push(size, children1[a], b), children2[a], b);
+        }
+        return push(push(size, a, children1[b]), a, children2[b]);
+    }
+
+    /*
+     * BroadphaseAbstract
+     */
+
+    @Override
+    protected void onGrown(int capacity)
+    {
+        leaves = Arrays.copyOf(leaves, capacity);
+    }
+
+    @Override
+    protected void onMoved(int slot, boolean added)
+    {
+        final int leaf;
+        if (added)
+        {
+            leaf = allocateNode();
+            slots[leaf] = slot;
+            leaves[slot] = leaf;
+        }
+        else
+        {
+            leaf = leaves[slot];
+            if (contains(leaf, slot))
+            {
+                return;
+            }
+            removeLeaf(leaf);
+        }
+        setBounds(leaf, slot);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    protected void onRemoved(int slot)
+    {
+        final int leaf = leaves[slot];
+        removeLeaf(leaf);
+        releaseNode(leaf);
+    }
+
+    @Override
+    protected void onSearch()
+    {
+        if (root == NONE)
+        {
+            return;
+        }
+        // Traverse the tree against itself, so each couple of sub trees is checked once
+        int size = push(0, root, root);
+        while (size > 0)
+        {
+            size -= 2;
+            size = check(size, stack[size], stack[size + 1]);
+        }
+    }
+}
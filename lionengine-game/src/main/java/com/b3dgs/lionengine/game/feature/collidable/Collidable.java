@@ -76,7 +76,7 @@ public interface Collidable extends Feature, Renderable, CollidableListener, Col
      * Check if the collidable entered in collision with another one.
      * 
      * @param collidable The collidable reference.
-     * @return The collisions found if collide.
+     * @return The collisions found if collide. List and couples may be reused by next call.
      */
     List<CollisionCouple> collide(Collidable collidable);
 
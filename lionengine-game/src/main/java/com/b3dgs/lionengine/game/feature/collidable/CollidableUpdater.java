@@ -42,91 +42,193 @@ import com.b3dgs.lionengine.geom.Rectangle;
 final class CollidableUpdater implements IdentifiableListener, CollisionChecker
 {
     /**
-     * Check if other collides with collision and its rectangle area.
+     * Get the first step where the collision rectangle moving along its step vector collides other area.
+     * <p>
+     * Rectangle is checked at each step from its current location to <code>max</code> steps ahead, and collides when
+     * it intersects (edges excluded) or contains (edges included) the other area. Candidate steps are computed
+     * analytically from the intervals where each condition is satisfied on both axis, widened by {@link #EPSILON} on
+     * moving axis. Each candidate is then confirmed with {@link #isColliding(double, double, double, double, Area)} at
+     * the location reached by successive translations, as {@link Rectangle#translate(double, double)} would give, so
+     * boxes touching an edge are handled as by a step by step check.
+     * </p>
      * 
-     * @param origin The origin used.
-     * @param provider The provider owner.
-     * @param transformable The transformable owner.
-     * @param with The collision to check with.
-     * @param other The other collidable to check.
-     * @param rectangle The collision rectangle.
-     * @param collisions The collisions couple.
+     * @param x The rectangle horizontal location.
+     * @param y The rectangle vertical location.
+     * @param width The rectangle width.
+     * @param height The rectangle height.
+     * @param sx The horizontal step.
+     * @param sy The vertical step.
+     * @param max The last step.
+     * @param other The other area.
+     * @return The first colliding step, {@link #NO_HIT} if none.
      */
-    private static void collide(Origin origin,
-                                FeatureProvider provider,
-                                Transformable transformable,
-                                Collision with,
-                                Collidable other,
-                                Rectangle rectangle,
-                                List<CollisionCouple> collisions)
+    private static int getFirstStep(double x,
+                                    double y,
+                                    double width,
+                                    double height,
+                                    double sx,
+                                    double sy,
+                                    int max,
+                                    Area other)
     {
-        final Mirror mirror = getMirror(provider, with);
-        final int offsetX = getOffsetX(with, mirror);
-        final int offsetY = getOffsetY(with, mirror);
+        final double ox = other.getX();
+        final double oy = other.getY();
+        final double ow = other.getWidthReal();
+        final double oh = other.getHeightReal();
 
-        final double sh = origin.getX(transformable.getOldX() + offsetX, rectangle.getWidthReal());
-        final double sv = origin.getY(transformable.getOldY() + offsetY, rectangle.getHeightReal());
-        final double dh = origin.getX(transformable.getX() + offsetX, rectangle.getWidthReal()) - sh;
-        final double dv = origin.getY(transformable.getY() + offsetY, rectangle.getHeightReal()) - sv;
+        // Intersection: ox - x - width < k * sx < ox + ow - x (same vertically)
+        final double lowIntersect = Math.max(getLow(sx, ox - x - width, ox + ow - x, false),
+                                             getLow(sy, oy - y - height, oy + oh - y, false));
+        final double highIntersect = Math.min(getHigh(sx, ox - x - width, ox + ow - x, false),
+                                              getHigh(sy, oy - y - height, oy + oh - y, false));
 
-        final double nh = Math.abs(dh);
-        final double nv = Math.abs(dv);
-
-        final int max = (int) Math.ceil(Math.max(nh, nv));
-        final double sx;
-        final double sy;
+        // Containment: ox + ow - x - width <= k * sx <= ox - x (same vertically)
+        final double lowContain = Math.max(getLow(sx, ox + ow - x - width, ox - x, true),
+                                           getLow(sy, oy + oh - y - height, oy - y, true));
+        final double highContain = Math.min(getHigh(sx, ox + ow - x - width, ox - x, true),
+                                            getHigh(sy, oy + oh - y - height, oy - y, true));
 
-        if (Double.compare(nh, 1.0) >= 0 || Double.compare(nv, 1.0) >= 0)
+        double first = max + 1.0;
+        double last = -1.0;
+        if (lowIntersect <= highIntersect)
         {
-            sx = dh / max;
-            sy = dv / max;
+            first = Math.max(0.0, Math.floor(lowIntersect));
+            last = Math.min(max, Math.ceil(highIntersect));
         }
-        else
+        if (lowContain <= highContain)
         {
-            sx = dh;
-            sy = dv;
+            first = Math.min(first, Math.max(0.0, Math.floor(lowContain)));
+            last = Math.max(last, Math.min(max, Math.ceil(highContain)));
+        }
+        if (first > last)
+        {
+            return NO_HIT;
         }
 
-        final double oldX = rectangle.getX();
-        final double oldY = rectangle.getY();
-        for (int count = 0; count < max + 1; count++)
+        final int start = (int) first;
+        double cx = getLocation(x, sx, start);
+        double cy = getLocation(y, sy, start);
+        for (int k = start; k <= (int) last; k++)
         {
-            if (checkCollide(with, rectangle, other, collisions))
+            if (isColliding(cx, cy, width, height, other))
             {
-                return;
+                return k;
             }
-            rectangle.translate(sx, sy);
+            cx += sx;
+            cy += sy;
         }
-        rectangle.set(oldX, oldY, rectangle.getWidth(), rectangle.getHeight());
+        return NO_HIT;
     }
 
     /**
-     * Check if current area collides other collidable area.
+     * Get the location reached by successive translations.
      * 
-     * @param with The collision to check with.
-     * @param area The current area.
-     * @param other The other collidable.
-     * @param collisions The collisions couple.
-     * @return <code>true</code> if collided, <code>false</code> else.
+     * @param location The start location.
+     * @param step The step value.
+     * @param count The number of steps.
+     * @return The location reached.
      */
-    private static boolean checkCollide(Collision with, Area area, Collidable other, List<CollisionCouple> collisions)
+    private static double getLocation(double location, double step, int count)
     {
-        final List<Rectangle> others = other.getCollisionBounds();
-        final List<Collision> othersColl = other.getCollisions();
-        final int size = others.size();
-        boolean collided = false;
-        for (int i = 0; i < size; i++)
+        double current = location;
+        for (int k = 0; k < count; k++)
         {
-            final Area current = others.get(i);
-            final Collision by = othersColl.get(i);
+            current += step;
+        }
+        return current;
+    }
 
-            if (other.isEnabled(by) && (area.intersects(current) || area.contains(current)))
-            {
-                collisions.add(new CollisionCouple(with, by));
-                collided = true;
-            }
+    /**
+     * Get the lowest step of the interval where <code>min &lt; step * speed &lt; max</code>, widened by
+     * {@link #EPSILON} when moving.
+     * 
+     * @param speed The step speed.
+     * @param min The min distance.
+     * @param max The max distance.
+     * @param closed <code>true</code> to include bounds, <code>false</code> to exclude them.
+     * @return The interval lowest step (infinite if unbounded or empty).
+     */
+    private static double getLow(double speed, double min, double max, boolean closed)
+    {
+        if (speed > 0.0)
+        {
+            return (min - EPSILON) / speed;
+        }
+        if (speed < 0.0)
+        {
+            return (max + EPSILON) / speed;
+        }
+        if (isInside(min, max, closed))
+        {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the highest step of the interval where <code>min &lt; step * speed &lt; max</code>, widened by
+     * {@link #EPSILON} when moving.
+     * 
+     * @param speed The step speed.
+     * @param min The min distance.
+     * @param max The max distance.
+     * @param closed <code>true</code> to include bounds, <code>false</code> to exclude them.
+     * @return The interval highest step (infinite if unbounded or empty).
+     */
+    private static double getHigh(double speed, double min, double max, boolean closed)
+    {
+        if (speed > 0.0)
+        {
+            return (max + EPSILON) / speed;
+        }
+        if (speed < 0.0)
+        {
+            return (min - EPSILON) / speed;
         }
-        return collided;
+        if (isInside(min, max, closed))
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Check if zero is inside range.
+     * 
+     * @param min The min value.
+     * @param max The max value.
+     * @param closed <code>true</code> to include bounds, <code>false</code> to exclude them.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private static boolean isInside(double min, double max, boolean closed)
+    {
+        if (closed)
+        {
+            return min <= 0.0 && max >= 0.0;
+        }
+        return min < 0.0 && max > 0.0;
+    }
+
+    /**
+     * Check if rectangle intersects or contains other area, as {@link Rectangle#intersects(Area)} and
+     * {@link Rectangle#contains(Area)}.
+     * 
+     * @param x The rectangle horizontal location.
+     * @param y The rectangle vertical location.
+     * @param width The rectangle width.
+     * @param height The rectangle height.
+     * @param other The other area.
+     * @return <code>true</code> if colliding, <code>false</code> else.
+     */
+    private static boolean isColliding(double x, double y, double width, double height, Area other)
+    {
+        final double ox = other.getX();
+        final double oy = other.getY();
+        final double ow = other.getWidthReal();
+        final double oh = other.getHeightReal();
+        final boolean intersects = ox + ow > x && oy + oh > y && ox < x + width && oy < y + height;
+        final boolean outside = ox < x || oy < y || ox + ow > x + width || oy + oh > y + height;
+        return intersects || !outside;
     }
 
     /**
@@ -177,6 +279,11 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
         return collision.getOffsetY();
     }
 
+    /** No collision step. */
+    private static final int NO_HIT = -1;
+    /** Distance tolerance covering translations rounding. */
+    private static final double EPSILON = 0.000001;
+
     /** Temp bounding box from polygon. */
     private final Map<Collision, Rectangle> boxs = new HashMap<>();
     /** Collisions disabled list. */
@@ -185,6 +292,10 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
     private final List<Collision> cacheColls = new ArrayList<>();
     /** Bounding box cache. */
     private final List<Rectangle> cacheRect = new ArrayList<>();
+    /** Collisions found by last check (reused). */
+    private final List<CollisionCouple> collisions = new ArrayList<>();
+    /** Collision couples pool. */
+    private final List<CollisionCouple> couples = new ArrayList<>();
     /** Max width. */
     private int maxWidth;
     /** Max height. */
@@ -233,6 +344,120 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
         }
     }
 
+    /**
+     * Check if other collides with collision and its rectangle area, moving along the last transformable move.
+     * Couples are added for each other collision hit at the first colliding step.
+     * 
+     * @param origin The origin used.
+     * @param provider The provider owner.
+     * @param transformable The transformable owner.
+     * @param with The collision to check with.
+     * @param other The other collidable to check.
+     * @param rectangle The collision rectangle.
+     */
+    private void collide(Origin origin,
+                         FeatureProvider provider,
+                         Transformable transformable,
+                         Collision with,
+                         Collidable other,
+                         Rectangle rectangle)
+    {
+        final Mirror mirror = getMirror(provider, with);
+        final int offsetX = getOffsetX(with, mirror);
+        final int offsetY = getOffsetY(with, mirror);
+
+        final double sh = origin.getX(transformable.getOldX() + offsetX, rectangle.getWidthReal());
+        final double sv = origin.getY(transformable.getOldY() + offsetY, rectangle.getHeightReal());
+        final double dh = origin.getX(transformable.getX() + offsetX, rectangle.getWidthReal()) - sh;
+        final double dv = origin.getY(transformable.getY() + offsetY, rectangle.getHeightReal()) - sv;
+
+        final double nh = Math.abs(dh);
+        final double nv = Math.abs(dv);
+
+        final int max = (int) Math.ceil(Math.max(nh, nv));
+        final double sx;
+        final double sy;
+
+        if (Double.compare(nh, 1.0) >= 0 || Double.compare(nv, 1.0) >= 0)
+        {
+            sx = dh / max;
+            sy = dv / max;
+        }
+        else
+        {
+            sx = dh;
+            sy = dv;
+        }
+
+        final double x = rectangle.getX();
+        final double y = rectangle.getY();
+        final double width = rectangle.getWidthReal();
+        final double height = rectangle.getHeightReal();
+        final List<Rectangle> others = other.getCollisionBounds();
+        final List<Collision> othersColl = other.getCollisions();
+        final int size = others.size();
+
+        int first = NO_HIT;
+        for (int i = 0; i < size && first != 0; i++)
+        {
+            if (other.isEnabled(othersColl.get(i)))
+            {
+                final int last;
+                if (first == NO_HIT)
+                {
+                    last = max;
+                }
+                else
+                {
+                    last = first - 1;
+                }
+                final int step = getFirstStep(x, y, width, height, sx, sy, last, others.get(i));
+                if (step != NO_HIT)
+                {
+                    first = step;
+                }
+            }
+        }
+        if (first != NO_HIT)
+        {
+            final double hx = getLocation(x, sx, first);
+            final double hy = getLocation(y, sy, first);
+            // Rectangle stays at contact location until next transform, as seen by next checks
+            rectangle.set(hx, hy, width, height);
+            for (int i = 0; i < size; i++)
+            {
+                final Collision by = othersColl.get(i);
+                if (other.isEnabled(by) && isColliding(hx, hy, width, height, others.get(i)))
+                {
+                    addCouple(with, by);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a collision couple to current collisions, using pooled couples.
+     * 
+     * @param with The collision with.
+     * @param by The collision by.
+     */
+    private void addCouple(Collision with, Collision by)
+    {
+        final int index = collisions.size();
+        final CollisionCouple couple;
+        if (index < couples.size())
+        {
+            couple = couples.get(index);
+            couple.set(with, by);
+        }
+        else
+        {
+            couple = new CollisionCouple(with, by);
+            couples.add(couple);
+        }
+        collisions.add(couple);
+    }
+
     /**
      * Check if the collidable entered in collision with another one.
      * 
@@ -241,7 +466,7 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
      * @param transformable The transformable owner.
      * @param other The collidable reference.
      * @param accepted The accepted groups.
-     * @return The collisions found if collide.
+     * @return The collisions found if collide (reused on next call).
      */
     public List<CollisionCouple> collide(Origin origin,
                                          FeatureProvider provider,
@@ -251,14 +476,14 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
     {
         if (enabled && other.isEnabled() && accepted.contains(other.getGroup()))
         {
-            final List<CollisionCouple> collisions = new ArrayList<>();
+            collisions.clear();
             final int size = cacheColls.size();
             for (int i = 0; i < size; i++)
             {
                 final Collision with = cacheColls.get(i);
                 if (!disabled.contains(with))
                 {
-                    collide(origin, provider, transformable, with, other, cacheRect.get(i), collisions);
+                    collide(origin, provider, transformable, with, other, cacheRect.get(i));
                 }
             }
             return collisions;
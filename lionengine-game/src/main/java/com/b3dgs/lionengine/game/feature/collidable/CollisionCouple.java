@@ -26,9 +26,9 @@ import com.b3dgs.lionengine.LionEngineException;
 public final class CollisionCouple
 {
     /** Source collision. */
-    private final Collision with;
+    private Collision with;
     /** Collided collision. */
-    private final Collision by;
+    private Collision by;
 
     /**
      * Create couple.
@@ -48,6 +48,18 @@ public final class CollisionCouple
         this.by = by;
     }
 
+    /**
+     * Set the couple, for pooling.
+     * 
+     * @param with The collision with.
+     * @param by The collision by.
+     */
+    void set(Collision with, Collision by)
+    {
+        this.with = with;
+        this.by = by;
+    }
+
     /**
      * Get the collision with.
      * 
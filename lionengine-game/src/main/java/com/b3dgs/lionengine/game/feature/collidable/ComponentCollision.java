@@ -19,198 +19,172 @@ package com.b3dgs.lionengine.game.feature.collidable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handlables;
 import com.b3dgs.lionengine.game.feature.HandlerListener;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableListener;
-import com.b3dgs.lionengine.geom.Point;
+import com.b3dgs.lionengine.geom.Rectangle;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
  * Collision events are notified to {@link CollidableListener}.
+ * <p>
+ * Collidables bounds are stored in a {@link Broadphase}, and only the overlapping couples are checked. Bounds are the
+ * union of the collision rectangles at their current location and at the end of the sweep performed by
+ * {@link Collidable#collide(Collidable)}, so no collision can be missed. By default, a {@link BroadphaseGrid} with
+ * {@link #DEFAULT_CELL_SIZE} is used.
+ * </p>
  * 
  * @see Collidable
  * @see CollidableListener
+ * @see Broadphase
  */
-public class ComponentCollision implements ComponentUpdater, HandlerListener, TransformableListener
+public class ComponentCollision implements ComponentUpdater, HandlerListener
 {
-    /** Location reduce factor (the higher it is, the lower is the map division per location). */
-    static final double REDUCE_FACTOR = 128.0;
-
-    /** Mapping reduced. */
-    private final Map<Integer, Map<Point, Set<Collidable>>> collidables = new HashMap<>();
-    /** To be notified. */
+    /** Default cell size in pixel. */
+    public static final int DEFAULT_CELL_SIZE = 128;
+
+    /** Collidables slot in broadphase. */
+    private final Map<Collidable, Slot> slots = new HashMap<>();
+    /** Collidables broadphase. */
+    private final Broadphase broadphase;
+    /** To be notified (reused, only the first {@link #notified} are valid). */
     private final List<Collided> toNotify = new ArrayList<>();
+    /** Number of collisions to notify. */
+    private int notified;
+    /** Number of candidate couples found by last update. */
+    private int candidates;
+    /** Number of candidate couples confirmed by narrowphase on last update. */
+    private int confirmed;
 
     /**
-     * Create component.
+     * Create component with {@link #DEFAULT_CELL_SIZE}.
      */
     public ComponentCollision()
     {
-        super();
+        this(DEFAULT_CELL_SIZE);
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Create component with a {@link BroadphaseGrid}.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param cellSize The grid cell size in pixel (must be strictly positive).
+     * @throws LionEngineException If invalid cell size.
      */
-    private void removePoint(Point point, Collidable collidable)
+    public ComponentCollision(int cellSize)
     {
-        final Integer group = collidable.getGroup();
-        if (collidables.containsKey(group))
-        {
-            final Map<Point, Set<Collidable>> elements = collidables.get(group);
-            if (elements.containsKey(point))
-            {
-                removePoint(point, collidable, elements, group);
-            }
-        }
+        this(new BroadphaseGrid(cellSize));
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Create component.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     * @param elements The current group elements.
-     * @param group The current group.
+     * @param broadphase The broadphase used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
      */
-    private void removePoint(Point point, Collidable collidable, Map<Point, Set<Collidable>> elements, Integer group)
+    public ComponentCollision(Broadphase broadphase)
     {
-        final Set<Collidable> points = elements.get(point);
-        points.remove(collidable);
-        if (points.isEmpty())
-        {
-            elements.remove(point);
-        }
-        if (elements.isEmpty())
-        {
-            collidables.remove(group);
-        }
+        super();
+
+        Check.notNull(broadphase);
+
+        this.broadphase = broadphase;
     }
 
     /**
-     * Add point. Create empty list of not existing.
+     * Get the number of candidate couples found by broadphase on last update.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @return The candidate couples number.
      */
-    private void addPoint(Point point, Collidable collidable)
+    public int getCandidates()
     {
-        final Integer group = collidable.getGroup();
-        if (!collidables.containsKey(group))
-        {
-            collidables.put(group, new HashMap<Point, Set<Collidable>>());
-        }
-        final Map<Point, Set<Collidable>> elements = collidables.get(group);
-        if (!elements.containsKey(point))
-        {
-            elements.put(point, new HashSet<Collidable>());
-        }
-        elements.get(point).add(collidable);
-    }
-
-    /*
-     * ComponentUpdater
-     */
-
-    @Override
-    public void update(double extrp, Handlables objects)
-    {
-        for (final Map<Point, Set<Collidable>> groups : collidables.values())
-        {
-            for (final Entry<Point, Set<Collidable>> current : groups.entrySet())
-            {
-                checkGroup(current);
-            }
-        }
-        for (final Collided collided : toNotify)
-        {
-            collided.collidableA.notifyCollided(collided.collidableB, collided.with, collided.by);
-        }
-        toNotify.clear();
+        return candidates;
     }
 
     /**
-     * Check elements in group.
+     * Get the number of candidate couples having at least one collision on last update.
      * 
-     * @param current The elements in group.
+     * @return The confirmed couples number.
      */
-    private void checkGroup(Entry<Point, Set<Collidable>> current)
+    public int getConfirmed()
     {
-        final Set<Collidable> elements = current.getValue();
-        for (final Collidable objectA : elements)
-        {
-            checkOthers(objectA, current);
-        }
+        return confirmed;
     }
 
     /**
-     * Check others element.
+     * Check collision from a collidable to another, if group is accepted.
      * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
+     * @param objectA The collidable notified.
+     * @param objectB The collidable collided.
+     * @return <code>true</code> if collided, <code>false</code> else.
      */
-    private void checkOthers(Collidable objectA, Entry<Point, Set<Collidable>> current)
+    private boolean check(Collidable objectA, Collidable objectB)
     {
-        for (final Integer acceptedGroup : objectA.getAccepted())
+        if (!objectA.getAccepted().contains(objectB.getGroup()))
         {
-            // Others to compare only in accepted group
-            if (collidables.containsKey(acceptedGroup))
-            {
-                checkOthers(objectA, current, acceptedGroup);
-            }
+            return false;
         }
+        final List<CollisionCouple> collisions = objectA.collide(objectB);
+        final int size = collisions.size();
+        for (int i = 0; i < size; i++)
+        {
+            addNotify(objectA, objectB, collisions.get(i));
+        }
+        return size > 0;
     }
 
     /**
-     * Check others element.
+     * Store collision to notify.
      * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     * @param acceptedGroup The accepted group.
+     * @param objectA The collidable notified.
+     * @param objectB The collidable collided.
+     * @param collision The collision couple.
      */
-    private void checkOthers(Collidable objectA, Entry<Point, Set<Collidable>> current, Integer acceptedGroup)
+    private void addNotify(Collidable objectA, Collidable objectB, CollisionCouple collision)
     {
-        final Map<Point, Set<Collidable>> acceptedElements = collidables.get(acceptedGroup);
-        final Point point = current.getKey();
-        if (acceptedElements.containsKey(point))
+        if (notified == toNotify.size())
         {
-            checkPoint(objectA, acceptedElements, point);
+            toNotify.add(new Collided());
         }
+        toNotify.get(notified).set(objectA, objectB, collision);
+        notified++;
     }
 
-    /**
-     * Check others element at specified point.
-     * 
-     * @param objectA The collidable reference.
-     * @param acceptedElements The current elements to check.
-     * @param point The point to check.
+    /*
+     * ComponentUpdater
      */
-    private void checkPoint(Collidable objectA, Map<Point, Set<Collidable>> acceptedElements, Point point)
+
+    @Override
+    public void update(double extrp, Handlables objects)
     {
-        final Set<Collidable> others = acceptedElements.get(point);
-        for (final Collidable objectB : others)
+        broadphase.search();
+        candidates = broadphase.getPairsCount();
+        confirmed = 0;
+        for (int i = 0; i < candidates; i++)
         {
-            if (objectA != objectB)
+            final Collidable objectA = broadphase.getFirst(i);
+            final Collidable objectB = broadphase.getSecond(i);
+            final boolean collidedA = check(objectA, objectB);
+            final boolean collidedB = check(objectB, objectA);
+            if (collidedA || collidedB)
             {
-                final List<CollisionCouple> collisions = objectA.collide(objectB);
-                for (final CollisionCouple collision : collisions)
-                {
-                    toNotify.add(new Collided(objectA, objectB, collision));
-                }
+                confirmed++;
             }
         }
+        for (int i = 0; i < notified; i++)
+        {
+            final Collided collided = toNotify.get(i);
+            collided.collidableA.notifyCollided(collided.collidableB, collided.with, collided.by);
+            collided.set(null, null, null);
+        }
+        notified = 0;
     }
 
     /*
@@ -223,7 +197,13 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
         if (featurable.hasFeature(Collidable.class))
         {
             final Transformable transformable = featurable.getFeature(Transformable.class);
-            transformable.addListener(this);
+            final Collidable collidable = featurable.getFeature(Collidable.class);
+            if (!slots.containsKey(collidable))
+            {
+                final Slot slot = new Slot(broadphase, broadphase.add(collidable), collidable);
+                slots.put(collidable, slot);
+                transformable.addListener(slot);
+            }
         }
     }
 
@@ -233,119 +213,83 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
         if (featurable.hasFeature(Collidable.class))
         {
             final Transformable transformable = featurable.getFeature(Transformable.class);
-            final Collidable collidable = transformable.getFeature(Collidable.class);
-
-            removePoints(transformable.getOldX(), transformable.getOldY(), collidable);
-            removePoints(transformable.getX(), transformable.getY(), collidable);
-
-            transformable.removeListener(this);
+            final Slot slot = slots.remove(featurable.getFeature(Collidable.class));
+            if (slot != null)
+            {
+                broadphase.remove(slot.index);
+                transformable.removeListener(slot);
+            }
         }
     }
 
-    /*
-     * TransformableListener
+    /**
+     * Collidable slot in broadphase, updating its bounds on move.
      */
-
-    @Override
-    public void notifyTransformed(Transformable transformable)
+    private static final class Slot implements TransformableListener
     {
-        final Collidable collidable = transformable.getFeature(Collidable.class);
-
-        final double oldX = transformable.getOldX();
-        final double oldY = transformable.getOldY();
-
-        final int oldMinX = (int) Math.floor(oldX / REDUCE_FACTOR);
-        final int oldMinY = (int) Math.floor(oldY / REDUCE_FACTOR);
-        final int oldMaxX = (int) Math.floor((oldX + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int oldMaxY = (int) Math.floor((oldY + collidable.getMaxHeight()) / REDUCE_FACTOR);
-
-        final double x = transformable.getX();
-        final double y = transformable.getY();
-
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
+        /** Broadphase reference. */
+        private final Broadphase broadphase;
+        /** Slot index. */
+        private final int index;
+        /** Collidable reference. */
+        private final Collidable collidable;
 
-        if (oldMinX != minX || oldMinY != minY || oldMaxX != maxX || oldMaxY != maxY)
+        /**
+         * Create slot.
+         * 
+         * @param broadphase The broadphase reference.
+         * @param index The slot index.
+         * @param collidable The collidable reference.
+         */
+        private Slot(Broadphase broadphase, int index, Collidable collidable)
         {
-            removePoints(oldMinX, oldMinY, oldMaxX, oldMaxY, collidable);
-        }
-        addPoints(minX, minY, maxX, maxY, collidable);
-    }
-
-    /**
-     * Remove point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void removePoints(double x, double y, Collidable collidable)
-    {
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
+            super();
 
-        removePoints(minX, minY, maxX, maxY, collidable);
-    }
+            this.broadphase = broadphase;
+            this.index = index;
+            this.collidable = collidable;
+        }
 
-    /**
-     * Remove point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param minX The min horizontal location.
-     * @param minY The min vertical location.
-     * @param maxX The min horizontal location.
-     * @param maxY The min vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void removePoints(int minX, int minY, int maxX, int maxY, Collidable collidable)
-    {
-        removePoint(new Point(minX, minY), collidable);
+        /*
+         * TransformableListener
+         */
 
-        if (minX != maxX && minY == maxY)
+        @Override
+        public void notifyTransformed(Transformable transformable)
         {
-            removePoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-            removePoint(new Point(maxX, minY), collidable);
-            removePoint(new Point(maxX, maxY), collidable);
-        }
-    }
+            final List<Rectangle> bounds = collidable.getCollisionBounds();
+            final int size = bounds.size();
+            if (size == 0)
+            {
+                broadphase.move(index,
+                                transformable.getX(),
+                                transformable.getY(),
+                                transformable.getX(),
+                                transformable.getY());
+                return;
+            }
 
-    /**
-     * Add point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param minX The min horizontal location.
-     * @param minY The min vertical location.
-     * @param maxX The min horizontal location.
-     * @param maxY The min vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void addPoints(int minX, int minY, int maxX, int maxY, Collidable collidable)
-    {
-        addPoint(new Point(minX, minY), collidable);
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++)
+            {
+                final Rectangle rectangle = bounds.get(i);
+                minX = Math.min(minX, rectangle.getMinX());
+                minY = Math.min(minY, rectangle.getMinY());
+                maxX = Math.max(maxX, rectangle.getMaxX());
+                maxY = Math.max(maxY, rectangle.getMaxY());
+            }
 
-        if (minX != maxX && minY == maxY)
-        {
-            addPoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-            addPoint(new Point(maxX, minY), collidable);
-            addPoint(new Point(maxX, maxY), collidable);
+            // Collision rectangles are swept forward by the last move
+            final double dx = transformable.getX() - transformable.getOldX();
+            final double dy = transformable.getY() - transformable.getOldY();
+            broadphase.move(index,
+                            minX + Math.min(0.0, dx),
+                            minY + Math.min(0.0, dy),
+                            maxX + Math.max(0.0, dx),
+                            maxY + Math.max(0.0, dy));
         }
     }
 
@@ -354,26 +298,40 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
      */
     private static final class Collided
     {
-        private final Collidable collidableA;
-        private final Collidable collidableB;
-        private final Collision with;
-        private final Collision by;
+        private Collidable collidableA;
+        private Collidable collidableB;
+        private Collision with;
+        private Collision by;
 
         /**
          * Create collided data.
+         */
+        private Collided()
+        {
+            super();
+        }
+
+        /**
+         * Set collided data.
          * 
          * @param collidableA The first collidable.
          * @param collidableB The second collidable.
-         * @param collision The associated collision.
+         * @param collision The associated collision (<code>null</code> to clear).
          */
-        private Collided(Collidable collidableA, Collidable collidableB, CollisionCouple collision)
+        private void set(Collidable collidableA, Collidable collidableB, CollisionCouple collision)
         {
-            super();
-
             this.collidableA = collidableA;
             this.collidableB = collidableB;
-            with = collision.getWith();
-            by = collision.getBy();
+            if (collision != null)
+            {
+                with = collision.getWith();
+                by = collision.getBy();
+            }
+            else
+            {
+                with = null;
+                by = null;
+            }
         }
     }
 }
@@ -20,6 +20,7 @@ package com.b3dgs.lionengine.game.feature.tile;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.stream.IntStream;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
@@ -36,6 +37,9 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * This class allows to extract unique tiles from a level rip.
  * The color [0-128-128] ({@link #IGNORED_COLOR_VALUE}) is ignored (can be used to skip tile, in order to improve
  * performance).
+ * <p>
+ * Tiles are hashed in parallel by rows, and unique tiles are found with a {@link TilesIndex}.
+ * </p>
  */
 public final class TilesExtractor
 {
@@ -76,28 +80,52 @@ public final class TilesExtractor
     }
 
     /**
-     * Check if tile has already been extracted regarding the current tile on level rip.
+     * Hash all tiles of level rip, rows being processed in parallel.
      * 
+     * @param canceler The canceler reference (can be <code>null</code>).
      * @param level The level rip reference.
-     * @param x The current level rip horizontal location.
-     * @param y The current level rip vertical location.
-     * @param tiles The current extracted tiles.
-     * @return <code>true</code> if already extracted, <code>false</code> else.
+     * @param pixels The level rip pixels.
+     * @return The tiles hash, indexed by tile number.
      */
-    private static boolean isExtracted(SpriteTiled level, int x, int y, Collection<ImageBuffer> tiles)
+    private static long[] hash(Canceler canceler, SpriteTiled level, int[] pixels)
     {
+        final int horizontalTiles = level.getTilesHorizontal();
         final int tw = level.getTileWidth();
         final int th = level.getTileHeight();
-        final ImageBuffer surface = level.getSurface();
+        final int scan = level.getSurface().getWidth();
+        final long[] hashes = new long[horizontalTiles * level.getTilesVertical()];
 
-        for (final ImageBuffer tile : tiles)
+        IntStream.range(0, level.getTilesVertical()).parallel().forEach(v ->
         {
-            if (compareTile(tw, th, surface, x, y, tile, 0, 0))
+            if (canceler == null || !canceler.isCanceled())
             {
-                return true;
+                for (int h = 0; h < horizontalTiles; h++)
+                {
+                    hashes[h + v * horizontalTiles] = TilesIndex.hash(tw, th, pixels, v * th * scan + h * tw, scan);
+                }
             }
+        });
+        return hashes;
+    }
+
+    /**
+     * Copy tile pixels.
+     * 
+     * @param tw The tile width.
+     * @param th The tile height.
+     * @param pixels The level rip pixels.
+     * @param offset The tile offset.
+     * @param scan The level rip width.
+     * @return The tile pixels, with tile width as scan size.
+     */
+    private static int[] copy(int tw, int th, int[] pixels, int offset, int scan)
+    {
+        final int[] copy = new int[tw * th];
+        for (int y = 0; y < th; y++)
+        {
+            System.arraycopy(pixels, offset + y * scan, copy, y * tw, tw);
         }
-        return false;
+        return copy;
     }
 
     /**
@@ -203,6 +231,7 @@ public final class TilesExtractor
     {
         final int tilesNumber = getTilesNumber(tw, th, levelRips);
         final Collection<ImageBuffer> tiles = new ArrayList<>();
+        final TilesIndex<ImageBuffer> index = new TilesIndex<>(tw, th);
         int checkedTiles = 0;
         for (final Media levelRip : levelRips)
         {
@@ -210,8 +239,8 @@ public final class TilesExtractor
             level.load();
             level.prepare();
 
-            checkedTiles = extract(canceler, level, tilesNumber, tiles, checkedTiles);
-            level.getSurface().dispose();
+            checkedTiles = extract(canceler, level, tilesNumber, tiles, index, checkedTiles);
+            level.dispose();
             if (checkedTiles < 0)
             {
                 break;
@@ -229,6 +258,7 @@ public final class TilesExtractor
      * @param level The level rip.
      * @param tilesNumber The total tiles number to extract.
      * @param tiles The current extracted tiles.
+     * @param index The current extracted tiles index.
      * @param checkedTiles The last number of checked tiles.
      * @return The current number of checked tiles, or -1 if canceled.
      * @throws LionEngineException If an error occurred when proceeding the image.
@@ -237,11 +267,14 @@ public final class TilesExtractor
                         SpriteTiled level,
                         int tilesNumber,
                         Collection<ImageBuffer> tiles,
+                        TilesIndex<ImageBuffer> index,
                         int checkedTiles)
     {
         final int horizontalTiles = level.getTilesHorizontal();
         final int verticalTiles = level.getTilesVertical();
-        final ImageBuffer surface = level.getSurface();
+        final int scan = level.getSurface().getWidth();
+        final int[] pixels = TilesIndex.getPixels(level.getSurface());
+        final long[] hashes = hash(canceler, level, pixels);
 
         final int tw = level.getTileWidth();
         final int th = level.getTileHeight();
@@ -251,11 +284,13 @@ public final class TilesExtractor
         {
             for (int h = 0; h < horizontalTiles; h++)
             {
-                final int x = h * tw;
-                final int y = v * th;
-                if (IGNORED_COLOR_VALUE != surface.getRgb(x, y) && !isExtracted(level, x, y, tiles))
+                final int number = h + v * horizontalTiles;
+                final int offset = v * th * scan + h * tw;
+                final long hash = hashes[number];
+                if (IGNORED_COLOR_VALUE != pixels[offset] && index.get(hash, pixels, offset, scan) == null)
                 {
-                    final ImageBuffer tile = extract(level, h + v * horizontalTiles);
+                    final ImageBuffer tile = extract(level, number);
+                    index.add(hash, copy(tw, th, pixels, offset, scan), 0, tw, tile);
                     tiles.add(tile);
                 }
                 checked++;
@@ -311,7 +346,7 @@ public final class TilesExtractor
     public interface Canceler
     {
         /**
-         * Check if operation is canceled.
+         * Check if operation is canceled. May be called from worker threads.
          * 
          * @return <code>true</code> if canceled, <code>false</code> else.
          */
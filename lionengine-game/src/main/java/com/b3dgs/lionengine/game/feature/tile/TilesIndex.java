@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Index of tiles by content, allowing to find a tile with the same pixels without comparing it to each indexed tile.
+ * <p>
+ * Tiles are read from images pixels (see {@link #getPixels(ImageBuffer)}), and referenced by their offset in pixels
+ * with the image width as scan size. Each tile is hashed once, pixels are only compared between tiles sharing the same
+ * hash.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe when adding, concurrent {@link #get(long, int[], int, int)} are allowed once all tiles
+ * have been added.
+ * </p>
+ * 
+ * @param <T> The indexed value type.
+ */
+public final class TilesIndex<T>
+{
+    /** Hash prime. */
+    private static final long PRIME = 0x100000001B3L;
+    /** Hash initial value. */
+    private static final long BASIS = 0xCBF29CE484222325L;
+
+    /**
+     * Read all pixels of an image.
+     * 
+     * @param image The image reference (must not be <code>null</code>).
+     * @return The image pixels, with image width as scan size.
+     * @throws LionEngineException If invalid argument.
+     */
+    public static int[] getPixels(ImageBuffer image)
+    {
+        Check.notNull(image);
+
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        return image.getRgb(0, 0, width, height, new int[width * height], 0, width);
+    }
+
+    /**
+     * Get the tile hash.
+     * 
+     * @param tw The tile width.
+     * @param th The tile height.
+     * @param pixels The image pixels.
+     * @param offset The tile offset in pixels.
+     * @param scan The image width.
+     * @return The tile hash.
+     */
+    public static long hash(int tw, int th, int[] pixels, int offset, int scan)
+    {
+        long hash = BASIS;
+        for (int y = 0; y < th; y++)
+        {
+            final int start = offset + y * scan;
+            for (int i = start; i < start + tw; i++)
+            {
+                hash = (hash ^ pixels[i]) * PRIME;
+            }
+        }
+        return hash ^ hash >>> 32;
+    }
+
+    /**
+     * Compare two tiles by checking all pixels.
+     * 
+     * @param tw The tile width.
+     * @param th The tile height.
+     * @param a The first image pixels.
+     * @param offsetA The first tile offset.
+     * @param scanA The first image width.
+     * @param b The second image pixels.
+     * @param offsetB The second tile offset.
+     * @param scanB The second image width.
+     * @return <code>true</code> if equals, <code>false</code> else.
+     */
+    public static boolean compare(int tw, int th, int[] a, int offsetA, int scanA, int[] b, int offsetB, int scanB)
+    {
+        for (int y = 0; y < th; y++)
+        {
+            final int startA = offsetA + y * scanA;
+            final int startB = offsetB + y * scanB;
+            for (int x = 0; x < tw; x++)
+            {
+                if (a[startA + x] != b[startB + x])
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Indexed tiles by hash. */
+    private final Map<Long, List<Entry<T>>> entries = new HashMap<>();
+    /** Tile width. */
+    private final int tw;
+    /** Tile height. */
+    private final int th;
+    /** Number of indexed tiles. */
+    private int size;
+
+    /**
+     * Create index.
+     * 
+     * @param tw The tile width (must be strictly positive).
+     * @param th The tile height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public TilesIndex(int tw, int th)
+    {
+        super();
+
+        Check.superiorStrict(tw, 0);
+        Check.superiorStrict(th, 0);
+
+        this.tw = tw;
+        this.th = th;
+    }
+
+    /**
+     * Add tile if not already indexed. Pixels are referenced, not copied.
+     * 
+     * @param hash The tile hash (see {@link #hash(int, int, int[], int, int)}).
+     * @param pixels The image pixels.
+     * @param offset The tile offset in pixels.
+     * @param scan The image width.
+     * @param value The associated value.
+     * @return <code>true</code> if added, <code>false</code> if an equal tile is already indexed.
+     */
+    public boolean add(long hash, int[] pixels, int offset, int scan, T value)
+    {
+        if (get(hash, pixels, offset, scan) != null)
+        {
+            return false;
+        }
+        entries.computeIfAbsent(Long.valueOf(hash), h -> new ArrayList<>(1))
+               .add(new Entry<>(pixels, offset, scan, value));
+        size++;
+        return true;
+    }
+
+    /**
+     * Get the value of the first indexed tile equal to the specified one.
+     * 
+     * @param hash The tile hash (see {@link #hash(int, int, int[], int, int)}).
+     * @param pixels The image pixels.
+     * @param offset The tile offset in pixels.
+     * @param scan The image width.
+     * @return The associated value, <code>null</code> if not indexed.
+     */
+    public T get(long hash, int[] pixels, int offset, int scan)
+    {
+        final List<Entry<T>> candidates = entries.get(Long.valueOf(hash));
+        if (candidates != null)
+        {
+            for (final Entry<T> entry : candidates)
+            {
+                if (compare(tw, th, entry.pixels, entry.offset, entry.scan, pixels, offset, scan))
+                {
+                    return entry.value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of indexed tiles.
+     * 
+     * @return The indexed tiles number.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Indexed tile.
+     * 
+     * @param <T> The indexed value type.
+     */
+    private static final class Entry<T>
+    {
+        /** Image pixels. */
+        private final int[] pixels;
+        /** Tile offset. */
+        private final int offset;
+        /** Image width. */
+        private final int scan;
+        /** Associated value. */
+        private final T value;
+
+        /**
+         * Create entry.
+         * 
+         * @param pixels The image pixels.
+         * @param offset The tile offset.
+         * @param scan The image width.
+         * @param value The associated value.
+         */
+        Entry(int[] pixels, int offset, int scan, T value)
+        {
+            super();
+
+            this.pixels = pixels;
+            this.offset = offset;
+            this.scan = scan;
+            this.value = value;
+        }
+    }
+}
@@ -17,19 +17,24 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import java.util.stream.IntStream;
+
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
-import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
 import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
+import com.b3dgs.lionengine.game.feature.tile.TilesIndex;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 import com.b3dgs.lionengine.graphic.drawable.Sprite;
-import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * This class allows to convert a map image to a map level format.
  * The color [0-128-128] ({@link TilesExtractor#IGNORED_COLOR_VALUE}) is ignored (can be used to skip tile, in order to
  * improve performance).
+ * <p>
+ * Sheets tiles are indexed once with a {@link TilesIndex}, and level rip rows are searched in parallel.
+ * </p>
  */
 public final class LevelRipConverter
 {
@@ -80,19 +85,39 @@ public final class LevelRipConverter
         final int imageTilesInY = imageMap.getHeight() / map.getTileHeight();
         map.create(map.getTileWidth(), map.getTileHeight(), imageTilesInX, imageTilesInY);
 
+        final ImageBuffer tileRef = imageMap.getSurface();
+        final int[] pixels = TilesIndex.getPixels(tileRef);
+        final TileRef[] found = search(map, createIndex(map), pixels, tileRef.getWidth(), canceler);
+
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
         final double progressMax = imageTilesInX * (double) imageTilesInY;
         long progress = 0L;
         int lastPercent = 0;
         int errors = 0;
 
-        final ImageBuffer tileRef = imageMap.getSurface();
         for (int progressTileY = 0; progressTileY < imageTilesInY; progressTileY++)
         {
             for (int progressTileX = 0; progressTileX < imageTilesInX; progressTileX++)
             {
-                if (!checkPixel(map, tileRef, progressTileX, progressTileY))
+                final int x = progressTileX * tw;
+                final int y = progressTileY * th;
+
+                // Skip blank tile of image map
+                if (TilesExtractor.IGNORED_COLOR_VALUE != pixels[y * tileRef.getWidth() + x])
                 {
-                    errors++;
+                    final TileRef tile = found[progressTileX + progressTileY * imageTilesInX];
+                    if (tile == null)
+                    {
+                        errors++;
+                    }
+                    else
+                    {
+                        map.setTile(map.createTile(tile.getSheet(),
+                                                   tile.getNumber(),
+                                                   x,
+                                                   (map.getInTileHeight() - 1.0 - progressTileY) * th));
+                    }
                 }
 
                 final int percent = (int) Math.round(progress / progressMax * 100);
@@ -105,109 +130,84 @@ public final class LevelRipConverter
 
                 if (canceler != null && canceler.isCanceled())
                 {
-                    tileRef.dispose();
+                    imageMap.dispose();
                     return errors;
                 }
             }
         }
 
-        tileRef.dispose();
+        imageMap.dispose();
         return errors;
     }
 
     /**
-     * Check the pixel by searching tile on sheet.
+     * Index all tiles of all sheets. If a tile appears more than once, the first one is kept.
      * 
      * @param map The destination map reference.
-     * @param tileRef The tile sheet.
-     * @param progressTileX The progress on horizontal tiles.
-     * @param progressTileY The progress on vertical tiles.
-     * @return <code>true</code> if tile found, <code>false</code> else.
+     * @return The sheets tiles index.
      */
-    private static boolean checkPixel(MapTile map, ImageBuffer tileRef, int progressTileX, int progressTileY)
+    private static TilesIndex<TileRef> createIndex(MapTile map)
     {
-        final int x = progressTileX * map.getTileWidth();
-        final int y = progressTileY * map.getTileHeight();
-        final int pixel = tileRef.getRgb(x, y);
-
-        // Skip blank tile of image map
-        if (TilesExtractor.IGNORED_COLOR_VALUE != pixel)
-        {
-            // Search if tile is on sheet and get it
-            final Tile tile = searchForTile(map, tileRef, progressTileX, progressTileY);
-            if (tile == null)
-            {
-                return false;
-            }
-            map.setTile(tile);
-        }
-        return true;
-    }
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        final TilesIndex<TileRef> index = new TilesIndex<>(tw, th);
 
-    /**
-     * Search current tile of image map by checking all surfaces.
-     * 
-     * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param x The location x.
-     * @param y The location y.
-     * @return The tile found.
-     */
-    private static Tile searchForTile(MapTile map, ImageBuffer tileSprite, int x, int y)
-    {
-        // Check each tile on each sheet
         for (final Integer sheet : map.getSheets())
         {
-            final Tile tile = checkTile(map, tileSprite, sheet, x, y);
-            if (tile != null)
+            final ImageBuffer sheetImage = map.getSheet(sheet).getSurface();
+            final int[] pixels = TilesIndex.getPixels(sheetImage);
+            final int scan = sheetImage.getWidth();
+            final int tilesInX = sheetImage.getWidth() / tw;
+            final int tilesInY = sheetImage.getHeight() / th;
+
+            for (int surfaceCurrentTileY = 0; surfaceCurrentTileY < tilesInY; surfaceCurrentTileY++)
             {
-                return tile;
+                for (int surfaceCurrentTileX = 0; surfaceCurrentTileX < tilesInX; surfaceCurrentTileX++)
+                {
+                    // Tile number on tile sheet
+                    final int number = surfaceCurrentTileX + surfaceCurrentTileY * tilesInX;
+                    final int offset = surfaceCurrentTileY * th * scan + surfaceCurrentTileX * tw;
+                    final long hash = TilesIndex.hash(tw, th, pixels, offset, scan);
+                    index.add(hash, pixels, offset, scan, new TileRef(sheet, number));
+                }
             }
         }
-
-        // No tile found
-        return null;
+        return index;
     }
 
     /**
-     * Check tile of sheet.
+     * Search all tiles of level rip in sheets index, rows being processed in parallel.
      * 
      * @param map The destination map reference.
-     * @param tileSprite The tiled sprite
-     * @param sheet The sheet number.
-     * @param x The location x.
-     * @param y The location y.
-     * @return The tile found.
+     * @param index The sheets tiles index.
+     * @param pixels The level rip pixels.
+     * @param scan The level rip width.
+     * @param canceler The canceler reference (can be <code>null</code>).
+     * @return The found tiles by tile number (<code>null</code> if not found or ignored).
      */
-    private static Tile checkTile(MapTile map, ImageBuffer tileSprite, Integer sheet, int x, int y)
+    private static TileRef[] search(MapTile map, TilesIndex<TileRef> index, int[] pixels, int scan, Canceler canceler)
     {
         final int tw = map.getTileWidth();
         final int th = map.getTileHeight();
-        final SpriteTiled tileSheet = map.getSheet(sheet);
-        final ImageBuffer sheetImage = tileSheet.getSurface();
-        final int tilesInX = tileSheet.getWidth() / tw;
-        final int tilesInY = tileSheet.getHeight() / th;
+        final int tilesInX = map.getInTileWidth();
+        final TileRef[] found = new TileRef[tilesInX * map.getInTileHeight()];
 
-        for (int surfaceCurrentTileY = 0; surfaceCurrentTileY < tilesInY; surfaceCurrentTileY++)
+        IntStream.range(0, map.getInTileHeight()).parallel().forEach(ty ->
         {
-            for (int surfaceCurrentTileX = 0; surfaceCurrentTileX < tilesInX; surfaceCurrentTileX++)
+            if (canceler == null || !canceler.isCanceled())
             {
-                // Tile number on tile sheet
-                final int number = surfaceCurrentTileX + surfaceCurrentTileY * tilesInX;
-
-                // Compare tiles between sheet and image map
-                final int xa = x * tw;
-                final int ya = y * th;
-                final int xb = surfaceCurrentTileX * tw;
-                final int yb = surfaceCurrentTileY * th;
-
-                if (TilesExtractor.compareTile(tw, th, tileSprite, xa, ya, sheetImage, xb, yb))
+                for (int tx = 0; tx < tilesInX; tx++)
                 {
-                    return map.createTile(sheet, number, xa, (map.getInTileHeight() - 1.0 - y) * th);
+                    final int offset = ty * th * scan + tx * tw;
+                    if (TilesExtractor.IGNORED_COLOR_VALUE != pixels[offset])
+                    {
+                        final long hash = TilesIndex.hash(tw, th, pixels, offset, scan);
+                        found[tx + ty * tilesInX] = index.get(hash, pixels, offset, scan);
+                    }
                 }
             }
-        }
-        return null;
+        });
+        return found;
     }
 
     /**
@@ -239,7 +239,7 @@ public final class LevelRipConverter
     public interface Canceler
     {
         /**
-         * Check if operation is canceled.
+         * Check if operation is canceled. May be called from worker threads.
          * 
          * @return <code>true</code> if canceled, <code>false</code> else.
          */
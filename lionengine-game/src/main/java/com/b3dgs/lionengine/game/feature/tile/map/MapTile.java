@@ -164,6 +164,17 @@ public interface MapTile extends SurfaceTile, Featurable
      */
     void setTile(Tile tile);
 
+    /**
+     * Remove the tile at specified map location. Does nothing if there is no tile at this location.
+     * <p>
+     * Listeners are not notified, as no tile is set.
+     * </p>
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     */
+    void removeTile(int tx, int ty);
+
     /**
      * Get tile from specified map location (in tile index). If the returned tile is equal to <code>null</code>, this
      * means that there is not tile at this location. It is not an error, just a way to avoid useless tile storage.
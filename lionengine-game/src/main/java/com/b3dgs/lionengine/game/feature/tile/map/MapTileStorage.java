@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Tiles storage used by {@link MapTileGame}. Tiles are addressed by their location in tile, which is always checked by
+ * the map before calling the storage.
+ */
+interface MapTileStorage
+{
+    /**
+     * Allocate an empty storage, removing any previous tile.
+     * 
+     * @param width The number of horizontal tiles.
+     * @param height The number of vertical tiles.
+     */
+    void create(int width, int height);
+
+    /**
+     * Resize storage, keeping existing tiles at their location.
+     * 
+     * @param width The new number of horizontal tiles.
+     * @param height The new number of vertical tiles.
+     */
+    void resize(int width, int height);
+
+    /**
+     * Create a tile which can be stored.
+     * 
+     * @param sheet The sheet number (must be positive or equal to 0).
+     * @param number The tile number on sheet (must be positive or equal to 0).
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The tile width (must be strictly positive).
+     * @param height The tile height (must be strictly positive).
+     * @return The created tile.
+     */
+    Tile createTile(Integer sheet, int number, double x, double y, int width, int height);
+
+    /**
+     * Set a tile at its location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @param tile The tile reference.
+     */
+    void set(int tx, int ty, Tile tile);
+
+    /**
+     * Remove a tile from its location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     */
+    void remove(int tx, int ty);
+
+    /**
+     * Get a tile from its location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The tile reference, <code>null</code> if none.
+     */
+    Tile get(int tx, int ty);
+
+    /**
+     * Get the number of stored tiles.
+     * 
+     * @return The number of non <code>null</code> tiles.
+     */
+    int getTilesNumber();
+
+    /**
+     * Remove all tiles. Storage stays created, with an empty size.
+     */
+    void clear();
+
+    /**
+     * Check if storage has been created.
+     * 
+     * @return <code>true</code> if created, <code>false</code> else.
+     */
+    boolean isCreated();
+}
@@ -0,0 +1,706 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.Features;
+import com.b3dgs.lionengine.game.feature.Recyclable;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Store tiles as packed <code>int</code> values (sheet and number), in a flat array indexed by
+ * <code>ty * width + tx</code>. Tiles are returned as lightweight views created on demand.
+ * <p>
+ * As tiles are also {@link com.b3dgs.lionengine.game.feature.Featurable}, features added to a view are stored in flat
+ * arrays indexed the same way, one per feature type (its class and its {@link Feature} interfaces), created on first
+ * use. Views read them in place, so no tile instance is created for a cell with features. Features are prepared with
+ * the view as provider (services are not injected). A tile which is not a view is kept in a sparse map and returned
+ * as is. Features and custom tile of a cell are dropped when another tile value is set at their location.
+ * </p>
+ */
+final class MapTileStorageCompact implements MapTileStorage
+{
+    /** Feature not found error. */
+    static final String ERROR_FEATURE_NOT_FOUND = "Feature not found: ";
+    /** Feature exists error. */
+    static final String ERROR_FEATURE_EXISTS = "Feature already exists: ";
+    /** Empty keys. */
+    private static final int[] EMPTY = new int[0];
+    /** Empty cell key. */
+    private static final int NONE = 0;
+    /** Number bits. */
+    private static final int NUMBER_BITS = 16;
+    /** Number mask. */
+    private static final int NUMBER_MASK = (1 << NUMBER_BITS) - 1;
+    /** Max sheet value. */
+    private static final int SHEET_MAX = Short.MAX_VALUE - 1;
+
+    /**
+     * Pack tile values.
+     * 
+     * @param sheet The sheet number.
+     * @param number The tile number.
+     * @return The tile key.
+     */
+    private static int pack(Integer sheet, int number)
+    {
+        return sheet.intValue() + 1 << NUMBER_BITS | number;
+    }
+
+    /**
+     * Get the types a feature is referenced by.
+     * 
+     * @param feature The feature reference.
+     * @return The feature types.
+     * @throws LionEngineException If feature is not annotated.
+     */
+    private static Iterable<Class<? extends Feature>> getTypes(Feature feature)
+    {
+        final Features types = new Features();
+        types.add(feature);
+        return types.getFeaturesType();
+    }
+
+    /**
+     * Copy the common area of a flat array to a resized one.
+     * 
+     * @param source The source array.
+     * @param sourceWidth The source width.
+     * @param sourceHeight The source height.
+     * @param target The target array.
+     * @param width The target width.
+     * @param height The target height.
+     */
+    private static void copy(Object source, int sourceWidth, int sourceHeight, Object target, int width, int height)
+    {
+        final int copy = Math.min(sourceWidth, width);
+        for (int ty = 0; ty < Math.min(sourceHeight, height); ty++)
+        {
+            System.arraycopy(source, ty * sourceWidth, target, ty * width, copy);
+        }
+    }
+
+    /** Features by type, indexed as keys. */
+    private final Map<Class<? extends Feature>, Feature[]> features = new HashMap<>();
+    /** Custom tiles by index. */
+    private final Map<Integer, Tile> custom = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Tiles key (<code>null</code> if not created). */
+    private int[] keys;
+    /** Number of horizontal tiles. */
+    private int width;
+    /** Number of vertical tiles. */
+    private int height;
+    /**
+     * Create storage.
+     * 
+     * @param map The map reference.
+     */
+    MapTileStorageCompact(MapTile map)
+    {
+        super();
+
+        this.map = map;
+    }
+
+    /**
+     * Get the storage index of a view, if its value is still the one stored at its location.
+     * 
+     * @param view The view reference.
+     * @return The view index, <code>-1</code> if view is not stored.
+     */
+    private int getIndex(TileView view)
+    {
+        final int tx = view.getInTileX();
+        final int ty = view.getInTileY();
+        if (keys != null && tx >= 0 && ty >= 0 && tx < width && ty < height && keys[ty * width + tx] == view.key)
+        {
+            return ty * width + tx;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the custom tile at view location, if view is still stored.
+     * 
+     * @param view The view reference.
+     * @return The custom tile, <code>null</code> if none.
+     */
+    private Tile getCustom(TileView view)
+    {
+        final int index = getIndex(view);
+        if (index > -1 && !custom.isEmpty())
+        {
+            return custom.get(Integer.valueOf(index));
+        }
+        return null;
+    }
+
+    /**
+     * Get the view feature stored for this type.
+     * 
+     * @param view The view reference.
+     * @param type The feature type.
+     * @return The feature, <code>null</code> if none.
+     */
+    private Feature getStored(TileView view, Class<? extends Feature> type)
+    {
+        final int index = getIndex(view);
+        final Feature[] column = features.get(type);
+        if (index > -1 && column != null)
+        {
+            return column[index];
+        }
+        return null;
+    }
+
+    /**
+     * Add a feature to view. Stored only if view value is still the current one at its location.
+     * 
+     * @param view The view reference.
+     * @param feature The feature to add.
+     * @throws LionEngineException If feature is not annotated or already referenced.
+     */
+    private void addFeature(TileView view, Feature feature)
+    {
+        final Tile tile = getCustom(view);
+        if (tile != null)
+        {
+            tile.addFeature(feature);
+            return;
+        }
+        final Iterable<Class<? extends Feature>> types = getTypes(feature);
+        for (final Class<? extends Feature> type : types)
+        {
+            final Feature old = getStored(view, type);
+            if (old != null)
+            {
+                throw new LionEngineException(ERROR_FEATURE_EXISTS + feature.getClass() + " with: " + old.getClass());
+            }
+        }
+        if (feature instanceof Recyclable)
+        {
+            ((Recyclable) feature).recycle();
+        }
+        feature.prepare(view);
+
+        final int index = getIndex(view);
+        if (index > -1)
+        {
+            for (final Class<? extends Feature> type : types)
+            {
+                features.computeIfAbsent(type, t -> new Feature[keys.length])[index] = feature;
+            }
+        }
+    }
+
+    /**
+     * Get the view feature.
+     * 
+     * @param <C> The feature type.
+     * @param view The view reference.
+     * @param type The feature type.
+     * @return The feature found.
+     * @throws LionEngineException If the feature was not found.
+     */
+    private <C extends Feature> C getFeature(TileView view, Class<C> type)
+    {
+        final Tile tile = getCustom(view);
+        if (tile != null)
+        {
+            return tile.getFeature(type);
+        }
+        final Feature feature = getStored(view, type);
+        if (feature == null)
+        {
+            throw new LionEngineException(ERROR_FEATURE_NOT_FOUND + type.getName());
+        }
+        return type.cast(feature);
+    }
+
+    /**
+     * Get the view features.
+     * 
+     * @param view The view reference.
+     * @return The features found.
+     */
+    private Iterable<Feature> getFeatures(TileView view)
+    {
+        final Tile tile = getCustom(view);
+        if (tile != null)
+        {
+            return tile.getFeatures();
+        }
+        final int index = getIndex(view);
+        if (index < 0)
+        {
+            return Collections.emptySet();
+        }
+        final Collection<Feature> found = new HashSet<>();
+        for (final Feature[] column : features.values())
+        {
+            if (column[index] != null)
+            {
+                found.add(column[index]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the view features type.
+     * 
+     * @param view The view reference.
+     * @return The features type found.
+     */
+    private Iterable<Class<? extends Feature>> getFeaturesType(TileView view)
+    {
+        final Tile tile = getCustom(view);
+        if (tile != null)
+        {
+            return tile.getFeaturesType();
+        }
+        final int index = getIndex(view);
+        if (index < 0)
+        {
+            return Collections.emptyList();
+        }
+        final Collection<Class<? extends Feature>> found = new ArrayList<>();
+        for (final Map.Entry<Class<? extends Feature>, Feature[]> entry : features.entrySet())
+        {
+            if (entry.getValue()[index] != null)
+            {
+                found.add(entry.getKey());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Check if view has feature.
+     * 
+     * @param view The view reference.
+     * @param type The feature type.
+     * @return <code>true</code> if has feature, <code>false</code> else.
+     */
+    private boolean hasFeature(TileView view, Class<? extends Feature> type)
+    {
+        final Tile tile = getCustom(view);
+        if (tile != null)
+        {
+            return tile.hasFeature(type);
+        }
+        return getStored(view, type) != null;
+    }
+
+    /**
+     * Remove features and custom tile at index.
+     * 
+     * @param index The tile index.
+     */
+    private void clear(int index)
+    {
+        for (final Feature[] column : features.values())
+        {
+            column[index] = null;
+        }
+        custom.remove(Integer.valueOf(index));
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int width, int height)
+    {
+        keys = new int[width * height];
+        features.clear();
+        custom.clear();
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void resize(int width, int height)
+    {
+        final int[] resized = new int[width * height];
+        copy(keys, this.width, this.height, resized, width, height);
+
+        for (final Map.Entry<Class<? extends Feature>, Feature[]> entry : features.entrySet())
+        {
+            final Feature[] column = new Feature[width * height];
+            copy(entry.getValue(), this.width, this.height, column, width, height);
+            entry.setValue(column);
+        }
+
+        final Map<Integer, Tile> old = new HashMap<>(custom);
+        custom.clear();
+        for (final Map.Entry<Integer, Tile> entry : old.entrySet())
+        {
+            final int tx = entry.getKey().intValue() % this.width;
+            final int ty = entry.getKey().intValue() / this.width;
+            if (tx < width && ty < height)
+            {
+                custom.put(Integer.valueOf(ty * width + tx), entry.getValue());
+            }
+        }
+
+        keys = resized;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public Tile createTile(Integer sheet, int number, double x, double y, int width, int height)
+    {
+        Check.notNull(sheet);
+        Check.superiorOrEqual(sheet.intValue(), 0);
+        Check.inferiorOrEqual(sheet.intValue(), SHEET_MAX);
+        Check.superiorOrEqual(number, 0);
+        Check.inferiorOrEqual(number, NUMBER_MASK);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        return new TileView(this, sheet, number, x, y, width, height);
+    }
+
+    @Override
+    public void set(int tx, int ty, Tile tile)
+    {
+        final int index = ty * width + tx;
+        final int value = pack(tile.getSheet(), tile.getNumber());
+        if (!(tile instanceof TileView))
+        {
+            clear(index);
+            custom.put(Integer.valueOf(index), tile);
+        }
+        else if (keys[index] != value)
+        {
+            clear(index);
+        }
+        keys[index] = value;
+    }
+
+    @Override
+    public void remove(int tx, int ty)
+    {
+        final int index = ty * width + tx;
+        keys[index] = NONE;
+        clear(index);
+    }
+
+    @Override
+    public Tile get(int tx, int ty)
+    {
+        final int index = ty * width + tx;
+        final int key = keys[index];
+        if (key == NONE)
+        {
+            return null;
+        }
+        if (!custom.isEmpty())
+        {
+            final Tile tile = custom.get(Integer.valueOf(index));
+            if (tile != null)
+            {
+                return tile;
+            }
+        }
+        final int tileWidth = map.getTileWidth();
+        final int tileHeight = map.getTileHeight();
+        return new TileView(this,
+                            Integer.valueOf((key >>> NUMBER_BITS) - 1),
+                            key & NUMBER_MASK,
+                            tx * (double) tileWidth,
+                            ty * (double) tileHeight,
+                            tileWidth,
+                            tileHeight);
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        if (keys == null)
+        {
+            return 0;
+        }
+        int count = 0;
+        final int length = keys.length;
+        for (int i = 0; i < length; i++)
+        {
+            if (keys[i] != NONE)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (keys != null)
+        {
+            keys = EMPTY;
+            features.clear();
+            custom.clear();
+            width = 0;
+            height = 0;
+        }
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return keys != null;
+    }
+
+    /**
+     * Lightweight tile, only holding its values. Features are handled by the storage.
+     */
+    private static final class TileView implements Tile
+    {
+        /** Storage reference. */
+        private final MapTileStorageCompact storage;
+        /** Storage key. */
+        private final int key;
+        /** Tile sheet number where tile is contained. */
+        private final Integer sheet;
+        /** Position number in the tilesheet. */
+        private final int number;
+        /** Horizontal location on map. */
+        private final double x;
+        /** Vertical location on map. */
+        private final double y;
+        /** Tile width. */
+        private final int width;
+        /** Tile height. */
+        private final int height;
+
+        /**
+         * Create view.
+         * 
+         * @param storage The storage reference.
+         * @param sheet The sheet number.
+         * @param number The tile number on sheet.
+         * @param x The horizontal location.
+         * @param y The vertical location.
+         * @param width The tile width.
+         * @param height The tile height.
+         */
+        TileView(MapTileStorageCompact storage,
+                 Integer sheet,
+                 int number,
+                 double x,
+                 double y,
+                 int width,
+                 int height)
+        {
+            super();
+
+            this.storage = storage;
+            this.sheet = sheet;
+            this.number = number;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            key = pack(sheet, number);
+        }
+
+        /*
+         * Tile
+         */
+
+        @Override
+        public Integer getSheet()
+        {
+            return sheet;
+        }
+
+        @Override
+        public int getNumber()
+        {
+            return number;
+        }
+
+        @Override
+        public double getX()
+        {
+            return x;
+        }
+
+        @Override
+        public double getY()
+        {
+            return y;
+        }
+
+        @Override
+        public int getWidth()
+        {
+            return width;
+        }
+
+        @Override
+        public int getHeight()
+        {
+            return height;
+        }
+
+        @Override
+        public int getInTileX()
+        {
+            return (int) Math.floor(x / width);
+        }
+
+        @Override
+        public int getInTileY()
+        {
+            return (int) Math.floor(y / height);
+        }
+
+        @Override
+        public int getInTileWidth()
+        {
+            return 1;
+        }
+
+        @Override
+        public int getInTileHeight()
+        {
+            return 1;
+        }
+
+        @Override
+        public void addFeature(Feature feature)
+        {
+            storage.addFeature(this, feature);
+        }
+
+        @Override
+        public <T extends Feature> T addFeatureAndGet(T feature)
+        {
+            storage.addFeature(this, feature);
+            return feature;
+        }
+
+        @Override
+        public void checkListener(Object listener)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public Media getMedia()
+        {
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         * 
+         * @throws LionEngineException If the feature was not found.
+         */
+        @Override
+        public <C extends Feature> C getFeature(Class<C> feature)
+        {
+            return storage.getFeature(this, feature);
+        }
+
+        @Override
+        public Iterable<Feature> getFeatures()
+        {
+            return storage.getFeatures(this);
+        }
+
+        @Override
+        public Iterable<Class<? extends Feature>> getFeaturesType()
+        {
+            return storage.getFeaturesType(this);
+        }
+
+        @Override
+        public boolean hasFeature(Class<? extends Feature> feature)
+        {
+            return storage.hasFeature(this, feature);
+        }
+
+        /*
+         * Object
+         */
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + width;
+            result = prime * result + height;
+            result = prime * result + getInTileX();
+            result = prime * result + getInTileY();
+            result = prime * result + key;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (object == null || object.getClass() != getClass())
+            {
+                return false;
+            }
+            final TileView other = (TileView) object;
+            return key == other.key
+                   && width == other.width
+                   && height == other.height
+                   && getInTileX() == other.getInTileX()
+                   && getInTileY() == other.getInTileY();
+        }
+
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("sheet = ")
+                                      .append(sheet)
+                                      .append(" | number = ")
+                                      .append(number)
+                                      .append(" | tx = ")
+                                      .append(getInTileX())
+                                      .append(" | ty = ")
+                                      .append(getInTileY())
+                                      .toString();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Store each tile instance in a flat array, indexed by <code>ty * width + tx</code>.
+ */
+final class MapTileStorageObjects implements MapTileStorage
+{
+    /** Empty tiles. */
+    private static final Tile[] EMPTY = new Tile[0];
+
+    /** Tiles (<code>null</code> if not created). */
+    private Tile[] tiles;
+    /** Number of horizontal tiles. */
+    private int width;
+    /** Number of vertical tiles. */
+    private int height;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageObjects()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int width, int height)
+    {
+        tiles = new Tile[width * height];
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void resize(int width, int height)
+    {
+        final Tile[] resized = new Tile[width * height];
+        final int copy = Math.min(this.width, width);
+        for (int ty = 0; ty < Math.min(this.height, height); ty++)
+        {
+            System.arraycopy(tiles, ty * this.width, resized, ty * width, copy);
+        }
+        tiles = resized;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public Tile createTile(Integer sheet, int number, double x, double y, int width, int height)
+    {
+        return new TileGame(sheet, number, x, y, width, height);
+    }
+
+    @Override
+    public void set(int tx, int ty, Tile tile)
+    {
+        tiles[ty * width + tx] = tile;
+    }
+
+    @Override
+    public void remove(int tx, int ty)
+    {
+        tiles[ty * width + tx] = null;
+    }
+
+    @Override
+    public Tile get(int tx, int ty)
+    {
+        return tiles[ty * width + tx];
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        if (tiles == null)
+        {
+            return 0;
+        }
+        int count = 0;
+        final int length = tiles.length;
+        for (int i = 0; i < length; i++)
+        {
+            if (tiles[i] != null)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void clear()
+    {
+        if (tiles != null)
+        {
+            tiles = EMPTY;
+            width = 0;
+            height = 0;
+        }
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return tiles != null;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.NameableAbstract;
@@ -76,6 +77,8 @@ public class CollisionCategory extends NameableAbstract
      * {@link com.b3dgs.lionengine.game.feature.tile.map.collision.MapTileCollision#getCollisionFormula(String)}.
      */
     private final Collection<CollisionFormula> formulas = new HashSet<>();
+    /** Collision formulas in iteration order, for indexed access. */
+    private final List<CollisionFormula> ordered = new ArrayList<>();
 
     /**
      * Constructor.
@@ -100,6 +103,7 @@ public class CollisionCategory extends NameableAbstract
         {
             formulas.addAll(group.getFormulas());
         }
+        ordered.addAll(formulas);
     }
 
     /**
@@ -162,6 +166,16 @@ public class CollisionCategory extends NameableAbstract
         return glue;
     }
 
+    /**
+     * Get the collision formulas in {@link #getFormulas()} iteration order, allowing indexed access without iterator.
+     * 
+     * @return The collision formulas list.
+     */
+    List<CollisionFormula> getFormulasList()
+    {
+        return ordered;
+    }
+
     /*
      * Object
      */
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.collision;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collision profile of a formula, baked once when collisions are loaded.
+ * <p>
+ * For each input value (location relative to tile on the other axis) in the formula range, the floored function result
+ * and the accepted interval on the output axis are stored in flat <code>int</code> tables. Profiles are read only once
+ * created, and a category query walks its formulas in order, giving the same result as
+ * {@link TileCollision#getCollisionX(CollisionCategory, double, double)} and
+ * {@link TileCollision#getCollisionY(CollisionCategory, double, double)} without allocation.
+ * </p>
+ */
+final class CollisionProfile
+{
+    /**
+     * Create the profiles of formulas.
+     * 
+     * @param formulas The formulas to bake.
+     * @return The read only profiles by formula (formulas with an empty range are not referenced).
+     */
+    static Map<CollisionFormula, CollisionProfile> create(Collection<CollisionFormula> formulas)
+    {
+        final Map<CollisionFormula, CollisionProfile> profiles = new HashMap<>();
+        for (final CollisionFormula formula : formulas)
+        {
+            final CollisionRange range = formula.getRange();
+            if (getMin(range) <= getMax(range))
+            {
+                profiles.put(formula, new CollisionProfile(formula));
+            }
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Check if category can collide with tile formulas.
+     * 
+     * @param profiles The formulas profiles.
+     * @param category The category reference.
+     * @param formulas The tile formulas.
+     * @return <code>true</code> if at least one profile is shared by category and tile, <code>false</code> else.
+     */
+    static boolean canCollide(Map<CollisionFormula, CollisionProfile> profiles,
+                              CollisionCategory category,
+                              Collection<CollisionFormula> formulas)
+    {
+        final List<CollisionFormula> ordered = category.getFormulasList();
+        final int n = ordered.size();
+        for (int i = 0; i < n; i++)
+        {
+            if (getProfile(profiles, category, formulas, ordered.get(i)) != null)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the collision location between the tile and the current location, first category formula wins.
+     * 
+     * @param profiles The formulas profiles.
+     * @param category The category reference.
+     * @param formulas The tile formulas.
+     * @param tileX The tile horizontal location.
+     * @param tileY The tile vertical location.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @return The collision location on category axis, {@link Double#NaN} if none.
+     */
+    static double getCollision(Map<CollisionFormula, CollisionProfile> profiles,
+                               CollisionCategory category,
+                               Collection<CollisionFormula> formulas,
+                               double tileX,
+                               double tileY,
+                               double x,
+                               double y)
+    {
+        final int offset = Axis.X == category.getAxis() ? category.getOffsetX() : category.getOffsetY();
+        final List<CollisionFormula> ordered = category.getFormulasList();
+        final int n = ordered.size();
+        for (int i = 0; i < n; i++)
+        {
+            final CollisionProfile profile = getProfile(profiles, category, formulas, ordered.get(i));
+            if (profile != null)
+            {
+                final double collision = profile.getCollision(tileX, tileY, x, y, offset);
+                if (!Double.isNaN(collision))
+                {
+                    return collision;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Get the formula profile if used by category and tile.
+     * 
+     * @param profiles The formulas profiles.
+     * @param category The category reference.
+     * @param formulas The tile formulas.
+     * @param formula The category formula.
+     * @return The formula profile, <code>null</code> if not used.
+     */
+    private static CollisionProfile getProfile(Map<CollisionFormula, CollisionProfile> profiles,
+                                               CollisionCategory category,
+                                               Collection<CollisionFormula> formulas,
+                                               CollisionFormula formula)
+    {
+        if (category.getAxis() == formula.getRange().getOutput() && formulas.contains(formula))
+        {
+            return profiles.get(formula);
+        }
+        return null;
+    }
+
+    /**
+     * Get the minimum input value of range.
+     * 
+     * @param range The range reference.
+     * @return The minimum input value.
+     */
+    private static int getMin(CollisionRange range)
+    {
+        if (Axis.X == range.getOutput())
+        {
+            return range.getMinY();
+        }
+        return range.getMinX();
+    }
+
+    /**
+     * Get the maximum input value of range.
+     * 
+     * @param range The range reference.
+     * @return The maximum input value.
+     */
+    private static int getMax(CollisionRange range)
+    {
+        if (Axis.X == range.getOutput())
+        {
+            return range.getMaxY();
+        }
+        return range.getMaxX();
+    }
+
+    /** Horizontal output flag. */
+    private final boolean horizontal;
+    /** Minimum input value. */
+    private final int min;
+    /** Function result for each input. */
+    private final int[] values;
+    /** Minimum accepted output location for each input. */
+    private final int[] lows;
+    /** Maximum accepted output location for each input. */
+    private final int[] highs;
+
+    /**
+     * Create profile.
+     * 
+     * @param formula The formula to bake.
+     */
+    private CollisionProfile(CollisionFormula formula)
+    {
+        super();
+
+        final CollisionRange range = formula.getRange();
+        final CollisionFunction function = formula.getFunction();
+        horizontal = Axis.X == range.getOutput();
+        min = getMin(range);
+
+        final int length = getMax(range) - min + 1;
+        values = new int[length];
+        lows = new int[length];
+        highs = new int[length];
+
+        final int low;
+        final int high;
+        if (horizontal)
+        {
+            low = range.getMinX() - 1;
+            high = range.getMaxX();
+        }
+        else
+        {
+            low = range.getMinY() - (int) Math.ceil(Math.abs(function.compute(1) - function.compute(0)));
+            high = range.getMaxY();
+        }
+        for (int index = 0; index < length; index++)
+        {
+            final int result = (int) Math.floor(function.compute(min + index));
+            values[index] = result;
+            lows[index] = result + low;
+            highs[index] = result + high;
+        }
+    }
+
+    /**
+     * Get the collision location between the tile and the current location.
+     * 
+     * @param tileX The tile horizontal location.
+     * @param tileY The tile vertical location.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @param offset The category offset on its axis.
+     * @return The collision location on output axis, {@link Double#NaN} if none.
+     */
+    private double getCollision(double tileX, double tileY, double x, double y, int offset)
+    {
+        final int xOnTile = (int) Math.floor(x - tileX);
+        final int yOnTile = (int) Math.floor(y - tileY);
+        final int input;
+        final int output;
+        final double origin;
+        if (horizontal)
+        {
+            input = yOnTile - min;
+            output = xOnTile;
+            origin = tileX;
+        }
+        else
+        {
+            input = xOnTile - min;
+            output = yOnTile;
+            origin = tileY;
+        }
+        if (input >= 0 && input < values.length && output >= lows[input] && output <= highs[input])
+        {
+            return Math.floor(origin + values[input] - offset);
+        }
+        return Double.NaN;
+    }
+}
@@ -17,93 +17,113 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.collision;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 
 /**
  * Compute map tile collision.
+ * <p>
+ * Once collisions are loaded, {@link #compile(Collection)} bakes a read only {@link CollisionProfile} per formula, and
+ * stores the formulas of each tile in a flat list indexed by <code>ty * width + tx</code>, so queries never modify
+ * shared state. Tiles set after loading are updated through {@link TileSetListener} with their current formulas (a new
+ * tile has no collision until collisions are loaded again). The sweep skips the lookups while moving inside a tile
+ * without collision, up to the next tile boundary.
+ * </p>
  */
-final class MapTileCollisionComputer
+final class MapTileCollisionComputer implements TileSetListener
 {
+    /** No index. */
+    private static final int NONE = -1;
+    /** Minimum distance to tile boundary when skipping steps. */
+    private static final double MARGIN = 0.001;
+
     /**
-     * Check if tile contains at least one collision from the category.
+     * Get position on tile depending on side.
      * 
-     * @param tile The tile reference.
-     * @param category The category reference.
-     * @return <code>true</code> if there is a formula in common between tile and category.
+     * @param old The old position.
+     * @param cur The current position.
+     * @return The position on side.
      */
-    private static boolean containsCollisionFormula(TileCollision tile, CollisionCategory category)
+    private static double getPositionToSide(double old, double cur)
     {
-        final Collection<CollisionFormula> formulas = tile.getCollisionFormulas();
-        for (final CollisionFormula formula : category.getFormulas())
+        // Moving right
+        if (Double.compare(old, cur) > 0)
         {
-            if (formulas.contains(formula))
-            {
-                return true;
-            }
+            return cur;
         }
-        return false;
+        // Moving left
+        return old;
     }
 
     /**
-     * Get the horizontal collision from current location.
+     * Get the number of steps keeping location inside tile, with a safety margin.
      * 
-     * @param category The collision category.
-     * @param tileCollision The current tile collision.
-     * @param x The current horizontal location.
-     * @param y The current vertical location.
-     * @return The computed horizontal collision.
+     * @param location The current location.
+     * @param step The step value.
+     * @param min The tile minimum location.
+     * @param size The tile size.
+     * @return The number of steps inside tile (may be infinite or negative).
      */
-    private static Double getCollisionX(CollisionCategory category, TileCollision tileCollision, double x, double y)
+    private static double getSteps(double location, double step, double min, int size)
     {
-        if (Axis.X == category.getAxis())
+        final double distance;
+        if (step > 0.0)
         {
-            return tileCollision.getCollisionX(category, x, y);
+            distance = min + size - location;
         }
-        return null;
-    }
-
-    /**
-     * Get the vertical collision from current location.
-     * 
-     * @param category The collision category.
-     * @param tileCollision The current tile collision.
-     * @param x The current horizontal location.
-     * @param y The current vertical location.
-     * @return The computed vertical collision.
-     */
-    private static Double getCollisionY(CollisionCategory category, TileCollision tileCollision, double x, double y)
-    {
-        if (Axis.Y == category.getAxis())
+        else if (step < 0.0)
+        {
+            distance = location - min;
+        }
+        else
         {
-            return tileCollision.getCollisionY(category, x, y);
+            return Double.POSITIVE_INFINITY;
         }
-        return null;
+        return Math.floor((distance - MARGIN) / Math.abs(step)) - 1.0;
     }
 
     /**
-     * Get position on tile depending on side.
+     * Get the tile formulas.
      * 
-     * @param old The old position.
-     * @param cur The current position.
-     * @return The position on side.
+     * @param tile The tile reference (may be <code>null</code>).
+     * @return The tile formulas, <code>null</code> if no collision.
      */
-    private static double getPositionToSide(double old, double cur)
+    private static Collection<CollisionFormula> getFormulas(Tile tile)
     {
-        // Moving right
-        if (Double.compare(old, cur) > 0)
+        if (tile == null || !tile.hasFeature(TileCollision.class))
         {
-            return cur;
+            return null;
         }
-        // Moving left
-        return old;
+        final Collection<CollisionFormula> formulas = tile.getFeature(TileCollision.class).getCollisionFormulas();
+        if (formulas.isEmpty())
+        {
+            return null;
+        }
+        return formulas;
     }
 
     /** Map reference. */
     private final MapTile map;
+    /** Read only profiles by formula. */
+    private Map<CollisionFormula, CollisionProfile> profiles = Collections.emptyMap();
+    /** Formulas of each tile (<code>null</code> if no collision). */
+    private List<Collection<CollisionFormula>> cells = Collections.emptyList();
+    /** Compiled width in tile. */
+    private int width;
+    /** Compiled height in tile. */
+    private int height;
+    /** Compiled tile width. */
+    private int tileWidth;
+    /** Compiled tile height. */
+    private int tileHeight;
 
     /**
      * Create the map tile collision computer.
@@ -117,6 +137,30 @@ final class MapTileCollisionComputer
         this.map = map;
     }
 
+    /**
+     * Compile tiles formulas. Must be called once collisions have been loaded.
+     * 
+     * @param formulas The loaded formulas.
+     */
+    void compile(Collection<CollisionFormula> formulas)
+    {
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        tileWidth = map.getTileWidth();
+        tileHeight = map.getTileHeight();
+
+        final List<Collection<CollisionFormula>> compiled = new ArrayList<>(width * height);
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                compiled.add(getFormulas(map.getTile(tx, ty)));
+            }
+        }
+        profiles = CollisionProfile.create(formulas);
+        cells = compiled;
+    }
+
     /**
      * Search first tile hit by the transformable that contains collision, applying a ray tracing from its old location
      * to its current. This way, the transformable can not pass through a collidable tile.
@@ -155,6 +199,86 @@ final class MapTileCollisionComputer
         return computeCollision(category, sh, sv, sx, sy, max);
     }
 
+    /**
+     * Get the tile index at location.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return The tile index, {@link #NONE} if outside map.
+     */
+    private int getCell(double x, double y)
+    {
+        final int tx = (int) Math.floor(x / tileWidth);
+        final int ty = (int) Math.floor(y / tileHeight);
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return NONE;
+        }
+        return ty * width + tx;
+    }
+
+    /**
+     * Get the tile formulas.
+     * 
+     * @param cell The tile index.
+     * @return The tile formulas, <code>null</code> if no collision.
+     */
+    private Collection<CollisionFormula> getFormulas(int cell)
+    {
+        if (cell == NONE)
+        {
+            return null;
+        }
+        return cells.get(cell);
+    }
+
+    /**
+     * Check if category can collide with tile.
+     * 
+     * @param category The category reference.
+     * @param cell The tile index.
+     * @return <code>true</code> if can collide, <code>false</code> else.
+     */
+    private boolean canCollide(CollisionCategory category, int cell)
+    {
+        final Collection<CollisionFormula> formulas = getFormulas(cell);
+        return formulas != null && CollisionProfile.canCollide(profiles, category, formulas);
+    }
+
+    /**
+     * Get the number of steps that can be skipped without collision check, when old and current location are inside
+     * the same tile without collision, and stay inside it.
+     * 
+     * @param category The category reference.
+     * @param ox The old horizontal location.
+     * @param oy The old vertical location.
+     * @param x The current horizontal location.
+     * @param y The current vertical location.
+     * @param sx The horizontal search vector.
+     * @param sy The vertical search vector.
+     * @param remaining The remaining search iterations.
+     * @return The number of steps to skip.
+     */
+    private int getSkip(CollisionCategory category,
+                        double ox,
+                        double oy,
+                        double x,
+                        double y,
+                        double sx,
+                        double sy,
+                        int remaining)
+    {
+        final int cell = getCell(x, y);
+        if (cell == NONE || cell != getCell(ox, oy) || canCollide(category, cell))
+        {
+            return 0;
+        }
+        final double minX = (double) (cell % width) * tileWidth;
+        final double minY = (double) (cell / width) * tileHeight;
+        final double steps = Math.min(getSteps(x, sx, minX, tileWidth), getSteps(y, sy, minY, tileHeight));
+        return (int) Math.max(0.0, Math.min(remaining, steps));
+    }
+
     /**
      * Compute collision step by step moving first horizontal and then vertical.
      * 
@@ -174,117 +298,146 @@ final class MapTileCollisionComputer
                                              double sy,
                                              int max)
     {
+        final boolean horizontal = Axis.X == category.getAxis();
+
         double x = sh;
         double y = sv;
         double ox = x;
         double oy = y;
 
-        boolean collX = false;
-        boolean collY = false;
-
-        CollisionResult last = null;
-        for (int cur = 0; cur < max; cur++)
+        int last = NONE;
+        double found = 0.0;
+        int cur = 0;
+        while (cur < max)
         {
-            CollisionResult current = computeCollision(category, ox, oy, x, y);
-            if (current != null)
+            final int skip = getSkip(category, ox, oy, x, y, sx, sy, max - cur);
+            for (int i = 0; i < skip; i++)
+            {
+                ox = x;
+                x += sx;
+                oy = y;
+                y += sy;
+            }
+            if (skip > 0)
+            {
+                cur += skip;
+                continue;
+            }
+
+            int cell = getCell(getPositionToSide(ox, x), getPositionToSide(oy, y));
+            double collision = computeCollision(category, cell, x, y);
+            final boolean collX = horizontal && !Double.isNaN(collision);
+            if (!Double.isNaN(collision))
             {
-                last = current;
-                if (current.getX() != null)
+                last = cell;
+                found = collision;
+                if (horizontal)
                 {
-                    x = current.getX().doubleValue();
-                    collX = true;
+                    x = collision;
                 }
                 else
                 {
-                    collX = false;
-                }
-                if (current.getY() != null)
-                {
-                    y = current.getY().doubleValue();
+                    y = collision;
                     oy = y;
                 }
             }
-            else
-            {
-                collX = false;
-            }
-
             if (!collX)
             {
                 ox = x;
                 x += sx;
             }
 
-            current = computeCollision(category, ox, oy, x, y);
-            if (current != null)
+            cell = getCell(getPositionToSide(ox, x), getPositionToSide(oy, y));
+            collision = computeCollision(category, cell, x, y);
+            final boolean collY = !horizontal && !Double.isNaN(collision);
+            if (!Double.isNaN(collision))
             {
-                last = current;
-                if (current.getX() != null)
-                {
-                    x = current.getX().doubleValue();
-                }
-                if (current.getY() != null)
+                last = cell;
+                found = collision;
+                if (horizontal)
                 {
-                    y = current.getY().doubleValue();
-                    collY = true;
+                    x = collision;
                 }
                 else
                 {
-                    collY = false;
+                    y = collision;
                 }
             }
-            else
-            {
-                collY = false;
-            }
-
             if (!collY)
             {
                 oy = y;
                 y += sy;
             }
+            cur++;
         }
-        if (category.isGlue())
+        for (int glue = 1; glue < 3 && last == NONE && category.isGlue(); glue++)
         {
-            if (last == null)
+            final int cell = getCell(getPositionToSide(ox, x), getPositionToSide(oy, y - glue));
+            final double collision = computeCollision(category, cell, x, y - glue);
+            if (!Double.isNaN(collision))
             {
-                last = computeCollision(category, ox, oy, x, y - 1);
-            }
-            if (last == null)
-            {
-                last = computeCollision(category, ox, oy, x, y - 2);
+                last = cell;
+                found = collision;
             }
         }
-        return last;
+        return createResult(last, found, horizontal);
     }
 
     /**
      * Compute the collision from current location.
      * 
-     * @param category The collision category.
-     * @param ox The current horizontal location.
-     * @param oy The current vertical location.
+     * @param category The category reference.
+     * @param cell The tile index.
      * @param x The current horizontal location.
      * @param y The current vertical location.
-     * @return The computed collision result, <code>null</code> if none.
+     * @return The collision location on category axis, {@link Double#NaN} if none.
      */
-    private CollisionResult computeCollision(CollisionCategory category, double ox, double oy, double x, double y)
+    private double computeCollision(CollisionCategory category, int cell, double x, double y)
     {
-        final Tile tile = map.getTileAt(getPositionToSide(ox, x), getPositionToSide(oy, y));
-        if (tile != null)
+        final Collection<CollisionFormula> formulas = getFormulas(cell);
+        if (formulas != null)
         {
-            final TileCollision tileCollision = tile.getFeature(TileCollision.class);
-            if (containsCollisionFormula(tileCollision, category))
-            {
-                final Double cx = getCollisionX(category, tileCollision, x, y);
-                final Double cy = getCollisionY(category, tileCollision, x, y);
-                // CHECKSTYLE IGNORE LINE: NestedIfDepth
-                if (cx != null || cy != null)
-                {
-                    return new CollisionResult(cx, cy, tile, tileCollision.getCollisionFormulas());
-                }
-            }
+            final Tile tile = map.getTile(cell % width, cell / width);
+            return CollisionProfile.getCollision(profiles, category, formulas, tile.getX(), tile.getY(), x, y);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Create the collision result.
+     * 
+     * @param cell The collided tile index ({@link #NONE} if none).
+     * @param found The collision location on category axis.
+     * @param horizontal <code>true</code> if collision is horizontal, <code>false</code> if vertical.
+     * @return The collision result, <code>null</code> if none.
+     */
+    private CollisionResult createResult(int cell, double found, boolean horizontal)
+    {
+        if (cell == NONE)
+        {
+            return null;
+        }
+        final Tile tile = map.getTile(cell % width, cell / width);
+        final Collection<CollisionFormula> formulas = tile.getFeature(TileCollision.class).getCollisionFormulas();
+        if (horizontal)
+        {
+            return new CollisionResult(Double.valueOf(found), null, tile, formulas);
+        }
+        return new CollisionResult(null, Double.valueOf(found), tile, formulas);
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        final int tx = tile.getInTileX();
+        final int ty = tile.getInTileY();
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            cells.set(ty * width + tx, getFormulas(tile));
         }
-        return null;
     }
 }
@@ -21,6 +21,7 @@ import java.util.Collection;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Transformable;
@@ -36,6 +37,10 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
  * <li>{@link MapTile}</li>
  * <li>{@link MapTileGroup}</li>
  * </ul>
+ * <p>
+ * Tile collisions are compiled once loaded: formulas changed directly on a {@link TileCollision} are only taken into
+ * account on next loading, whereas tiles set on map are updated automatically once prepared.
+ * </p>
  */
 public class MapTileCollisionModel extends FeatureModel implements MapTileCollision
 {
@@ -67,16 +72,27 @@ public class MapTileCollisionModel extends FeatureModel implements MapTileCollis
      * MapTileCollision
      */
 
+    @Override
+    public void prepare(FeatureProvider provider)
+    {
+        super.prepare(provider);
+
+        map.removeListener(computer);
+        map.addListener(computer);
+    }
+
     @Override
     public void loadCollisions(Media collisionFormulas, Media collisionGroups)
     {
         loader.loadCollisions(this, collisionFormulas, collisionGroups);
+        computer.compile(loader.getCollisionFormulas());
     }
 
     @Override
     public void loadCollisions(CollisionFormulaConfig formulasConfig, CollisionGroupConfig groupsConfig)
     {
         loader.loadCollisions(this, formulasConfig, groupsConfig);
+        computer.compile(loader.getCollisionFormulas());
     }
 
     @Override
@@ -36,7 +36,23 @@ public final class Astar
      */
     public static PathFinder createPathFinder(MapTile map, int maxSearchDistance, Heuristic heuristic)
     {
-        return new PathFinderImpl(map, maxSearchDistance, heuristic);
+        return new PathFinderHeap(map, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Create a hierarchical path finder, searching first a route between map clusters, and then the path of each route
+     * segment.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} and
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePathClusters} features.
+     * @param maxSearchDistance The maximum depth we'll search before giving up on full map search.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @return The path finder instance.
+     */
+    public static PathFinder createPathFinderHierarchical(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        return new PathFinderHierarchical(map, maxSearchDistance, heuristic);
     }
 
     /**
@@ -0,0 +1,925 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Abstract cluster graph of a map for a movement profile (how categories are crossed, and if objects are blocking).
+ * <p>
+ * The map is split in square clusters. Each passable run along a cluster border gives one transition (two for long
+ * runs), whose tiles are the graph nodes. Nodes are linked to the adjacent cluster node, and to the other nodes of
+ * their cluster with the cost of the cheapest path staying inside the cluster.
+ * </p>
+ * <p>
+ * Changes only mark their cluster as dirty. Dirty clusters borders, and the nodes of dirty clusters and their
+ * neighbours, are rebuilt on next search.
+ * </p>
+ */
+final class ClusterLayer
+{
+    /** Unreachable distance. */
+    private static final float UNREACHABLE = Float.MAX_VALUE;
+    /** Border run length from which two transitions are created instead of one. */
+    private static final int ENTRANCE_SPLIT = 6;
+    /** No node. */
+    private static final int NONE = -1;
+    /** No transition. */
+    private static final int[] NO_TRANSITION = new int[0];
+
+    /** Movement profile. */
+    private final MovementProfile profile;
+    /** Map reference. */
+    private final MapTile map;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Horizontal clusters number. */
+    private final int clustersX;
+    /** Vertical clusters number. */
+    private final int clustersY;
+    /** Transitions with right cluster, as tile index couples (inside, outside). */
+    private final int[][] bordersRight;
+    /** Transitions with bottom cluster, as tile index couples (inside, outside). */
+    private final int[][] bordersDown;
+    /** Node identifiers of each cluster. */
+    private final int[][] clusterNodes;
+    /** Dirty clusters. */
+    private final boolean[] dirty;
+    /** Clusters to rebuild. */
+    private final boolean[] rebuild;
+    /** Node identifier by tile index ({@link #NONE} if not a node). */
+    private final int[] tileNodes;
+    /** Border computation buffer. */
+    private final int[] transitions;
+    /** Cluster node collect buffer. */
+    private final int[] collected;
+    /** Loaded cluster category by local index. */
+    private final int[] localCategories;
+    /** Loaded cluster passable flag by local index. */
+    private final boolean[] localPassable;
+    /** Cluster search open list. */
+    private final IndexedHeap localOpen;
+    /** Cluster search distances. */
+    private final float[] localDistances;
+    /** Cluster search generations. */
+    private final int[] localGenerations;
+    /** Cluster search targets (marked with target generation). */
+    private final int[] localTargets;
+    /** Nodes by identifier. */
+    private ClusterNode[] nodes = new ClusterNode[0];
+    /** Released node identifiers. */
+    private int[] released = new int[0];
+    /** Released node identifiers number. */
+    private int releasedCount;
+    /** Nodes identifier count. */
+    private int nodesCount;
+    /** Route search open list (last identifier is the goal). */
+    private IndexedHeap open = new IndexedHeap(1);
+    /** Route search costs. */
+    private float[] best = new float[1];
+    /** Route search parents. */
+    private int[] parents = new int[1];
+    /** Route search cost to goal. */
+    private float[] exits = new float[1];
+    /** Route search generations. */
+    private int[] generations = new int[1];
+    /** Route search exit generations. */
+    private int[] exitGenerations = new int[1];
+    /** Route search closed generations. */
+    private int[] closedGenerations = new int[1];
+    /** Current route search generation. */
+    private int generation;
+    /** Current cluster search generation. */
+    private int localGeneration;
+    /** Current cluster search targets generation. */
+    private int targetGeneration;
+    /** Loaded cluster horizontal origin. */
+    private int loadedX;
+    /** Loaded cluster vertical origin. */
+    private int loadedY;
+    /** Loaded cluster width. */
+    private int loadedWidth;
+    /** Loaded cluster height. */
+    private int loadedHeight;
+    /** Has dirty cluster flag. */
+    private boolean hasDirty = true;
+
+    /**
+     * Create layer. All clusters are dirty.
+     * 
+     * @param map The map reference.
+     * @param size The cluster size in tile.
+     * @param profile The movement profile.
+     */
+    ClusterLayer(MapTile map, int size, MovementProfile profile)
+    {
+        super();
+
+        this.map = map;
+        this.size = size;
+        this.profile = profile;
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        clustersX = (width + size - 1) / size;
+        clustersY = (height + size - 1) / size;
+
+        final int count = clustersX * clustersY;
+        bordersRight = new int[count][];
+        bordersDown = new int[count][];
+        clusterNodes = new int[count][];
+        Arrays.fill(bordersRight, NO_TRANSITION);
+        Arrays.fill(bordersDown, NO_TRANSITION);
+        Arrays.fill(clusterNodes, NO_TRANSITION);
+        dirty = new boolean[count];
+        rebuild = new boolean[count];
+        Arrays.fill(dirty, true);
+        tileNodes = new int[width * height];
+        Arrays.fill(tileNodes, NONE);
+
+        transitions = new int[size * 2];
+        collected = new int[size * 8];
+        localCategories = new int[size * size];
+        localPassable = new boolean[size * size];
+        localOpen = new IndexedHeap(size * size);
+        localDistances = new float[size * size];
+        localGenerations = new int[size * size];
+        localTargets = new int[size * size];
+    }
+
+    /**
+     * Mark the cluster containing the tile as dirty.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    void setDirty(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            dirty[ty / size * clustersX + tx / size] = true;
+            hasDirty = true;
+        }
+    }
+
+    /**
+     * Check if this layer considers objects ID.
+     * 
+     * @return <code>true</code> if objects are blocking, <code>false</code> else.
+     */
+    boolean isObjectsBlocking()
+    {
+        return !profile.isIgnoreRef();
+    }
+
+    /**
+     * Search the cheapest route through cluster transitions.
+     * 
+     * @param stx The horizontal start tile.
+     * @param sty The vertical start tile.
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @return The route waypoints, including start and destination, <code>null</code> if none.
+     */
+    Path findRoute(int stx, int sty, int dtx, int dty)
+    {
+        update();
+        nextGeneration();
+
+        final int start = sty * width + stx;
+        final int goal = dty * width + dtx;
+        final int startCluster = getCluster(start);
+        final int goalCluster = getCluster(goal);
+        final int goalNode = best.length - 1;
+
+        load(goalCluster);
+        nextTargets();
+        addTarget(goal);
+        for (final int node : clusterNodes[goalCluster])
+        {
+            search(nodes[node].tile, 1);
+            final float cost = getDistance(goal);
+            if (cost < UNREACHABLE)
+            {
+                exitGenerations[node] = generation;
+                exits[node] = cost;
+            }
+        }
+
+        load(startCluster);
+        int targets = addTargets(clusterNodes[startCluster]);
+        if (startCluster == goalCluster)
+        {
+            addTarget(goal);
+            targets++;
+        }
+        search(start, targets);
+        for (final int node : clusterNodes[startCluster])
+        {
+            relax(node, getDistance(nodes[node].tile), NONE, goal);
+        }
+        if (startCluster == goalCluster)
+        {
+            relax(goalNode, getDistance(goal), NONE, goal);
+        }
+
+        while (!open.isEmpty())
+        {
+            final int current = open.pop();
+            closedGenerations[current] = generation;
+            if (current == goalNode)
+            {
+                return createRoute(start, goal);
+            }
+            final ClusterNode node = nodes[current];
+            for (int i = 0; i < node.count; i++)
+            {
+                final int target = tileNodes[node.targets[i]];
+                relax(target, best[current] + node.costs[i], current, goal);
+            }
+            if (exitGenerations[current] == generation)
+            {
+                relax(goalNode, best[current] + exits[current], current, goal);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Start a new route search.
+     */
+    private void nextGeneration()
+    {
+        if (best.length < nodesCount + 1)
+        {
+            final int capacity = nodesCount * 2 + 1;
+            open = new IndexedHeap(capacity);
+            best = new float[capacity];
+            parents = new int[capacity];
+            exits = new float[capacity];
+            generations = new int[capacity];
+            exitGenerations = new int[capacity];
+            closedGenerations = new int[capacity];
+            generation = 0;
+        }
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(generations, 0);
+            Arrays.fill(exitGenerations, 0);
+            Arrays.fill(closedGenerations, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * Update node if reached with a lower cost.
+     * 
+     * @param node The reached node.
+     * @param cost The cost to reach node.
+     * @param parent The parent node.
+     * @param goal The goal tile index.
+     */
+    private void relax(int node, float cost, int parent, int goal)
+    {
+        if (cost < UNREACHABLE && closedGenerations[node] != generation)
+        {
+            final float heuristic;
+            if (node == best.length - 1)
+            {
+                heuristic = 0.0F;
+            }
+            else
+            {
+                final int tile = nodes[node].tile;
+                heuristic = profile.getMinCost() * Math.max(Math.abs(tile % width - goal % width),
+                                                            Math.abs(tile / width - goal / width));
+            }
+            if (generations[node] != generation)
+            {
+                generations[node] = generation;
+                best[node] = cost;
+                parents[node] = parent;
+                open.push(node, cost + heuristic);
+            }
+            else if (cost < best[node])
+            {
+                best[node] = cost;
+                parents[node] = parent;
+                open.decrease(node, cost + heuristic);
+            }
+        }
+    }
+
+    /**
+     * Create route by walking parents from goal.
+     * 
+     * @param start The start tile index.
+     * @param goal The goal tile index.
+     * @return The created route.
+     */
+    private Path createRoute(int start, int goal)
+    {
+        final Path route = new Path();
+        route.prependStep(goal % width, goal / width);
+        int current = parents[best.length - 1];
+        while (current != NONE)
+        {
+            final int tile = nodes[current].tile;
+            if (tile != start && tile != goal)
+            {
+                route.prependStep(tile % width, tile / width);
+            }
+            current = parents[current];
+        }
+        route.prependStep(start % width, start / width);
+        return route;
+    }
+
+    /**
+     * Rebuild dirty clusters borders, and nodes around them.
+     */
+    private void update()
+    {
+        if (hasDirty)
+        {
+            for (int cy = 0; cy < clustersY; cy++)
+            {
+                for (int cx = 0; cx < clustersX; cx++)
+                {
+                    if (dirty[cy * clustersX + cx])
+                    {
+                        updateBorders(cx, cy);
+                    }
+                }
+            }
+            for (int cluster = 0; cluster < rebuild.length; cluster++)
+            {
+                if (rebuild[cluster])
+                {
+                    rebuildCluster(cluster);
+                    rebuild[cluster] = false;
+                }
+                dirty[cluster] = false;
+            }
+            hasDirty = false;
+        }
+    }
+
+    /**
+     * Compute the four borders of a cluster, and mark it with its neighbours for rebuild.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     */
+    private void updateBorders(int cx, int cy)
+    {
+        final int cluster = cy * clustersX + cx;
+        rebuild[cluster] = true;
+        if (cx > 0)
+        {
+            updateBorderRight(cx - 1, cy);
+            rebuild[cluster - 1] = true;
+        }
+        if (cx + 1 < clustersX)
+        {
+            updateBorderRight(cx, cy);
+            rebuild[cluster + 1] = true;
+        }
+        if (cy > 0)
+        {
+            updateBorderDown(cx, cy - 1);
+            rebuild[cluster - clustersX] = true;
+        }
+        if (cy + 1 < clustersY)
+        {
+            updateBorderDown(cx, cy);
+            rebuild[cluster + clustersX] = true;
+        }
+    }
+
+    /**
+     * Compute the transitions between a cluster and its right neighbour.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     */
+    private void updateBorderRight(int cx, int cy)
+    {
+        final int x = (cx + 1) * size - 1;
+        final int y = cy * size;
+        bordersRight[cy * clustersX + cx] = computeBorder(x, y, 0, 1, Math.min(size, height - y), 1, 0);
+    }
+
+    /**
+     * Compute the transitions between a cluster and its bottom neighbour.
+     * 
+     * @param cx The horizontal cluster index.
+     * @param cy The vertical cluster index.
+     */
+    private void updateBorderDown(int cx, int cy)
+    {
+        final int x = cx * size;
+        final int y = (cy + 1) * size - 1;
+        bordersDown[cy * clustersX + cx] = computeBorder(x, y, 1, 0, Math.min(size, width - x), 0, 1);
+    }
+
+    /**
+     * Compute the transitions along a border.
+     * 
+     * @param x The first inside horizontal tile.
+     * @param y The first inside vertical tile.
+     * @param stepX The horizontal step along border.
+     * @param stepY The vertical step along border.
+     * @param length The border length.
+     * @param dx The horizontal offset to outside tile.
+     * @param dy The vertical offset to outside tile.
+     * @return The transitions as tile index couples.
+     */
+    private int[] computeBorder(int x, int y, int stepX, int stepY, int length, int dx, int dy)
+    {
+        int count = 0;
+        int runStart = -1;
+        for (int i = 0; i <= length; i++)
+        {
+            final boolean crossable = i < length && isCrossable(x + i * stepX, y + i * stepY, dx, dy);
+            if (crossable && runStart < 0)
+            {
+                runStart = i;
+            }
+            else if (!crossable && runStart >= 0)
+            {
+                final int run = i - runStart;
+                if (run < ENTRANCE_SPLIT)
+                {
+                    count = addTransition(count, x, y, stepX, stepY, runStart + run / 2, dx, dy);
+                }
+                else
+                {
+                    count = addTransition(count, x, y, stepX, stepY, runStart, dx, dy);
+                    count = addTransition(count, x, y, stepX, stepY, i - 1, dx, dy);
+                }
+                runStart = -1;
+            }
+        }
+        return Arrays.copyOf(transitions, count);
+    }
+
+    /**
+     * Add a transition to the border buffer.
+     * 
+     * @param count The current buffer size.
+     * @param x The first inside horizontal tile.
+     * @param y The first inside vertical tile.
+     * @param stepX The horizontal step along border.
+     * @param stepY The vertical step along border.
+     * @param i The transition offset along border.
+     * @param dx The horizontal offset to outside tile.
+     * @param dy The vertical offset to outside tile.
+     * @return The new buffer size.
+     */
+    private int addTransition(int count, int x, int y, int stepX, int stepY, int i, int dx, int dy)
+    {
+        final int tx = x + i * stepX;
+        final int ty = y + i * stepY;
+        transitions[count] = ty * width + tx;
+        transitions[count + 1] = (ty + dy) * width + tx + dx;
+        return count + 2;
+    }
+
+    /**
+     * Check if border can be crossed at this location, in at least one way.
+     * 
+     * @param tx The inside horizontal tile.
+     * @param ty The inside vertical tile.
+     * @param dx The horizontal offset to outside tile.
+     * @param dy The vertical offset to outside tile.
+     * @return <code>true</code> if crossable, <code>false</code> else.
+     */
+    private boolean isCrossable(int tx, int ty, int dx, int dy)
+    {
+        final boolean crossable;
+        if (isPassable(tx, ty) && isPassable(tx + dx, ty + dy))
+        {
+            crossable = profile.isAllowed(getCategory(tx, ty), dx, dy)
+                        || profile.isAllowed(getCategory(tx + dx, ty + dy), -dx, -dy);
+        }
+        else
+        {
+            crossable = false;
+        }
+        return crossable;
+    }
+
+    /**
+     * Rebuild the nodes of a cluster, with their edges.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void rebuildCluster(int cluster)
+    {
+        for (final int node : clusterNodes[cluster])
+        {
+            release(node);
+        }
+
+        final int cx = cluster % clustersX;
+        final int cy = cluster / clustersX;
+        final int[] left = cx > 0 ? bordersRight[cluster - 1] : NO_TRANSITION;
+        final int[] up = cy > 0 ? bordersDown[cluster - clustersX] : NO_TRANSITION;
+
+        int count = collect(bordersRight[cluster], 0, 0);
+        count = collect(bordersDown[cluster], 0, count);
+        count = collect(left, 1, count);
+        count = collect(up, 1, count);
+        clusterNodes[cluster] = Arrays.copyOf(collected, count);
+
+        load(cluster);
+        link(bordersRight[cluster], 0, 1, 0);
+        link(bordersDown[cluster], 0, 0, 1);
+        link(left, 1, -1, 0);
+        link(up, 1, 0, -1);
+
+        final int targets = addTargets(clusterNodes[cluster]);
+        for (final int id : clusterNodes[cluster])
+        {
+            final ClusterNode node = nodes[id];
+            search(node.tile, targets);
+            for (final int other : clusterNodes[cluster])
+            {
+                final float cost = getDistance(nodes[other].tile);
+                if (other != id && cost < UNREACHABLE)
+                {
+                    node.add(nodes[other].tile, cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the nodes of one side of transitions.
+     * 
+     * @param border The transitions.
+     * @param side The transition side (<code>0</code> for inside, <code>1</code> for outside).
+     * @param count The current collected count.
+     * @return The new collected count.
+     */
+    private int collect(int[] border, int side, int count)
+    {
+        int collectedCount = count;
+        for (int i = side; i < border.length; i += 2)
+        {
+            final int tile = border[i];
+            if (tileNodes[tile] == NONE)
+            {
+                tileNodes[tile] = acquire(tile);
+                collected[collectedCount] = tileNodes[tile];
+                collectedCount++;
+            }
+        }
+        return collectedCount;
+    }
+
+    /**
+     * Get a free node identifier.
+     * 
+     * @param tile The node tile index.
+     * @return The node identifier.
+     */
+    private int acquire(int tile)
+    {
+        final int id;
+        if (releasedCount > 0)
+        {
+            releasedCount--;
+            id = released[releasedCount];
+        }
+        else
+        {
+            if (nodesCount == nodes.length)
+            {
+                nodes = Arrays.copyOf(nodes, nodesCount * 2 + 1);
+            }
+            id = nodesCount;
+            nodes[id] = new ClusterNode();
+            nodesCount++;
+        }
+        nodes[id].tile = tile;
+        nodes[id].count = 0;
+        return id;
+    }
+
+    /**
+     * Release a node identifier.
+     * 
+     * @param id The node identifier.
+     */
+    private void release(int id)
+    {
+        tileNodes[nodes[id].tile] = NONE;
+        if (releasedCount == released.length)
+        {
+            released = Arrays.copyOf(released, releasedCount * 2 + 1);
+        }
+        released[releasedCount] = id;
+        releasedCount++;
+    }
+
+    /**
+     * Add edges from the loaded cluster side of transitions to the other side, when movement is allowed.
+     * 
+     * @param border The transitions.
+     * @param side The cluster side (<code>0</code> for inside, <code>1</code> for outside).
+     * @param dx The horizontal movement to other side.
+     * @param dy The vertical movement to other side.
+     */
+    private void link(int[] border, int side, int dx, int dy)
+    {
+        for (int i = 0; i < border.length; i += 2)
+        {
+            final int from = border[i + side];
+            final int category = localCategories[getLocal(from)];
+            if (profile.isAllowed(category, dx, dy))
+            {
+                nodes[tileNodes[from]].add(border[i + 1 - side], profile.getCost(category));
+            }
+        }
+    }
+
+    /**
+     * Load cluster categories and passable flags in local buffers.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void load(int cluster)
+    {
+        loadedX = cluster % clustersX * size;
+        loadedY = cluster / clustersX * size;
+        loadedWidth = Math.min(width, loadedX + size) - loadedX;
+        loadedHeight = Math.min(height, loadedY + size) - loadedY;
+
+        for (int y = 0; y < loadedHeight; y++)
+        {
+            for (int x = 0; x < loadedWidth; x++)
+            {
+                final int local = y * size + x;
+                localCategories[local] = getCategory(loadedX + x, loadedY + y);
+                localPassable[local] = isPassable(loadedX + x, loadedY + y);
+            }
+        }
+    }
+
+    /**
+     * Clear cluster search targets.
+     */
+    private void nextTargets()
+    {
+        targetGeneration++;
+        if (targetGeneration == Integer.MAX_VALUE)
+        {
+            Arrays.fill(localTargets, 0);
+            targetGeneration = 1;
+        }
+    }
+
+    /**
+     * Add a cluster search target.
+     * 
+     * @param tile The target tile index, inside loaded cluster.
+     */
+    private void addTarget(int tile)
+    {
+        localTargets[getLocal(tile)] = targetGeneration;
+    }
+
+    /**
+     * Replace cluster search targets by nodes.
+     * 
+     * @param ids The nodes identifier, inside loaded cluster.
+     * @return The number of targets.
+     */
+    private int addTargets(int[] ids)
+    {
+        nextTargets();
+        for (final int id : ids)
+        {
+            addTarget(nodes[id].tile);
+        }
+        return ids.length;
+    }
+
+    /**
+     * Compute the cheapest costs from a tile to the other tiles of loaded cluster, without leaving the cluster. Search
+     * stops once all targets have been reached.
+     * 
+     * @param start The start tile index (may not be passable).
+     * @param targets The number of targets to reach.
+     */
+    private void search(int start, int targets)
+    {
+        localGeneration++;
+        if (localGeneration == Integer.MAX_VALUE)
+        {
+            Arrays.fill(localGenerations, 0);
+            localGeneration = 1;
+        }
+        localOpen.clear();
+
+        final int first = getLocal(start);
+        localGenerations[first] = localGeneration;
+        localDistances[first] = 0.0F;
+        localOpen.push(first, 0.0F);
+
+        int remaining = targets;
+        while (remaining > 0 && !localOpen.isEmpty())
+        {
+            final int current = localOpen.pop();
+            if (localTargets[current] == targetGeneration)
+            {
+                remaining--;
+            }
+            final int category = localCategories[current];
+            if (category != MovementProfile.UNKNOWN)
+            {
+                final int cx = current % size;
+                final int cy = current / size;
+                final float cost = localDistances[current] + profile.getCost(category);
+                for (int dy = -1; dy < 2; dy++)
+                {
+                    for (int dx = -1; dx < 2; dx++)
+                    {
+                        final int nx = cx + dx;
+                        final int ny = cy + dy;
+                        if (nx >= 0
+                            && ny >= 0
+                            && nx < loadedWidth
+                            && ny < loadedHeight
+                            && localPassable[ny * size + nx]
+                            && profile.isAllowed(category, dx, dy))
+                        {
+                            update(ny * size + nx, cost);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Update local node distance if lower.
+     * 
+     * @param local The local node index.
+     * @param cost The new cost.
+     */
+    private void update(int local, float cost)
+    {
+        if (localGenerations[local] != localGeneration)
+        {
+            localGenerations[local] = localGeneration;
+            localDistances[local] = cost;
+            localOpen.push(local, cost);
+        }
+        else if (cost < localDistances[local])
+        {
+            localDistances[local] = cost;
+            localOpen.decrease(local, cost);
+        }
+    }
+
+    /**
+     * Get the distance computed by last cluster search.
+     * 
+     * @param tile The tile index, inside loaded cluster.
+     * @return The distance, {@link #UNREACHABLE} if not reached.
+     */
+    private float getDistance(int tile)
+    {
+        final int local = getLocal(tile);
+        if (localGenerations[local] == localGeneration)
+        {
+            return localDistances[local];
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Get the local index of a tile inside loaded cluster.
+     * 
+     * @param tile The tile index.
+     * @return The local index.
+     */
+    private int getLocal(int tile)
+    {
+        return (tile / width - loadedY) * size + tile % width - loadedX;
+    }
+
+    /**
+     * Get the cluster containing tile.
+     * 
+     * @param index The tile index.
+     * @return The cluster index.
+     */
+    private int getCluster(int index)
+    {
+        return index / width / size * clustersX + index % width / size;
+    }
+
+    /**
+     * Get the tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index, {@link MovementProfile#UNKNOWN} if unknown.
+     */
+    private int getCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            return profile.getIndex(tile.getFeature(TilePath.class).getCategory());
+        }
+        return MovementProfile.UNKNOWN;
+    }
+
+    /**
+     * Check if tile can be entered.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if passable, <code>false</code> else.
+     */
+    private boolean isPassable(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            final TilePath tilePath = tile.getFeature(TilePath.class);
+            return !profile.isBlocking(profile.getIndex(tilePath.getCategory()))
+                   && (profile.isIgnoreRef() || tilePath.getObjectsId().isEmpty());
+        }
+        return false;
+    }
+
+    /**
+     * Graph node, with its outgoing edges.
+     */
+    private static final class ClusterNode
+    {
+        /** Edges target tile index. */
+        private int[] targets = new int[4];
+        /** Edges cost. */
+        private float[] costs = new float[4];
+        /** Edges number. */
+        private int count;
+        /** Node tile index. */
+        private int tile;
+
+        /**
+         * Create node.
+         */
+        private ClusterNode()
+        {
+            super();
+        }
+
+        /**
+         * Add an edge.
+         * 
+         * @param target The target tile index.
+         * @param cost The edge cost.
+         */
+        private void add(int target, float cost)
+        {
+            if (count == targets.length)
+            {
+                targets = Arrays.copyOf(targets, count * 2);
+                costs = Arrays.copyOf(costs, count * 2);
+            }
+            targets[count] = target;
+            costs[count] = cost;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Binary min heap of integer indexes, ordered by a float key, supporting decrease key operation.
+ * <p>
+ * Positions are not reset on {@link #clear()}, so the caller must only call {@link #decrease(int, float)} for an
+ * index it knows to be currently stored.
+ * </p>
+ */
+final class IndexedHeap
+{
+    /** Heap content (stored indexes). */
+    private final int[] heap;
+    /** Position in heap for each index. */
+    private final int[] positions;
+    /** Key for each index. */
+    private final float[] keys;
+    /** Current size. */
+    private int size;
+
+    /**
+     * Create heap.
+     * 
+     * @param capacity The number of distinct indexes supported (indexes must be in [0, capacity[).
+     */
+    IndexedHeap(int capacity)
+    {
+        super();
+
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new float[capacity];
+    }
+
+    /**
+     * Add an index which is not already stored.
+     * 
+     * @param index The index to add.
+     * @param key The associated key.
+     */
+    void push(int index, float key)
+    {
+        keys[index] = key;
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+        up(size - 1);
+    }
+
+    /**
+     * Update the key of a stored index with a lower value.
+     * 
+     * @param index The stored index.
+     * @param key The new lower key.
+     */
+    void decrease(int index, float key)
+    {
+        keys[index] = key;
+        up(positions[index]);
+    }
+
+    /**
+     * Get the index with the lowest key without removing it.
+     * 
+     * @return The lowest index.
+     */
+    int peek()
+    {
+        return heap[0];
+    }
+
+    /**
+     * Remove and get the index with the lowest key.
+     * 
+     * @return The lowest index.
+     */
+    int pop()
+    {
+        final int first = heap[0];
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            down(0);
+        }
+        return first;
+    }
+
+    /**
+     * Remove all indexes. Does not reset positions.
+     */
+    void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Check if heap is empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Move element up until heap order is restored.
+     * 
+     * @param start The starting heap position.
+     */
+    private void up(int start)
+    {
+        int pos = start;
+        final int index = heap[pos];
+        final float key = keys[index];
+        while (pos > 0)
+        {
+            final int parent = (pos - 1) >>> 1;
+            final int parentIndex = heap[parent];
+            if (keys[parentIndex] <= key)
+            {
+                break;
+            }
+            heap[pos] = parentIndex;
+            positions[parentIndex] = pos;
+            pos = parent;
+        }
+        heap[pos] = index;
+        positions[index] = pos;
+    }
+
+    /**
+     * Move element down until heap order is restored.
+     * 
+     * @param start The starting heap position.
+     */
+    private void down(int start)
+    {
+        int pos = start;
+        final int index = heap[pos];
+        final float key = keys[index];
+        final int half = size >>> 1;
+        while (pos < half)
+        {
+            int child = (pos << 1) + 1;
+            final int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]])
+            {
+                child = right;
+            }
+            final int childIndex = heap[child];
+            if (key <= keys[childIndex])
+            {
+                break;
+            }
+            heap[pos] = childIndex;
+            positions[childIndex] = pos;
+            pos = child;
+        }
+        heap[pos] = index;
+        positions[index] = pos;
+    }
+}
@@ -31,6 +31,20 @@ import com.b3dgs.lionengine.game.feature.tile.Tile;
 @FeatureInterface
 public interface MapTilePath extends Feature
 {
+    /**
+     * Add a pathfinding listener.
+     * 
+     * @param listener The listener to add.
+     */
+    void addListener(MapTilePathListener listener);
+
+    /**
+     * Remove a pathfinding listener.
+     * 
+     * @param listener The listener to remove.
+     */
+    void removeListener(MapTilePathListener listener);
+
     /**
      * Load map pathfinding from an external file.
      * 
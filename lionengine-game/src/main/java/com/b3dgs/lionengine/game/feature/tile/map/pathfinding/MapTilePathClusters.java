@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.FeatureInterface;
+
+/**
+ * Represents the hierarchical pathfinding feature of a map tile. The map is split in square clusters, linked by their
+ * border transitions, in order to find long routes without exploring every tile.
+ * <p>
+ * One abstract graph is kept by movement profile (categories blocking, cost and allowed movements, and objects ID
+ * checking), and is incrementally rebuilt around tiles and objects ID changes notified by {@link MapTilePath}.
+ * </p>
+ */
+@FeatureInterface
+public interface MapTilePathClusters extends Feature
+{
+    /**
+     * Find the abstract route between two locations, as the transitions to cross. Each consecutive waypoints couple
+     * can then be refined with a local search.
+     * 
+     * @param mover The mover reference.
+     * @param stx The horizontal start tile.
+     * @param sty The vertical start tile.
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @param ignoreRef The ignore map objects ID flag (<code>true</code> to ignore objects).
+     * @return The route waypoints, including start and destination, <code>null</code> if none.
+     */
+    Path findRoute(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef);
+
+    /**
+     * Get the cluster size.
+     * 
+     * @return The cluster size in tile.
+     */
+    int getClusterSize();
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.FeatureProvider;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Map tile path clusters model implementation.
+ */
+public class MapTilePathClustersModel extends FeatureModel implements MapTilePathClusters, MapTilePathListener
+{
+    /** Default cluster size in tile. */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    /** Layers by movement profile key. */
+    private final Map<String, ClusterLayer> layers = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Cluster size in tile. */
+    private final int clusterSize;
+
+    /**
+     * Create a map tile path clusters with {@link #DEFAULT_CLUSTER_SIZE}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If services not found.
+     */
+    public MapTilePathClustersModel(Services services)
+    {
+        this(services, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Create a map tile path clusters.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param clusterSize The cluster size in tile (must be strictly positive).
+     * @throws LionEngineException If services not found or invalid size.
+     */
+    public MapTilePathClustersModel(Services services, int clusterSize)
+    {
+        super();
+
+        Check.superiorStrict(clusterSize, 0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        this.clusterSize = clusterSize;
+    }
+
+    /*
+     * MapTilePathClusters
+     */
+
+    @Override
+    public void prepare(FeatureProvider provider)
+    {
+        super.prepare(provider);
+
+        mapPath.removeListener(this);
+        mapPath.addListener(this);
+    }
+
+    @Override
+    public Path findRoute(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        final MovementProfile profile = new MovementProfile(mover, mapPath.getCategories(), ignoreRef);
+        ClusterLayer layer = layers.get(profile.getKey());
+        if (layer == null)
+        {
+            layer = new ClusterLayer(map, clusterSize, profile);
+            layers.put(profile.getKey(), layer);
+        }
+        return layer.findRoute(stx, sty, dtx, dty);
+    }
+
+    @Override
+    public int getClusterSize()
+    {
+        return clusterSize;
+    }
+
+    /*
+     * MapTilePathListener
+     */
+
+    @Override
+    public void notifyTileChanged(int tx, int ty)
+    {
+        for (final ClusterLayer layer : layers.values())
+        {
+            layer.setDirty(tx, ty);
+        }
+    }
+
+    @Override
+    public void notifyObjectsChanged(int tx, int ty)
+    {
+        for (final ClusterLayer layer : layers.values())
+        {
+            if (layer.isObjectsBlocking())
+            {
+                layer.setDirty(tx, ty);
+            }
+        }
+    }
+}
@@ -17,14 +17,17 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Identifiable;
@@ -33,12 +36,19 @@ import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 
 /**
  * Map tile path model implementation.
+ * <p>
+ * Tiles set once pathfinding has been loaded receive their {@link TilePath} feature automatically, and each tile or
+ * object ID change is notified to the {@link MapTilePathListener}.
+ * </p>
  */
-public class MapTilePathModel extends FeatureModel implements MapTilePath
+public class MapTilePathModel extends FeatureModel implements MapTilePath, TileSetListener
 {
+    /** Listeners list. */
+    private final List<MapTilePathListener> listeners = new ArrayList<>();
     /** Categories list. */
     private final Map<String, PathCategory> categories = new HashMap<>();
     /** Map reference. */
@@ -246,6 +256,27 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
      * MapTilePath
      */
 
+    @Override
+    public void prepare(FeatureProvider provider)
+    {
+        super.prepare(provider);
+
+        map.removeListener(this);
+        map.addListener(this);
+    }
+
+    @Override
+    public void addListener(MapTilePathListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(MapTilePathListener listener)
+    {
+        listeners.remove(listener);
+    }
+
     @Override
     public void loadPathfinding(Media pathfindingConfig)
     {
@@ -279,6 +310,11 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         {
             final TilePath tilePath = tile.getFeature(TilePath.class);
             tilePath.addObjectId(id);
+
+            for (final MapTilePathListener listener : listeners)
+            {
+                listener.notifyObjectsChanged(tx, ty);
+            }
         }
     }
 
@@ -290,6 +326,11 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         {
             final TilePath tilePath = tile.getFeature(TilePath.class);
             tilePath.removeObjectId(id);
+
+            for (final MapTilePathListener listener : listeners)
+            {
+                listener.notifyObjectsChanged(tx, ty);
+            }
         }
     }
 
@@ -411,4 +452,21 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         }
         return true;
     }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        if (!categories.isEmpty() && !tile.hasFeature(TilePath.class))
+        {
+            tile.addFeature(new TilePathModel(getCategory(mapGroup.getGroup(tile))));
+        }
+        for (final MapTilePathListener listener : listeners)
+        {
+            listener.notifyTileChanged(tile.getInTileX(), tile.getInTileY());
+        }
+    }
 }
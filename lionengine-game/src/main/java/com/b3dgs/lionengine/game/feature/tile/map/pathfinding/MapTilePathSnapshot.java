@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Immutable copy of the map pathfinding state: category and objects ID of each tile. Categories are indexed the same
+ * way as {@link MovementProfile}, in name order. Can be read from any thread.
+ * <p>
+ * Tiles are stored by chunks of {@link #CHUNK_SIZE} consecutive indexes. An updated snapshot copies only the chunks
+ * containing changed tiles, and shares the other ones with the previous snapshot.
+ * </p>
+ */
+final class MapTilePathSnapshot
+{
+    /** Chunk index shift. */
+    private static final int CHUNK_SHIFT = 10;
+    /** Tiles per chunk. */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /** Index in chunk mask. */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /** No objects. */
+    private static final int[] NO_OBJECTS = new int[0];
+
+    /**
+     * Get the tile objects ID.
+     * 
+     * @param tilePath The tile path.
+     * @return The objects ID copy.
+     */
+    private static int[] getObjects(TilePath tilePath)
+    {
+        final Collection<Integer> ids = tilePath.getObjectsId();
+        if (ids.isEmpty())
+        {
+            return NO_OBJECTS;
+        }
+        final int[] objects = new int[ids.size()];
+        int i = 0;
+        for (final Integer id : ids)
+        {
+            objects[i] = id.intValue();
+            i++;
+        }
+        return objects;
+    }
+
+    /** Category index by name. */
+    private final Map<String, Integer> indexes = new HashMap<>();
+    /** Number of tiles referencing each object ID. */
+    private final Map<Integer, Integer> counts;
+    /** Categories name, in index order. */
+    private final List<String> categories;
+    /** Category index of each tile, by chunk. */
+    private final int[][] tiles;
+    /** Objects ID of each tile, by chunk. */
+    private final int[][][] objects;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+
+    /**
+     * Create a full snapshot.
+     * 
+     * @param map The map reference.
+     * @param names The categories name.
+     */
+    MapTilePathSnapshot(MapTile map, Collection<String> names)
+    {
+        super();
+
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        categories = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(names)));
+        for (final String category : categories)
+        {
+            indexes.put(category, Integer.valueOf(indexes.size()));
+        }
+        counts = new HashMap<>();
+
+        final int size = width * height;
+        final int chunks = (size + CHUNK_MASK) >> CHUNK_SHIFT;
+        tiles = new int[chunks][CHUNK_SIZE];
+        objects = new int[chunks][CHUNK_SIZE][];
+        for (final int[][] chunk : objects)
+        {
+            Arrays.fill(chunk, NO_OBJECTS);
+        }
+        for (int i = 0; i < size; i++)
+        {
+            load(map, i);
+        }
+    }
+
+    /**
+     * Create a snapshot from a previous one, with changed tiles updated.
+     * 
+     * @param previous The previous snapshot (with same categories).
+     * @param map The map reference.
+     * @param changed The changed tiles index.
+     */
+    private MapTilePathSnapshot(MapTilePathSnapshot previous, MapTile map, BitSet changed)
+    {
+        super();
+
+        width = previous.width;
+        height = previous.height;
+        categories = previous.categories;
+        indexes.putAll(previous.indexes);
+        counts = new HashMap<>(previous.counts);
+        tiles = previous.tiles.clone();
+        objects = previous.objects.clone();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1))
+        {
+            final int chunk = i >> CHUNK_SHIFT;
+            if (tiles[chunk] == previous.tiles[chunk])
+            {
+                tiles[chunk] = previous.tiles[chunk].clone();
+                objects[chunk] = previous.objects[chunk].clone();
+            }
+            load(map, i);
+        }
+    }
+
+    /**
+     * Create a snapshot with changed tiles updated.
+     * 
+     * @param map The map reference.
+     * @param changed The changed tiles index.
+     * @return The updated snapshot.
+     */
+    MapTilePathSnapshot update(MapTile map, BitSet changed)
+    {
+        return new MapTilePathSnapshot(this, map, changed);
+    }
+
+    /**
+     * Check if snapshot has been created with these categories.
+     * 
+     * @param names The categories to check.
+     * @return <code>true</code> if same categories, <code>false</code> else.
+     */
+    boolean hasCategories(Collection<String> names)
+    {
+        return names.size() == categories.size() && indexes.keySet().containsAll(names);
+    }
+
+    /**
+     * Get categories.
+     * 
+     * @return The categories name, in index order.
+     */
+    List<String> getCategories()
+    {
+        return categories;
+    }
+
+    /**
+     * Get tile category index.
+     * 
+     * @param index The tile index.
+     * @return The category index, {@link MovementProfile#UNKNOWN} if none.
+     */
+    int getCategory(int index)
+    {
+        return tiles[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Get tile objects ID.
+     * 
+     * @param index The tile index.
+     * @return The objects ID (must not be modified).
+     */
+    int[] getObjects(int index)
+    {
+        return objects[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Get all objects ID referenced by at least one tile.
+     * 
+     * @return The objects ID.
+     */
+    Collection<Integer> getObjectsId()
+    {
+        return Collections.unmodifiableSet(counts.keySet());
+    }
+
+    /**
+     * Get map width.
+     * 
+     * @return The map width in tile.
+     */
+    int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get map height.
+     * 
+     * @return The map height in tile.
+     */
+    int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Load tile state.
+     * 
+     * @param map The map reference.
+     * @param index The tile index.
+     */
+    private void load(MapTile map, int index)
+    {
+        final int[] chunkTiles = tiles[index >> CHUNK_SHIFT];
+        final int[][] chunkObjects = objects[index >> CHUNK_SHIFT];
+        final int offset = index & CHUNK_MASK;
+        for (final int id : chunkObjects[offset])
+        {
+            final Integer key = Integer.valueOf(id);
+            final int count = counts.get(key).intValue() - 1;
+            if (count > 0)
+            {
+                counts.put(key, Integer.valueOf(count));
+            }
+            else
+            {
+                counts.remove(key);
+            }
+        }
+
+        final Tile tile = map.getTile(index % width, index / width);
+        chunkTiles[offset] = MovementProfile.UNKNOWN;
+        chunkObjects[offset] = NO_OBJECTS;
+        if (tile != null && tile.hasFeature(TilePath.class))
+        {
+            final TilePath tilePath = tile.getFeature(TilePath.class);
+            final Integer category = indexes.get(tilePath.getCategory());
+            if (category != null)
+            {
+                chunkTiles[offset] = category.intValue();
+            }
+            chunkObjects[offset] = getObjects(tilePath);
+            for (final int id : chunkObjects[offset])
+            {
+                counts.merge(Integer.valueOf(id), Integer.valueOf(1), Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Resolved movement rules of a mover on each map category (blocking, cost and allowed movements), indexed by the
+ * category rank in name order. Unknown categories are considered as blocking. Instances are immutable, and can be
+ * shared between threads.
+ */
+final class MovementProfile
+{
+    /** Unknown category index. */
+    static final int UNKNOWN = -1;
+    /** Movement bit for each neighbour offset, indexed by <code>(dy + 1) * 3 + dx + 1</code>. */
+    private static final int[] MOVEMENTS = new int[9];
+
+    static
+    {
+        for (int dy = -1; dy < 2; dy++)
+        {
+            for (int dx = -1; dx < 2; dx++)
+            {
+                MOVEMENTS[(dy + 1) * 3 + dx + 1] = 1 << MovementTile.from(dx, dy).ordinal();
+            }
+        }
+    }
+
+    /**
+     * Get the mover category cost.
+     * 
+     * @param mover The mover reference.
+     * @param category The category name.
+     * @return The category cost, <code>0</code> if unknown.
+     */
+    private static float getCost(Pathfindable mover, String category)
+    {
+        try
+        {
+            return (float) mover.getCost(category);
+        }
+        catch (final LionEngineException exception)
+        {
+            return 0.0F;
+        }
+    }
+
+    /**
+     * Get the mover allowed movements on category as a bit mask of {@link MovementTile} ordinals.
+     * 
+     * @param mover The mover reference.
+     * @param category The category name.
+     * @return The allowed movements mask, <code>0</code> if unknown.
+     */
+    private static int getMovements(Pathfindable mover, String category)
+    {
+        int movements = 0;
+        try
+        {
+            for (final MovementTile movement : MovementTile.values())
+            {
+                if (mover.isMovementAllowed(category, movement))
+                {
+                    movements |= 1 << movement.ordinal();
+                }
+            }
+        }
+        catch (final LionEngineException exception)
+        {
+            movements = 0;
+        }
+        return movements;
+    }
+
+    /** Category index by name. */
+    private final Map<String, Integer> indexes = new HashMap<>();
+    /** Category blocking flag. */
+    private final boolean[] blocking;
+    /** Category cost. */
+    private final float[] costs;
+    /** Category allowed movements mask. */
+    private final int[] movements;
+    /** Objects ID ignored flag. */
+    private final boolean ignoreRef;
+    /** Lowest non blocking category cost. */
+    private final float minCost;
+    /** Profile key. */
+    private final String key;
+
+    /**
+     * Create profile.
+     * 
+     * @param mover The mover reference.
+     * @param categories The map categories.
+     * @param ignoreRef The ignore map objects ID flag.
+     */
+    MovementProfile(Pathfindable mover, Collection<String> categories, boolean ignoreRef)
+    {
+        super();
+
+        this.ignoreRef = ignoreRef;
+        blocking = new boolean[categories.size()];
+        costs = new float[categories.size()];
+        movements = new int[categories.size()];
+
+        final StringBuilder builder = new StringBuilder().append(ignoreRef);
+        float min = Float.MAX_VALUE;
+        for (final String category : new TreeSet<>(categories))
+        {
+            final int index = indexes.size();
+            indexes.put(category, Integer.valueOf(index));
+            movements[index] = getMovements(mover, category);
+            blocking[index] = mover.isBlocking(category) || movements[index] == 0;
+            costs[index] = getCost(mover, category);
+            if (!blocking[index])
+            {
+                min = Math.min(min, costs[index]);
+            }
+            builder.append(';')
+                   .append(category)
+                   .append('=')
+                   .append(blocking[index])
+                   .append(',')
+                   .append(costs[index])
+                   .append(',')
+                   .append(movements[index]);
+        }
+        minCost = min == Float.MAX_VALUE ? 0.0F : Math.max(0.0F, min);
+        key = builder.toString();
+    }
+
+    /**
+     * Get category index.
+     * 
+     * @param category The category name.
+     * @return The category index, {@link #UNKNOWN} if unknown.
+     */
+    int getIndex(String category)
+    {
+        final Integer index = indexes.get(category);
+        if (index != null)
+        {
+            return index.intValue();
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Check if category is blocking.
+     * 
+     * @param category The category index.
+     * @return <code>true</code> if blocking or unknown, <code>false</code> else.
+     */
+    boolean isBlocking(int category)
+    {
+        return category == UNKNOWN || blocking[category];
+    }
+
+    /**
+     * Check if movement is allowed from category.
+     * 
+     * @param category The category index.
+     * @param dx The horizontal movement.
+     * @param dy The vertical movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isAllowed(int category, int dx, int dy)
+    {
+        return category != UNKNOWN && (movements[category] & MOVEMENTS[(dy + 1) * 3 + dx + 1]) != 0;
+    }
+
+    /**
+     * Check if objects ID are ignored.
+     * 
+     * @return <code>true</code> if ignored, <code>false</code> if objects are blocking.
+     */
+    boolean isIgnoreRef()
+    {
+        return ignoreRef;
+    }
+
+    /**
+     * Get category cost.
+     * 
+     * @param category The category index (must be known).
+     * @return The category cost.
+     */
+    float getCost(int category)
+    {
+        return costs[category];
+    }
+
+    /**
+     * Get the lowest non blocking category cost.
+     * 
+     * @return The lowest cost.
+     */
+    float getMinCost()
+    {
+        return minCost;
+    }
+
+    /**
+     * Get the profile key. Profiles with the same key give the same results.
+     * 
+     * @return The profile key.
+     */
+    String getKey()
+    {
+        return key;
+    }
+}
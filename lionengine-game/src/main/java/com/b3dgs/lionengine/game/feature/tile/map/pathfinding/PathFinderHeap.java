@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * A path finder implementation that uses the AStar heuristic based algorithm to determine a path.
+ * <p>
+ * Nodes are stored in flat primitive arrays indexed by <code>ty * width + tx</code>, the open list is an
+ * {@link IndexedHeap} with decrease key support, and a generation counter marks the nodes touched by the current
+ * search, so nothing has to be cleared between two searches.
+ * </p>
+ */
+final class PathFinderHeap implements PathFinder
+{
+    /** No parent index. */
+    private static final int NONE = -1;
+    /** Node open state. */
+    private static final byte OPEN = 1;
+    /** Node closed state. */
+    private static final byte CLOSED = 2;
+
+    /** Open list. */
+    private final IndexedHeap open;
+    /** Node cost. */
+    private final float[] costs;
+    /** Node heuristic value. */
+    private final float[] heuristics;
+    /** Node parent index. */
+    private final int[] parents;
+    /** Node depth. */
+    private final int[] depths;
+    /** Node state ({@link #OPEN} or {@link #CLOSED}, valid only if generation is current). */
+    private final byte[] states;
+    /** Node generation (search index when node was last touched). */
+    private final int[] generations;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Max distance to search. */
+    private final int maxSearchDistance;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHeap(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.heuristic = heuristic;
+        this.map = map;
+        this.maxSearchDistance = maxSearchDistance;
+        mapPath = map.getFeature(MapTilePath.class);
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+
+        final int size = width * height;
+        open = new IndexedHeap(size);
+        costs = new float[size];
+        heuristics = new float[size];
+        parents = new int[size];
+        depths = new int[size];
+        states = new byte[size];
+        generations = new int[size];
+    }
+
+    /**
+     * Start a new search by moving to the next generation. Arrays are only reset on overflow.
+     */
+    private void nextGeneration()
+    {
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * Check if a given location is valid for the supplied mover.
+     * 
+     * @param mover The mover that would hold a given location.
+     * @param stx The starting x coordinate.
+     * @param sty The starting y coordinate.
+     * @param dtx The x coordinate of the location to check.
+     * @param dty The y coordinate of the location to check.
+     * @param ignoreRef The ignore map reference array checking.
+     * @return <code>true</code> if the location is valid for the given mover, <code>false</code> else.
+     */
+    private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        boolean invalid = dtx < 0 || dty < 0 || dtx >= width || dty >= height;
+
+        if (!invalid && (stx != dtx || sty != dty))
+        {
+            invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+        }
+
+        return !invalid;
+    }
+
+    /**
+     * Expand the current node to its neighbours.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param current The current node index.
+     * @param maxDepth The last max depth.
+     * @return The next max depth.
+     */
+    private int expand(Pathfindable mover,
+                       int stx,
+                       int sty,
+                       int dtx,
+                       int dty,
+                       boolean ignoreRef,
+                       int current,
+                       int maxDepth)
+    {
+        final int cx = current % width;
+        final int cy = current / width;
+        final Tile tile = map.getTile(cx, cy);
+        final String category = tile.getFeature(TilePath.class).getCategory();
+        final float nextStepCost = costs[current] + (float) mapPath.getCost(mover, cx, cy);
+
+        int depth = maxDepth;
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                if (!(x == 0 && y == 0) && mover.isMovementAllowed(category, MovementTile.from(x, y)))
+                {
+                    final int xp = cx + x;
+                    final int yp = cy + y;
+                    if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
+                    {
+                        final int neighbour = yp * width + xp;
+                        depth = Math.max(depth, updateNeighbour(current, neighbour, xp, yp, dtx, dty, nextStepCost));
+                    }
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Update the neighbour if it was not reached yet, or if a cheaper way has been found.
+     * 
+     * @param current The current node index.
+     * @param neighbour The neighbour node index.
+     * @param xp The neighbour x coordinate.
+     * @param yp The neighbour y coordinate.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param nextStepCost The cost to reach neighbour from current.
+     * @return The neighbour depth if updated, <code>0</code> else.
+     */
+    private int updateNeighbour(int current, int neighbour, int xp, int yp, int dtx, int dty, float nextStepCost)
+    {
+        if (generations[neighbour] != generation)
+        {
+            generations[neighbour] = generation;
+            heuristics[neighbour] = (float) heuristic.getCost(xp, yp, dtx, dty);
+        }
+        else if (nextStepCost >= costs[neighbour])
+        {
+            return 0;
+        }
+        else if (states[neighbour] == OPEN)
+        {
+            costs[neighbour] = nextStepCost;
+            parents[neighbour] = current;
+            depths[neighbour] = depths[current] + 1;
+            open.decrease(neighbour, nextStepCost + heuristics[neighbour]);
+            return depths[neighbour];
+        }
+        costs[neighbour] = nextStepCost;
+        parents[neighbour] = current;
+        depths[neighbour] = depths[current] + 1;
+        states[neighbour] = OPEN;
+        open.push(neighbour, nextStepCost + heuristics[neighbour]);
+        return depths[neighbour];
+    }
+
+    /**
+     * Create the path by walking parents from destination to start.
+     * 
+     * @param start The start node index.
+     * @param destination The destination node index.
+     * @return The created path.
+     */
+    private Path createPath(int start, int destination)
+    {
+        final Path path = new Path();
+        int target = destination;
+        while (target != start)
+        {
+            path.prependStep(target % width, target / width);
+            target = parents[target];
+        }
+        path.prependStep(start % width, start / width);
+        return path;
+    }
+
+    /**
+     * Search the cheapest path between two locations, without any destination check.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to destination, <code>null</code> if no path found.
+     */
+    Path search(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        nextGeneration();
+
+        final int start = sty * width + stx;
+        final int destination = dty * width + dtx;
+        generations[start] = generation;
+        costs[start] = 0.0F;
+        depths[start] = 0;
+        parents[start] = NONE;
+        states[start] = OPEN;
+        open.push(start, 0.0F);
+
+        int maxDepth = 0;
+        while (maxDepth < maxSearchDistance && !open.isEmpty())
+        {
+            final int current = open.peek();
+            if (current == destination)
+            {
+                break;
+            }
+            open.pop();
+            states[current] = CLOSED;
+            maxDepth = expand(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+        }
+        if (start == destination || generations[destination] != generation)
+        {
+            return null;
+        }
+        return createPath(start, destination);
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+        }
+        return search(mover, stx, sty, dtx, dty, ignoreRef);
+    }
+}
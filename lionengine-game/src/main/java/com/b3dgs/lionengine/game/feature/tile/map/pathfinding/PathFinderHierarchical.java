@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * A path finder implementation that first searches an abstract route with {@link MapTilePathClusters}, and then
+ * refines each route segment with a local {@link PathFinderHeap} search.
+ * <p>
+ * Short searches (destination inside cluster size), missing routes (transitions only cover orthogonal border
+ * crossings) and routes that can not be refined fall back to a full map search.
+ * </p>
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** Local path finder. */
+    private final PathFinderHeap finder;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Map clusters reference. */
+    private final MapTilePathClusters clusters;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} and {@link MapTilePathClusters} features.
+     * @param maxSearchDistance The maximum depth we'll search before giving up on full map search.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHierarchical(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.map = map;
+        finder = new PathFinderHeap(map, maxSearchDistance, heuristic);
+        mapPath = map.getFeature(MapTilePath.class);
+        clusters = map.getFeature(MapTilePathClusters.class);
+    }
+
+    /**
+     * Refine the route by searching the path of each segment.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param route The route to refine.
+     * @param ignoreRef The ignore map array reference checking.
+     * @return The full path, <code>null</code> if a segment is not reachable.
+     */
+    private Path refine(Pathfindable mover, Path route, boolean ignoreRef)
+    {
+        final Path[] segments = new Path[route.getLength() - 1];
+        for (int i = 0; i < segments.length; i++)
+        {
+            segments[i] = finder.search(mover,
+                                        route.getX(i),
+                                        route.getY(i),
+                                        route.getX(i + 1),
+                                        route.getY(i + 1),
+                                        ignoreRef);
+            if (segments[i] == null)
+            {
+                return null;
+            }
+        }
+
+        final Path path = new Path();
+        for (int i = segments.length - 1; i >= 0; i--)
+        {
+            final Path segment = segments[i];
+            final int first = i > 0 ? 1 : 0;
+            for (int step = segment.getLength() - 1; step >= first; step--)
+            {
+                path.prependStep(segment.getX(step), segment.getY(step));
+            }
+        }
+        return path;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+        }
+
+        final int size = clusters.getClusterSize();
+        if (Math.abs(dtx - stx) <= size && Math.abs(dty - sty) <= size)
+        {
+            return finder.search(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+
+        final Path route = clusters.findRoute(mover, stx, sty, dtx, dty, ignoreRef);
+        Path path = null;
+        if (route != null)
+        {
+            path = refine(mover, route, ignoreRef);
+        }
+        if (path == null)
+        {
+            path = finder.search(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+        return path;
+    }
+}
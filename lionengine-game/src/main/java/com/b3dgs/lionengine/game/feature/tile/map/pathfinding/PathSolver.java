@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * AStar search working on a {@link MapTilePathSnapshot} and a {@link MovementProfile}, without accessing the map nor
+ * the mover, so it can run outside of the update thread. Search rules are the same as {@link PathFinderHeap}.
+ * <p>
+ * An instance must only be used by one thread at a time.
+ * </p>
+ */
+final class PathSolver
+{
+    /** No parent index. */
+    private static final int NONE = -1;
+    /** Node open state. */
+    private static final byte OPEN = 1;
+    /** Node closed state. */
+    private static final byte CLOSED = 2;
+
+    /** Open list. */
+    private final IndexedHeap open;
+    /** Node cost. */
+    private final float[] costs;
+    /** Node heuristic value. */
+    private final float[] heuristics;
+    /** Node parent index. */
+    private final int[] parents;
+    /** Node depth. */
+    private final int[] depths;
+    /** Node state ({@link #OPEN} or {@link #CLOSED}, valid only if generation is current). */
+    private final byte[] states;
+    /** Node generation (search index when node was last touched). */
+    private final int[] generations;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Max distance to search. */
+    private final int maxSearchDistance;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Create solver.
+     * 
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map (must be stateless).
+     */
+    PathSolver(int width, int height, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.width = width;
+        this.height = height;
+        this.maxSearchDistance = maxSearchDistance;
+        this.heuristic = heuristic;
+
+        final int size = width * height;
+        open = new IndexedHeap(size);
+        costs = new float[size];
+        heuristics = new float[size];
+        parents = new int[size];
+        depths = new int[size];
+        states = new byte[size];
+        generations = new int[size];
+    }
+
+    /**
+     * Check if solver can be used on this snapshot.
+     * 
+     * @param snapshot The snapshot to check.
+     * @return <code>true</code> if same map size, <code>false</code> else.
+     */
+    boolean isCompatible(MapTilePathSnapshot snapshot)
+    {
+        return snapshot.getWidth() == width && snapshot.getHeight() == height;
+    }
+
+    /**
+     * Search the cheapest path between two locations, without any destination check.
+     * 
+     * @param snapshot The map state.
+     * @param profile The mover profile.
+     * @param ignored The sorted objects ID ignored by mover (used if objects are not ignored by profile).
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @return The path found from start to destination, <code>null</code> if no path found.
+     */
+    Path solve(MapTilePathSnapshot snapshot,
+               MovementProfile profile,
+               int[] ignored,
+               int stx,
+               int sty,
+               int dtx,
+               int dty)
+    {
+        nextGeneration();
+
+        final int start = sty * width + stx;
+        final int destination = dty * width + dtx;
+        generations[start] = generation;
+        costs[start] = 0.0F;
+        depths[start] = 0;
+        parents[start] = NONE;
+        states[start] = OPEN;
+        open.push(start, 0.0F);
+
+        int maxDepth = 0;
+        while (maxDepth < maxSearchDistance && !open.isEmpty())
+        {
+            final int current = open.peek();
+            if (current == destination)
+            {
+                break;
+            }
+            open.pop();
+            states[current] = CLOSED;
+            maxDepth = expand(snapshot, profile, ignored, start, dtx, dty, current, maxDepth);
+        }
+        if (start == destination || generations[destination] != generation)
+        {
+            return null;
+        }
+        return createPath(start, destination);
+    }
+
+    /**
+     * Start a new search by moving to the next generation. Arrays are only reset on overflow.
+     */
+    private void nextGeneration()
+    {
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * Expand the current node to its neighbours.
+     * 
+     * @param snapshot The map state.
+     * @param profile The mover profile.
+     * @param ignored The sorted objects ID ignored by mover.
+     * @param start The start node index.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param current The current node index.
+     * @param maxDepth The last max depth.
+     * @return The next max depth.
+     */
+    private int expand(MapTilePathSnapshot snapshot,
+                       MovementProfile profile,
+                       int[] ignored,
+                       int start,
+                       int dtx,
+                       int dty,
+                       int current,
+                       int maxDepth)
+    {
+        final int category = snapshot.getCategory(current);
+        if (category == MovementProfile.UNKNOWN)
+        {
+            return maxDepth;
+        }
+        final int cx = current % width;
+        final int cy = current / width;
+        final float nextStepCost = costs[current] + profile.getCost(category);
+
+        int depth = maxDepth;
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                final int xp = cx + x;
+                final int yp = cy + y;
+                if (!(x == 0 && y == 0)
+                    && profile.isAllowed(category, x, y)
+                    && xp >= 0
+                    && yp >= 0
+                    && xp < width
+                    && yp < height)
+                {
+                    final int neighbour = yp * width + xp;
+                    if (neighbour == start || !isBlocked(snapshot, profile, ignored, neighbour))
+                    {
+                        depth = Math.max(depth, updateNeighbour(current, neighbour, xp, yp, dtx, dty, nextStepCost));
+                    }
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Check if tile is blocked for mover.
+     * 
+     * @param snapshot The map state.
+     * @param profile The mover profile.
+     * @param ignored The sorted objects ID ignored by mover.
+     * @param index The tile index.
+     * @return <code>true</code> if blocked, <code>false</code> else.
+     */
+    private static boolean isBlocked(MapTilePathSnapshot snapshot, MovementProfile profile, int[] ignored, int index)
+    {
+        if (profile.isBlocking(snapshot.getCategory(index)))
+        {
+            return true;
+        }
+        if (!profile.isIgnoreRef())
+        {
+            for (final int id : snapshot.getObjects(index))
+            {
+                if (Arrays.binarySearch(ignored, id) < 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Update the neighbour if it was not reached yet, or if a cheaper way has been found.
+     * 
+     * @param current The current node index.
+     * @param neighbour The neighbour node index.
+     * @param xp The neighbour x coordinate.
+     * @param yp The neighbour y coordinate.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param nextStepCost The cost to reach neighbour from current.
+     * @return The neighbour depth if updated, <code>0</code> else.
+     */
+    private int updateNeighbour(int current, int neighbour, int xp, int yp, int dtx, int dty, float nextStepCost)
+    {
+        if (generations[neighbour] != generation)
+        {
+            generations[neighbour] = generation;
+            heuristics[neighbour] = (float) heuristic.getCost(xp, yp, dtx, dty);
+        }
+        else if (nextStepCost >= costs[neighbour])
+        {
+            return 0;
+        }
+        else if (states[neighbour] == OPEN)
+        {
+            costs[neighbour] = nextStepCost;
+            parents[neighbour] = current;
+            depths[neighbour] = depths[current] + 1;
+            open.decrease(neighbour, nextStepCost + heuristics[neighbour]);
+            return depths[neighbour];
+        }
+        costs[neighbour] = nextStepCost;
+        parents[neighbour] = current;
+        depths[neighbour] = depths[current] + 1;
+        states[neighbour] = OPEN;
+        open.push(neighbour, nextStepCost + heuristics[neighbour]);
+        return depths[neighbour];
+    }
+
+    /**
+     * Create the path by walking parents from destination to start.
+     * 
+     * @param start The start node index.
+     * @param destination The destination node index.
+     * @return The created path.
+     */
+    private Path createPath(int start, int destination)
+    {
+        final Path path = new Path();
+        int target = destination;
+        while (target != start)
+        {
+            path.prependStep(target % width, target / width);
+            target = parents[target];
+        }
+        path.prependStep(start % width, start / width);
+        return path;
+    }
+}
@@ -73,6 +73,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath;
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Pathfinding service reference (<code>null</code> if not available). */
+    private final PathfindingService service;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Transformable model. */
@@ -113,6 +115,12 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private boolean reCheckRef;
     /** Render debug (draw additional path information). */
     private boolean renderDebug;
+    /** Last path request index, previous requests results are ignored. */
+    private int request;
+    /** Waiting path request result flag. */
+    private boolean requesting;
+    /** First path flag of the waiting path request (<code>false</code> if path changed while moving). */
+    private boolean requestFirst;
 
     /**
      * Create a pathfindable model.
@@ -134,6 +142,15 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      * <li>{@link Viewer}</li>
      * </ul>
      * <p>
+     * If the {@link MapTile} has the {@link MapTilePathClusters} feature, long paths are searched with the
+     * hierarchical path finder.
+     * </p>
+     * <p>
+     * If the {@link Services} provides a {@link PathfindingService}, paths are requested to it and applied when
+     * delivered, the pathfindable waiting on its current step meanwhile. {@link #isPathAvailable(int, int)} remains
+     * synchronous.
+     * </p>
+     * <p>
      * If the {@link Featurable} is a {@link PathfindableListener}, it will automatically
      * {@link #addListener(PathfindableListener)} on it.
      * </p>
@@ -150,10 +167,18 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         mapPath = map.getFeature(MapTilePath.class);
         categories = PathfindableConfig.imports(setup);
         orientable = new OrientableModel(services);
+        service = services.getOptional(PathfindingService.class).orElse(null);
 
         final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
                                           + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        if (map.hasFeature(MapTilePathClusters.class))
+        {
+            pathfinder = Astar.createPathFinderHierarchical(map, range, Astar.createHeuristicClosest());
+        }
+        else
+        {
+            pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        }
     }
 
     /**
@@ -262,6 +287,47 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         }
     }
 
+    /**
+     * Request a path to the pathfinding service.
+     * 
+     * @param tx The destination horizontal tile.
+     * @param ty The destination vertical tile.
+     * @param ignoreRef The ignore map objects ID flag.
+     * @param first <code>true</code> if first path request, <code>false</code> if path changed while moving.
+     */
+    private void requestPath(int tx, int ty, boolean ignoreRef, boolean first)
+    {
+        request++;
+        requesting = true;
+        requestFirst = first;
+        final int index = request;
+        service.request(this, tx, ty, ignoreRef, found -> onPathFound(index, found, first));
+    }
+
+    /**
+     * Called when a requested path has been delivered.
+     * 
+     * @param index The request index.
+     * @param found The path found, <code>null</code> if none.
+     * @param first <code>true</code> if first path request, <code>false</code> if path changed while moving.
+     */
+    private void onPathFound(int index, Path found, boolean first)
+    {
+        if (index != request)
+        {
+            return;
+        }
+        requesting = false;
+        path = found;
+        currentStep = 0;
+        if (pathStoppedRequested || found == null && !first)
+        {
+            pathStopped = true;
+            pathStoppedRequested = false;
+            onArrived();
+        }
+    }
+
     /**
      * Render the current path.
      * 
@@ -403,13 +469,21 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             {
                 path.clear();
             }
-            path = pathfinder.findPath(this, destX, destY, false);
+            if (service == null)
+            {
+                path = pathfinder.findPath(this, destX, destY, false);
+            }
+            else
+            {
+                path = null;
+                requestPath(destX, destY, false, false);
+            }
             pathFoundChanged = false;
             currentStep = 0;
             skip = false;
             reCheckRef = false;
 
-            if (path == null)
+            if (path == null && !requesting)
             {
                 pathStoppedRequested = true;
             }
@@ -452,6 +526,11 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      */
     private void onArrived()
     {
+        if (requesting)
+        {
+            request++;
+            requesting = false;
+        }
         destinationReached = true;
         moving = false;
         path = null;
@@ -697,11 +776,23 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             if (path == null)
             {
                 currentStep = 0;
-                path = pathfinder.findPath(this, tx, ty, true);
+                // Replace the waiting request, keeping its first path state, as the object may already be moving
+                final boolean waiting = requesting;
+                if (service == null)
+                {
+                    path = pathfinder.findPath(this, tx, ty, true);
+                }
+                else
+                {
+                    requestPath(tx, ty, true, !waiting || requestFirst);
+                }
                 pathFoundChanged = false;
-                for (final PathfindableListener listener : listeners)
+                if (!waiting)
                 {
-                    listener.notifyStartMove();
+                    for (final PathfindableListener listener : listeners)
+                    {
+                        listener.notifyStartMove();
+                    }
                 }
                 prepareDestination(tx, ty);
                 return true;
@@ -876,6 +967,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         pathFoundChanged = false;
         currentStep = 0;
         path = null;
+        request++;
+        requesting = false;
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
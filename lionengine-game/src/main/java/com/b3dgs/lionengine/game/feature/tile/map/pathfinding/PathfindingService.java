@@ -0,0 +1,533 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Asynchronous path finding service. Requests are solved by a pool of workers on an immutable snapshot of the map
+ * pathfinding state, and results are delivered to their listener during {@link #update(double)}, so always on a later
+ * tick than the request.
+ * <p>
+ * Requests sharing the same start, destination and movement profile are solved once, each listener receiving its own
+ * copy of the path. At most the completion budget of results is delivered by update, remaining ones waiting the next
+ * tick.
+ * </p>
+ * <p>
+ * Destination checks (blocked destination, closest available tile) are performed during the request, with the same
+ * rules as {@link Astar#createPathFinder(MapTile, int, Heuristic)}.
+ * </p>
+ * <p>
+ * Must be added to {@link Services} to be used by {@link PathfindableModel}, and updated once per tick. Requests and
+ * updates must be performed from the same thread.
+ * </p>
+ */
+public class PathfindingService implements Updatable, MapTilePathListener
+{
+    /** Default completion budget per update. */
+    public static final int DEFAULT_BUDGET = 64;
+    /** Nano to milli. */
+    private static final double NANO_TO_MILLI = 1_000_000.0;
+
+    /** Pending jobs by request key (to be deduplicated). */
+    private final Map<String, Job> pending = new HashMap<>();
+    /** Completed jobs, waiting to be delivered. */
+    private final Queue<Job> completed = new ConcurrentLinkedQueue<>();
+    /** Available solvers. */
+    private final Queue<PathSolver> solvers = new ConcurrentLinkedQueue<>();
+    /** Tiles changed since last snapshot. */
+    private final BitSet changed = new BitSet();
+    /** Number of jobs submitted and not solved yet. */
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Number of jobs solved. */
+    private final AtomicInteger solved = new AtomicInteger();
+    /** Total solve latency in nano. */
+    private final AtomicLong latencyTotal = new AtomicLong();
+    /** Max solve latency in nano. */
+    private final AtomicLong latencyMax = new AtomicLong();
+    /** Workers pool. */
+    private final ForkJoinPool pool;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Completion budget per update. */
+    private final int budget;
+    /** Current snapshot (<code>null</code> if not created). */
+    private MapTilePathSnapshot snapshot;
+    /** Number of requests joined to a pending one. */
+    private int deduplicated;
+
+    /**
+     * Create service with one worker per available processor and {@link #DEFAULT_BUDGET}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If services not found.
+     */
+    public PathfindingService(Services services)
+    {
+        this(services, Runtime.getRuntime().availableProcessors(), DEFAULT_BUDGET);
+    }
+
+    /**
+     * Create service.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param parallelism The number of workers (must be strictly positive).
+     * @param budget The maximum number of results delivered by update (must be strictly positive).
+     * @throws LionEngineException If services not found or invalid arguments.
+     */
+    public PathfindingService(Services services, int parallelism, int budget)
+    {
+        super();
+
+        Check.superiorStrict(parallelism, 0);
+        Check.superiorStrict(budget, 0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        heuristic = Astar.createHeuristicClosest();
+        this.budget = budget;
+        pool = new ForkJoinPool(parallelism);
+        mapPath.addListener(this);
+    }
+
+    /**
+     * Request a path from the mover location to the destination. Listener is notified during a next update.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @param ignoreRef The ignore map objects ID flag (<code>true</code> to ignore objects).
+     * @param listener The listener to notify with the result.
+     */
+    public void request(Pathfindable mover, int dtx, int dty, boolean ignoreRef, PathRequestListener listener)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+        final CoordTile destination = getDestination(mover, stx, sty, dtx, dty, ignoreRef);
+        if (destination == null || destination.getX() == stx && destination.getY() == sty)
+        {
+            completed.offer(new Job(listener));
+            return;
+        }
+
+        final MapTilePathSnapshot current = getSnapshot();
+        final MovementProfile profile = new MovementProfile(mover, current.getCategories(), ignoreRef);
+        final int[] ignored = getIgnored(mover, current, ignoreRef);
+        final String key = new StringBuilder(profile.getKey()).append(':')
+                                                              .append(stx)
+                                                              .append(',')
+                                                              .append(sty)
+                                                              .append('>')
+                                                              .append(destination.getX())
+                                                              .append(',')
+                                                              .append(destination.getY())
+                                                              .append(Arrays.toString(ignored))
+                                                              .toString();
+        final Job existing = pending.get(key);
+        if (existing != null)
+        {
+            existing.listeners.add(listener);
+            deduplicated++;
+        }
+        else
+        {
+            final Job job = new Job(key,
+                                    current,
+                                    profile,
+                                    ignored,
+                                    sty * current.getWidth() + stx,
+                                    destination.getY() * current.getWidth() + destination.getX(),
+                                    listener);
+            pending.put(key, job);
+            queued.incrementAndGet();
+            pool.execute(() -> solve(job));
+        }
+    }
+
+    /**
+     * Get the number of requests not solved yet.
+     * 
+     * @return The queue depth.
+     */
+    public int getQueueDepth()
+    {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of jobs solved.
+     * 
+     * @return The number of jobs solved (deduplicated requests are solved once).
+     */
+    public int getSolved()
+    {
+        return solved.get();
+    }
+
+    /**
+     * Get the number of requests which have joined a pending identical one.
+     * 
+     * @return The number of deduplicated requests.
+     */
+    public int getDeduplicated()
+    {
+        return deduplicated;
+    }
+
+    /**
+     * Get the average time between job submission and its solving.
+     * 
+     * @return The average latency in milli, <code>0</code> if nothing solved.
+     */
+    public double getLatencyAverage()
+    {
+        final int count = solved.get();
+        if (count == 0)
+        {
+            return 0.0;
+        }
+        return latencyTotal.get() / NANO_TO_MILLI / count;
+    }
+
+    /**
+     * Get the highest time between job submission and its solving.
+     * 
+     * @return The max latency in milli.
+     */
+    public double getLatencyMax()
+    {
+        return latencyMax.get() / NANO_TO_MILLI;
+    }
+
+    /**
+     * Stop workers and stop listening map. Results not delivered yet are lost.
+     */
+    public void close()
+    {
+        mapPath.removeListener(this);
+        pool.shutdownNow();
+    }
+
+    /**
+     * Get the destination to search, with the same rules as {@link PathFinderHeap}.
+     * 
+     * @param mover The mover reference.
+     * @param stx The horizontal start tile.
+     * @param sty The vertical start tile.
+     * @param dtx The horizontal destination tile.
+     * @param dty The vertical destination tile.
+     * @param ignoreRef The ignore map objects ID flag.
+     * @return The destination to search, <code>null</code> if none.
+     */
+    private CoordTile getDestination(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            return getDestination(mover, stx, sty, tile.getX(), tile.getY(), ignoreRef);
+        }
+        return new CoordTile(dtx, dty);
+    }
+
+    /**
+     * Get the up to date snapshot, created again only if categories or map size changed, updated with changed tiles
+     * else. Pending jobs are not joined anymore when snapshot changes.
+     * 
+     * @return The current snapshot.
+     */
+    private MapTilePathSnapshot getSnapshot()
+    {
+        final Collection<String> categories = mapPath.getCategories();
+        if (snapshot == null
+            || !snapshot.hasCategories(categories)
+            || snapshot.getWidth() != map.getInTileWidth()
+            || snapshot.getHeight() != map.getInTileHeight())
+        {
+            snapshot = new MapTilePathSnapshot(map, categories);
+            changed.clear();
+            pending.clear();
+        }
+        else if (!changed.isEmpty())
+        {
+            snapshot = snapshot.update(map, changed);
+            changed.clear();
+            pending.clear();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the sorted objects ID ignored by mover.
+     * 
+     * @param mover The mover reference.
+     * @param snapshot The current snapshot.
+     * @param ignoreRef The ignore map objects ID flag.
+     * @return The ignored objects ID, empty if objects are ignored anyway.
+     */
+    private static int[] getIgnored(Pathfindable mover, MapTilePathSnapshot snapshot, boolean ignoreRef)
+    {
+        if (ignoreRef)
+        {
+            return new int[0];
+        }
+        final List<Integer> ids = new ArrayList<>();
+        for (final Integer id : snapshot.getObjectsId())
+        {
+            if (mover.isIgnoredId(id))
+            {
+                ids.add(id);
+            }
+        }
+        final int[] ignored = new int[ids.size()];
+        for (int i = 0; i < ignored.length; i++)
+        {
+            ignored[i] = ids.get(i).intValue();
+        }
+        Arrays.sort(ignored);
+        return ignored;
+    }
+
+    /**
+     * Solve job. Called by workers.
+     * 
+     * @param job The job to solve.
+     */
+    private void solve(Job job)
+    {
+        PathSolver solver = solvers.poll();
+        if (solver == null || !solver.isCompatible(job.snapshot))
+        {
+            final int width = job.snapshot.getWidth();
+            final int height = job.snapshot.getHeight();
+            final int range = (int) Math.sqrt(width * (double) width + height * (double) height);
+            solver = new PathSolver(width, height, range, heuristic);
+        }
+        try
+        {
+            final int width = job.snapshot.getWidth();
+            job.path = solver.solve(job.snapshot,
+                                    job.profile,
+                                    job.ignored,
+                                    job.start % width,
+                                    job.start / width,
+                                    job.destination % width,
+                                    job.destination / width);
+        }
+        finally
+        {
+            solvers.offer(solver);
+            final long latency = System.nanoTime() - job.submitted;
+            latencyTotal.addAndGet(latency);
+            latencyMax.accumulateAndGet(latency, Math::max);
+            solved.incrementAndGet();
+            queued.decrementAndGet();
+            completed.offer(job);
+        }
+    }
+
+    /**
+     * Copy path.
+     * 
+     * @param path The path to copy.
+     * @return The path copy.
+     */
+    private static Path copy(Path path)
+    {
+        final Path copy = new Path();
+        for (int i = path.getLength() - 1; i >= 0; i--)
+        {
+            copy.prependStep(path.getX(i), path.getY(i));
+        }
+        return copy;
+    }
+
+    /*
+     * Updatable
+     */
+
+    /**
+     * Deliver solved paths to their listener, up to the completion budget.
+     * 
+     * @param extrp The extrapolation value (unused).
+     */
+    @Override
+    public void update(double extrp)
+    {
+        for (int delivered = 0; delivered < budget; delivered++)
+        {
+            final Job job = completed.poll();
+            if (job == null)
+            {
+                break;
+            }
+            if (job.key != null)
+            {
+                pending.remove(job.key, job);
+            }
+            for (int i = 0; i < job.listeners.size(); i++)
+            {
+                final Path path;
+                if (job.path == null || i == 0)
+                {
+                    path = job.path;
+                }
+                else
+                {
+                    path = copy(job.path);
+                }
+                job.listeners.get(i).notifyPathFound(path);
+            }
+        }
+    }
+
+    /*
+     * MapTilePathListener
+     */
+
+    @Override
+    public void notifyTileChanged(int tx, int ty)
+    {
+        changed.set(ty * map.getInTileWidth() + tx);
+    }
+
+    @Override
+    public void notifyObjectsChanged(int tx, int ty)
+    {
+        changed.set(ty * map.getInTileWidth() + tx);
+    }
+
+    /**
+     * Path request job.
+     */
+    private static final class Job
+    {
+        /** Listeners to notify (accessed from update thread only). */
+        private final List<PathRequestListener> listeners = new ArrayList<>(1);
+        /** Request key, <code>null</code> if not solved. */
+        private final String key;
+        /** Snapshot to search on. */
+        private final MapTilePathSnapshot snapshot;
+        /** Mover profile. */
+        private final MovementProfile profile;
+        /** Sorted ignored objects ID. */
+        private final int[] ignored;
+        /** Start tile index. */
+        private final int start;
+        /** Destination tile index. */
+        private final int destination;
+        /** Submission time in nano. */
+        private final long submitted;
+        /** Path found (published by completed queue). */
+        private Path path;
+
+        /**
+         * Create an already completed job without path.
+         * 
+         * @param listener The listener to notify.
+         */
+        Job(PathRequestListener listener)
+        {
+            this(null, null, null, null, 0, 0, listener);
+        }
+
+        /**
+         * Create job.
+         * 
+         * @param key The request key.
+         * @param snapshot The snapshot to search on.
+         * @param profile The mover profile.
+         * @param ignored The sorted ignored objects ID.
+         * @param start The start tile index.
+         * @param destination The destination tile index.
+         * @param listener The first listener.
+         */
+        Job(String key,
+            MapTilePathSnapshot snapshot,
+            MovementProfile profile,
+            int[] ignored,
+            int start,
+            int destination,
+            PathRequestListener listener)
+        {
+            super();
+
+            this.key = key;
+            this.snapshot = snapshot;
+            this.profile = profile;
+            this.ignored = ignored;
+            this.start = start;
+            this.destination = destination;
+            submitted = System.nanoTime();
+            listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.io.FileReading;
+
+/**
+ * Chunked map header and chunk offsets index, as saved by {@link MapTilePersisterChunked}.
+ */
+final class MapTileChunkIndex
+{
+    /** Invalid chunk size error. */
+    private static final String ERROR_CHUNK_SIZE = "Invalid chunk size: ";
+    /** Invalid chunk offset error. */
+    private static final String ERROR_CHUNK_OFFSET = "Invalid chunk offset: ";
+    /** Max chunk data length in bytes. */
+    private static final long MAX_CHUNK_LENGTH = MapTilePersisterChunked.CHUNK_HEADER
+                                                 + (long) MapTilePersisterChunked.MAX_CHUNK_SIZE
+                                                   * MapTilePersisterChunked.MAX_CHUNK_SIZE
+                                                   * MapTilePersisterChunked.TILE_BYTES;
+
+    /**
+     * Read header and index, and create the map with its sheets. Input is then located on the first chunk data.
+     * 
+     * @param input The input level file.
+     * @param map The map to create.
+     * @return The read index.
+     * @throws IOException If error on reading.
+     */
+    static MapTileChunkIndex read(FileReading input, MapTile map) throws IOException
+    {
+        map.create(input.readInteger(), input.readInteger(), input.readInteger(), input.readInteger());
+        if (input.readBoolean())
+        {
+            map.loadSheets(Medias.create(input.readString()));
+        }
+
+        final int chunkSize = input.readInteger();
+        if (chunkSize < 1 || chunkSize > MapTilePersisterChunked.MAX_CHUNK_SIZE)
+        {
+            throw new IOException(ERROR_CHUNK_SIZE + chunkSize);
+        }
+        final int chunksH = MapTilePersisterChunked.getChunks(map.getInTileWidth(), chunkSize);
+        final int chunksV = MapTilePersisterChunked.getChunks(map.getInTileHeight(), chunkSize);
+        final long[] offsets = new long[chunksH * chunksV + 1];
+        for (int i = 0; i < offsets.length; i++)
+        {
+            offsets[i] = input.readLong();
+            final long length = i > 0 ? offsets[i] - offsets[i - 1] : offsets[i];
+            if (length < 0L || i > 0 && length > MAX_CHUNK_LENGTH)
+            {
+                throw new IOException(ERROR_CHUNK_OFFSET + offsets[i]);
+            }
+        }
+        return new MapTileChunkIndex(chunkSize, chunksH, chunksV, offsets);
+    }
+
+    /** Chunk size in tile. */
+    private final int chunkSize;
+    /** Number of horizontal chunks. */
+    private final int chunksH;
+    /** Number of vertical chunks. */
+    private final int chunksV;
+    /** Chunk offsets, last one being the total data length. */
+    private final long[] offsets;
+
+    /**
+     * Create index.
+     * 
+     * @param chunkSize The chunk size in tile.
+     * @param chunksH The number of horizontal chunks.
+     * @param chunksV The number of vertical chunks.
+     * @param offsets The chunk offsets, last one being the total data length.
+     */
+    private MapTileChunkIndex(int chunkSize, int chunksH, int chunksV, long[] offsets)
+    {
+        super();
+
+        this.chunkSize = chunkSize;
+        this.chunksH = chunksH;
+        this.chunksV = chunksV;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Get the chunk size.
+     * 
+     * @return The chunk size in tile.
+     */
+    int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Get the number of horizontal chunks.
+     * 
+     * @return The number of horizontal chunks.
+     */
+    int getChunksHorizontal()
+    {
+        return chunksH;
+    }
+
+    /**
+     * Get the number of vertical chunks.
+     * 
+     * @return The number of vertical chunks.
+     */
+    int getChunksVertical()
+    {
+        return chunksV;
+    }
+
+    /**
+     * Get the chunk data offset, relative to the first chunk.
+     * 
+     * @param chunk The chunk index (<code>cy * horizontal chunks + cx</code>).
+     * @return The chunk offset in bytes.
+     */
+    long getOffset(int chunk)
+    {
+        return offsets[chunk];
+    }
+
+    /**
+     * Get the chunk data length.
+     * 
+     * @param chunk The chunk index (<code>cy * horizontal chunks + cx</code>).
+     * @return The chunk length in bytes.
+     */
+    int getLength(int chunk)
+    {
+        return (int) (offsets[chunk + 1] - offsets[chunk]);
+    }
+
+    /**
+     * Get the total chunk data length.
+     * 
+     * @return The data length in bytes.
+     */
+    long getDataLength()
+    {
+        return offsets[offsets.length - 1];
+    }
+}
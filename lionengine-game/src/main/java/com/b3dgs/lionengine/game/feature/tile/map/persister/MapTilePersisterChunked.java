@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.FeatureInterface;
+import com.b3dgs.lionengine.game.feature.FeatureModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.io.FileReading;
+import com.b3dgs.lionengine.io.FileWriting;
+
+/**
+ * Handle the map persistence in square chunks, with an index of chunk offsets, allowing to load a single chunk without
+ * reading the whole map (see {@link MapTileStreamer}).
+ * <p>
+ * Chunk data are stored at the end of file, in order, so their absolute position is the file length minus the total
+ * chunk data length, plus the chunk offset.
+ * </p>
+ */
+@FeatureInterface
+public class MapTilePersisterChunked extends FeatureModel implements MapTilePersister
+{
+    /** Default chunk size in tile. */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    /** Max chunk size in tile (local index is stored as a short). */
+    public static final int MAX_CHUNK_SIZE = 128;
+    /** Chunk header size in bytes (number of tiles). */
+    static final int CHUNK_HEADER = Integer.BYTES;
+    /** Tile size in bytes (sheet, number, local index). */
+    static final int TILE_BYTES = Integer.BYTES + Integer.BYTES + Short.BYTES;
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+
+    /**
+     * Get the number of chunks needed to cover a size.
+     * 
+     * @param size The size in tile.
+     * @param chunkSize The chunk size in tile.
+     * @return The number of chunks.
+     */
+    static int getChunks(int size, int chunkSize)
+    {
+        return (size + chunkSize - 1) / chunkSize;
+    }
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Chunk size in tile. */
+    private final int chunkSize;
+
+    /**
+     * Create the persister with {@link #DEFAULT_CHUNK_SIZE}.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If services not found.
+     */
+    public MapTilePersisterChunked(Services services)
+    {
+        this(services, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create the persister.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param chunkSize The chunk size in tile (must be strictly positive and inferior or equal to
+     *            {@value #MAX_CHUNK_SIZE}).
+     * @throws LionEngineException If services not found or invalid chunk size.
+     */
+    public MapTilePersisterChunked(Services services, int chunkSize)
+    {
+        super();
+
+        Check.superiorStrict(chunkSize, 0);
+        Check.inferiorOrEqual(chunkSize, MAX_CHUNK_SIZE);
+
+        map = services.get(MapTile.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Count the tiles of a chunk.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The number of tiles.
+     */
+    private int countTiles(int cx, int cy)
+    {
+        final int ex = Math.min((cx + 1) * chunkSize, map.getInTileWidth());
+        final int ey = Math.min((cy + 1) * chunkSize, map.getInTileHeight());
+        int count = 0;
+        for (int ty = cy * chunkSize; ty < ey; ty++)
+        {
+            for (int tx = cx * chunkSize; tx < ex; tx++)
+            {
+                if (map.getTile(tx, ty) != null)
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Save the tiles of a chunk.
+     * 
+     * @param output The output file.
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @param count The number of tiles.
+     * @throws IOException If error on writing.
+     */
+    private void saveChunk(FileWriting output, int cx, int cy, int count) throws IOException
+    {
+        output.writeInteger(count);
+
+        final int ex = Math.min((cx + 1) * chunkSize, map.getInTileWidth());
+        final int ey = Math.min((cy + 1) * chunkSize, map.getInTileHeight());
+        for (int ty = cy * chunkSize; ty < ey; ty++)
+        {
+            for (int tx = cx * chunkSize; tx < ex; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    output.writeInteger(tile.getSheet().intValue());
+                    output.writeInteger(tile.getNumber());
+                    output.writeShort((short) ((ty - cy * chunkSize) * chunkSize + tx - cx * chunkSize));
+                }
+            }
+        }
+    }
+
+    /*
+     * Persistable
+     */
+
+    /**
+     * Save map to specified file as binary data. Data are saved this way:
+     * 
+     * <pre>
+     * <code>(integer)</code> tile width
+     * <code>(integer)</code> tile height
+     * <code>(integer)</code> width in tiles
+     * <code>(integer)</code> height in tiles
+     * <code>(boolean)</code> has sheets configuration
+     * <code>(String)</code> sheets configuration file (if has configuration)
+     * <code>(integer)</code> chunk size in tiles
+     * for each chunk (row by row)
+     *   <code>(long)</code> chunk data offset
+     * <code>(long)</code> total chunk data length
+     * for each chunk (row by row)
+     *   <code>(integer)</code> number of tiles in this chunk
+     *   for each tile in this chunk
+     *     <code>(integer)</code> sheet number
+     *     <code>(integer)</code> index number inside sheet
+     *     <code>(short)</code> location inside chunk (ty * chunk size + tx)
+     * </pre>
+     * 
+     * @param output The output level file.
+     * @throws IOException If error on writing.
+     */
+    @Override
+    public void save(FileWriting output) throws IOException
+    {
+        Check.notNull(output);
+
+        output.writeInteger(map.getTileWidth());
+        output.writeInteger(map.getTileHeight());
+        output.writeInteger(map.getInTileWidth());
+        output.writeInteger(map.getInTileHeight());
+
+        final boolean hasConfig = map.getMedia() != null;
+        output.writeBoolean(hasConfig);
+        if (hasConfig)
+        {
+            output.writeString(map.getMedia().getPath());
+        }
+        output.writeInteger(chunkSize);
+
+        final int chunksH = getChunks(map.getInTileWidth(), chunkSize);
+        final int chunksV = getChunks(map.getInTileHeight(), chunkSize);
+        final int[] counts = new int[chunksH * chunksV];
+        long offset = 0L;
+        for (int cy = 0; cy < chunksV; cy++)
+        {
+            for (int cx = 0; cx < chunksH; cx++)
+            {
+                final int count = countTiles(cx, cy);
+                counts[cy * chunksH + cx] = count;
+                output.writeLong(offset);
+                offset += CHUNK_HEADER + count * (long) TILE_BYTES;
+            }
+        }
+        output.writeLong(offset);
+        for (int cy = 0; cy < chunksV; cy++)
+        {
+            for (int cx = 0; cx < chunksH; cx++)
+            {
+                saveChunk(output, cx, cy, counts[cy * chunksH + cx]);
+            }
+        }
+    }
+
+    /**
+     * Load the whole map from a specified file as binary data (see {@link #save(FileWriting)} order). Use
+     * {@link MapTileStreamer} to load only chunks around view.
+     * 
+     * @param input The input level file.
+     * @throws IOException If error on reading.
+     */
+    @Override
+    public void load(FileReading input) throws IOException
+    {
+        Check.notNull(input);
+
+        final MapTileChunkIndex index = MapTileChunkIndex.read(input, map);
+        final int size = index.getChunkSize();
+        for (int cy = 0; cy < index.getChunksVertical(); cy++)
+        {
+            for (int cx = 0; cx < index.getChunksHorizontal(); cx++)
+            {
+                final int n = input.readInteger();
+                for (int i = 0; i < n; i++)
+                {
+                    final Integer sheet = Integer.valueOf(input.readInteger());
+                    final int number = input.readInteger();
+                    final int local = input.readShort();
+                    if (sheet.intValue() > map.getSheetsNumber())
+                    {
+                        throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + sheet);
+                    }
+                    final int tx = cx * size + local % size;
+                    final int ty = cy * size + local / size;
+                    map.setTile(map.createTile(sheet, number, tx * map.getTileWidth(), ty * map.getTileHeight()));
+                }
+            }
+        }
+    }
+}
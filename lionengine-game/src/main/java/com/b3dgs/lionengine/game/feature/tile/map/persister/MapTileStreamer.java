@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.io.FileReading;
+
+/**
+ * Stream a map saved by {@link MapTilePersisterChunked}, by loading only the chunks around the {@link Viewer}.
+ * <p>
+ * Only the header and chunk index are read on creation. Missing chunks in view (extended by a margin in chunk) are read
+ * and decoded by a pool of workers, and set on map during {@link #update(double)}, so always on a later tick. Loaded
+ * chunks are kept in a least recently used order, and chunks out of view are removed from map while the estimated
+ * memory of loaded tiles exceeds the budget.
+ * </p>
+ * <p>
+ * The map grid itself is still allocated for the whole map size: use a compact map (see
+ * {@link com.b3dgs.lionengine.game.feature.tile.map.MapTileGame#MapTileGame(boolean)}) to keep it at an
+ * <code>int</code> per tile. As tiles are set again on reload, tile features must be restored from
+ * {@link com.b3dgs.lionengine.game.feature.tile.map.TileSetListener}.
+ * </p>
+ * <p>
+ * Must be updated once per tick, from the thread using the map.
+ * </p>
+ */
+public class MapTileStreamer implements Updatable
+{
+    /** Default margin around view in chunk. */
+    public static final int DEFAULT_MARGIN = 1;
+    /**
+     * Estimated memory of a loaded tile in bytes, measured on a filled 1024*1024 map storing tile instances (default
+     * {@link com.b3dgs.lionengine.game.feature.tile.map.MapTileGame} mode). With a compact map, tiles without feature
+     * only take their packed value in the map grid, which is allocated anyway: the budget is then an upper bound, and
+     * mostly limits the number of chunks kept loaded.
+     */
+    public static final long TILE_MEMORY = 690L;
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+
+    /** Loaded chunks with their number of tiles, in least recently used order. */
+    private final Map<Integer, Integer> loaded = new LinkedHashMap<>(16, 0.75F, true);
+    /** Chunks being read. */
+    private final Set<Integer> requested = new HashSet<>();
+    /** Chunks read, waiting to be set on map. */
+    private final Queue<Chunk> completed = new ConcurrentLinkedQueue<>();
+    /** Workers pool. */
+    private final ForkJoinPool pool;
+    /** Map reference. */
+    private final MapTile map;
+    /** Viewer reference. */
+    private final Viewer viewer;
+    /** Level file. */
+    private final Media level;
+    /** Chunk index. */
+    private final MapTileChunkIndex index;
+    /** Level file channel. */
+    private final FileChannel channel;
+    /** First chunk data position. */
+    private final long dataStart;
+    /** Memory budget in bytes. */
+    private final long budget;
+    /** Margin around view in chunk. */
+    private final int margin;
+    /** Estimated memory of loaded tiles. */
+    private long memory;
+    /** Number of evicted chunks. */
+    private int evicted;
+    /** First horizontal chunk in view. */
+    private int minX;
+    /** First vertical chunk in view. */
+    private int minY;
+    /** Last horizontal chunk in view. */
+    private int maxX;
+    /** Last vertical chunk in view. */
+    private int maxY;
+
+    /**
+     * Create streamer with {@link #DEFAULT_MARGIN} and one worker per available processor. The map is created with its
+     * sheets, without any tile.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param level The level file, saved by {@link MapTilePersisterChunked} (must be a file).
+     * @param budget The memory budget in bytes (must be positive).
+     * @throws LionEngineException If services not found, invalid arguments or error on reading index.
+     */
+    public MapTileStreamer(Services services, Media level, long budget)
+    {
+        this(services, level, budget, DEFAULT_MARGIN, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create streamer. The map is created with its sheets, without any tile.
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param level The level file, saved by {@link MapTilePersisterChunked} (must be a file).
+     * @param budget The memory budget in bytes (must be positive).
+     * @param margin The margin around view in chunk (must be positive).
+     * @param parallelism The number of workers (must be strictly positive).
+     * @throws LionEngineException If services not found, invalid arguments or error on reading index.
+     */
+    public MapTileStreamer(Services services, Media level, long budget, int margin, int parallelism)
+    {
+        super();
+
+        Check.notNull(level);
+        Check.superiorOrEqual(budget, 0.0);
+        Check.superiorOrEqual(margin, 0);
+        Check.superiorStrict(parallelism, 0);
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+        this.level = level;
+        this.budget = budget;
+        this.margin = margin;
+
+        try (FileReading reading = new FileReading(level))
+        {
+            index = MapTileChunkIndex.read(reading, map);
+            channel = FileChannel.open(level.getFile().toPath(), StandardOpenOption.READ);
+            dataStart = channel.size() - index.getDataLength();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, level);
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Check if chunk is loaded.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     */
+    public boolean isLoaded(int cx, int cy)
+    {
+        return loaded.containsKey(Integer.valueOf(cy * index.getChunksHorizontal() + cx));
+    }
+
+    /**
+     * Get the chunk size.
+     * 
+     * @return The chunk size in tile.
+     */
+    public int getChunkSize()
+    {
+        return index.getChunkSize();
+    }
+
+    /**
+     * Get the number of loaded chunks.
+     * 
+     * @return The number of loaded chunks.
+     */
+    public int getLoaded()
+    {
+        return loaded.size();
+    }
+
+    /**
+     * Get the number of chunks being read.
+     * 
+     * @return The number of pending chunks.
+     */
+    public int getPending()
+    {
+        return requested.size();
+    }
+
+    /**
+     * Get the number of evicted chunks since creation.
+     * 
+     * @return The number of evicted chunks.
+     */
+    public int getEvicted()
+    {
+        return evicted;
+    }
+
+    /**
+     * Get the estimated memory of loaded tiles.
+     * 
+     * @return The estimated memory in bytes.
+     */
+    public long getMemory()
+    {
+        return memory;
+    }
+
+    /**
+     * Stop workers and close level file. Chunks being read are lost.
+     * 
+     * @throws LionEngineException If error on closing file.
+     */
+    public void close()
+    {
+        pool.shutdownNow();
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, level);
+        }
+    }
+
+    /**
+     * Update chunks range in view, including margin.
+     */
+    private void updateRange()
+    {
+        final double width = index.getChunkSize() * (double) map.getTileWidth();
+        final double height = index.getChunkSize() * (double) map.getTileHeight();
+        final double x = viewer.getX() + viewer.getViewX();
+        final double y = viewer.getY() - viewer.getViewY();
+
+        minX = Math.max(0, (int) Math.floor(x / width) - margin);
+        minY = Math.max(0, (int) Math.floor(y / height) - margin);
+        maxX = Math.min(index.getChunksHorizontal() - 1, (int) Math.floor((x + viewer.getWidth()) / width) + margin);
+        maxY = Math.min(index.getChunksVertical() - 1, (int) Math.floor((y + viewer.getHeight()) / height) + margin);
+    }
+
+    /**
+     * Check if chunk is in view range.
+     * 
+     * @param chunk The chunk index.
+     * @return <code>true</code> if in view range, <code>false</code> else.
+     */
+    private boolean isInRange(int chunk)
+    {
+        final int cx = chunk % index.getChunksHorizontal();
+        final int cy = chunk / index.getChunksHorizontal();
+        return cx >= minX && cx <= maxX && cy >= minY && cy <= maxY;
+    }
+
+    /**
+     * Read and decode chunk. Called by workers.
+     * 
+     * @param chunk The chunk index.
+     */
+    private void read(int chunk)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(index.getLength(chunk));
+        final long position = dataStart + index.getOffset(chunk);
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer, position + buffer.position()) < 0)
+                {
+                    throw new EOFException();
+                }
+            }
+            buffer.flip();
+
+            final int count = buffer.getInt();
+            final int[] sheets = new int[count];
+            final int[] numbers = new int[count];
+            final int[] locals = new int[count];
+            for (int i = 0; i < count; i++)
+            {
+                sheets[i] = buffer.getInt();
+                numbers[i] = buffer.getInt();
+                locals[i] = buffer.getShort();
+            }
+            completed.offer(new Chunk(chunk, sheets, numbers, locals, null));
+        }
+        catch (final IOException exception)
+        {
+            completed.offer(new Chunk(chunk, null, null, null, exception));
+        }
+    }
+
+    /**
+     * Set chunk tiles on map.
+     * 
+     * @param chunk The chunk read.
+     * @throws LionEngineException If error on reading chunk or missing sheet.
+     */
+    private void apply(Chunk chunk)
+    {
+        final Integer key = Integer.valueOf(chunk.index);
+        requested.remove(key);
+        if (chunk.exception != null)
+        {
+            throw new LionEngineException(chunk.exception, level);
+        }
+
+        final int size = index.getChunkSize();
+        final int ox = chunk.index % index.getChunksHorizontal() * size;
+        final int oy = chunk.index / index.getChunksHorizontal() * size;
+        final int count = chunk.sheets.length;
+        for (int i = 0; i < count; i++)
+        {
+            final Integer sheet = Integer.valueOf(chunk.sheets[i]);
+            if (chunk.sheets[i] > map.getSheetsNumber())
+            {
+                throw new LionEngineException(level, ERROR_SHEET_MISSING + sheet);
+            }
+            final int tx = ox + chunk.locals[i] % size;
+            final int ty = oy + chunk.locals[i] / size;
+            map.setTile(map.createTile(sheet, chunk.numbers[i], tx * map.getTileWidth(), ty * map.getTileHeight()));
+        }
+        loaded.put(key, Integer.valueOf(count));
+        memory += count * TILE_MEMORY;
+    }
+
+    /**
+     * Remove chunk tiles from map.
+     * 
+     * @param chunk The chunk index.
+     */
+    private void remove(int chunk)
+    {
+        final int size = index.getChunkSize();
+        final int ox = chunk % index.getChunksHorizontal() * size;
+        final int oy = chunk / index.getChunksHorizontal() * size;
+        final int ex = Math.min(ox + size, map.getInTileWidth());
+        final int ey = Math.min(oy + size, map.getInTileHeight());
+        for (int ty = oy; ty < ey; ty++)
+        {
+            for (int tx = ox; tx < ex; tx++)
+            {
+                map.removeTile(tx, ty);
+            }
+        }
+    }
+
+    /**
+     * Evict least recently used chunks out of view while over budget.
+     */
+    private void evict()
+    {
+        final Iterator<Map.Entry<Integer, Integer>> iterator = loaded.entrySet().iterator();
+        while (memory > budget && iterator.hasNext())
+        {
+            final Map.Entry<Integer, Integer> entry = iterator.next();
+            final int chunk = entry.getKey().intValue();
+            if (!isInRange(chunk))
+            {
+                remove(chunk);
+                memory -= entry.getValue().intValue() * TILE_MEMORY;
+                iterator.remove();
+                evicted++;
+            }
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws LionEngineException If error on reading a chunk or missing sheet.
+     */
+    @Override
+    public void update(double extrp)
+    {
+        updateRange();
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                final int chunk = cy * index.getChunksHorizontal() + cx;
+                final Integer key = Integer.valueOf(chunk);
+                if (loaded.get(key) == null && requested.add(key))
+                {
+                    pool.execute(() -> read(chunk));
+                }
+            }
+        }
+
+        Chunk chunk;
+        // CHECKSTYLE IGNORE LINE: InnerAssignment
+        while ((chunk = completed.poll()) != null)
+        {
+            apply(chunk);
+        }
+        evict();
+    }
+
+    /**
+     * Chunk read data.
+     */
+    private static final class Chunk
+    {
+        /** Chunk index. */
+        private final int index;
+        /** Tiles sheet. */
+        private final int[] sheets;
+        /** Tiles number. */
+        private final int[] numbers;
+        /** Tiles location inside chunk. */
+        private final int[] locals;
+        /** Reading error (<code>null</code> if none). */
+        private final IOException exception;
+
+        /**
+         * Create chunk.
+         * 
+         * @param index The chunk index.
+         * @param sheets The tiles sheet.
+         * @param numbers The tiles number.
+         * @param locals The tiles location inside chunk.
+         * @param exception The reading error (<code>null</code> if none).
+         */
+        Chunk(int index, int[] sheets, int[] numbers, int[] locals, IOException exception)
+        {
+            super();
+
+            this.index = index;
+            this.sheets = sheets;
+            this.numbers = numbers;
+            this.locals = locals;
+            this.exception = exception;
+        }
+    }
+}
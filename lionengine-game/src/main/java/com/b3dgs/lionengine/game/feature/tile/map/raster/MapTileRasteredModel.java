@@ -18,11 +18,10 @@
 package com.b3dgs.lionengine.game.feature.tile.map.raster;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
@@ -37,6 +36,9 @@ import com.b3dgs.lionengine.graphic.raster.RasterImage;
 
 /**
  * Rastered map tile implementation.
+ * <p>
+ * Rasters of each sheet are loaded in parallel.
+ * </p>
  */
 public class MapTileRasteredModel extends FeatureModel implements MapTileRastered
 {
@@ -88,18 +90,21 @@ public class MapTileRasteredModel extends FeatureModel implements MapTileRastere
     @Override
     public void loadSheets(Media rasterConfig, boolean smooth)
     {
-        final Collection<Integer> sheets = map.getSheets();
-        final Iterator<Integer> itr = sheets.iterator();
+        final List<Integer> sheets = new ArrayList<>(map.getSheets());
+        final RasterImage[] rasters = new RasterImage[sheets.size()];
         final int th = map.getTileHeight();
 
-        while (itr.hasNext())
+        IntStream.range(0, rasters.length).parallel().forEach(i ->
         {
-            final Integer sheet = itr.next();
-            final RasterImage raster = new RasterImage(map.getSheet(sheet).getSurface(), rasterConfig, th, smooth);
-            raster.loadRasters(map.getTileHeight(), false, sheet.toString());
+            final Integer sheet = sheets.get(i);
+            rasters[i] = new RasterImage(map.getSheet(sheet).getSurface(), rasterConfig, th, smooth);
+            rasters[i].loadRasters(th, false, sheet.toString());
+        });
 
-            final List<SpriteTiled> rastersSheet = getRasters(sheet);
-            for (final ImageBuffer bufferRaster : raster.getRasters())
+        for (int i = 0; i < rasters.length; i++)
+        {
+            final List<SpriteTiled> rastersSheet = getRasters(sheets.get(i));
+            for (final ImageBuffer bufferRaster : rasters[i].getRasters())
             {
                 final SpriteTiled sheetRaster = Drawable.loadSpriteTiled(bufferRaster, map.getTileWidth(), th);
                 rastersSheet.add(sheetRaster);
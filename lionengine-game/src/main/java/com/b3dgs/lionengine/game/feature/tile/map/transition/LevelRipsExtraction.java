@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilChecksum;
+import com.b3dgs.lionengine.UtilFile;
+import com.b3dgs.lionengine.UtilStream;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSheetsConfig;
+
+/**
+ * Extract tiles data from level rips in parallel.
+ * <p>
+ * Each level rip gives a partial result, computed in parallel, and partial results are merged in levels order. If a
+ * cache folder is given to the extraction, each partial result is stored in a file named by the checksum of the level
+ * rip content and the extraction context, and loaded from it next time instead of being extracted. Level rips with the
+ * same content are extracted once.
+ * </p>
+ */
+public final class LevelRipsExtraction
+{
+    /** Cache file extension. */
+    private static final String EXTENSION = Constant.DOT + "xml";
+    /**
+     * Get the checksum of values and medias content.
+     * 
+     * @param medias The medias to read (must not be <code>null</code>).
+     * @param values The additional values.
+     * @return The checksum.
+     * @throws LionEngineException If invalid argument or error when reading media.
+     */
+    public static String getChecksum(Collection<Media> medias, String... values)
+    {
+        Check.notNull(medias);
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (final String value : values)
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            data.write(bytes, 0, bytes.length);
+        }
+        for (final Media media : medias)
+        {
+            try (InputStream input = media.getInputStream())
+            {
+                UtilStream.copy(input, data);
+            }
+            catch (final IOException exception)
+            {
+                throw new LionEngineException(exception, media);
+            }
+        }
+        return UtilChecksum.getSha(data.toByteArray());
+    }
+
+    /**
+     * Get the checksum of the sheets configuration with their images, and the groups configuration.
+     * 
+     * @param sheetsConfig The sheets configuration media (must not be <code>null</code>).
+     * @param groupsConfig The groups configuration media (must not be <code>null</code>).
+     * @param values The additional values.
+     * @return The checksum.
+     * @throws LionEngineException If invalid arguments or error when reading media.
+     */
+    public static String getChecksum(Media sheetsConfig, Media groupsConfig, String... values)
+    {
+        Check.notNull(sheetsConfig);
+        Check.notNull(groupsConfig);
+
+        final Collection<Media> medias = new ArrayList<>();
+        medias.add(sheetsConfig);
+        for (final String sheet : TileSheetsConfig.imports(sheetsConfig).getSheets())
+        {
+            medias.add(Medias.create(sheetsConfig.getParentPath(), sheet));
+        }
+        medias.add(groupsConfig);
+
+        return getChecksum(medias, values);
+    }
+
+    /**
+     * Extract partial results in parallel, without cache, and merge them.
+     * 
+     * @param <T> The source type.
+     * @param <K> The result key type.
+     * @param sources The sources (must not be <code>null</code>).
+     * @param extractor The partial result extractor for one source (must not be <code>null</code>).
+     * @return The merged results.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public static <T, K> Map<K, Collection<TileRef>> extract(Collection<T> sources,
+                                                              Function<T, Map<K, Collection<TileRef>>> extractor)
+    {
+        Check.notNull(sources);
+        Check.notNull(extractor);
+
+        return merge(new ArrayList<>(sources).parallelStream().map(extractor).collect(Collectors.toList()));
+    }
+
+    /**
+     * Extract partial results of level rips in parallel, using cache if defined, and merge them.
+     * 
+     * @param <K> The result key type.
+     * @param levels The level rips (must not be <code>null</code>).
+     * @param cache The partial results cache folder (<code>null</code> to disable cache).
+     * @param context The extraction context checksum, any change invalidates cached results (must not be
+     *            <code>null</code>).
+     * @param extractor The partial result extractor for one level rip (must not be <code>null</code>).
+     * @param importer The partial result reader from cache (must not be <code>null</code>).
+     * @param exporter The partial result writer to cache (must not be <code>null</code>).
+     * @return The merged results.
+     * @throws LionEngineException If invalid arguments or error when reading or writing cache.
+     */
+    public static <K> Map<K, Collection<TileRef>> extract(Collection<Media> levels,
+                                                          Media cache,
+                                                          String context,
+                                                          Function<Media, Map<K, Collection<TileRef>>> extractor,
+                                                          Function<Media, Map<K, Collection<TileRef>>> importer,
+                                                          BiConsumer<Media, Map<K, Collection<TileRef>>> exporter)
+    {
+        Check.notNull(levels);
+        Check.notNull(context);
+        Check.notNull(extractor);
+        Check.notNull(importer);
+        Check.notNull(exporter);
+
+        if (cache == null)
+        {
+            return extract(levels, extractor);
+        }
+        if (cache.getFile().mkdirs())
+        {
+            Verbose.info("Extraction cache created: ", cache.getPath());
+        }
+
+        final List<Media> sources = new ArrayList<>(levels);
+        final List<String> keys = sources.parallelStream()
+                                         .map(level -> getChecksum(Arrays.asList(level), context))
+                                         .collect(Collectors.toList());
+        final Map<String, Media> unique = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++)
+        {
+            unique.putIfAbsent(keys.get(i), sources.get(i));
+        }
+
+        final Map<String, Map<K, Collection<TileRef>>> partials = new ConcurrentHashMap<>();
+        unique.entrySet().parallelStream().forEach(entry ->
+        {
+            final Media media = Medias.create(cache.getPath(), entry.getKey() + EXTENSION);
+            partials.put(entry.getKey(), load(media, entry.getValue(), extractor, importer, exporter));
+        });
+
+        return merge(keys.stream().map(partials::get).collect(Collectors.toList()));
+    }
+
+    /**
+     * Merge partial results in their order.
+     * 
+     * @param <K> The result key type.
+     * @param partials The partial results (must not be <code>null</code>).
+     * @return The merged results.
+     * @throws LionEngineException If invalid argument.
+     */
+    public static <K> Map<K, Collection<TileRef>> merge(List<Map<K, Collection<TileRef>>> partials)
+    {
+        Check.notNull(partials);
+
+        final Map<K, Collection<TileRef>> merged = new HashMap<>();
+        for (final Map<K, Collection<TileRef>> partial : partials)
+        {
+            for (final Map.Entry<K, Collection<TileRef>> entry : partial.entrySet())
+            {
+                merged.computeIfAbsent(entry.getKey(), key -> new HashSet<>()).addAll(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Load partial result from cache, or extract it and store it in cache.
+     * 
+     * @param <K> The result key type.
+     * @param media The cache media.
+     * @param level The level rip.
+     * @param extractor The partial result extractor.
+     * @param importer The partial result reader.
+     * @param exporter The partial result writer.
+     * @return The partial result.
+     * @throws LionEngineException If error when reading or writing cache.
+     */
+    private static <K> Map<K, Collection<TileRef>> load(Media media,
+                                                        Media level,
+                                                        Function<Media, Map<K, Collection<TileRef>>> extractor,
+                                                        Function<Media, Map<K, Collection<TileRef>>> importer,
+                                                        BiConsumer<Media, Map<K, Collection<TileRef>>> exporter)
+    {
+        if (media.exists())
+        {
+            return importer.apply(media);
+        }
+
+        final Map<K, Collection<TileRef>> partial = extractor.apply(level);
+        UtilFile.saveAtomic(media, temp -> exporter.accept(temp, partial));
+        return partial;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private LevelRipsExtraction()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -41,13 +41,24 @@ public interface MapTileTransition extends Feature
 
     /**
      * Load the transitions from map configuration.
-     *
+     * 
      * @param levels The level rips used.
      * @param sheetsConfig The sheets configuration media.
      * @param groupsConfig The groups configuration media.
      */
     void loadTransitions(Collection<Media> levels, Media sheetsConfig, Media groupsConfig);
 
+    /**
+     * Load the transitions from map configuration, with partial results cache.
+     * 
+     * @param levels The level rips used.
+     * @param sheetsConfig The sheets configuration media.
+     * @param groupsConfig The groups configuration media.
+     * @param cache The partial results cache folder (<code>null</code> to disable cache).
+     * @see LevelRipsExtraction
+     */
+    void loadTransitions(Collection<Media> levels, Media sheetsConfig, Media groupsConfig, Media cache);
+
     /**
      * Load the transitions from raw data.
      * 
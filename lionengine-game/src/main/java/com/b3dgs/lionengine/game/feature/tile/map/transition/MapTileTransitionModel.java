@@ -405,9 +405,15 @@ public class MapTileTransitionModel extends FeatureModel implements MapTileTrans
 
     @Override
     public void loadTransitions(Collection<Media> levels, Media sheetsConfig, Media groupsConfig)
+    {
+        loadTransitions(levels, sheetsConfig, groupsConfig, null);
+    }
+
+    @Override
+    public void loadTransitions(Collection<Media> levels, Media sheetsConfig, Media groupsConfig, Media cache)
     {
         final TransitionsExtractor transitionsExtractor = new TransitionsExtractorImpl();
-        loadTransitions(transitionsExtractor.getTransitions(levels, sheetsConfig, groupsConfig));
+        loadTransitions(transitionsExtractor.getTransitions(levels, sheetsConfig, groupsConfig, cache));
     }
 
     @Override
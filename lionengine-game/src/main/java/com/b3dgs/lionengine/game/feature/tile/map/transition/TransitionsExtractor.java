@@ -31,7 +31,7 @@ public interface TransitionsExtractor
 {
     /**
      * Get map tile transitions from map configuration.
-     *
+     * 
      * @param levels The level rips used.
      * @param sheetsConfig The sheets configuration media.
      * @param groupsConfig The groups configuration media.
@@ -41,9 +41,24 @@ public interface TransitionsExtractor
                                                         Media sheetsConfig,
                                                         Media groupsConfig);
 
+    /**
+     * Get map tile transitions from map configuration, with partial results cache.
+     * 
+     * @param levels The level rips used.
+     * @param sheetsConfig The sheets configuration media.
+     * @param groupsConfig The groups configuration media.
+     * @param cache The partial results cache folder (<code>null</code> to disable cache).
+     * @return The transitions found with their associated tiles.
+     * @see LevelRipsExtraction
+     */
+    Map<Transition, Collection<TileRef>> getTransitions(Collection<Media> levels,
+                                                        Media sheetsConfig,
+                                                        Media groupsConfig,
+                                                        Media cache);
+
     /**
      * Get map tile transitions from existing maps.
-     *
+     * 
      * @param maps The maps reference.
      * @return The transitions found with their associated tiles.
      */
@@ -21,7 +21,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
@@ -33,12 +32,15 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
 
 /**
  * Default transition extractor implementation.
+ * <p>
+ * Level rips are converted and scanned in parallel, see {@link LevelRipsExtraction}.
+ * </p>
  */
 final class TransitionsExtractorImpl implements TransitionsExtractor
 {
     /**
      * Get map tile transitions.
-     *
+     * 
      * @param map The map reference.
      * @return The transitions found with their associated tiles.
      */
@@ -99,6 +101,26 @@ final class TransitionsExtractorImpl implements TransitionsExtractor
         return transitions.get(transition);
     }
 
+    /**
+     * Create the map from level rip.
+     * 
+     * @param level The level rip.
+     * @param sheetsConfig The sheets configuration media.
+     * @param groupsConfig The groups configuration media.
+     * @return The created map.
+     */
+    private static MapTile createMap(Media level, Media sheetsConfig, Media groupsConfig)
+    {
+        final MapTile map = new MapTileGame();
+        map.create(level, sheetsConfig);
+
+        final MapTileGroup mapGroup = new MapTileGroupModel();
+        mapGroup.loadGroups(groupsConfig);
+        map.addFeature(mapGroup);
+
+        return map;
+    }
+
     /**
      * Create the extractor.
      */
@@ -116,41 +138,27 @@ final class TransitionsExtractorImpl implements TransitionsExtractor
                                                                Media sheetsConfig,
                                                                Media groupsConfig)
     {
-        final Collection<MapTile> mapsSet = new HashSet<>(levels.size());
-        for (final Media level : levels)
-        {
-            final MapTile map = new MapTileGame();
-            map.create(level, sheetsConfig);
+        return getTransitions(levels, sheetsConfig, groupsConfig, null);
+    }
 
-            final MapTileGroup mapGroup = new MapTileGroupModel();
-            mapGroup.loadGroups(groupsConfig);
-            map.addFeature(mapGroup);
-            mapsSet.add(map);
-        }
-        return getTransitions(mapsSet);
+    @Override
+    public Map<Transition, Collection<TileRef>> getTransitions(Collection<Media> levels,
+                                                               Media sheetsConfig,
+                                                               Media groupsConfig,
+                                                               Media cache)
+    {
+        final String context = LevelRipsExtraction.getChecksum(sheetsConfig, groupsConfig, TransitionsConfig.FILENAME);
+        return LevelRipsExtraction.extract(levels,
+                                           cache,
+                                           context,
+                                           level -> getTransitions(createMap(level, sheetsConfig, groupsConfig)),
+                                           TransitionsConfig::imports,
+                                           TransitionsConfig::exports);
     }
 
     @Override
     public Map<Transition, Collection<TileRef>> getTransitions(Collection<MapTile> maps)
     {
-        final Map<Transition, Collection<TileRef>> transitions = new HashMap<>();
-        for (final MapTile map : maps)
-        {
-            final Map<Transition, Collection<TileRef>> currents = getTransitions(map);
-            for (final Entry<Transition, Collection<TileRef>> entry : currents.entrySet())
-            {
-                final Transition transition = entry.getKey();
-                final Collection<TileRef> tiles = entry.getValue();
-                if (transitions.containsKey(transition))
-                {
-                    transitions.get(transition).addAll(tiles);
-                }
-                else
-                {
-                    transitions.put(transition, tiles);
-                }
-            }
-        }
-        return transitions;
+        return LevelRipsExtraction.extract(maps, map -> getTransitions(map));
     }
 }
@@ -23,6 +23,7 @@ import java.util.Map;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.feature.tile.TileRef;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.LevelRipsExtraction;
 
 /**
  * Provides all map circuits.
@@ -31,7 +32,7 @@ public interface CircuitsExtractor
 {
     /**
      * Get map tile circuits from map configuration.
-     *
+     * 
      * @param levels The level rips used.
      * @param sheetsConfig The sheets configuration media.
      * @param groupsConfig The groups configuration media.
@@ -39,9 +40,24 @@ public interface CircuitsExtractor
      */
     Map<Circuit, Collection<TileRef>> getCircuits(Collection<Media> levels, Media sheetsConfig, Media groupsConfig);
 
+    /**
+     * Get map tile circuits from map configuration, with partial results cache, shared with transitions extraction.
+     * 
+     * @param levels The level rips used.
+     * @param sheetsConfig The sheets configuration media.
+     * @param groupsConfig The groups configuration media.
+     * @param cache The partial results cache folder (<code>null</code> to disable cache).
+     * @return The circuits found with their associated tiles.
+     * @see LevelRipsExtraction
+     */
+    Map<Circuit, Collection<TileRef>> getCircuits(Collection<Media> levels,
+                                                  Media sheetsConfig,
+                                                  Media groupsConfig,
+                                                  Media cache);
+
     /**
      * Get map tile circuits from existing maps.
-     *
+     * 
      * @param maps The maps reference.
      * @return The circuits found with their associated tiles.
      */
@@ -17,11 +17,13 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.transition.circuit;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -32,17 +34,23 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.LevelRipsExtraction;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.MapTileTransition;
 import com.b3dgs.lionengine.game.feature.tile.map.transition.MapTileTransitionModel;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.Transition;
 
 /**
  * Default circuit extractor implementation.
+ * <p>
+ * Transitions are extracted once for all level rips, then level rips are converted and scanned in parallel, see
+ * {@link LevelRipsExtraction}.
+ * </p>
  */
 final class CircuitsExtractorImpl implements CircuitsExtractor
 {
     /**
      * Get map tile circuits.
-     *
+     * 
      * @param map The map reference.
      * @return The circuits found with their associated tiles.
      */
@@ -129,6 +137,69 @@ final class CircuitsExtractorImpl implements CircuitsExtractor
         return circuits.get(circuit);
     }
 
+    /**
+     * Create the map from level rip.
+     * 
+     * @param level The level rip (<code>null</code> to not create map tiles).
+     * @param sheetsConfig The sheets configuration media.
+     * @param groupsConfig The groups configuration media.
+     * @return The created map, with its transition feature.
+     */
+    private static MapTile createMap(Media level, Media sheetsConfig, Media groupsConfig)
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        if (level != null)
+        {
+            map.create(level, sheetsConfig);
+        }
+
+        final MapTileGroup mapGroup = map.addFeatureAndGet(new MapTileGroupModel());
+        map.addFeature(new MapTileTransitionModel(services));
+        mapGroup.loadGroups(groupsConfig);
+
+        return map;
+    }
+
+    /**
+     * Get all transitions with their tiles.
+     * 
+     * @param mapTransition The map transition reference.
+     * @return The transitions with their tiles.
+     */
+    private static Map<Transition, Collection<TileRef>> getTransitions(MapTileTransition mapTransition)
+    {
+        final Map<Transition, Collection<TileRef>> transitions = new HashMap<>();
+        for (final Transition transition : mapTransition.getTransitions())
+        {
+            transitions.put(transition, mapTransition.getTiles(transition));
+        }
+        return transitions;
+    }
+
+    /**
+     * Get a stable representation of transitions, used by cache checksum.
+     * 
+     * @param transitions The transitions with their tiles.
+     * @return The sorted transitions representation.
+     */
+    private static String toString(Map<Transition, Collection<TileRef>> transitions)
+    {
+        final List<String> values = new ArrayList<>();
+        for (final Map.Entry<Transition, Collection<TileRef>> entry : transitions.entrySet())
+        {
+            final List<String> tiles = new ArrayList<>();
+            for (final TileRef tile : entry.getValue())
+            {
+                tiles.add(tile.toString());
+            }
+            Collections.sort(tiles);
+            values.add(entry.getKey().toString() + tiles);
+        }
+        Collections.sort(values);
+        return values.toString();
+    }
+
     /**
      * Create the extractor.
      */
@@ -146,45 +217,35 @@ final class CircuitsExtractorImpl implements CircuitsExtractor
                                                          Media sheetsConfig,
                                                          Media groupsConfig)
     {
-        final Collection<MapTile> mapsSet = new HashSet<>(levels.size());
-        for (final Media level : levels)
-        {
-            final Services services = new Services();
-            final MapTile map = services.create(MapTileGame.class);
-            map.create(level, sheetsConfig);
-
-            final MapTileGroup mapGroup = map.addFeatureAndGet(new MapTileGroupModel());
-            final MapTileTransition mapTransition = map.addFeatureAndGet(new MapTileTransitionModel(services));
+        return getCircuits(levels, sheetsConfig, groupsConfig, null);
+    }
 
-            mapGroup.loadGroups(groupsConfig);
-            mapTransition.loadTransitions(levels, sheetsConfig, groupsConfig);
+    @Override
+    public Map<Circuit, Collection<TileRef>> getCircuits(Collection<Media> levels,
+                                                         Media sheetsConfig,
+                                                         Media groupsConfig,
+                                                         Media cache)
+    {
+        final MapTile base = createMap(null, sheetsConfig, groupsConfig);
+        final MapTileTransition mapTransition = base.getFeature(MapTileTransition.class);
+        mapTransition.loadTransitions(levels, sheetsConfig, groupsConfig, cache);
+        final Map<Transition, Collection<TileRef>> transitions = getTransitions(mapTransition);
 
-            mapsSet.add(map);
-        }
-        return getCircuits(mapsSet);
+        final String context = LevelRipsExtraction.getChecksum(sheetsConfig,
+                                                               groupsConfig,
+                                                               CircuitsConfig.FILENAME,
+                                                               toString(transitions));
+        return LevelRipsExtraction.extract(levels, cache, context, level ->
+        {
+            final MapTile map = createMap(level, sheetsConfig, groupsConfig);
+            map.getFeature(MapTileTransition.class).loadTransitions(transitions);
+            return getCircuits(map);
+        }, CircuitsConfig::imports, CircuitsConfig::exports);
     }
 
     @Override
     public Map<Circuit, Collection<TileRef>> getCircuits(Collection<MapTile> maps)
     {
-        final Map<Circuit, Collection<TileRef>> circuits = new HashMap<>();
-        for (final MapTile map : maps)
-        {
-            final Map<Circuit, Collection<TileRef>> currents = getCircuits(map);
-            for (final Entry<Circuit, Collection<TileRef>> entry : currents.entrySet())
-            {
-                final Circuit circuit = entry.getKey();
-                final Collection<TileRef> tiles = entry.getValue();
-                if (circuits.containsKey(circuit))
-                {
-                    circuits.get(circuit).addAll(tiles);
-                }
-                else
-                {
-                    circuits.put(circuit, tiles);
-                }
-            }
-        }
-        return circuits;
+        return LevelRipsExtraction.extract(maps, map -> getCircuits(map));
     }
 }
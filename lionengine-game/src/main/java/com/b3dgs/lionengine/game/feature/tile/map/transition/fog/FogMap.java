@@ -0,0 +1,899 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.Transition;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.TransitionType;
+import com.b3dgs.lionengine.game.feature.tile.map.transition.TransitionsConfig;
+
+/**
+ * Incremental fog of war storage, supporting multiple teams at once.
+ * <p>
+ * Each team stores a visible reference count per tile (number of its {@link Fovable} seeing the tile) and a visited
+ * bitset. The last revealed area of each fovable is kept, so an update only changes the tiles entering or leaving its
+ * field of view, and nothing is allocated once fovables are known.
+ * </p>
+ * <p>
+ * Fog tiles are resolved from the visible state of their eight neighbors: each visible neighbor clears the quadrants
+ * facing it (two for a side neighbor, three for a diagonal one), and only quadrants cleared by all of them remain
+ * clear (a tile between opposite cleared sides is fully cleared). Quadrants are then mapped to tile numbers with the
+ * <code>none</code> / <code>fog</code> transitions of the configuration, as {@link MapTileFog} would resolve them with
+ * the map transitions.
+ * </p>
+ * <p>
+ * By default a fovable sees the whole square around it. Once {@link #setVision(MapTile, Collection)} is called, vision
+ * is stopped by the tiles of the blocking groups, using {@link ShadowCasting}. The seen tiles of each fovable are then
+ * cached, and only computed again when it changes tile or field of view, or when a blocking tile around it changes.
+ * </p>
+ */
+public class FogMap
+{
+    /** Fog group. */
+    static final String FOG_GROUP = "fog";
+    /** Up left quadrant. */
+    private static final int UP_LEFT = 1;
+    /** Up right quadrant. */
+    private static final int UP_RIGHT = 2;
+    /** Down left quadrant. */
+    private static final int DOWN_LEFT = 4;
+    /** Down right quadrant. */
+    private static final int DOWN_RIGHT = 8;
+    /** No quadrant cleared. */
+    private static final int FOGGED = 0;
+    /** All quadrants cleared. */
+    private static final int CLEARED = UP_LEFT | UP_RIGHT | DOWN_LEFT | DOWN_RIGHT;
+    /** Quadrants cleared by each neighbor, indexed by <code>(oy + 1) * 3 + ox + 1</code>. */
+    private static final int[] NEIGHBORS =
+    {
+        CLEARED & ~UP_RIGHT, DOWN_LEFT | DOWN_RIGHT, CLEARED & ~UP_LEFT,
+        UP_LEFT | DOWN_LEFT, CLEARED, UP_RIGHT | DOWN_RIGHT,
+        CLEARED & ~DOWN_RIGHT, UP_LEFT | UP_RIGHT, CLEARED & ~DOWN_LEFT
+    };
+    /** Bitset word shift. */
+    private static final int WORD_SHIFT = 6;
+    /** Fog tile must be resolved. */
+    private static final byte PENDING_FOG = 1;
+    /** Hide tile must be resolved. */
+    private static final byte PENDING_HIDE = 2;
+    /** Error team. */
+    static final String ERROR_TEAM = "Invalid team: ";
+
+    /**
+     * Get the quadrants from a transition type.
+     * 
+     * @param type The transition type.
+     * @return The quadrants flags.
+     */
+    private static int getQuadrants(TransitionType type)
+    {
+        int quadrants = 0;
+        if (type.getUpLeft())
+        {
+            quadrants |= UP_LEFT;
+        }
+        if (type.getUpRight())
+        {
+            quadrants |= UP_RIGHT;
+        }
+        if (type.getDownLeft())
+        {
+            quadrants |= DOWN_LEFT;
+        }
+        if (type.getDownRight())
+        {
+            quadrants |= DOWN_RIGHT;
+        }
+        return quadrants;
+    }
+
+    /**
+     * Get the resolved quadrants.
+     * 
+     * @param quadrants The quadrants cleared by all neighbors.
+     * @param found The number of cleared neighbors.
+     * @param self <code>true</code> if tile itself is cleared, <code>false</code> else.
+     * @return The resolved quadrants.
+     */
+    private static int getResolved(int quadrants, int found, boolean self)
+    {
+        if (found == 0)
+        {
+            return FOGGED;
+        }
+        // No transition between opposite cleared sides, tile is cleared as well
+        if (self || quadrants == FOGGED)
+        {
+            return CLEARED;
+        }
+        return quadrants;
+    }
+
+    /** Tile number for each cleared quadrants value. */
+    private final int[] numbers = new int[CLEARED + 1];
+    /** Teams data. */
+    private final Team[] teams;
+    /** Empty area. */
+    private final Footprint empty = new Footprint(null);
+    /** Next area being computed. */
+    private final Footprint next = new Footprint(null);
+    /** Vision blocking groups. */
+    private final Collection<String> blockingGroups = new HashSet<>();
+    /** Line of sight (<code>null</code> if square vision). */
+    private ShadowCasting vision;
+    /** Map tracked by vision (<code>null</code> if square vision). */
+    private MapTile visionMap;
+    /** Vision tile set listener (<code>null</code> if square vision). */
+    private TileSetListener visionListener;
+    /** Seen tiles being computed. */
+    private int[] seen = new int[0];
+    /** Tiles marks used to compare seen tiles. */
+    private int[] marks;
+    /** Current mark. */
+    private int mark;
+    /** Map width in tile. */
+    private int width;
+    /** Map height in tile. */
+    private int height;
+
+    /**
+     * Create a fog map.
+     * 
+     * @param teams The number of teams (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FogMap(int teams)
+    {
+        super();
+
+        Check.superiorStrict(teams, 0);
+
+        this.teams = new Team[teams];
+    }
+
+    /**
+     * Create the fog from a map. All tiles are hidden and fogged.
+     * 
+     * @param map The map reference.
+     * @param config The fog transitions configuration.
+     * @throws LionEngineException If unable to read configuration.
+     */
+    public void create(MapTile map, Media config)
+    {
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        for (int i = 0; i < teams.length; i++)
+        {
+            teams[i] = new Team(width * height);
+        }
+
+        Arrays.fill(numbers, MapTileFog.FOG);
+        numbers[CLEARED] = MapTileFog.NO_FOG;
+        for (final Map.Entry<Transition, Collection<TileRef>> entry : TransitionsConfig.imports(config).entrySet())
+        {
+            final Transition transition = entry.getKey();
+            final Collection<TileRef> refs = entry.getValue();
+            if (!refs.isEmpty())
+            {
+                load(transition, refs.iterator().next().getNumber());
+            }
+        }
+    }
+
+    /**
+     * Enable line of sight, vision being blocked by the tiles of the given groups. Tile changes are tracked with a
+     * {@link TileSetListener}, replacing the one of a previous call. Current fovables are removed, and added back on
+     * their next update.
+     * <p>
+     * Must be called after {@link #create(MapTile, Media)}.
+     * </p>
+     * 
+     * @param map The map reference (must provide {@link MapTileGroup}).
+     * @param groups The groups blocking vision.
+     * @throws LionEngineException If invalid map.
+     */
+    public void setVision(MapTile map, Collection<String> groups)
+    {
+        final MapTileGroup mapGroup = map.getFeature(MapTileGroup.class);
+        for (final Team team : teams)
+        {
+            for (int i = team.active.size() - 1; i >= 0; i--)
+            {
+                remove(team, i);
+            }
+            flush(team);
+        }
+        blockingGroups.clear();
+        blockingGroups.addAll(groups);
+
+        vision = new ShadowCasting(width, height);
+        marks = new int[width * height];
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    vision.setBlocking(tx, ty, blockingGroups.contains(mapGroup.getGroup(tile)));
+                }
+            }
+        }
+        if (visionMap != null)
+        {
+            visionMap.removeListener(visionListener);
+        }
+        visionMap = map;
+        visionListener = tile -> onTileSet(mapGroup, tile);
+        map.addListener(visionListener);
+    }
+
+    /**
+     * Update team fovables field of view. Fovables which were not part of the previous update are added, and the ones
+     * which are not anymore are removed.
+     * 
+     * @param team The team index.
+     * @param fovables The team fovables.
+     * @throws LionEngineException If invalid team.
+     */
+    public void update(int team, Iterable<? extends Fovable> fovables)
+    {
+        final Team data = getTeam(team);
+        data.stamp++;
+        for (final Fovable fovable : fovables)
+        {
+            Footprint footprint = data.footprints.get(fovable);
+            if (footprint == null)
+            {
+                footprint = new Footprint(fovable);
+                data.footprints.put(fovable, footprint);
+                data.active.add(footprint);
+            }
+            footprint.stamp = data.stamp;
+            updateFov(data, footprint);
+        }
+        for (int i = data.active.size() - 1; i >= 0; i--)
+        {
+            final Footprint footprint = data.active.get(i);
+            if (footprint.stamp != data.stamp)
+            {
+                remove(data, i);
+            }
+        }
+        flush(data);
+    }
+
+    /**
+     * Remove fovable from team, hiding its field of view.
+     * 
+     * @param team The team index.
+     * @param fovable The fovable to remove.
+     * @throws LionEngineException If invalid team.
+     */
+    public void remove(int team, Fovable fovable)
+    {
+        final Team data = getTeam(team);
+        final Footprint footprint = data.footprints.get(fovable);
+        if (footprint != null)
+        {
+            remove(data, data.active.indexOf(footprint));
+            flush(data);
+        }
+    }
+
+    /**
+     * Check if tile blocks vision.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if line of sight enabled and tile blocks vision, <code>false</code> else.
+     */
+    public boolean isBlocking(int tx, int ty)
+    {
+        return vision != null && vision.isBlocking(tx, ty);
+    }
+
+    /**
+     * Check if tile is currently seen by team.
+     * 
+     * @param team The team index.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if seen by at least one team fovable, <code>false</code> else or outside map.
+     * @throws LionEngineException If invalid team.
+     */
+    public boolean isVisible(int team, int tx, int ty)
+    {
+        final Team current = getTeam(team);
+        return isInside(tx, ty) && current.visible[ty * width + tx] > 0;
+    }
+
+    /**
+     * Check if tile has already been seen by team.
+     * 
+     * @param team The team index.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if already seen, <code>false</code> else or outside map.
+     * @throws LionEngineException If invalid team.
+     */
+    public boolean isVisited(int team, int tx, int ty)
+    {
+        final Team current = getTeam(team);
+        if (!isInside(tx, ty))
+        {
+            return false;
+        }
+        final int index = ty * width + tx;
+        return (current.visited[index >>> WORD_SHIFT] & 1L << index) != 0L;
+    }
+
+    /**
+     * Get the fog tile number, resolved from current visibility.
+     * 
+     * @param team The team index.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The fog tile number, no fog tile outside map.
+     * @throws LionEngineException If invalid team.
+     */
+    public int getFogTile(int team, int tx, int ty)
+    {
+        final Team current = getTeam(team);
+        if (!isInside(tx, ty))
+        {
+            return MapTileFog.NO_FOG;
+        }
+        return numbers[current.fog[ty * width + tx]];
+    }
+
+    /**
+     * Get the hide tile number, resolved from visited tiles.
+     * 
+     * @param team The team index.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The hide tile number, no fog tile outside map.
+     * @throws LionEngineException If invalid team.
+     */
+    public int getHideTile(int team, int tx, int ty)
+    {
+        final Team current = getTeam(team);
+        if (!isInside(tx, ty))
+        {
+            return MapTileFog.NO_FOG;
+        }
+        return numbers[current.hide[ty * width + tx]];
+    }
+
+    /**
+     * Get the number of teams.
+     * 
+     * @return The number of teams.
+     */
+    public int getTeams()
+    {
+        return teams.length;
+    }
+
+    /**
+     * Check if tile is inside map.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if inside map, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+
+    /**
+     * Load transition tile number if it is a fog transition.
+     * 
+     * @param transition The transition.
+     * @param number The associated tile number.
+     */
+    private void load(Transition transition, int number)
+    {
+        final String in = transition.getIn();
+        final String out = transition.getOut();
+        final int quadrants = getQuadrants(transition.getType());
+        if (MapTileGroupModel.NO_GROUP_NAME.equals(in) && FOG_GROUP.equals(out))
+        {
+            numbers[quadrants] = number;
+        }
+        else if (FOG_GROUP.equals(in) && MapTileGroupModel.NO_GROUP_NAME.equals(out))
+        {
+            numbers[CLEARED & ~quadrants] = number;
+        }
+        else if (FOG_GROUP.equals(in) && FOG_GROUP.equals(out))
+        {
+            numbers[FOGGED] = number;
+        }
+        else if (MapTileGroupModel.NO_GROUP_NAME.equals(in) && MapTileGroupModel.NO_GROUP_NAME.equals(out))
+        {
+            numbers[CLEARED] = number;
+        }
+    }
+
+    /**
+     * Get team data.
+     * 
+     * @param team The team index.
+     * @return The team data.
+     * @throws LionEngineException If invalid team.
+     */
+    private Team getTeam(int team)
+    {
+        if (team < 0 || team >= teams.length)
+        {
+            throw new LionEngineException(ERROR_TEAM + team);
+        }
+        return teams[team];
+    }
+
+    /**
+     * Update fovable field of view, only changing tiles entering or leaving it.
+     * 
+     * @param team The team data.
+     * @param footprint The fovable footprint.
+     */
+    private void updateFov(Team team, Footprint footprint)
+    {
+        final Fovable fovable = footprint.fovable;
+        final int tx = fovable.getInTileX();
+        final int ty = fovable.getInTileY();
+        final int rx = fovable.getInTileFov() + fovable.getInTileWidth() / 2 - 1;
+        final int ry = fovable.getInTileFov() + fovable.getInTileHeight() / 2 - 1;
+
+        if (vision != null)
+        {
+            final int radius = Math.max(rx, ry);
+            if (footprint.dirty || tx != footprint.tx || ty != footprint.ty || radius != footprint.radius)
+            {
+                updateVision(team, footprint, tx, ty, radius);
+            }
+        }
+        else
+        {
+            final int sx = Math.max(0, tx - rx);
+            final int sy = Math.max(0, ty - ry);
+            next.set(sx, sy, Math.min(width - 1, tx + rx), Math.min(height - 1, ty + ry));
+
+            if (!next.isSame(footprint))
+            {
+                change(team, footprint, next, -1);
+                change(team, next, footprint, 1);
+                footprint.set(next.sx, next.sy, next.ex, next.ey);
+            }
+        }
+    }
+
+    /**
+     * Compute fovable seen tiles, and only change tiles entering or leaving them.
+     * 
+     * @param team The team data.
+     * @param footprint The fovable footprint.
+     * @param tx The fovable horizontal location.
+     * @param ty The fovable vertical location.
+     * @param radius The vision radius.
+     */
+    private void updateVision(Team team, Footprint footprint, int tx, int ty, int radius)
+    {
+        final long side = 2L * radius + 1L;
+        final int capacity = (int) Math.min(side * side, (long) width * height);
+        if (seen.length < capacity)
+        {
+            seen = new int[capacity];
+        }
+        int count = 0;
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            count = vision.compute(tx, ty, radius, seen);
+        }
+
+        nextMark();
+        for (int i = 0; i < count; i++)
+        {
+            marks[seen[i]] = mark;
+        }
+        for (int i = 0; i < footprint.count; i++)
+        {
+            final int index = footprint.tiles[i];
+            if (marks[index] != mark)
+            {
+                changeTile(team, index, -1);
+            }
+        }
+        nextMark();
+        for (int i = 0; i < footprint.count; i++)
+        {
+            marks[footprint.tiles[i]] = mark;
+        }
+        for (int i = 0; i < count; i++)
+        {
+            final int index = seen[i];
+            if (marks[index] != mark)
+            {
+                changeTile(team, index, 1);
+            }
+        }
+
+        final int[] old = footprint.tiles;
+        footprint.tiles = seen;
+        footprint.count = count;
+        seen = old;
+        footprint.set(tx - radius, ty - radius, tx + radius, ty + radius);
+        footprint.tx = tx;
+        footprint.ty = ty;
+        footprint.radius = radius;
+        footprint.dirty = false;
+    }
+
+    /**
+     * Move to next mark. Marks are only reset on overflow.
+     */
+    private void nextMark()
+    {
+        mark++;
+        if (mark == Integer.MAX_VALUE)
+        {
+            Arrays.fill(marks, 0);
+            mark = 1;
+        }
+    }
+
+    /**
+     * Update blocking state of set tile, and invalidate footprints around it if changed.
+     * 
+     * @param mapGroup The map group reference.
+     * @param tile The set tile.
+     */
+    private void onTileSet(MapTileGroup mapGroup, Tile tile)
+    {
+        final int tx = tile.getInTileX();
+        final int ty = tile.getInTileY();
+        if (vision.setBlocking(tx, ty, blockingGroups.contains(mapGroup.getGroup(tile))))
+        {
+            for (final Team team : teams)
+            {
+                final int n = team.active.size();
+                for (int i = 0; i < n; i++)
+                {
+                    final Footprint footprint = team.active.get(i);
+                    if (tx >= footprint.sx && tx <= footprint.ex && ty >= footprint.sy && ty <= footprint.ey)
+                    {
+                        footprint.dirty = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove active footprint, hiding its area.
+     * 
+     * @param team The team data.
+     * @param index The footprint index in active list.
+     */
+    private void remove(Team team, int index)
+    {
+        final Footprint footprint = team.active.get(index);
+        if (vision != null)
+        {
+            for (int i = 0; i < footprint.count; i++)
+            {
+                changeTile(team, footprint.tiles[i], -1);
+            }
+        }
+        else
+        {
+            change(team, footprint, empty, -1);
+        }
+
+        final int last = team.active.size() - 1;
+        team.active.set(index, team.active.get(last));
+        team.active.remove(last);
+        team.footprints.remove(footprint.fovable);
+    }
+
+    /**
+     * Change visible count of the area tiles which are not in the excluded area.
+     * 
+     * @param team The team data.
+     * @param area The area to change.
+     * @param excluded The area to exclude.
+     * @param delta The visible count change.
+     */
+    private void change(Team team, Footprint area, Footprint excluded, int delta)
+    {
+        final boolean exclude = !excluded.isEmpty();
+        for (int y = area.sy; y <= area.ey; y++)
+        {
+            if (exclude && y >= excluded.sy && y <= excluded.ey)
+            {
+                changeRow(team, y, area.sx, Math.min(area.ex, excluded.sx - 1), delta);
+                changeRow(team, y, Math.max(area.sx, excluded.ex + 1), area.ex, delta);
+            }
+            else
+            {
+                changeRow(team, y, area.sx, area.ex, delta);
+            }
+        }
+    }
+
+    /**
+     * Change visible count of a row of tiles, and resolve tiles around the ones becoming visible or hidden.
+     * 
+     * @param team The team data.
+     * @param y The row index.
+     * @param sx The horizontal start (inclusive).
+     * @param ex The horizontal end (inclusive).
+     * @param delta The visible count change.
+     */
+    private void changeRow(Team team, int y, int sx, int ex, int delta)
+    {
+        for (int x = sx; x <= ex; x++)
+        {
+            changeTile(team, y * width + x, delta);
+        }
+    }
+
+    /**
+     * Change visible count of a tile. If becoming visible or hidden, tiles around it will be resolved on next
+     * {@link #flush(Team)}.
+     * 
+     * @param team The team data.
+     * @param index The tile index.
+     * @param delta The visible count change.
+     */
+    private void changeTile(Team team, int index, int delta)
+    {
+        final int old = team.visible[index];
+        team.visible[index] = old + delta;
+        if (old == 0 || old + delta == 0)
+        {
+            final long bit = 1L << index;
+            final int word = index >>> WORD_SHIFT;
+            final boolean discovered = (team.visited[word] & bit) == 0L;
+            if (discovered)
+            {
+                team.visited[word] |= bit;
+            }
+            final byte flag = discovered ? PENDING_FOG | PENDING_HIDE : PENDING_FOG;
+            final int x = index % width;
+            final int y = index / width;
+            for (int ty = Math.max(0, y - 1); ty <= Math.min(height - 1, y + 1); ty++)
+            {
+                for (int tx = Math.max(0, x - 1); tx <= Math.min(width - 1, x + 1); tx++)
+                {
+                    final int neighbor = ty * width + tx;
+                    if (team.flags[neighbor] == 0)
+                    {
+                        team.pending[team.pendingCount] = neighbor;
+                        team.pendingCount++;
+                    }
+                    team.flags[neighbor] |= flag;
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolve pending tiles, each one once.
+     * 
+     * @param team The team data.
+     */
+    private void flush(Team team)
+    {
+        for (int i = 0; i < team.pendingCount; i++)
+        {
+            final int index = team.pending[i];
+            resolve(team, index % width, index / width, (team.flags[index] & PENDING_HIDE) != 0);
+            team.flags[index] = 0;
+        }
+        team.pendingCount = 0;
+    }
+
+    /**
+     * Resolve fog tile, and hide tile if required, from their neighbors.
+     * 
+     * @param team The team data.
+     * @param x The horizontal tile location.
+     * @param y The vertical tile location.
+     * @param hide <code>true</code> to resolve hide tile too, <code>false</code> else.
+     */
+    private void resolve(Team team, int x, int y, boolean hide)
+    {
+        final int index = y * width + x;
+        int fog = CLEARED;
+        int fogFound = 0;
+        int visited = CLEARED;
+        int visitedFound = 0;
+        for (int oy = -1; oy <= 1; oy++)
+        {
+            final int ty = y + oy;
+            for (int ox = -1; ox <= 1; ox++)
+            {
+                final int tx = x + ox;
+                if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+                {
+                    final int neighbor = ty * width + tx;
+                    final int quadrants = NEIGHBORS[(oy + 1) * 3 + ox + 1];
+                    if (team.visible[neighbor] > 0)
+                    {
+                        fog &= quadrants;
+                        fogFound++;
+                    }
+                    if (hide && (team.visited[neighbor >>> WORD_SHIFT] & 1L << neighbor) != 0L)
+                    {
+                        visited &= quadrants;
+                        visitedFound++;
+                    }
+                }
+            }
+        }
+        team.fog[index] = (byte) getResolved(fog, fogFound, team.visible[index] > 0);
+        if (hide)
+        {
+            final boolean self = (team.visited[index >>> WORD_SHIFT] & 1L << index) != 0L;
+            team.hide[index] = (byte) getResolved(visited, visitedFound, self);
+        }
+    }
+
+    /**
+     * Last revealed area of a fovable (inclusive bounds, empty if start is after end).
+     */
+    private static final class Footprint
+    {
+        /** Fovable reference (<code>null</code> for a working area). */
+        private final Fovable fovable;
+        /** Horizontal start (inclusive). */
+        private int sx;
+        /** Vertical start (inclusive). */
+        private int sy;
+        /** Horizontal end (inclusive, empty area by default). */
+        private int ex = -1;
+        /** Vertical end (inclusive, empty area by default). */
+        private int ey = -1;
+        /** Last update stamp. */
+        private int stamp;
+        /** Seen tiles (line of sight only). */
+        private int[] tiles = new int[0];
+        /** Seen tiles number (line of sight only). */
+        private int count;
+        /** Vision horizontal origin (line of sight only). */
+        private int tx;
+        /** Vision vertical origin (line of sight only). */
+        private int ty;
+        /** Vision radius (line of sight only, negative if never computed). */
+        private int radius = -1;
+        /** Seen tiles must be computed again (line of sight only). */
+        private boolean dirty = true;
+
+        /**
+         * Create footprint.
+         * 
+         * @param fovable The fovable reference (<code>null</code> for a working area).
+         */
+        Footprint(Fovable fovable)
+        {
+            super();
+
+            this.fovable = fovable;
+        }
+
+        /**
+         * Set area bounds.
+         * 
+         * @param sx The horizontal start.
+         * @param sy The vertical start.
+         * @param ex The horizontal end.
+         * @param ey The vertical end.
+         */
+        void set(int sx, int sy, int ex, int ey)
+        {
+            this.sx = sx;
+            this.sy = sy;
+            this.ex = ex;
+            this.ey = ey;
+        }
+
+        /**
+         * Check if area has the same bounds.
+         * 
+         * @param other The other area.
+         * @return <code>true</code> if same bounds, <code>false</code> else.
+         */
+        boolean isSame(Footprint other)
+        {
+            return sx == other.sx && sy == other.sy && ex == other.ex && ey == other.ey;
+        }
+
+        /**
+         * Check if area is empty.
+         * 
+         * @return <code>true</code> if empty, <code>false</code> else.
+         */
+        boolean isEmpty()
+        {
+            return sx > ex || sy > ey;
+        }
+    }
+
+    /**
+     * Team fog data.
+     */
+    private static final class Team
+    {
+        /** Visible reference count per tile. */
+        private final int[] visible;
+        /** Visited tiles bitset. */
+        private final long[] visited;
+        /** Fog cleared quadrants per tile. */
+        private final byte[] fog;
+        /** Hide cleared quadrants per tile. */
+        private final byte[] hide;
+        /** Pending resolution flags per tile. */
+        private final byte[] flags;
+        /** Tiles pending resolution. */
+        private final int[] pending;
+        /** Footprints per fovable. */
+        private final Map<Fovable, Footprint> footprints = new HashMap<>();
+        /** Active footprints. */
+        private final List<Footprint> active = new ArrayList<>();
+        /** Current update stamp. */
+        private int stamp;
+        /** Number of tiles pending resolution. */
+        private int pendingCount;
+
+        /**
+         * Create team data.
+         * 
+         * @param size The number of tiles.
+         */
+        Team(int size)
+        {
+            super();
+
+            visible = new int[size];
+            visited = new long[(size >>> WORD_SHIFT) + 1];
+            fog = new byte[size];
+            hide = new byte[size];
+            flags = new byte[size];
+            pending = new int[size];
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
 
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Tiled;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
@@ -38,13 +39,15 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * <li>{@link #setEnabled(boolean, boolean)}</li>
  * <li>{@link #create(MapTile, Media)}</li>
  * </ul>
+ * <p>
+ * Fog is stored by a {@link FogMap}, for each team. Queries and rendering use the current team (see
+ * {@link #setTeam(int)}).
+ * </p>
  */
 public class FogOfWar extends FeatureModel implements MapTileRenderer
 {
-    /** Hidden map. */
-    private final MapTileFog mapHidden = new MapTileFog();
-    /** Fogged map. */
-    private final MapTileFog mapFogged = new MapTileFog();
+    /** Fog map. */
+    private final FogMap fog;
     /** Fog black tile. */
     private SpriteTiled hideTiles;
     /** Fog gray tiles. */
@@ -53,13 +56,28 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
     private boolean hideMap;
     /** Uses of fog. */
     private boolean fogMap;
+    /** Current team. */
+    private int team;
 
     /**
-     * Create a fog of war.
+     * Create a fog of war for a single team.
      */
     public FogOfWar()
+    {
+        this(1);
+    }
+
+    /**
+     * Create a fog of war.
+     * 
+     * @param teams The number of teams (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FogOfWar(int teams)
     {
         super();
+
+        fog = new FogMap(teams);
     }
 
     /**
@@ -70,20 +88,57 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
      */
     public void create(MapTile map, Media config)
     {
-        mapHidden.create(map, config, hideTiles);
-        mapFogged.create(map, config, fogTiles);
+        fog.create(map, config);
+    }
+
+    /**
+     * Enable line of sight, vision being blocked by the tile groups defined in configuration. Must be called after
+     * {@link #create(MapTile, Media)}.
+     * 
+     * @param map The map reference.
+     * @param config The vision configuration (see {@link VisionConfig}).
+     * @throws LionEngineException If unable to read configuration.
+     */
+    public void setVision(MapTile map, Media config)
+    {
+        fog.setVision(map, VisionConfig.imports(config));
     }
 
     /**
-     * Update fovable field of view (fog of war).
+     * Update current team fovables field of view (fog of war).
      * 
      * @param fovables The entities reference.
      */
     public void update(Collection<Fovable> fovables)
     {
-        mapHidden.update(fovables);
-        mapFogged.reset();
-        mapFogged.update(fovables);
+        fog.update(team, fovables);
+    }
+
+    /**
+     * Update team fovables field of view (fog of war).
+     * 
+     * @param team The team index.
+     * @param fovables The team entities reference.
+     * @throws LionEngineException If invalid team.
+     */
+    public void update(int team, Collection<Fovable> fovables)
+    {
+        fog.update(team, fovables);
+    }
+
+    /**
+     * Set the current team, used for queries and rendering.
+     * 
+     * @param team The team index.
+     * @throws LionEngineException If invalid team.
+     */
+    public void setTeam(int team)
+    {
+        if (team < 0 || team >= fog.getTeams())
+        {
+            throw new LionEngineException(FogMap.ERROR_TEAM + team);
+        }
+        this.team = team;
     }
 
     /**
@@ -155,7 +210,7 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
      */
     public boolean isVisited(int tx, int ty)
     {
-        return mapHidden.getTile(tx, ty).getNumber() == MapTileFog.NO_FOG;
+        return fog.getHideTile(team, tx, ty) == MapTileFog.NO_FOG;
     }
 
     /**
@@ -167,7 +222,7 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
      */
     public boolean isFogged(int tx, int ty)
     {
-        return mapFogged.getTile(tx, ty).getNumber() < MapTileFog.FOG;
+        return fog.getFogTile(team, tx, ty) < MapTileFog.FOG;
     }
 
     /*
@@ -180,18 +235,18 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
         final int tx = tile.getInTileX();
         final int ty = tile.getInTileY();
 
-        final Tile fogTile = mapFogged.getTile(tx, ty);
-        if (fogMap && fogTile != null && fogTile.getNumber() != MapTileFog.NO_FOG)
+        final int fogTile = fog.getFogTile(team, tx, ty);
+        if (fogMap && fogTile != MapTileFog.NO_FOG)
         {
             fogTiles.setLocation(x, y);
-            fogTiles.setTile(fogTile.getNumber());
+            fogTiles.setTile(fogTile);
             fogTiles.render(g);
         }
 
-        final Tile hideTile = mapHidden.getTile(tx, ty);
-        if (hideMap && hideTile != null && hideTile.getNumber() != MapTileFog.NO_FOG)
+        final int hideTile = fog.getHideTile(team, tx, ty);
+        if (hideMap && hideTile != MapTileFog.NO_FOG)
         {
-            hideTiles.setTile(hideTile.getNumber());
+            hideTiles.setTile(hideTile);
             hideTiles.setLocation(x, y);
             hideTiles.render(g);
         }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import java.util.Arrays;
+
+/**
+ * Symmetric recursive shadowcasting, computing the tiles seen from an origin inside a square radius.
+ * <p>
+ * Each quadrant is scanned row by row, slopes being kept as integer fractions. A floor tile is seen only if its center
+ * is inside the scanned slopes, so if a tile sees another one, the other one sees it too. Blocking tiles are seen but
+ * stop the vision, and tiles outside the map are blocking. Nothing is allocated during a computation.
+ * </p>
+ */
+final class ShadowCasting
+{
+    /** Bitset word shift. */
+    private static final int WORD_SHIFT = 6;
+    /** Quadrants transformation (row horizontal, row vertical, column horizontal, column vertical). */
+    private static final int[][] QUADRANTS =
+    {
+        {
+            0, -1, 1, 0
+        },
+        {
+            0, 1, 1, 0
+        },
+        {
+            1, 0, 0, 1
+        },
+        {
+            -1, 0, 0, 1
+        }
+    };
+
+    /**
+     * Round half up the fraction <code>numerator / denominator</code>.
+     * 
+     * @param numerator The numerator.
+     * @param denominator The denominator (strictly positive).
+     * @return The rounded value.
+     */
+    private static int roundTiesUp(long numerator, long denominator)
+    {
+        return (int) Math.floorDiv(2 * numerator + denominator, 2 * denominator);
+    }
+
+    /**
+     * Round half down the fraction <code>numerator / denominator</code>.
+     * 
+     * @param numerator The numerator.
+     * @param denominator The denominator (strictly positive).
+     * @return The rounded value.
+     */
+    private static int roundTiesDown(long numerator, long denominator)
+    {
+        return (int) -Math.floorDiv(denominator - 2 * numerator, 2 * denominator);
+    }
+
+    /** Blocking tiles bitset. */
+    private final long[] blocking;
+    /** Last computation stamp for each tile, to only store a tile once. */
+    private final int[] stamps;
+    /** Map width in tile. */
+    private final int width;
+    /** Map height in tile. */
+    private final int height;
+    /** Current computation stamp. */
+    private int stamp;
+    /** Current output tiles. */
+    private int[] tiles;
+    /** Current output size. */
+    private int count;
+    /** Current origin horizontal location. */
+    private int ox;
+    /** Current origin vertical location. */
+    private int oy;
+    /** Current radius. */
+    private int radius;
+    /** Current quadrant. */
+    private int[] quadrant;
+
+    /**
+     * Create shadow casting.
+     * 
+     * @param width The map width in tile.
+     * @param height The map height in tile.
+     */
+    ShadowCasting(int width, int height)
+    {
+        super();
+
+        this.width = width;
+        this.height = height;
+        blocking = new long[(width * height >>> WORD_SHIFT) + 1];
+        stamps = new int[width * height];
+    }
+
+    /**
+     * Set tile blocking state.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param block <code>true</code> if blocks vision, <code>false</code> else.
+     * @return <code>true</code> if state changed, <code>false</code> else.
+     */
+    boolean setBlocking(int tx, int ty, boolean block)
+    {
+        if (isBlocking(tx, ty) == block)
+        {
+            return false;
+        }
+        final int index = ty * width + tx;
+        blocking[index >>> WORD_SHIFT] ^= 1L << index;
+        return true;
+    }
+
+    /**
+     * Check if tile blocks vision. Tiles outside map are blocking.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return <code>true</code> if blocks vision, <code>false</code> else.
+     */
+    boolean isBlocking(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return true;
+        }
+        final int index = ty * width + tx;
+        return (blocking[index >>> WORD_SHIFT] & 1L << index) != 0L;
+    }
+
+    /**
+     * Compute the seen tiles.
+     * 
+     * @param tx The origin horizontal location (inside map).
+     * @param ty The origin vertical location (inside map).
+     * @param radius The square radius (negative for nothing seen).
+     * @param output The seen tiles indexes (<code>ty * width + tx</code>), length must be at least
+     *            <code>(2 * radius + 1)²</code>.
+     * @return The number of seen tiles.
+     */
+    int compute(int tx, int ty, int radius, int[] output)
+    {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        tiles = output;
+        count = 0;
+        ox = tx;
+        oy = ty;
+        this.radius = radius;
+        if (radius >= 0)
+        {
+            reveal(tx, ty);
+            for (final int[] current : QUADRANTS)
+            {
+                quadrant = current;
+                scan(1, -1, 1, 1, 1);
+            }
+        }
+        tiles = null;
+        return count;
+    }
+
+    /**
+     * Scan a row of current quadrant, slopes being <code>startNum / startDen</code> and
+     * <code>endNum / endDen</code>.
+     * 
+     * @param depth The row depth.
+     * @param startNum The start slope numerator.
+     * @param startDen The start slope denominator.
+     * @param endNum The end slope numerator.
+     * @param endDen The end slope denominator.
+     */
+    private void scan(int depth, long startNum, long startDen, long endNum, long endDen)
+    {
+        if (depth > radius)
+        {
+            return;
+        }
+        long sn = startNum;
+        long sd = startDen;
+        final int min = roundTiesUp(depth * sn, sd);
+        final int max = roundTiesDown(depth * endNum, endDen);
+
+        int previous = -1;
+        for (int col = min; col <= max; col++)
+        {
+            final int tx = ox + quadrant[0] * depth + quadrant[2] * col;
+            final int ty = oy + quadrant[1] * depth + quadrant[3] * col;
+            final boolean wall = isBlocking(tx, ty);
+            if (wall || col * sd >= depth * sn && col * endDen <= depth * endNum)
+            {
+                reveal(tx, ty);
+            }
+            if (previous == 1 && !wall)
+            {
+                sn = 2L * col - 1;
+                sd = 2L * depth;
+            }
+            if (previous == 0 && wall)
+            {
+                scan(depth + 1, sn, sd, 2L * col - 1, 2L * depth);
+            }
+            previous = wall ? 1 : 0;
+        }
+        if (previous == 0)
+        {
+            scan(depth + 1, sn, sd, endNum, endDen);
+        }
+    }
+
+    /**
+     * Store seen tile if inside map and not already stored.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     */
+    private void reveal(int tx, int ty)
+    {
+        if (tx >= 0 && ty >= 0 && tx < width && ty < height)
+        {
+            final int index = ty * width + tx;
+            if (stamps[index] != stamp)
+            {
+                stamps[index] = stamp;
+                tiles[count] = index;
+                count++;
+            }
+        }
+    }
+}
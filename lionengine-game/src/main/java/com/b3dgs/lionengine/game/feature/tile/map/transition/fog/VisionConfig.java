@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Find all tile groups blocking vision, used by {@link FogMap#setVision(MapTile, Collection)}.
+ * <p>
+ * Example:
+ * </p>
+ * 
+ * <pre>
+ * &lt;lionengine:vision&gt;
+ *     &lt;lionengine:group&gt;tree&lt;/lionengine:group&gt;
+ *     &lt;lionengine:group&gt;cliff&lt;/lionengine:group&gt;
+ * &lt;/lionengine:vision&gt;
+ * </pre>
+ */
+public final class VisionConfig
+{
+    /** Default filename. */
+    public static final String FILENAME = "vision.xml";
+    /** Vision root node. */
+    public static final String NODE_VISION = Constant.XML_PREFIX + "vision";
+
+    /**
+     * Import the groups blocking vision.
+     * 
+     * @param configVision The vision configuration (must not be <code>null</code>).
+     * @return The blocking groups name.
+     * @throws LionEngineException If unable to read data.
+     */
+    public static Collection<String> imports(Media configVision)
+    {
+        Check.notNull(configVision);
+
+        final Xml root = new Xml(configVision);
+        final Collection<Xml> children = root.getChildren(TileGroupsConfig.NODE_GROUP);
+        final Collection<String> groups = new HashSet<>(children.size());
+        for (final Xml node : children)
+        {
+            groups.add(node.getText());
+        }
+        return groups;
+    }
+
+    /**
+     * Export the groups blocking vision.
+     * 
+     * @param groups The blocking groups name (must not be <code>null</code>).
+     * @return The vision node.
+     * @throws LionEngineException If unable to write data.
+     */
+    public static Xml exports(Collection<String> groups)
+    {
+        Check.notNull(groups);
+
+        final Xml root = new Xml(NODE_VISION);
+        for (final String group : groups)
+        {
+            root.createChild(TileGroupsConfig.NODE_GROUP).setText(group);
+        }
+        return root;
+    }
+
+    /**
+     * Disabled constructor.
+     */
+    private VisionConfig()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
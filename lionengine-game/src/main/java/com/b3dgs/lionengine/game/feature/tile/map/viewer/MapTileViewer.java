@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.Displayable;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
@@ -42,7 +43,27 @@ public interface MapTileViewer extends Displayable
     void removeRenderer(MapTileRenderer renderer);
 
     /**
-     * Remove all renderers.
+     * Remove all renderers, including cached ones.
      */
     void clear();
+
+    /**
+     * Enable the chunk cache. Renderers added so far are baked into square chunks of tiles, which are rendered with a
+     * single draw call each, and baked again only when one of their tiles is set. Renderers added after are still
+     * called for each visible tile on each render, which allows dynamic layers over cached tiles.
+     * <p>
+     * Least recently rendered chunks are disposed while the estimated memory exceeds the budget. Budget should hold at
+     * least the chunks covering the viewer, else they will be baked on each render.
+     * </p>
+     * 
+     * @param chunkSize The chunk size in tile (must be strictly positive).
+     * @param budget The memory budget in bytes (must be positive).
+     * @throws LionEngineException If invalid arguments or cache already enabled.
+     */
+    void enableCache(int chunkSize, long budget);
+
+    /**
+     * Disable the chunk cache and dispose its chunks. Cached renderers are called again for each visible tile.
+     */
+    void disableCache();
 }
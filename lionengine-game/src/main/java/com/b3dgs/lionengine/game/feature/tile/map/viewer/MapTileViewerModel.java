@@ -20,6 +20,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -31,15 +32,26 @@ import com.b3dgs.lionengine.graphic.Graphic;
 
 /**
  * Map tile renderer default implementation.
+ * <p>
+ * When cache is enabled with {@link #enableCache(int, long)}, static tiles are rendered by chunks from a
+ * {@link TileChunkCache}, listening to map tile changes.
+ * </p>
  */
 public class MapTileViewerModel extends FeatureModel implements MapTileViewer
 {
+    /** Cache already enabled error. */
+    static final String ERROR_CACHE = "Cache already enabled !";
+
     /** Map tiles renderers. */
     private final Collection<MapTileRenderer> renderers = new ArrayList<>();
+    /** Map tiles renderers baked in cache. */
+    private final Collection<MapTileRenderer> cached = new ArrayList<>();
     /** Map reference. */
     private final MapTile map;
     /** Viewer reference. */
     private final Viewer viewer;
+    /** Chunk cache (<code>null</code> if disabled). */
+    private TileChunkCache cache;
 
     /**
      * Create the viewer. It is shipped with a default renderer: {@link MapTileRendererModel}.
@@ -110,6 +122,26 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
         }
     }
 
+    /**
+     * Render vertical tiles.
+     * 
+     * @param g The graphic output.
+     * @param sy The first vertical tile location.
+     * @param inTileHeight The number of vertical tiles.
+     * @param viewY The vertical view offset.
+     */
+    private void renderVertical(Graphic g, int sy, int inTileHeight, double viewY)
+    {
+        for (int v = 0; v <= inTileHeight; v++)
+        {
+            final int ty = v + sy;
+            if (!(ty < 0 || ty >= map.getInTileHeight()))
+            {
+                renderHorizontal(g, ty, viewY);
+            }
+        }
+    }
+
     /*
      * MapTileViewer
      */
@@ -124,12 +156,51 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
     public void removeRenderer(MapTileRenderer renderer)
     {
         renderers.remove(renderer);
+        if (cached.remove(renderer))
+        {
+            cache.invalidate();
+        }
     }
 
     @Override
     public void clear()
     {
         renderers.clear();
+        if (!cached.isEmpty())
+        {
+            cached.clear();
+            cache.invalidate();
+        }
+    }
+
+    @Override
+    public void enableCache(int chunkSize, long budget)
+    {
+        if (cache != null)
+        {
+            throw new LionEngineException(ERROR_CACHE);
+        }
+        cache = new TileChunkCache(map, cached, chunkSize, budget);
+        cached.addAll(renderers);
+        renderers.clear();
+        map.addListener(cache);
+    }
+
+    @Override
+    public void disableCache()
+    {
+        if (cache != null)
+        {
+            map.removeListener(cache);
+            cache.invalidate();
+            cache = null;
+
+            final Collection<MapTileRenderer> dynamic = new ArrayList<>(renderers);
+            renderers.clear();
+            renderers.addAll(cached);
+            renderers.addAll(dynamic);
+            cached.clear();
+        }
     }
 
     @Override
@@ -141,13 +212,15 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
             final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
             final double viewY = viewer.getY() - viewer.getViewY() + viewer.getScreenHeight() - viewer.getViewY();
 
-            for (int v = 0; v <= inTileHeight; v++)
+            if (cache != null)
+            {
+                final int inTileWidth = (int) Math.ceil(viewer.getWidth() / (double) map.getTileWidth());
+                final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / map.getTileWidth());
+                cache.render(g, sx, sy, sx + inTileWidth, sy + inTileHeight, viewer.getX(), viewY);
+            }
+            if (!renderers.isEmpty())
             {
-                final int ty = v + sy;
-                if (!(ty < 0 || ty >= map.getInTileHeight()))
-                {
-                    renderHorizontal(g, ty, viewY);
-                }
+                renderVertical(g, sy, inTileHeight, viewY);
             }
         }
     }
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Cache of pre-rendered square chunks of tiles.
+ * <p>
+ * Each chunk is baked once in an {@link ImageBuffer} with the cached renderers, and drawn with a single call while
+ * valid. A chunk is invalidated when one of its tiles is set, and least recently drawn chunks out of current view are
+ * disposed while the memory estimation exceeds the budget.
+ * </p>
+ */
+final class TileChunkCache implements TileSetListener
+{
+    /** Estimated bytes per pixel. */
+    private static final int PIXEL_MEMORY = 4;
+
+    /** Baked chunks, in access order. */
+    private final Map<Integer, Chunk> chunks = new LinkedHashMap<>(16, 0.75F, true);
+    /** Cached renderers. */
+    private final Collection<MapTileRenderer> renderers;
+    /** Map reference. */
+    private final MapTile map;
+    /** Chunk size in tile. */
+    private final int size;
+    /** Memory budget in bytes. */
+    private final long budget;
+    /** Estimated memory used by chunks in bytes. */
+    private long memory;
+    /** Map width in tile when chunks were baked. */
+    private int width;
+    /** Map height in tile when chunks were baked. */
+    private int height;
+    /** Tile width when chunks were baked. */
+    private int tileWidth;
+    /** Tile height when chunks were baked. */
+    private int tileHeight;
+    /** Current render stamp. */
+    private int stamp;
+    /** Number of baked chunks since creation. */
+    private int baked;
+
+    /**
+     * Create cache.
+     * 
+     * @param map The map reference.
+     * @param renderers The cached renderers.
+     * @param size The chunk size in tile (must be strictly positive).
+     * @param budget The memory budget in bytes (must be positive).
+     */
+    TileChunkCache(MapTile map, Collection<MapTileRenderer> renderers, int size, long budget)
+    {
+        super();
+
+        Check.superiorStrict(size, 0);
+        Check.superiorOrEqual(budget, 0.0);
+
+        this.map = map;
+        this.renderers = renderers;
+        this.size = size;
+        this.budget = budget;
+    }
+
+    /**
+     * Render the chunks overlapping the tiles area. Chunks not baked yet are baked first.
+     * 
+     * @param g The graphic output.
+     * @param sx The first horizontal tile.
+     * @param sy The first vertical tile.
+     * @param ex The last horizontal tile.
+     * @param ey The last vertical tile.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    void render(Graphic g, int sx, int sy, int ex, int ey, double viewX, double viewY)
+    {
+        checkMap();
+        stamp++;
+
+        final int scx = Math.max(0, Math.floorDiv(sx, size));
+        final int scy = Math.max(0, Math.floorDiv(sy, size));
+        final int ecx = Math.min(Math.floorDiv(ex, size), (width - 1) / size);
+        final int ecy = Math.min(Math.floorDiv(ey, size), (height - 1) / size);
+
+        for (int cy = scy; cy <= ecy; cy++)
+        {
+            for (int cx = scx; cx <= ecx; cx++)
+            {
+                final Chunk chunk = getChunk(cx, cy);
+                chunk.stamp = stamp;
+
+                final int x = (int) Math.floor(cx * size * tileWidth - viewX);
+                final int y = (int) Math.floor(viewY - (cy * size + chunk.tilesHeight) * (double) tileHeight);
+                g.drawImage(chunk.image, x, y);
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Dispose all chunks. They will be baked again on next render.
+     */
+    void invalidate()
+    {
+        for (final Chunk chunk : chunks.values())
+        {
+            chunk.image.dispose();
+        }
+        chunks.clear();
+        memory = 0L;
+    }
+
+    /**
+     * Get the number of chunks currently baked.
+     * 
+     * @return The number of chunks in cache.
+     */
+    int getCount()
+    {
+        return chunks.size();
+    }
+
+    /**
+     * Get the number of chunks baked since creation.
+     * 
+     * @return The number of bakes.
+     */
+    int getBaked()
+    {
+        return baked;
+    }
+
+    /**
+     * Get the estimated memory used by chunks.
+     * 
+     * @return The memory in bytes.
+     */
+    long getMemory()
+    {
+        return memory;
+    }
+
+    /**
+     * Invalidate all chunks if map size or tile size changed since last bake.
+     */
+    private void checkMap()
+    {
+        if (width != map.getInTileWidth()
+            || height != map.getInTileHeight()
+            || tileWidth != map.getTileWidth()
+            || tileHeight != map.getTileHeight())
+        {
+            invalidate();
+            width = map.getInTileWidth();
+            height = map.getInTileHeight();
+            tileWidth = map.getTileWidth();
+            tileHeight = map.getTileHeight();
+        }
+    }
+
+    /**
+     * Get chunk, bake it if not in cache.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The chunk.
+     */
+    private Chunk getChunk(int cx, int cy)
+    {
+        final Integer key = Integer.valueOf(getKey(cx, cy));
+        Chunk chunk = chunks.get(key);
+        if (chunk == null)
+        {
+            chunk = bake(cx, cy);
+            chunks.put(key, chunk);
+            memory += chunk.getMemory();
+        }
+        return chunk;
+    }
+
+    /**
+     * Get the chunk key.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The chunk key.
+     */
+    private int getKey(int cx, int cy)
+    {
+        return cy * ((width + size - 1) / size) + cx;
+    }
+
+    /**
+     * Bake chunk by rendering all its tiles with cached renderers.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The baked chunk.
+     */
+    private Chunk bake(int cx, int cy)
+    {
+        final int stx = cx * size;
+        final int sty = cy * size;
+        final int tilesWidth = Math.min(size, width - stx);
+        final int tilesHeight = Math.min(size, height - sty);
+
+        final ImageBuffer image = Graphics.createImageBuffer(tilesWidth * tileWidth,
+                                                             tilesHeight * tileHeight,
+                                                             ColorRgba.TRANSPARENT);
+        final Graphic g = image.createGraphic();
+        for (int ty = sty; ty < sty + tilesHeight; ty++)
+        {
+            final int y = (sty + tilesHeight - 1 - ty) * tileHeight;
+            for (int tx = stx; tx < stx + tilesWidth; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    final int x = (tx - stx) * tileWidth;
+                    for (final MapTileRenderer renderer : renderers)
+                    {
+                        renderer.renderTile(g, map, tile, x, y);
+                    }
+                }
+            }
+        }
+        g.dispose();
+        image.prepare();
+        baked++;
+
+        return new Chunk(image, tilesHeight);
+    }
+
+    /**
+     * Dispose least recently drawn chunks out of current view while over budget.
+     */
+    private void evict()
+    {
+        final Iterator<Chunk> iterator = chunks.values().iterator();
+        while (memory > budget && iterator.hasNext())
+        {
+            final Chunk chunk = iterator.next();
+            if (chunk.stamp != stamp)
+            {
+                chunk.image.dispose();
+                memory -= chunk.getMemory();
+                iterator.remove();
+            }
+        }
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        if (tile.getInTileX() < width && tile.getInTileY() < height)
+        {
+            final Chunk chunk = chunks.remove(Integer.valueOf(getKey(tile.getInTileX() / size,
+                                                                     tile.getInTileY() / size)));
+            if (chunk != null)
+            {
+                chunk.image.dispose();
+                memory -= chunk.getMemory();
+            }
+        }
+    }
+
+    /**
+     * Baked chunk.
+     */
+    private static final class Chunk
+    {
+        /** Baked image. */
+        private final ImageBuffer image;
+        /** Chunk height in tile. */
+        private final int tilesHeight;
+        /** Last render stamp. */
+        private int stamp;
+
+        /**
+         * Create chunk.
+         * 
+         * @param image The baked image.
+         * @param tilesHeight The chunk height in tile.
+         */
+        Chunk(ImageBuffer image, int tilesHeight)
+        {
+            super();
+
+            this.image = image;
+            this.tilesHeight = tilesHeight;
+        }
+
+        /**
+         * Get the estimated memory used.
+         * 
+         * @return The memory in bytes.
+         */
+        long getMemory()
+        {
+            return (long) image.getWidth() * image.getHeight() * PIXEL_MEMORY;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.engine.DirtyRegion;
+
+/**
+ * Test {@link DirtyTracker}.
+ */
+public final class DirtyTrackerTest
+{
+    /**
+     * Test the tracker feature.
+     */
+    @Test
+    public void testTracker()
+    {
+        final Services services = new Services();
+        final Camera camera = services.add(new Camera());
+        camera.setView(0, 0, 320, 240, 240);
+        final DirtyRegion region = services.add(new DirtyRegion(320, 240));
+        region.clear();
+
+        final DirtyTracker tracker = new DirtyTracker(services);
+        tracker.getFeature(Refreshable.class).update(1.0);
+
+        assertEquals(320, region.getWidth());
+        assertEquals(240, region.getHeight());
+
+        region.clear();
+        tracker.getFeature(Refreshable.class).update(1.0);
+
+        assertTrue(region.isEmpty());
+
+        final Featurable featurable = new FeaturableModel();
+        final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel());
+        transformable.setSize(10, 10);
+        transformable.teleport(100.0, 100.0);
+        tracker.track(featurable);
+
+        final int y = (int) Math.floor(camera.getViewpointY(100.0)) - 10;
+
+        assertEquals(90, region.getX());
+        assertEquals(y, region.getY());
+        assertEquals(21, region.getWidth());
+        assertEquals(21, region.getHeight());
+
+        region.clear();
+        transformable.setSize(10, 10);
+        transformable.moveLocation(1.0, 10.0, 0.0);
+
+        assertEquals(90, region.getX());
+        assertEquals(y, region.getY());
+        assertEquals(31, region.getWidth());
+        assertEquals(21, region.getHeight());
+
+        region.clear();
+        tracker.setMargin(2);
+        tracker.untrack(featurable);
+
+        assertEquals(98, region.getX());
+        assertEquals(y - 2, region.getY());
+        assertEquals(25, region.getWidth());
+        assertEquals(25, region.getHeight());
+
+        region.clear();
+        transformable.moveLocation(1.0, 10.0, 0.0);
+
+        assertTrue(region.isEmpty());
+
+        camera.moveLocation(1.0, 1.0, 0.0);
+        tracker.getFeature(Refreshable.class).update(1.0);
+
+        assertFalse(region.isEmpty());
+        assertEquals(320, region.getWidth());
+    }
+}
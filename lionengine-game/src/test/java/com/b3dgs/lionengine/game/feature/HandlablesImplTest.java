@@ -23,6 +23,11 @@ import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -162,6 +167,70 @@ public final class HandlablesImplTest
         assertEquals(1, i);
     }
 
+    /**
+     * Test that removal keeps other objects, and that type iterables are live views.
+     */
+    @Test
+    public void testRemoveMany()
+    {
+        final Iterable<Mirrorable> mirrorables = featurables.get(Mirrorable.class);
+        final List<FeaturableModel> objects = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+        {
+            final FeaturableModel featurable = new FeaturableModel();
+            featurable.addFeature(new MirrorableModel());
+            featurables.add(featurable);
+            objects.add(featurable);
+        }
+
+        assertEquals(5, count(mirrorables));
+
+        featurables.remove(objects.get(1), objects.get(1).getFeature(Identifiable.class).getId());
+        featurables.remove(objects.get(4), objects.get(4).getFeature(Identifiable.class).getId());
+
+        final Set<Mirrorable> expected = new HashSet<>();
+        for (final int i : new int[]
+        {
+            0, 2, 3
+        })
+        {
+            expected.add(objects.get(i).getFeature(Mirrorable.class));
+        }
+        final Set<Mirrorable> found = new HashSet<>();
+        for (final Mirrorable mirrorable : mirrorables)
+        {
+            found.add(mirrorable);
+        }
+        assertEquals(expected, found);
+        assertEquals(3, count(featurables.get(Featurable.class)));
+
+        for (final FeaturableModel featurable : objects)
+        {
+            featurables.remove(featurable, featurable.getFeature(Identifiable.class).getId());
+            featurable.getFeature(Identifiable.class).notifyDestroyed();
+        }
+
+        assertEquals(0, count(mirrorables));
+        assertTrue(featurables.getIds().isEmpty());
+    }
+
+    /**
+     * Count elements.
+     * 
+     * @param iterable The iterable to count.
+     * @return The number of elements.
+     */
+    private static int count(Iterable<?> iterable)
+    {
+        int count = 0;
+        for (final Object object : iterable)
+        {
+            assertNotNull(object);
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Complex object with interface.
      */
@@ -24,13 +24,27 @@ import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
 
@@ -353,6 +367,297 @@ public final class HandlerTest
         assertEquals(0, handler.size());
     }
 
+    /**
+     * Test non conflicting components are updated concurrently.
+     */
+    @Test
+    public void testParallelComponents()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            final CyclicBarrier barrier = new CyclicBarrier(2);
+            final AtomicInteger met = new AtomicInteger();
+            final Consumer<Handlables> action = featurables ->
+            {
+                try
+                {
+                    barrier.await(5L, TimeUnit.SECONDS);
+                    met.incrementAndGet();
+                }
+                catch (final Exception exception)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            handler.addComponent(new Declared(action, Featurable.class, Transformable.class, true, false));
+            handler.addComponent(new Declared(action, Featurable.class, Identifiable.class, true, false));
+            handler.update(1.0);
+
+            assertEquals(2, met.get());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test conflicting components keep their order.
+     */
+    @Test
+    public void testConflictingComponents()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final List<String> order = new CopyOnWriteArrayList<>();
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            final Consumer<Handlables> writeAction = h -> order.add("write");
+            handler.addComponent(new Declared(writeAction, Featurable.class, Transformable.class, true, false));
+            final Consumer<Handlables> readAction = h -> order.add("read");
+            handler.addComponent(new Declared(readAction, Transformable.class, Featurable.class, true, false));
+            final Consumer<Handlables> subAction = h -> order.add("sub");
+            handler.addComponent(new Declared(subAction, Featurable.class, FeatureModel.class, true, false));
+            for (int i = 0; i < 100; i++)
+            {
+                order.clear();
+                handler.update(1.0);
+
+                assertEquals(Arrays.asList("write", "read", "sub"), order);
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test undeclared and not thread safe components are updated on handler thread.
+     */
+    @Test
+    public void testExclusiveComponents()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final List<Thread> threads = new CopyOnWriteArrayList<>();
+            final Consumer<Handlables> action = featurables -> threads.add(Thread.currentThread());
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            handler.addComponent(new Declared(action, Featurable.class, Transformable.class, false, false));
+            handler.addComponent(new Declared(action, Featurable.class, Identifiable.class, false, true));
+            handler.addComponent((ComponentUpdater) (extrp, featurables) -> threads.add(Thread.currentThread()));
+            handler.update(1.0);
+
+            assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread(), Thread.currentThread()),
+                         threads);
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test partitioned component updates each featurable once, in parallel or not.
+     */
+    @Test
+    public void testPartitionedComponent()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final Map<Featurable, AtomicInteger> updated = new ConcurrentHashMap<>();
+            final Consumer<Handlables> action = featurables ->
+            {
+                for (final Featurable featurable : featurables.get(Featurable.class))
+                {
+                    updated.computeIfAbsent(featurable, f -> new AtomicInteger()).incrementAndGet();
+                }
+            };
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            handler.addComponent(new Declared(action, Featurable.class, Transformable.class, true, true));
+
+            final List<Featurable> featurables = new ArrayList<>();
+            for (int i = 0; i < 101; i++)
+            {
+                final Featurable featurable = new FeaturableModel();
+                featurables.add(featurable);
+                handler.add(featurable);
+            }
+            handler.update(1.0);
+            handler.setParallel(false);
+            handler.update(1.0);
+
+            assertEquals(featurables.size(), updated.size());
+            for (final Featurable featurable : featurables)
+            {
+                assertEquals(2, updated.get(featurable).get());
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test add and remove requested by partitioned components from worker threads.
+     */
+    @Test
+    public void testWorkerAddRemove()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            final Collection<Featurable> removed = ConcurrentHashMap.newKeySet();
+            final Consumer<Handlables> action = featurables ->
+            {
+                for (final Featurable featurable : featurables.get(Featurable.class))
+                {
+                    removed.add(featurable);
+                    handler.remove(featurable);
+                    handler.add(new FeaturableModel());
+                }
+            };
+            handler.addComponent(new Declared(action, Featurable.class, Transformable.class, true, true));
+            for (int i = 0; i < 200; i++)
+            {
+                handler.add(new FeaturableModel());
+            }
+            for (int i = 0; i < 10; i++)
+            {
+                handler.update(1.0);
+
+                assertEquals(200, handler.size());
+                assertEquals(200 * (i + 1), removed.size());
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Test forked components are joined even if handler thread component fails.
+     */
+    @Test
+    public void testComponentFailure()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            final AtomicBoolean done = new AtomicBoolean();
+            final Consumer<Handlables> slow = featurables ->
+            {
+                try
+                {
+                    Thread.sleep(200L);
+                }
+                catch (final InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                done.set(true);
+            };
+            final Consumer<Handlables> fail = featurables ->
+            {
+                throw new LionEngineException("fail");
+            };
+            final Handler handler = new Handler(new Services());
+            handler.setPool(pool);
+            handler.addComponent(new Declared(slow, Featurable.class, Transformable.class, true, false));
+            handler.addComponent(new Declared(fail, Featurable.class, Identifiable.class, true, false));
+
+            assertThrows(() -> handler.update(1.0), "fail");
+            assertTrue(done.get());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Component with declared types mock.
+     */
+    private static final class Declared implements ComponentUpdater
+    {
+        /** Update action. */
+        private final Consumer<Handlables> action;
+        /** Read types. */
+        private final Collection<Class<?>> reads;
+        /** Written types. */
+        private final Collection<Class<?>> writes;
+        /** Thread safe flag. */
+        private final boolean threadSafe;
+        /** Partitioned flag. */
+        private final boolean partitioned;
+
+        /**
+         * Create component.
+         * 
+         * @param action The update action.
+         * @param read The read type.
+         * @param write The written type.
+         * @param threadSafe The thread safe flag.
+         * @param partitioned The partitioned flag.
+         */
+        Declared(Consumer<Handlables> action,
+                 Class<?> read,
+                 Class<?> write,
+                 boolean threadSafe,
+                 boolean partitioned)
+        {
+            super();
+
+            this.action = action;
+            reads = Collections.singleton(read);
+            writes = Collections.singleton(write);
+            this.threadSafe = threadSafe;
+            this.partitioned = partitioned;
+        }
+
+        @Override
+        public void update(double extrp, Handlables featurables)
+        {
+            action.accept(featurables);
+        }
+
+        @Override
+        public Collection<Class<?>> getReads()
+        {
+            return reads;
+        }
+
+        @Override
+        public Collection<Class<?>> getWrites()
+        {
+            return writes;
+        }
+
+        @Override
+        public boolean isThreadSafe()
+        {
+            return threadSafe;
+        }
+
+        @Override
+        public boolean isPartitioned()
+        {
+            return partitioned;
+        }
+    }
+
     /**
      * Listener mock.
      */
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link Broadphase} implementations against a brute force search.
+ */
+public final class BroadphaseTest
+{
+    /** Collidables number. */
+    private static final int COUNT = 200;
+    /** World size. */
+    private static final int WORLD = 512;
+
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final Collidable[] collidables = new Collidable[COUNT];
+    private final Map<Collidable, Integer> indexes = new HashMap<>();
+    private final double[] bounds = new double[COUNT * 4];
+    private final boolean[] stored = new boolean[COUNT];
+
+    /**
+     * Create test.
+     */
+    public BroadphaseTest()
+    {
+        services.add(new Camera());
+        for (int i = 0; i < COUNT; i++)
+        {
+            collidables[i] = CollidableModelTest.createFeaturable(config, services).getFeature(Collidable.class);
+            indexes.put(collidables[i], Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test grid broadphase.
+     */
+    @Test
+    public void testGrid()
+    {
+        check(new BroadphaseGrid(32));
+        check(new BroadphaseGrid(1));
+    }
+
+    /**
+     * Test sweep and prune broadphase.
+     */
+    @Test
+    public void testSweepAndPrune()
+    {
+        check(new BroadphaseSweepAndPrune());
+    }
+
+    /**
+     * Test tree broadphase.
+     */
+    @Test
+    public void testTree()
+    {
+        final BroadphaseTree tree = new BroadphaseTree();
+        assertEquals(0, tree.getHeight());
+
+        check(tree);
+
+        assertTrue(tree.getHeight() < 20);
+        check(new BroadphaseTree(0.0));
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new BroadphaseGrid(0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new BroadphaseTree(-1.0), "Invalid argument: -1.0 is not superior or equal to 0.0");
+    }
+
+    /**
+     * Check broadphase against brute force with random moves, removals and additions.
+     * 
+     * @param broadphase The broadphase to test.
+     */
+    private void check(Broadphase broadphase)
+    {
+        final Random random = new Random(42L);
+        final int[] slots = new int[COUNT];
+        for (int i = 0; i < COUNT; i++)
+        {
+            slots[i] = broadphase.add(collidables[i]);
+            stored[i] = true;
+            move(broadphase, slots[i], i, random);
+        }
+        for (int step = 0; step < 50; step++)
+        {
+            for (int i = 0; i < COUNT; i++)
+            {
+                final int action = random.nextInt(10);
+                if (stored[i] && action == 0)
+                {
+                    broadphase.remove(slots[i]);
+                    stored[i] = false;
+                }
+                else if (!stored[i] && action == 1)
+                {
+                    slots[i] = broadphase.add(collidables[i]);
+                    stored[i] = true;
+                    move(broadphase, slots[i], i, random);
+                }
+                else if (stored[i] && action < 6)
+                {
+                    move(broadphase, slots[i], i, random);
+                }
+            }
+            broadphase.search();
+
+            assertEquals(getExpected(), getPairs(broadphase));
+        }
+        for (int i = 0; i < COUNT; i++)
+        {
+            if (stored[i])
+            {
+                broadphase.remove(slots[i]);
+                stored[i] = false;
+            }
+        }
+        broadphase.search();
+
+        assertEquals(0, broadphase.getPairsCount());
+    }
+
+    /**
+     * Move collidable to a random location near its previous one, with a random size.
+     * 
+     * @param broadphase The broadphase reference.
+     * @param slot The collidable slot.
+     * @param i The collidable index.
+     * @param random The random generator.
+     */
+    private void move(Broadphase broadphase, int slot, int i, Random random)
+    {
+        final double x = Math.abs(bounds[i * 4] + random.nextInt(41) - 20) % WORLD;
+        final double y = Math.abs(bounds[i * 4 + 1] + random.nextInt(41) - 20) % WORLD;
+        bounds[i * 4] = x;
+        bounds[i * 4 + 1] = y;
+        bounds[i * 4 + 2] = x + random.nextInt(40);
+        bounds[i * 4 + 3] = y + random.nextInt(40);
+        broadphase.move(slot, x, y, bounds[i * 4 + 2], bounds[i * 4 + 3]);
+    }
+
+    /**
+     * Get the expected couples by brute force.
+     * 
+     * @return The expected couples.
+     */
+    private Set<Long> getExpected()
+    {
+        final Set<Long> expected = new HashSet<>();
+        for (int a = 0; a < COUNT; a++)
+        {
+            for (int b = a + 1; b < COUNT; b++)
+            {
+                if (stored[a]
+                    && stored[b]
+                    && bounds[a * 4] <= bounds[b * 4 + 2]
+                    && bounds[b * 4] <= bounds[a * 4 + 2]
+                    && bounds[a * 4 + 1] <= bounds[b * 4 + 3]
+                    && bounds[b * 4 + 1] <= bounds[a * 4 + 3])
+                {
+                    expected.add(Long.valueOf((long) a * COUNT + b));
+                }
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Get the couples found by broadphase, checking each one is reported once.
+     * 
+     * @param broadphase The broadphase reference.
+     * @return The found couples.
+     */
+    private Set<Long> getPairs(Broadphase broadphase)
+    {
+        final Set<Long> pairs = new HashSet<>();
+        final int count = broadphase.getPairsCount();
+        for (int i = 0; i < count; i++)
+        {
+            final int a = indexes.get(broadphase.getFirst(i)).intValue();
+            final int b = indexes.get(broadphase.getSecond(i)).intValue();
+            assertTrue(pairs.add(Long.valueOf((long) Math.min(a, b) * COUNT + Math.max(a, b))));
+        }
+        assertEquals(count, pairs.size());
+        return pairs;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Measure {@link Collidable#collide(Collidable)} of a projectile passing next to a target, depending of its speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CollidableModelBenchmark
+{
+    /** Projectile speed in pixel per tick. */
+    @Param({"4", "64", "512"})
+    private int speed;
+    /** Projectile. */
+    private Collidable projectile;
+    /** Target. */
+    private Collidable target;
+    /** Configuration. */
+    private Media config;
+
+    /**
+     * Create collidables.
+     */
+    @Setup
+    public void setup()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+
+        final Services services = new Services();
+        services.add(new Camera());
+
+        projectile = CollidableModelTest.createFeaturable(config, services).getFeature(Collidable.class);
+        projectile.addCollision(new Collision("projectile", 0, 0, 4, 4, false));
+        projectile.setGroup(Integer.valueOf(0));
+        projectile.addAccept(Integer.valueOf(1));
+
+        target = CollidableModelTest.createFeaturable(config, services).getFeature(Collidable.class);
+        target.addCollision(new Collision("target", 0, 0, 16, 16, false));
+        target.setGroup(Integer.valueOf(1));
+
+        target.getFeature(Transformable.class).teleport(speed / 2.0, 32.0);
+        final Transformable transformable = projectile.getFeature(Transformable.class);
+        transformable.teleport(0.0, 0.0);
+        transformable.moveLocation(1.0, speed, 0.0);
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        config.getFile().delete();
+        Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Check the projectile against target.
+     * 
+     * @return The collisions found.
+     */
+    @Benchmark
+    public List<CollisionCouple> collide()
+    {
+        return projectile.collide(target);
+    }
+}
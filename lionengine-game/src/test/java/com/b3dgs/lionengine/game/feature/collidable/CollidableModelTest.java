@@ -21,7 +21,10 @@ import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.AfterAll;
@@ -45,6 +48,7 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.geom.Rectangle;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.Graphics;
@@ -349,4 +353,118 @@ public final class CollidableModelTest
 
         assertFalse(called.get());
     }
+
+    /**
+     * Test swept collision finds the same couples as a step by step check, on random moves.
+     */
+    @Test
+    public void testSweep()
+    {
+        final Collision collision1 = new Collision("test1", 0, 0, 4, 3, false);
+        collidable1.addCollision(collision1);
+        final Collision collision2 = new Collision("test2", 0, 0, 6, 2, false);
+        final Collision collision3 = new Collision("test3", 3, 4, 1, 1, false);
+        collidable2.addCollision(collision2);
+        collidable2.addCollision(collision3);
+
+        final Random random = new Random(42L);
+        int hits = 0;
+        for (int i = 0; i < 2000; i++)
+        {
+            transformable2.teleport(random.nextDouble() * 40.0, random.nextDouble() * 40.0);
+            transformable1.teleport(random.nextDouble() * 40.0, random.nextDouble() * 40.0);
+            transformable1.moveLocation(1.0, random.nextDouble() * 40.0 - 20.0, random.nextDouble() * 40.0 - 20.0);
+
+            final List<CollisionCouple> expected = collideSteps(collision1, createRectangle());
+            final List<CollisionCouple> collisions = collidable1.collide(collidable2);
+
+            assertEquals(expected, new ArrayList<>(collisions));
+            if (!expected.isEmpty())
+            {
+                hits++;
+            }
+        }
+        assertTrue(hits > 100);
+    }
+
+    /**
+     * Test swept collision with boxes touching on edges, on moves made of steps rounded when accumulated, finds the
+     * same couples at the same contact location as a step by step check.
+     */
+    @Test
+    public void testSweepTouching()
+    {
+        final Collision collision1 = new Collision("test1", 0, 0, 4, 3, false);
+        collidable1.addCollision(collision1);
+        final Collision collision2 = new Collision("test2", 0, 0, 6, 2, false);
+        final Collision collision3 = new Collision("test3", 3, 4, 1, 1, false);
+        collidable2.addCollision(collision2);
+        collidable2.addCollision(collision3);
+
+        final Random random = new Random(42L);
+        int hits = 0;
+        for (int i = 0; i < 20_000; i++)
+        {
+            transformable2.teleport(random.nextInt(20), random.nextInt(20));
+            transformable1.teleport(random.nextInt(200) / 10.0, random.nextInt(200) / 10.0);
+            transformable1.moveLocation(1.0, random.nextInt(201) / 10.0 - 10.0, random.nextInt(201) / 10.0 - 10.0);
+
+            final Rectangle rectangle = createRectangle();
+            final List<CollisionCouple> expected = collideSteps(collision1, rectangle);
+            final List<CollisionCouple> collisions = collidable1.collide(collidable2);
+
+            assertEquals(expected, new ArrayList<>(collisions));
+            if (!expected.isEmpty())
+            {
+                final Rectangle contact = collidable1.getCollisionBounds().get(0);
+                assertEquals(rectangle.getX(), contact.getX());
+                assertEquals(rectangle.getY(), contact.getY());
+                hits++;
+            }
+        }
+        assertTrue(hits > 1000);
+    }
+
+    /**
+     * Create a copy of the first collidable rectangle.
+     * 
+     * @return The rectangle copy.
+     */
+    private Rectangle createRectangle()
+    {
+        final Rectangle source = collidable1.getCollisionBounds().get(0);
+        return new Rectangle(source.getX(), source.getY(), source.getWidthReal(), source.getHeightReal());
+    }
+
+    /**
+     * Check collision of first collidable by moving its rectangle pixel by pixel.
+     * 
+     * @param with The first collidable collision.
+     * @param rectangle The rectangle to move, left at contact location.
+     * @return The collisions found.
+     */
+    private List<CollisionCouple> collideSteps(Collision with, Rectangle rectangle)
+    {
+        final double dh = transformable1.getX() - transformable1.getOldX();
+        final double dv = transformable1.getY() - transformable1.getOldY();
+        final int max = (int) Math.ceil(Math.max(Math.abs(dh), Math.abs(dv)));
+        final List<CollisionCouple> collisions = new ArrayList<>();
+        for (int count = 0; count < max + 1; count++)
+        {
+            for (int i = 0; i < collidable2.getCollisionBounds().size(); i++)
+            {
+                final Rectangle other = collidable2.getCollisionBounds().get(i);
+                if (rectangle.intersects(other) || rectangle.contains(other))
+                {
+                    collisions.add(new CollisionCouple(with, collidable2.getCollisions().get(i)));
+                }
+            }
+            if (!collisions.isEmpty())
+            {
+                return collisions;
+            }
+            rectangle.translate(dh / max, dv / max);
+        }
+        return collisions;
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Measure one collision tick of {@link ComponentCollision}, with moving collidables of two groups accepting each
+ * other, bouncing in a square world.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ComponentCollisionBenchmark
+{
+    /** World size in pixel. */
+    private static final int WORLD = 4096;
+    /** Collidable size in pixel. */
+    private static final int SIZE = 8;
+    /** Max speed in pixel per tick. */
+    private static final double SPEED = 4.0;
+    /** Number of collidables. */
+    private static final int COUNT = 5000;
+
+    /** Grid cell size in pixel. */
+    private static final int CELL_SIZE = 32;
+
+    /** Broadphase used. */
+    @Param({"grid", "sweep", "tree"})
+    private String broadphase;
+    /** Collidables transformable. */
+    private Transformable[] transformables;
+    /** Horizontal speeds. */
+    private double[] speedsX;
+    /** Vertical speeds. */
+    private double[] speedsY;
+    /** Handler reference. */
+    private Handler handler;
+    /** Configuration. */
+    private Media config;
+
+    /**
+     * Create collidables.
+     */
+    @Setup
+    public void setup()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+
+        final Services services = new Services();
+        services.add(new Camera());
+        handler = services.add(new Handler(services));
+        handler.addComponent(new ComponentCollision(createBroadphase()));
+
+        final Random random = new Random(42L);
+        final com.b3dgs.lionengine.game.feature.Setup setup = new com.b3dgs.lionengine.game.feature.Setup(config);
+        transformables = new Transformable[COUNT];
+        speedsX = new double[COUNT];
+        speedsY = new double[COUNT];
+        for (int i = 0; i < COUNT; i++)
+        {
+            final FeaturableModel featurable = new FeaturableModel();
+            final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel(setup));
+            transformable.setSize(SIZE, SIZE);
+            final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services, setup));
+            collidable.setGroup(Integer.valueOf(i % 2));
+            collidable.addAccept(Integer.valueOf((i + 1) % 2));
+            collidable.addCollision(new Collision("box", 0, 0, SIZE, SIZE, false));
+            handler.add(featurable);
+
+            transformables[i] = transformable;
+            transformable.teleport(random.nextInt(WORLD), random.nextInt(WORLD));
+            speedsX[i] = (random.nextDouble() * 2.0 - 1.0) * SPEED;
+            speedsY[i] = (random.nextDouble() * 2.0 - 1.0) * SPEED;
+        }
+        handler.update(1.0);
+    }
+
+    /**
+     * Create the broadphase from parameter.
+     * 
+     * @return The broadphase instance.
+     */
+    private Broadphase createBroadphase()
+    {
+        if ("sweep".equals(broadphase))
+        {
+            return new BroadphaseSweepAndPrune();
+        }
+        if ("tree".equals(broadphase))
+        {
+            return new BroadphaseTree();
+        }
+        return new BroadphaseGrid(CELL_SIZE);
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        config.getFile().delete();
+        Medias.setResourcesDirectory(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Move all collidables, then check collisions.
+     */
+    @Benchmark
+    public void tick()
+    {
+        for (int i = 0; i < COUNT; i++)
+        {
+            final Transformable transformable = transformables[i];
+            final double x = transformable.getX() + speedsX[i];
+            final double y = transformable.getY() + speedsY[i];
+            if (x < 0 || x > WORLD)
+            {
+                speedsX[i] = -speedsX[i];
+            }
+            if (y < 0 || y > WORLD)
+            {
+                speedsY[i] = -speedsY[i];
+            }
+            transformable.moveLocation(1.0, speedsX[i], speedsY[i]);
+        }
+        handler.update(1.0);
+    }
+}
@@ -19,8 +19,10 @@ package com.b3dgs.lionengine.game.feature.collidable;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -138,7 +140,7 @@ public final class ComponentCollisionTest
 
         collide.set(null);
         featurable1.called.set(null);
-        transformable1.teleport(ComponentCollision.REDUCE_FACTOR, ComponentCollision.REDUCE_FACTOR);
+        transformable1.teleport(ComponentCollision.DEFAULT_CELL_SIZE, ComponentCollision.DEFAULT_CELL_SIZE);
 
         handler.update(1.0);
 
@@ -176,8 +178,8 @@ public final class ComponentCollisionTest
         collide.set(null);
         featurable1.called.set(null);
 
-        transformable1.teleport(ComponentCollision.REDUCE_FACTOR + ox, ComponentCollision.REDUCE_FACTOR + oy);
-        transformable2.teleport(ComponentCollision.REDUCE_FACTOR, ComponentCollision.REDUCE_FACTOR);
+        transformable1.teleport(ComponentCollision.DEFAULT_CELL_SIZE + ox, ComponentCollision.DEFAULT_CELL_SIZE + oy);
+        transformable2.teleport(ComponentCollision.DEFAULT_CELL_SIZE, ComponentCollision.DEFAULT_CELL_SIZE);
 
         handler.update(1.0);
 
@@ -202,14 +204,14 @@ public final class ComponentCollisionTest
         collide.set(null);
         featurable1.called.set(null);
 
-        transformable1.teleport(ComponentCollision.REDUCE_FACTOR, ComponentCollision.REDUCE_FACTOR);
+        transformable1.teleport(ComponentCollision.DEFAULT_CELL_SIZE, ComponentCollision.DEFAULT_CELL_SIZE);
 
         handler.update(1.0);
 
         assertNull(collide.get());
         assertNull(featurable1.called.get());
 
-        transformable2.teleport(ComponentCollision.REDUCE_FACTOR, ComponentCollision.REDUCE_FACTOR);
+        transformable2.teleport(ComponentCollision.DEFAULT_CELL_SIZE, ComponentCollision.DEFAULT_CELL_SIZE);
 
         handler.update(1.0);
 
@@ -245,4 +247,112 @@ public final class ComponentCollisionTest
         assertNull(collide.get());
         assertNull(featurable1.called.get());
     }
+
+    /**
+     * Test collidables sharing several cells are notified once.
+     */
+    @Test
+    public void testCellSize()
+    {
+        final Handler handler = new Handler(services);
+        handler.addComponent(new ComponentCollision(1));
+        handler.add(featurable1);
+        handler.add(featurable2);
+
+        final AtomicInteger count = new AtomicInteger();
+        collidable2.addListener((collidable, with, by) -> count.incrementAndGet());
+
+        transformable1.teleport(1.0, 2.0);
+        transformable2.teleport(1.0, 1.0);
+        handler.update(1.0);
+
+        assertEquals(1, count.get());
+
+        transformable1.teleport(20.0, 20.0);
+        handler.update(1.0);
+
+        assertEquals(1, count.get());
+    }
+
+    /**
+     * Test invalid cell size.
+     */
+    @Test
+    public void testInvalidCellSize()
+    {
+        assertThrows(() -> new ComponentCollision(0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test collision with each broadphase, and candidates and confirmed couples count.
+     */
+    @Test
+    public void testBroadphases()
+    {
+        for (final Broadphase broadphase : new Broadphase[]
+        {
+            new BroadphaseGrid(16), new BroadphaseSweepAndPrune(), new BroadphaseTree()
+        })
+        {
+            final Handler handler = new Handler(services);
+            final ComponentCollision component = new ComponentCollision(broadphase);
+            handler.addComponent(component);
+            handler.add(featurable1);
+            handler.add(featurable2);
+
+            collide.set(null);
+            featurable1.called.set(null);
+            transformable1.teleport(1.0, 2.0);
+            transformable2.teleport(1.0, 1.0);
+            handler.update(1.0);
+
+            assertEquals(collidable1, collide.get());
+            assertEquals(collidable2, featurable1.called.get());
+            assertEquals(1, component.getCandidates());
+            assertEquals(1, component.getConfirmed());
+
+            collide.set(null);
+            transformable1.teleport(100.0, 100.0);
+            handler.update(1.0);
+
+            assertNull(collide.get());
+            assertEquals(0, component.getCandidates());
+            assertEquals(0, component.getConfirmed());
+        }
+    }
+
+    /**
+     * Test a fast move reaching another collidable is a broadphase candidate.
+     */
+    @Test
+    public void testSweep()
+    {
+        final Handler handler = new Handler(services);
+        final ComponentCollision component = new ComponentCollision(new BroadphaseSweepAndPrune());
+        handler.addComponent(component);
+        handler.add(featurable1);
+        handler.add(featurable2);
+
+        transformable1.teleport(0.0, 50.0);
+        transformable2.teleport(60.0, 50.0);
+        handler.update(1.0);
+
+        assertEquals(0, component.getCandidates());
+
+        transformable1.moveLocation(1.0, 40.0, 0.0);
+        handler.update(1.0);
+
+        assertEquals(1, component.getCandidates());
+        assertEquals(1, component.getConfirmed());
+        assertEquals(collidable1, collide.get());
+    }
+
+    /**
+     * Test invalid broadphase.
+     */
+    @Test
+    public void testInvalidBroadphase()
+    {
+        assertThrows(() -> new ComponentCollision((Broadphase) null), "Unexpected null argument !");
+    }
 }
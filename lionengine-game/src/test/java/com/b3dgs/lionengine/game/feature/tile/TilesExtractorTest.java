@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+
+/**
+ * Test {@link TilesExtractor}.
+ */
+public final class TilesExtractorTest
+{
+    /** Tile width. */
+    private static final int TW = 7;
+    /** Tile height. */
+    private static final int TH = 11;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setLoadFromJar(TilesExtractorTest.class);
+        Graphics.setFactoryGraphic(new FactoryGraphicMock()
+        {
+            @Override
+            public ImageBuffer getImageBuffer(Media media)
+            {
+                if (media.getPath().endsWith("level.png"))
+                {
+                    final ImageBuffer rip = new ImageBufferMock(TW * 2, TH * 2);
+                    rip.setRgb(0, 0, 1);
+                    rip.setRgb(TW, 0, 2);
+                    rip.setRgb(TW, TH, TilesExtractor.IGNORED_COLOR_VALUE);
+                    return rip;
+                }
+                return super.getImageBuffer(media);
+            }
+        });
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+        Medias.setLoadFromJar(null);
+    }
+
+    /**
+     * Test unique tiles are extracted once across all level rips.
+     */
+    @Test
+    public void testExtract()
+    {
+        final Media level = Medias.create("map", "level.png");
+        final List<Integer> progress = new ArrayList<>();
+        final TilesExtractor extractor = new TilesExtractor();
+        extractor.addListener((percent, tiles) -> progress.add(Integer.valueOf(percent)));
+
+        final Collection<ImageBuffer> tiles = extractor.extract(TW, TH, Arrays.asList(level, level));
+
+        assertEquals(3, tiles.size());
+        assertEquals(Integer.valueOf(100), progress.get(progress.size() - 1));
+    }
+
+    /**
+     * Test extraction cancel.
+     */
+    @Test
+    public void testCancel()
+    {
+        final Media level = Medias.create("map", "level.png");
+        final TilesExtractor extractor = new TilesExtractor();
+
+        final Collection<ImageBuffer> tiles = extractor.extract(() -> true, TW, TH, Arrays.asList(level, level));
+
+        assertEquals(1, tiles.size());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+
+/**
+ * Test {@link TilesIndex}.
+ */
+public final class TilesIndexTest
+{
+    /**
+     * Test constructor with invalid size.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new TilesIndex<>(0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new TilesIndex<>(1, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test pixels reading.
+     */
+    @Test
+    public void testGetPixels()
+    {
+        final ImageBuffer image = new ImageBufferMock(2, 2);
+        image.setRgb(1, 1, 5);
+
+        final int[] pixels = TilesIndex.getPixels(image);
+
+        assertEquals(4, pixels.length);
+        assertEquals(5, pixels[3]);
+    }
+
+    /**
+     * Test hash and compare on tiles at different offsets.
+     */
+    @Test
+    public void testHashCompare()
+    {
+        final int[] a =
+        {
+            1, 2, 9, 3, 4, 9
+        };
+        final int[] b =
+        {
+            0, 0, 1, 2, 0, 0, 3, 4
+        };
+
+        assertEquals(TilesIndex.hash(2, 2, a, 0, 3), TilesIndex.hash(2, 2, b, 2, 4));
+        assertNotEquals(TilesIndex.hash(2, 2, a, 0, 3), TilesIndex.hash(2, 2, a, 1, 3));
+        assertTrue(TilesIndex.compare(2, 2, a, 0, 3, b, 2, 4));
+        assertFalse(TilesIndex.compare(2, 2, a, 1, 3, b, 2, 4));
+    }
+
+    /**
+     * Test add and get, with first equal tile kept and colliding hash.
+     */
+    @Test
+    public void testAddGet()
+    {
+        final int[] pixels =
+        {
+            1, 2, 1, 3
+        };
+        final TilesIndex<String> index = new TilesIndex<>(1, 1);
+
+        assertTrue(index.add(0L, pixels, 0, 4, "a"));
+        assertFalse(index.add(0L, pixels, 2, 4, "c"));
+        assertTrue(index.add(0L, pixels, 1, 4, "b"));
+        assertTrue(index.add(TilesIndex.hash(1, 1, pixels, 3, 4), pixels, 3, 4, "d"));
+
+        assertEquals(3, index.size());
+        assertEquals("a", index.get(0L, pixels, 2, 4));
+        assertEquals("b", index.get(0L, pixels, 1, 4));
+        assertNull(index.get(0L, pixels, 3, 4));
+        assertEquals("d", index.get(TilesIndex.hash(1, 1, pixels, 3, 4), new int[]
+        {
+            3
+        }, 0, 1));
+    }
+}
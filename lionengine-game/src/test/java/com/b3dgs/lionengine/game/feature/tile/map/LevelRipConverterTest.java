@@ -17,15 +17,74 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.drawable.Drawable;
+
 /**
  * Test the level rip converter class.
  */
 public class LevelRipConverterTest
 {
+    /** Tile width. */
+    private static final int TW = 7;
+    /** Tile height. */
+    private static final int TH = 11;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setLoadFromJar(LevelRipConverterTest.class);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setLoadFromJar(null);
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Fill a tile with a color.
+     * 
+     * @param image The image reference.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param color The tile color.
+     */
+    private static void fill(ImageBuffer image, int tx, int ty, int color)
+    {
+        for (int x = 0; x < TW; x++)
+        {
+            for (int y = 0; y < TH; y++)
+            {
+                image.setRgb(tx * TW + x, ty * TH + y, color + x * y);
+            }
+        }
+    }
+
     /**
      * Test the constructor.
      */
@@ -34,4 +93,44 @@ public class LevelRipConverterTest
     {
         assertPrivateConstructor(LevelRipConverter.class);
     }
+
+    /**
+     * Test conversion with first matching sheet tile, ignored and not found tiles.
+     */
+    @Test
+    public void testStart()
+    {
+        final ImageBuffer sheet = new ImageBufferMock(TW * 3, TH);
+        fill(sheet, 0, 0, 1);
+        fill(sheet, 1, 0, 2);
+        fill(sheet, 2, 0, 1);
+
+        final ImageBuffer rip = new ImageBufferMock(TW * 2, TH * 2);
+        fill(rip, 0, 0, 2);
+        fill(rip, 1, 0, 1);
+        fill(rip, 0, 1, 1);
+        rip.setRgb(0, TH, TilesExtractor.IGNORED_COLOR_VALUE);
+        fill(rip, 1, 1, 3);
+
+        Graphics.setFactoryGraphic(new FactoryGraphicMock()
+        {
+            @Override
+            public ImageBuffer getImageBuffer(Media media)
+            {
+                return rip;
+            }
+        });
+
+        final MapTile map = new MapTileGame();
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(sheet, TW, TH)));
+
+        assertEquals(1, LevelRipConverter.start(Medias.create("level.png"), map));
+
+        final Tile first = map.getTile(0, 1);
+        assertEquals(Integer.valueOf(0), first.getSheet());
+        assertEquals(1, first.getNumber());
+        assertEquals(0, map.getTile(1, 1).getNumber());
+        assertNull(map.getTile(0, 0));
+        assertNull(map.getTile(1, 0));
+    }
 }
@@ -19,8 +19,10 @@ package com.b3dgs.lionengine.game.feature.tile.map;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsPrefix;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.IOException;
@@ -30,6 +32,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
@@ -37,6 +40,9 @@ import org.junit.jupiter.api.Test;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePath;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePathModel;
 import com.b3dgs.lionengine.geom.Geom;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
@@ -47,6 +53,23 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  */
 public final class MapTileGameTest
 {
+    /**
+     * Copy elements to a list.
+     * 
+     * @param <T> The element type.
+     * @param iterable The elements.
+     * @return The elements list.
+     */
+    private static <T> List<T> toList(Iterable<T> iterable)
+    {
+        final List<T> list = new ArrayList<>();
+        for (final T element : iterable)
+        {
+            list.add(element);
+        }
+        return list;
+    }
+
     private final MapTileGame map = new MapTileGame();
 
     /**
@@ -236,6 +259,25 @@ public final class MapTileGameTest
         assertNull(map.getTile(0, 0));
     }
 
+    /**
+     * Test the tile removal.
+     */
+    @Test
+    public void testRemoveTile()
+    {
+        map.create(16, 16, 2, 2);
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 16.0, 0.0));
+        map.removeTile(-1, 0);
+        map.removeTile(0, 2);
+
+        assertEquals(1, map.getTilesNumber());
+
+        map.removeTile(1, 0);
+
+        assertNull(map.getTile(1, 0));
+        assertEquals(0, map.getTilesNumber());
+    }
+
     /**
      * Test unknown sheet get.
      */
@@ -292,4 +334,136 @@ public final class MapTileGameTest
 
         assertNull(set.get());
     }
+
+    /**
+     * Test map resize keeps tiles at their location.
+     */
+    @Test
+    public void testResize()
+    {
+        map.create(16, 16, 2, 2);
+        final Tile tile = map.createTile(Integer.valueOf(0), 1, 16.0, 16.0);
+        map.setTile(tile);
+
+        map.resize(4, 3);
+
+        assertEquals(4, map.getInTileWidth());
+        assertEquals(3, map.getInTileHeight());
+        assertEquals(1, map.getTilesNumber());
+        assertEquals(tile, map.getTile(1, 1));
+        assertNull(map.getTile(3, 2));
+    }
+
+    /**
+     * Test compact map set and get tile.
+     */
+    @Test
+    public void testCompact()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        assertFalse(compact.isCreated());
+        assertEquals(0, compact.getTilesNumber());
+
+        compact.create(16, 32, 3, 3);
+
+        final Tile tile = compact.createTile(Integer.valueOf(2), 5, 16.0, 64.0);
+        compact.setTile(tile);
+
+        final Tile view = compact.getTile(1, 2);
+        assertEquals(tile, view);
+        assertEquals(tile.hashCode(), view.hashCode());
+        assertEquals(2, view.getSheet().intValue());
+        assertEquals(5, view.getNumber());
+        assertEquals(16.0, view.getX());
+        assertEquals(64.0, view.getY());
+        assertEquals(16, view.getWidth());
+        assertEquals(32, view.getHeight());
+        assertEquals(tile.toString(), view.toString());
+        assertNotEquals(view, compact.createTile(Integer.valueOf(2), 4, 16.0, 64.0));
+        assertEquals(1, compact.getTilesNumber());
+
+        compact.resize(5, 4);
+
+        assertEquals(tile, compact.getTile(1, 2));
+        assertNull(compact.getTile(4, 3));
+
+        compact.clear();
+
+        assertTrue(compact.isCreated());
+        assertNull(compact.getTile(1, 2));
+        assertEquals(0, compact.getTilesNumber());
+    }
+
+    /**
+     * Test compact map tile features, stored and read without tile instance.
+     */
+    @Test
+    public void testCompactFeature()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 3, 3);
+        compact.setTile(compact.createTile(Integer.valueOf(0), 1, 16.0, 16.0));
+        compact.setTile(compact.createTile(Integer.valueOf(0), 1, 0.0, 16.0));
+
+        final Tile view = compact.getTile(1, 1);
+        assertFalse(view.hasFeature(TilePath.class));
+        assertThrows(() -> view.getFeature(TilePath.class),
+                     MapTileStorageCompact.ERROR_FEATURE_NOT_FOUND + TilePath.class.getName());
+        assertFalse(view.getFeatures().iterator().hasNext());
+        assertFalse(view.getFeaturesType().iterator().hasNext());
+        assertFalse(compact.getTile(1, 1) instanceof TileGame);
+
+        final TilePath path = view.addFeatureAndGet(new TilePathModel("ground"));
+
+        assertTrue(view.hasFeature(TilePath.class));
+        assertEquals(path, view.getFeature(TilePath.class));
+        assertEquals(path, compact.getTile(1, 1).getFeature(TilePath.class));
+        assertEquals(path, path.getFeature(TilePathModel.class));
+        assertEquals(Arrays.asList(path), toList(view.getFeatures()));
+        assertTrue(toList(view.getFeaturesType()).containsAll(Arrays.asList(TilePath.class, TilePathModel.class)));
+        assertFalse(compact.getTile(1, 1) instanceof TileGame);
+        assertFalse(compact.getTile(0, 1).hasFeature(TilePath.class));
+        assertThrowsPrefix(() -> view.addFeature(new TilePathModel("tree")),
+                           MapTileStorageCompact.ERROR_FEATURE_EXISTS);
+
+        compact.resize(4, 4);
+
+        assertEquals(path, compact.getTile(1, 1).getFeature(TilePath.class));
+
+        compact.setTile(compact.createTile(Integer.valueOf(0), 2, 16.0, 16.0));
+
+        assertFalse(view.hasFeature(TilePath.class));
+        assertFalse(compact.getTile(1, 1).hasFeature(TilePath.class));
+    }
+
+    /**
+     * Test compact map with custom tile instance.
+     */
+    @Test
+    public void testCompactCustomTile()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 3, 3);
+
+        final Tile tile = new TileGame(Integer.valueOf(0), 1, 32.0, 0.0, 16, 16);
+        compact.setTile(tile);
+
+        assertTrue(tile == compact.getTile(2, 0));
+        assertEquals(1, compact.getTilesNumber());
+    }
+
+    /**
+     * Test compact map tile values out of range.
+     */
+    @Test
+    public void testCompactLimits()
+    {
+        final MapTileGame compact = new MapTileGame(true);
+        compact.create(16, 16, 3, 3);
+
+        assertThrows(() -> compact.createTile(Integer.valueOf(0), 65536, 0.0, 0.0),
+                     "Invalid argument: 65536 is not inferior or equal to 65535");
+        assertThrows(() -> compact.createTile(Integer.valueOf(32767), 0, 0.0, 0.0),
+                     "Invalid argument: 32767 is not inferior or equal to 32766");
+    }
 }
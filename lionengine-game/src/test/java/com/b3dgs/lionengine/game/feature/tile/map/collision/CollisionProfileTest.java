@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.collision;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Test {@link CollisionProfile}.
+ */
+public final class CollisionProfileTest
+{
+    /**
+     * Create a linear formula.
+     * 
+     * @param name The formula name.
+     * @param range The formula range.
+     * @param a The factor value.
+     * @param b The offset value.
+     * @return The created formula.
+     */
+    private static CollisionFormula createFormula(String name, CollisionRange range, double a, double b)
+    {
+        return new CollisionFormula(name, range, new CollisionFunctionLinear(a, b), new CollisionConstraint());
+    }
+
+    /** Ground formula. */
+    private final CollisionFormula ground = createFormula("ground", new CollisionRange(Axis.Y, 0, 15, 0, 0), 0.0, 0.0);
+    /** Slope formula. */
+    private final CollisionFormula slope = createFormula("slope", new CollisionRange(Axis.Y, 0, 15, 0, 0), -0.5, 8.0);
+    /** Steep formula. */
+    private final CollisionFormula steep = createFormula("steep", new CollisionRange(Axis.Y, 2, 9, -2, 3), 2.0, -4.0);
+    /** Wall formula. */
+    private final CollisionFormula wall = createFormula("wall", new CollisionRange(Axis.X, 0, 0, 0, 15), 0.0, 0.0);
+    /** Horizontal slope formula. */
+    private final CollisionFormula side = createFormula("side", new CollisionRange(Axis.X, 0, 3, 4, 12), 0.25, 2.0);
+    /** Group test. */
+    private final CollisionGroup group = new CollisionGroup("group", Arrays.asList(ground, slope, steep, wall, side));
+    /** Tile test. */
+    private final Tile tile = new TileGame(Integer.valueOf(0), 0, 16.0, 32.0, 16, 16);
+    /** Tile collision test. */
+    private final TileCollisionModel tileCollision = new TileCollisionModel(tile);
+    /** Profiles test. */
+    private final Map<CollisionFormula, CollisionProfile> profiles = CollisionProfile.create(group.getFormulas());
+
+    /**
+     * Check profile against tile collision around the whole tile.
+     * 
+     * @param category The category to test.
+     */
+    private void assertProfile(CollisionCategory category)
+    {
+        assertTrue(CollisionProfile.canCollide(profiles, category, tileCollision.getCollisionFormulas()));
+
+        for (double y = tile.getY() - 4.0; y < tile.getY() + tile.getHeight() + 4.0; y += 0.5)
+        {
+            for (double x = tile.getX() - 4.0; x < tile.getX() + tile.getWidth() + 4.0; x += 0.5)
+            {
+                final Double expected;
+                if (Axis.X == category.getAxis())
+                {
+                    expected = tileCollision.getCollisionX(category, x, y);
+                }
+                else
+                {
+                    expected = tileCollision.getCollisionY(category, x, y);
+                }
+                final double collision = CollisionProfile.getCollision(profiles,
+                                                                       category,
+                                                                       tileCollision.getCollisionFormulas(),
+                                                                       tile.getX(),
+                                                                       tile.getY(),
+                                                                       x,
+                                                                       y);
+                if (expected == null)
+                {
+                    assertTrue(Double.isNaN(collision));
+                }
+                else
+                {
+                    assertEquals(expected.doubleValue(), collision);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test vertical profile.
+     */
+    @Test
+    public void testVertical()
+    {
+        for (final CollisionFormula formula : group.getFormulas())
+        {
+            tileCollision.addCollisionFormula(formula);
+        }
+
+        assertProfile(new CollisionCategory("y", Axis.Y, 0, 0, false, Arrays.asList(group)));
+        assertProfile(new CollisionCategory("y", Axis.Y, 3, -2, false, Arrays.asList(group)));
+    }
+
+    /**
+     * Test horizontal profile.
+     */
+    @Test
+    public void testHorizontal()
+    {
+        for (final CollisionFormula formula : group.getFormulas())
+        {
+            tileCollision.addCollisionFormula(formula);
+        }
+
+        assertProfile(new CollisionCategory("x", Axis.X, 0, 0, false, Arrays.asList(group)));
+        assertProfile(new CollisionCategory("x", Axis.X, -2, 5, false, Arrays.asList(group)));
+    }
+
+    /**
+     * Test profile with only tile formulas in common with category.
+     */
+    @Test
+    public void testCommon()
+    {
+        tileCollision.addCollisionFormula(slope);
+        tileCollision.addCollisionFormula(wall);
+
+        assertProfile(new CollisionCategory("y", Axis.Y, 0, 0, false, Arrays.asList(group)));
+        assertProfile(new CollisionCategory("x", Axis.X, 0, 0, false, Arrays.asList(group)));
+    }
+
+    /**
+     * Test no profile when category cannot collide with tile.
+     */
+    @Test
+    public void testNone()
+    {
+        tileCollision.addCollisionFormula(ground);
+        final CollisionGroup walls = new CollisionGroup("walls", Arrays.asList(wall));
+
+        assertFalse(CollisionProfile.canCollide(profiles,
+                                                new CollisionCategory("x", Axis.X, 0, 0, false, Arrays.asList(group)),
+                                                tileCollision.getCollisionFormulas()));
+        assertFalse(CollisionProfile.canCollide(profiles,
+                                                new CollisionCategory("y", Axis.Y, 0, 0, false, Arrays.asList(walls)),
+                                                tileCollision.getCollisionFormulas()));
+        assertFalse(CollisionProfile.canCollide(profiles,
+                                                new CollisionCategory("y", Axis.Y, 0, 0, false, Arrays.asList(group)),
+                                                Collections.emptyList()));
+    }
+
+    /**
+     * Test profiles are read only once baked, and formulas with empty range are not baked.
+     */
+    @Test
+    public void testReadOnly()
+    {
+        final CollisionFormula empty = createFormula("empty", new CollisionRange(Axis.Y, 4, 2, 0, 0), 0.0, 0.0);
+        final Map<CollisionFormula, CollisionProfile> baked = CollisionProfile.create(Arrays.asList(ground, empty));
+
+        assertTrue(baked.containsKey(ground));
+        assertFalse(baked.containsKey(empty));
+        assertThrows(UnsupportedOperationException.class, baked::clear, null);
+    }
+}
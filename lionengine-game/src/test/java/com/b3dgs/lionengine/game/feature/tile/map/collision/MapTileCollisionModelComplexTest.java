@@ -219,6 +219,29 @@ public final class MapTileCollisionModelComplexTest
         return mapCollision.computeCollision(transformable, category);
     }
 
+    /**
+     * Test collision after a long fall through empty tiles.
+     * 
+     * @param speedX The horizontal speed used.
+     */
+    @ParameterizedTest
+    @MethodSource("speedX")
+    public void testFall(double speedX)
+    {
+        map.create(16, 16, 2, 8);
+        setTile(0, 1, TILE_GROUND);
+        setTile(1, 1, TILE_GROUND);
+        loadCollisions();
+        transformable = createObject();
+        transformable.teleport(4.0, 120.0);
+        transformable.moveLocation(1.0, speedX, -110.0);
+
+        final CollisionResult res = mapCollision.computeCollision(transformable, category);
+
+        UtilAssert.assertEquals(16.0, res.getY().doubleValue());
+        UtilAssert.assertNull(res.getX());
+    }
+
     /**
      * Test collision to left from slope left 0 to slope left 1.
      * 
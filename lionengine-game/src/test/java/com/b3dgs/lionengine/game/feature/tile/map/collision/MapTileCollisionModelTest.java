@@ -245,6 +245,27 @@ public final class MapTileCollisionModelTest
         assertEquals(Double.valueOf(2.0), result.getX());
     }
 
+    /**
+     * Test a tile set after loading has no collision, as it has no {@link TileCollision} until collisions are loaded
+     * again: the sweep goes through it and stops on the tile below.
+     */
+    @Test
+    public void testTileSetCollisionOnReload()
+    {
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 1.0, 2.0));
+        transformable.teleport(1.0, 3.0);
+        transformable.moveLocation(1.0, 0.0, -2.0);
+        final CollisionResult result = mapCollision.computeCollision(transformable, categoryY);
+
+        assertNull(result.getX());
+        assertEquals(Double.valueOf(0.0), result.getY());
+        assertEquals(map.getTile(1, 0), result.getTile());
+
+        mapCollision.loadCollisions(formulasConfig, groupsConfig);
+
+        assertEquals(Double.valueOf(2.0), mapCollision.computeCollision(transformable, categoryY).getY());
+    }
+
     /**
      * Test the map tile no collision.
      */
@@ -18,7 +18,6 @@
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
-import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
 
 import org.junit.jupiter.api.Test;
@@ -53,7 +52,7 @@ public final class AstarTest
         map.addFeature(new MapTileGroupModel());
         map.addFeature(new MapTilePathModel(services));
 
-        assertNotNull(Astar.createPathFinder(map, 1, new HeuristicClosest()));
+        assertEquals(PathFinderHeap.class, Astar.createPathFinder(map, 1, new HeuristicClosest()).getClass());
     }
 
     /**
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link MapTilePathClustersModel} and {@link PathFinderHierarchical}.
+ */
+public final class MapTilePathClustersModelTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Check that path is made of adjacent free steps, and ends at destination.
+     * 
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @param path The path to check.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     */
+    private static void assertPath(MapTilePath mapPath, Pathfindable mover, Path path, int dtx, int dty)
+    {
+        assertEquals(mover.getInTileX(), path.getX(0));
+        assertEquals(mover.getInTileY(), path.getY(0));
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertFalse(mapPath.isBlocked(mover, path.getX(i), path.getY(i), true));
+        }
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+    }
+
+    /**
+     * Check if path contains location.
+     * 
+     * @param path The path reference.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    private static boolean contains(Path path, int tx, int ty)
+    {
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            if (path.getX(i) == tx && path.getY(i) == ty)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+
+    /**
+     * Test the abstract route.
+     */
+    @Test
+    public void testRoute()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 64);
+        UtilPathfinding.loadPathfinding(services, map);
+        final MapTilePathClusters clusters = map.addFeatureAndGet(new MapTilePathClustersModel(services, 8));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 1);
+
+        assertEquals(8, clusters.getClusterSize());
+
+        final Path route = clusters.findRoute(mover, 1, 1, 60, 50, false);
+
+        assertTrue(route.getLength() > 2);
+        assertEquals(1, route.getX(0));
+        assertEquals(1, route.getY(0));
+        assertEquals(60, route.getX(route.getLength() - 1));
+        assertEquals(50, route.getY(route.getLength() - 1));
+
+        final Path same = clusters.findRoute(mover, 1, 1, 3, 2, false);
+
+        assertEquals(2, same.getLength());
+    }
+
+    /**
+     * Test hierarchical paths against full searches on a random map.
+     */
+    @Test
+    public void testRandom()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 96);
+        UtilPathfinding.randomize(map, 42L, 15);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 0, 0));
+        final MapTilePath mapPath = UtilPathfinding.loadPathfinding(services, map);
+        map.addFeature(new MapTilePathClustersModel(services, 16));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+
+        final PathFinder optimal = new PathFinderHeap(map, 10000, new HeuristicManhattan(0));
+        final PathFinder finder = Astar.createPathFinderHierarchical(map, 10000, new HeuristicClosest());
+
+        for (int ty = 1; ty < map.getInTileHeight(); ty += 7)
+        {
+            for (int tx = 1; tx < map.getInTileWidth(); tx += 5)
+            {
+                final Path expected = optimal.findPath(mover, tx, ty, false);
+                final Path path = finder.findPath(mover, tx, ty, false);
+                if (expected == null)
+                {
+                    assertNull(path);
+                }
+                else
+                {
+                    final int last = expected.getLength() - 1;
+                    assertPath(mapPath, mover, path, expected.getX(last), expected.getY(last));
+
+                    final double cost = UtilPathfinding.getCost(mapPath, mover, path);
+                    assertTrue(cost <= UtilPathfinding.getCost(mapPath, mover, expected) * 1.5);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the incremental update on tile set.
+     */
+    @Test
+    public void testTileChanged()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 64);
+        final MapTilePath mapPath = UtilPathfinding.loadPathfinding(services, map);
+        map.addFeature(new MapTilePathClustersModel(services, 8));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 2, 10);
+        final PathFinder finder = Astar.createPathFinderHierarchical(map, 10000, new HeuristicClosest());
+
+        assertEquals(59, finder.findPath(mover, 60, 10, true).getLength());
+
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            if (ty != 50)
+            {
+                map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 32, ty));
+            }
+        }
+        final Path path = finder.findPath(mover, 60, 10, true);
+
+        assertPath(mapPath, mover, path, 60, 10);
+        assertTrue(contains(path, 32, 50));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 32, 50));
+
+        assertNull(finder.findPath(mover, 60, 10, true));
+    }
+
+    /**
+     * Test the incremental update on objects ID change.
+     */
+    @Test
+    public void testObjectsChanged()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 64);
+        final MapTilePath mapPath = UtilPathfinding.loadPathfinding(services, map);
+        map.addFeature(new MapTilePathClustersModel(services, 8));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 2, 10);
+        final PathFinder finder = Astar.createPathFinderHierarchical(map, 10000, new HeuristicClosest());
+
+        assertEquals(59, finder.findPath(mover, 60, 10, false).getLength());
+
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            if (ty != 50)
+            {
+                mapPath.addObjectId(32, ty, Integer.valueOf(-1));
+            }
+        }
+        final Path path = finder.findPath(mover, 60, 10, false);
+
+        assertNotNull(path);
+        assertTrue(contains(path, 32, 50));
+        assertEquals(59, finder.findPath(mover, 60, 10, true).getLength());
+
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            mapPath.removeObjectId(32, ty, Integer.valueOf(-1));
+        }
+
+        assertEquals(59, finder.findPath(mover, 60, 10, false).getLength());
+    }
+}
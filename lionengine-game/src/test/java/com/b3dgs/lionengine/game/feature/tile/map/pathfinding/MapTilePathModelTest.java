@@ -20,6 +20,9 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +37,7 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
@@ -130,6 +134,46 @@ public final class MapTilePathModelTest
         assertEquals(2, coord.getY());
     }
 
+    /**
+     * Test the listener notifications, and path feature added on tile set.
+     */
+    @Test
+    public void testListener()
+    {
+        final List<String> events = new ArrayList<>();
+        final MapTilePathListener listener = new MapTilePathListener()
+        {
+            @Override
+            public void notifyTileChanged(int tx, int ty)
+            {
+                events.add("tile " + tx + " " + ty);
+            }
+
+            @Override
+            public void notifyObjectsChanged(int tx, int ty)
+            {
+                events.add("objects " + tx + " " + ty);
+            }
+        };
+        mapPath.addListener(listener);
+
+        final Tile tile = map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 1, 2);
+        map.setTile(tile);
+        mapPath.addObjectId(2, 1, Integer.valueOf(1));
+        mapPath.removeObjectId(2, 1, Integer.valueOf(1));
+
+        assertEquals(UtilMap.TREE, tile.getFeature(TilePath.class).getCategory());
+        assertEquals("tile 1 2", events.get(0));
+        assertEquals("objects 2 1", events.get(1));
+        assertEquals("objects 2 1", events.get(2));
+        assertEquals(3, events.size());
+
+        mapPath.removeListener(listener);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 1, 2));
+
+        assertEquals(3, events.size());
+    }
+
     /**
      * Create object test.
      * 
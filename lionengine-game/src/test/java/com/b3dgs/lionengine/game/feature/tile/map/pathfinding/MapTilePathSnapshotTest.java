@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Test {@link MapTilePathSnapshot}.
+ */
+public final class MapTilePathSnapshotTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Get the tile path at index.
+     * 
+     * @param map The map reference.
+     * @param index The tile index.
+     * @return The tile path.
+     */
+    private static TilePath getTilePath(MapTile map, int index)
+    {
+        final int width = map.getInTileWidth();
+        return map.getTile(index % width, index / width).getFeature(TilePath.class);
+    }
+
+    /**
+     * Test update only changes the updated snapshot, across several chunks.
+     */
+    @Test
+    public void testUpdate()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, 48);
+        UtilPathfinding.randomize(map, 42L, 15);
+        final MapTilePath mapPath = UtilPathfinding.loadPathfinding(services, map);
+        final MapTilePathSnapshot snapshot = new MapTilePathSnapshot(map, mapPath.getCategories());
+        final int size = map.getInTileWidth() * map.getInTileHeight();
+
+        assertTrue(size > MapTilePathSnapshot.CHUNK_SIZE * 2);
+
+        final int first = 5;
+        final int second = MapTilePathSnapshot.CHUNK_SIZE + 7;
+        final Integer id = Integer.valueOf(1);
+        getTilePath(map, first).addObjectId(id);
+        getTilePath(map, second).addObjectId(id);
+        final BitSet changed = new BitSet();
+        changed.set(first);
+        changed.set(second);
+        final MapTilePathSnapshot updated = snapshot.update(map, changed);
+
+        assertArrayEquals(new int[0], snapshot.getObjects(first));
+        assertArrayEquals(new int[0], snapshot.getObjects(second));
+        assertTrue(snapshot.getObjectsId().isEmpty());
+        assertArrayEquals(new int[]
+        {
+            1
+        }, updated.getObjects(first));
+        assertArrayEquals(new int[]
+        {
+            1
+        }, updated.getObjects(second));
+        assertEquals(Arrays.asList(id), Arrays.asList(updated.getObjectsId().toArray()));
+        for (int i = 0; i < size; i++)
+        {
+            assertEquals(snapshot.getCategory(i), updated.getCategory(i));
+        }
+
+        getTilePath(map, first).removeObjectId(id);
+        changed.clear();
+        changed.set(first);
+        final MapTilePathSnapshot removed = updated.update(map, changed);
+
+        assertArrayEquals(new int[0], removed.getObjects(first));
+        assertEquals(Arrays.asList(id), Arrays.asList(removed.getObjectsId().toArray()));
+        assertEquals(Arrays.asList(id), Arrays.asList(updated.getObjectsId().toArray()));
+
+        getTilePath(map, second).removeObjectId(id);
+        changed.clear();
+        changed.set(second);
+
+        assertTrue(removed.update(map, changed).getObjectsId().isEmpty());
+        assertArrayEquals(new int[]
+        {
+            1
+        }, removed.getObjects(second));
+    }
+}
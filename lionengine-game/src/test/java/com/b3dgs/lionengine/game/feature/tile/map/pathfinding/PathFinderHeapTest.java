@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHeap}.
+ */
+public final class PathFinderHeapTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+
+    /**
+     * Test a straight path.
+     */
+    @Test
+    public void testStraight()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 2);
+
+        final Path path = new PathFinderHeap(map, 64, new HeuristicClosest()).findPath(mover, 6, 2, false);
+
+        assertEquals(6, path.getLength());
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertEquals(1 + i, path.getX(i));
+            assertEquals(2, path.getY(i));
+        }
+    }
+
+    /**
+     * Test a path going around a wall, and finder reuse.
+     */
+    @Test
+    public void testWall()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        for (int ty = 0; ty < 7; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 4, ty));
+        }
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        final PathFinder finder = new PathFinderHeap(map, 64, new HeuristicClosest());
+
+        for (int i = 0; i < 2; i++)
+        {
+            final Path path = finder.findPath(mover, 6, 1, false);
+
+            assertEquals(4, path.getX(path.getLength() / 2));
+            assertEquals(7, path.getY(path.getLength() / 2));
+            assertEquals(6, path.getX(path.getLength() - 1));
+            assertEquals(1, path.getY(path.getLength() - 1));
+        }
+    }
+
+    /**
+     * Test no path cases.
+     */
+    @Test
+    public void testNoPath()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        for (int ty = 0; ty < 8; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 4, ty));
+        }
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        final PathFinder finder = new PathFinderHeap(map, 64, new HeuristicClosest());
+
+        assertNull(finder.findPath(mover, 6, 1, false));
+        assertNull(finder.findPath(mover, 1, 1, false));
+        assertNull(new PathFinderHeap(map, 2, new HeuristicClosest()).findPath(mover, 3, 7, false));
+        assertNotNull(finder.findPath(mover, 3, 7, false));
+    }
+
+    /**
+     * Test that each destination found by the reference implementation is found too, and that with an admissible
+     * heuristic, paths are never more expensive than the reference ones.
+     */
+    @Test
+    public void testReference()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 32);
+        UtilPathfinding.randomize(map, 42L, 15);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 0, 0));
+        final MapTilePath mapPath = UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+
+        final PathFinder reference = new PathFinderImpl(map, 1000, new HeuristicClosest());
+        final PathFinder finder = new PathFinderHeap(map, 1000, new HeuristicClosest());
+        final PathFinder optimal = new PathFinderHeap(map, 1000, new HeuristicManhattan(0));
+
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 1; tx < map.getInTileWidth(); tx++)
+            {
+                final Path expected = reference.findPath(mover, tx, ty, false);
+                if (expected != null)
+                {
+                    final Path path = finder.findPath(mover, tx, ty, false);
+                    final Path best = optimal.findPath(mover, tx, ty, false);
+                    final int last = expected.getLength() - 1;
+
+                    assertEquals(expected.getX(last), path.getX(path.getLength() - 1));
+                    assertEquals(expected.getY(last), path.getY(path.getLength() - 1));
+
+                    final double cost = UtilPathfinding.getCost(mapPath, mover, best);
+                    assertTrue(cost <= UtilPathfinding.getCost(mapPath, mover, expected));
+                    assertTrue(cost <= UtilPathfinding.getCost(mapPath, mover, path));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Compare {@link PathFinderHeap} and {@link PathFinderHierarchical} on random maps split by long walls, searching a
+ * path across the whole map. Clusters graph is built during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PathFinderHierarchicalBenchmark
+{
+    /** Map size in tile. */
+    @Param({"256", "1024"})
+    private int size;
+    /** Pathfindable configuration. */
+    private Media config;
+    /** Mover reference. */
+    private Pathfindable mover;
+    /** Heap path finder. */
+    private PathFinder heap;
+    /** Hierarchical path finder. */
+    private PathFinder hierarchical;
+    /** Destination. */
+    private int destination;
+
+    /**
+     * Create map and finders.
+     */
+    @Setup
+    public void setup()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, size);
+        UtilPathfinding.randomize(map, 42L, 10);
+        UtilPathfinding.addWalls(map, size / 8);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 0, 0));
+        destination = size / 2 + 1;
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, destination, destination));
+        UtilPathfinding.loadPathfinding(services, map);
+        map.addFeature(new MapTilePathClustersModel(services));
+
+        mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        heap = new PathFinderHeap(map, size * size, new HeuristicClosest());
+        hierarchical = new PathFinderHierarchical(map, size * size, new HeuristicClosest());
+        hierarchical.findPath(mover, destination, destination, false);
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        config.getFile().delete();
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Search with full map search.
+     * 
+     * @return The path found.
+     */
+    @Benchmark
+    public Path heap()
+    {
+        return heap.findPath(mover, destination, destination, false);
+    }
+
+    /**
+     * Search with hierarchical search.
+     * 
+     * @return The path found.
+     */
+    @Benchmark
+    public Path hierarchical()
+    {
+        return hierarchical.findPath(mover, destination, destination, false);
+    }
+}
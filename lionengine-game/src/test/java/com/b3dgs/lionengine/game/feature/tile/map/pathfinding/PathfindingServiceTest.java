@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathfindingService}.
+ */
+public final class PathfindingServiceTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Check if path contains location.
+     * 
+     * @param path The path reference.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    private static boolean contains(Path path, int tx, int ty)
+    {
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            if (path.getX(i) == tx && path.getY(i) == ty)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+    /** Paths delivered. */
+    private final List<Path> delivered = new ArrayList<>();
+    /** Service tested. */
+    private PathfindingService service;
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        if (service != null)
+        {
+            service.close();
+        }
+    }
+
+    /**
+     * Update service until expected number of paths has been delivered.
+     * 
+     * @param count The expected delivered count.
+     */
+    private void awaitDelivered(int count)
+    {
+        assertTimeout(5000L, () ->
+        {
+            while (delivered.size() < count)
+            {
+                service.update(1.0);
+                Thread.yield();
+            }
+        });
+    }
+
+    /**
+     * Test that service finds the same paths as the heap path finder.
+     */
+    @Test
+    public void testReference()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 32);
+        UtilPathfinding.randomize(map, 42L, 15);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 0, 0));
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinder finder = new PathFinderHeap(map, 1000, new HeuristicClosest());
+        service = new PathfindingService(services, 2, 1000);
+
+        final List<Path> expected = new ArrayList<>();
+        final List<Path> results = new ArrayList<>();
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 1; tx < map.getInTileWidth(); tx++)
+            {
+                final int index = expected.size();
+                expected.add(finder.findPath(mover, tx, ty, false));
+                results.add(null);
+                service.request(mover, tx, ty, false, path ->
+                {
+                    results.set(index, path);
+                    delivered.add(path);
+                });
+            }
+        }
+        awaitDelivered(expected.size());
+
+        for (int i = 0; i < expected.size(); i++)
+        {
+            final Path path = expected.get(i);
+            final Path result = results.get(i);
+            if (path == null)
+            {
+                assertNull(result);
+            }
+            else
+            {
+                assertEquals(path.getLength(), result.getLength());
+                for (int step = 0; step < path.getLength(); step++)
+                {
+                    assertEquals(path.getX(step), result.getX(step));
+                    assertEquals(path.getY(step), result.getY(step));
+                }
+            }
+        }
+        assertEquals(0, service.getQueueDepth());
+        assertTrue(service.getLatencyMax() >= service.getLatencyAverage());
+    }
+
+    /**
+     * Test that identical requests are solved once, each listener receiving its own path.
+     */
+    @Test
+    public void testDeduplicate()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 16);
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        final Pathfindable other = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        service = new PathfindingService(services, 1, 10);
+
+        service.request(mover, 10, 10, false, delivered::add);
+        service.request(other, 10, 10, false, delivered::add);
+        service.request(mover, 10, 11, false, delivered::add);
+
+        assertTrue(delivered.isEmpty());
+        awaitDelivered(3);
+
+        assertEquals(1, service.getDeduplicated());
+        assertEquals(2, service.getSolved());
+        assertNotEquals(delivered.get(0), delivered.get(1));
+        assertEquals(delivered.get(0).getLength(), delivered.get(1).getLength());
+        assertEquals(10, delivered.get(1).getX(delivered.get(1).getLength() - 1));
+    }
+
+    /**
+     * Test completion budget and no path results.
+     */
+    @Test
+    public void testBudget()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 16);
+        for (int ty = 0; ty < 16; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 8, ty));
+        }
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        service = new PathfindingService(services, 2, 1);
+
+        service.request(mover, 5, 5, false, delivered::add);
+        service.request(mover, 6, 6, false, delivered::add);
+        service.request(mover, 12, 1, false, delivered::add);
+        service.request(mover, 1, 1, false, delivered::add);
+
+        assertTimeout(5000L, () ->
+        {
+            while (service.getSolved() < 3)
+            {
+                Thread.yield();
+            }
+        });
+        for (int i = 1; i <= 4; i++)
+        {
+            service.update(1.0);
+            assertEquals(i, delivered.size());
+        }
+        service.update(1.0);
+        assertEquals(4, delivered.size());
+        assertEquals(2, delivered.stream().filter(p -> p == null).count());
+    }
+
+    /**
+     * Test that map changes are taken into account.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 16);
+        UtilPathfinding.loadPathfinding(services, map);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 13);
+        service = new PathfindingService(services, 1, 10);
+
+        service.request(mover, 6, 13, false, delivered::add);
+        awaitDelivered(1);
+        assertEquals(6, delivered.get(0).getLength());
+
+        for (int ty = 0; ty < 15; ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 4, ty));
+        }
+        service.request(mover, 6, 13, false, delivered::add);
+        awaitDelivered(2);
+        assertTrue(contains(delivered.get(1), 4, 15));
+
+        map.getFeature(MapTilePath.class).addObjectId(4, 15, Integer.valueOf(100));
+        service.request(mover, 6, 13, false, delivered::add);
+        awaitDelivered(3);
+        assertNull(delivered.get(2));
+
+        mover.setIgnoreId(Integer.valueOf(100), true);
+        service.request(mover, 6, 13, false, delivered::add);
+        awaitDelivered(4);
+        assertNotNull(delivered.get(3));
+    }
+
+    /**
+     * Test pathfindable using the service.
+     */
+    @Test
+    public void testPathfindable()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        UtilPathfinding.loadPathfinding(services, map);
+        service = services.add(new PathfindingService(services, 1, 10));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 2);
+        mover.setSpeed(1.0, 1.0);
+
+        assertTrue(mover.setDestination(6, 2));
+        mover.update(1.0);
+        assertEquals(1, mover.getInTileX());
+
+        assertTimeout(5000L, () ->
+        {
+            while (!mover.isDestinationReached())
+            {
+                service.update(1.0);
+                mover.update(1.0);
+                Thread.yield();
+            }
+        });
+        assertEquals(6, mover.getInTileX());
+        assertEquals(2, mover.getInTileY());
+    }
+
+    /**
+     * Test pathfindable new destination while a path change is requested, where objects ID are ignored but path is
+     * not the first one: no path found must stop the moving pathfindable.
+     */
+    @Test
+    public void testPathfindableChangedNoPath()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 5, 5));
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 6, 5));
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 7, 5));
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 5, 6));
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 5, 7));
+        UtilPathfinding.loadPathfinding(services, map);
+        service = services.add(new PathfindingService(services, 1, 10));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 1, 2);
+        mover.setSpeed(1.0, 1.0);
+
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger arrived = new AtomicInteger();
+        mover.addListener(new PathfindableListener()
+        {
+            @Override
+            public void notifyStartMove()
+            {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void notifyMoving()
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyArrived()
+            {
+                arrived.incrementAndGet();
+            }
+        });
+
+        assertTrue(mover.setDestination(6, 2));
+        assertTimeout(5000L, () ->
+        {
+            while (mover.getInTileX() < 3)
+            {
+                service.update(1.0);
+                mover.update(1.0);
+                Thread.yield();
+            }
+        });
+
+        mover.setDestination(6, 3);
+        for (int i = 0; i < 10; i++)
+        {
+            mover.update(1.0);
+        }
+        assertTrue(mover.setDestination(6, 6));
+
+        assertTimeout(5000L, () ->
+        {
+            while (!mover.isDestinationReached())
+            {
+                service.update(1.0);
+                mover.update(1.0);
+                Thread.yield();
+            }
+        });
+        assertEquals(1, started.get());
+        assertEquals(1, arrived.get());
+        assertTrue(mover.getInTileX() < 6);
+    }
+}
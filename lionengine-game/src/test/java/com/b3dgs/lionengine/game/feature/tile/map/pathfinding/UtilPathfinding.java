@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableConfig;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Utility related to pathfinding tests.
+ */
+public final class UtilPathfinding
+{
+    /** Ground cost. */
+    public static final double COST_GROUND = 1.0;
+    /** Water cost. */
+    public static final double COST_WATER = 3.0;
+
+    /**
+     * Create a map filled with ground, with pathfinding loaded. Tree tiles are blocking, water tiles are slower.
+     * 
+     * @param services The services reference.
+     * @param size The map size in tile.
+     * @return The created map.
+     */
+    public static MapTile createMap(Services services, int size)
+    {
+        services.add(new Camera());
+        final MapTile map = services.add(new MapTileGame());
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, size, size);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        return map;
+    }
+
+    /**
+     * Fill randomly the map with trees and water.
+     * 
+     * @param map The map reference.
+     * @param seed The random seed.
+     * @param ratio The percent of obstacles.
+     */
+    public static void randomize(MapTile map, long seed, int ratio)
+    {
+        final Random random = new Random(seed);
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                final int value = random.nextInt(100);
+                if (value < ratio)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+                }
+                else if (value < ratio * 2)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_WATER, tx, ty));
+                }
+            }
+        }
+    }
+
+    /**
+     * Split the map in horizontal bands with tree walls, each wall having a small gap, alternatively on the left and
+     * on the right side.
+     * 
+     * @param map The map reference.
+     * @param spacing The vertical space between walls.
+     */
+    public static void addWalls(MapTile map, int spacing)
+    {
+        final int width = map.getInTileWidth();
+        for (int ty = spacing; ty < map.getInTileHeight(); ty += spacing)
+        {
+            final boolean right = ty / spacing % 2 == 1;
+            for (int tx = 0; tx < width; tx++)
+            {
+                final boolean gap = right ? tx > width - 4 : tx < 3;
+                if (!gap)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+                }
+            }
+        }
+    }
+
+    /**
+     * Add and load pathfinding on map, once tiles have been set.
+     * 
+     * @param services The services reference.
+     * @param map The map reference.
+     * @return The map path feature.
+     */
+    public static MapTilePath loadPathfinding(Services services, MapTile map)
+    {
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.prepare(map);
+
+        final Xml root = new Xml(PathfindingConfig.PATHFINDING);
+        for (final String group : new String[]
+        {
+            UtilMap.GROUND, UtilMap.TREE, UtilMap.WATER
+        })
+        {
+            final Xml category = root.createChild(PathfindingConfig.TILE_PATH);
+            category.writeString(PathfindingConfig.CATEGORY, group);
+            category.createChild(TileGroupsConfig.NODE_GROUP).setText(group);
+        }
+        final Media media = Medias.create(PathfindingConfig.FILENAME);
+        root.save(media);
+        mapPath.loadPathfinding(media);
+        media.getFile().delete();
+
+        return mapPath;
+    }
+
+    /**
+     * Create the pathfindable configuration.
+     * 
+     * @return The configuration media.
+     */
+    public static Media createConfig()
+    {
+        final Map<String, PathData> categories = new HashMap<>();
+        final EnumSet<MovementTile> all = EnumSet.allOf(MovementTile.class);
+        categories.put(UtilMap.GROUND, new PathData(UtilMap.GROUND, COST_GROUND, false, all));
+        categories.put(UtilMap.TREE, new PathData(UtilMap.TREE, COST_GROUND, true, all));
+        categories.put(UtilMap.WATER, new PathData(UtilMap.WATER, COST_WATER, false, all));
+
+        final Xml root = new Xml("test");
+        root.add(FeaturableConfig.exportClass("class"));
+        root.add(FeaturableConfig.exportSetup("setup"));
+        root.add(PathfindableConfig.exports(categories));
+
+        final Media media = Medias.create("pathfindable.xml");
+        root.save(media);
+
+        return media;
+    }
+
+    /**
+     * Create a pathfindable object located at tile.
+     * 
+     * @param services The services reference.
+     * @param config The pathfindable configuration.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The pathfindable.
+     */
+    public static Pathfindable createPathfindable(Services services, Media config, int tx, int ty)
+    {
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        final Pathfindable pathfindable = object.addFeatureAndGet(new PathfindableModel(services, setup));
+
+        return pathfindable;
+    }
+
+    /**
+     * Get the path cost, as summed by the path finder (cost of each tile left).
+     * 
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @param path The path to compute.
+     * @return The path cost.
+     */
+    public static double getCost(MapTilePath mapPath, Pathfindable mover, Path path)
+    {
+        double cost = 0.0;
+        for (int i = 0; i < path.getLength() - 1; i++)
+        {
+            cost += mapPath.getCost(mover, path.getX(i), path.getY(i));
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
+import com.b3dgs.lionengine.io.FileReading;
+import com.b3dgs.lionengine.io.FileWriting;
+
+/**
+ * Test {@link MapTilePersisterChunked}.
+ */
+public final class MapTilePersisterChunkedTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create a map with a chunked persister, filled with tiles except on the diagonal.
+     * 
+     * @param width The width in tile.
+     * @param height The height in tile.
+     * @param chunkSize The chunk size.
+     * @return The created map.
+     */
+    static MapTile createMap(int width, int height, int chunkSize)
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterChunked(services, chunkSize));
+        map.create(16, 32, width, height);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                if (tx != ty)
+                {
+                    map.setTile(map.createTile(Integer.valueOf(0), tx + ty * width, tx * 16.0, ty * 32.0));
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Save map to file.
+     * 
+     * @param map The map to save.
+     * @param level The level media.
+     * @throws IOException If error.
+     */
+    static void saveMap(MapTile map, Media level) throws IOException
+    {
+        try (FileWriting output = new FileWriting(level))
+        {
+            map.getFeature(MapTilePersister.class).save(output);
+        }
+    }
+
+    /**
+     * Load map from file.
+     * 
+     * @param level The level media.
+     * @return The loaded map.
+     * @throws IOException If error.
+     */
+    private static MapTile loadMap(Media level) throws IOException
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterChunked(services));
+        try (FileReading input = new FileReading(level))
+        {
+            map.getFeature(MapTilePersister.class).load(input);
+        }
+        return map;
+    }
+
+    /**
+     * Test the save and load map from file, with partial chunks.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveLoad() throws IOException
+    {
+        final MapTile map = createMap(37, 21, 8);
+        final Media level = Medias.create("level");
+        saveMap(map, level);
+
+        final MapTile loaded = loadMap(level);
+
+        assertEquals(map.getTileWidth(), loaded.getTileWidth());
+        assertEquals(map.getTileHeight(), loaded.getTileHeight());
+        assertEquals(map.getInTileWidth(), loaded.getInTileWidth());
+        assertEquals(map.getInTileHeight(), loaded.getInTileHeight());
+        assertEquals(map.getTilesNumber(), loaded.getTilesNumber());
+        for (int ty = 0; ty < loaded.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < loaded.getInTileWidth(); tx++)
+            {
+                final Tile tile = loaded.getTile(tx, ty);
+                if (tx == ty)
+                {
+                    assertNull(tile);
+                }
+                else
+                {
+                    assertEquals(map.getTile(tx, ty), tile);
+                    assertEquals(tx + ty * loaded.getInTileWidth(), tile.getNumber());
+                }
+            }
+        }
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the save and load map from file with invalid tile sheet number.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidSheet() throws IOException
+    {
+        final MapTile map = createMap(3, 3, 2);
+        final Media level = Medias.create("level");
+        map.setTile(map.createTile(Integer.valueOf(Integer.MAX_VALUE), 0, 0, 0));
+        saveMap(map, level);
+
+        assertThrowsIo(() -> loadMap(level), "Sheet missing: : " + Integer.MAX_VALUE);
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the load with invalid chunk offsets.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidOffset() throws IOException
+    {
+        final Media level = Medias.create("level");
+        try (FileWriting output = new FileWriting(level))
+        {
+            output.writeInteger(16);
+            output.writeInteger(32);
+            output.writeInteger(2);
+            output.writeInteger(1);
+            output.writeBoolean(false);
+            output.writeInteger(1);
+            output.writeLong(0L);
+            output.writeLong(Integer.MAX_VALUE + 1L);
+            output.writeLong(4L);
+        }
+
+        assertThrows(IOException.class, () -> loadMap(level), "Invalid chunk offset: " + (Integer.MAX_VALUE + 1L));
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Test the constructor with invalid chunk size.
+     */
+    @Test
+    public void testInvalidChunkSize()
+    {
+        final Services services = new Services();
+        services.create(MapTileGame.class);
+
+        assertThrows(() -> new MapTilePersisterChunked(services, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTilePersisterChunked(services, 129),
+                     "Invalid argument: 129 is not inferior or equal to 128");
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+
+/**
+ * Test {@link MapTileStreamer}.
+ */
+public final class MapTileStreamerTest
+{
+    /** Map size in tile. */
+    private static final int SIZE = 40;
+    /** Chunk size in tile. */
+    private static final int CHUNK = 8;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** Services reference. */
+    private final Services services = new Services();
+    /** Camera reference. */
+    private final Camera camera = services.create(Camera.class);
+    /** Streamed map. */
+    private final MapTile map = services.add(new MapTileGame(true));
+    /** Level file. */
+    private Media level;
+
+    /**
+     * Prepare test.
+     * 
+     * @throws IOException If error.
+     */
+    @BeforeEach
+    public void prepare() throws IOException
+    {
+        level = Medias.create("streamed");
+        MapTilePersisterChunkedTest.saveMap(MapTilePersisterChunkedTest.createMap(SIZE, SIZE, CHUNK), level);
+        camera.setView(0, 0, 4 * 16, 4 * 32, 4 * 32);
+    }
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void clean()
+    {
+        assertTrue(level.getFile().delete());
+    }
+
+    /**
+     * Update streamer until all requested chunks are loaded.
+     * 
+     * @param streamer The streamer reference.
+     */
+    private static void awaitLoaded(MapTileStreamer streamer)
+    {
+        assertTimeout(5000L, () ->
+        {
+            do
+            {
+                streamer.update(1.0);
+                Thread.yield();
+            }
+            while (streamer.getPending() > 0);
+        });
+    }
+
+    /**
+     * Test that only chunks around view are loaded.
+     */
+    @Test
+    public void testLoadAroundView()
+    {
+        final MapTileStreamer streamer = new MapTileStreamer(services, level, Long.MAX_VALUE, 1, 2);
+        try
+        {
+            assertEquals(SIZE, map.getInTileWidth());
+            assertEquals(SIZE, map.getInTileHeight());
+            assertEquals(CHUNK, streamer.getChunkSize());
+            assertEquals(0, map.getTilesNumber());
+
+            awaitLoaded(streamer);
+
+            assertEquals(4, streamer.getLoaded());
+            assertTrue(streamer.isLoaded(1, 1));
+            assertFalse(streamer.isLoaded(2, 0));
+            assertEquals(1, map.getTile(1, 0).getNumber());
+            assertNull(map.getTile(3, 3));
+            assertEquals(5 + 2 * SIZE, map.getTile(5, 2).getNumber());
+            assertNull(map.getTile(2 * CHUNK, 0));
+            assertEquals(4 * CHUNK * CHUNK - 2 * CHUNK, map.getTilesNumber());
+            assertEquals(map.getTilesNumber() * MapTileStreamer.TILE_MEMORY, streamer.getMemory());
+        }
+        finally
+        {
+            streamer.close();
+        }
+    }
+
+    /**
+     * Test that chunks out of view are evicted when over budget, and loaded again once in view.
+     */
+    @Test
+    public void testEvict()
+    {
+        final MapTileStreamer streamer = new MapTileStreamer(services, level, 0L, 0, 1);
+        try
+        {
+            awaitLoaded(streamer);
+
+            assertTrue(streamer.isLoaded(0, 0));
+            assertNotNull(map.getTile(1, 0));
+
+            camera.teleport(3 * CHUNK * 16, 3 * CHUNK * 32);
+            awaitLoaded(streamer);
+
+            assertFalse(streamer.isLoaded(0, 0));
+            assertTrue(streamer.isLoaded(3, 3));
+            assertEquals(1, streamer.getLoaded());
+            assertEquals(1, streamer.getEvicted());
+            assertNull(map.getTile(1, 0));
+            assertNotNull(map.getTile(3 * CHUNK + 1, 3 * CHUNK));
+            assertEquals(CHUNK * CHUNK - CHUNK, map.getTilesNumber());
+
+            camera.teleport(0.0, 0.0);
+            awaitLoaded(streamer);
+
+            assertTrue(streamer.isLoaded(0, 0));
+            assertEquals(1, map.getTile(1, 0).getNumber());
+            assertEquals(2, streamer.getEvicted());
+        }
+        finally
+        {
+            streamer.close();
+        }
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new MapTileStreamer(services, level, -1L),
+                     "Invalid argument: -1.0 is not superior or equal to 0.0");
+        assertThrows(() -> new MapTileStreamer(services, level, 0L, -1, 1),
+                     "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> new MapTileStreamer(services, level, 0L, 0, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTileStreamer(services, Medias.create("void"), 0L), "[void] Cannot open the media !");
+    }
+}
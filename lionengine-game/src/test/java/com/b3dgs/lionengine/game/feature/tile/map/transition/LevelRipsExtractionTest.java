@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilFolder;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
+
+/**
+ * Test {@link LevelRipsExtraction}.
+ */
+public final class LevelRipsExtractionTest
+{
+    /** Cache folder. */
+    private static Media cache;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        cache = Medias.create("extraction");
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Clean up cache.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        UtilFolder.deleteDirectory(cache.getFile());
+    }
+
+    /**
+     * Create a level file.
+     * 
+     * @param name The file name.
+     * @param content The file content.
+     * @return The created file.
+     * @throws IOException If error.
+     */
+    private static Media createLevel(String name, String content) throws IOException
+    {
+        final Media media = Medias.create(name);
+        try (OutputStream output = media.getOutputStream())
+        {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return media;
+    }
+
+    /**
+     * Create a partial result with one transition and one tile.
+     * 
+     * @param group The transition group.
+     * @param number The tile number.
+     * @return The partial result.
+     */
+    private static Map<Transition, Collection<TileRef>> createPartial(String group, int number)
+    {
+        final Map<Transition, Collection<TileRef>> partial = new HashMap<>();
+        partial.put(new Transition(TransitionType.CENTER, group, group),
+                    Collections.singleton(new TileRef(0, number)));
+        return partial;
+    }
+
+    /**
+     * Test constructor.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertPrivateConstructor(LevelRipsExtraction.class);
+    }
+
+    /**
+     * Test partial results merge.
+     */
+    @Test
+    public void testMerge()
+    {
+        final List<Map<Transition, Collection<TileRef>>> partials = Arrays.asList(createPartial("a", 1),
+                                                                                  createPartial("a", 2),
+                                                                                  createPartial("b", 1));
+        final Map<Transition, Collection<TileRef>> merged = LevelRipsExtraction.merge(partials);
+
+        assertEquals(2, merged.size());
+        assertEquals(2, merged.get(new Transition(TransitionType.CENTER, "a", "a")).size());
+        assertEquals(1, merged.get(new Transition(TransitionType.CENTER, "b", "b")).size());
+    }
+
+    /**
+     * Test parallel extraction without cache.
+     */
+    @Test
+    public void testExtract()
+    {
+        final List<Integer> sources = Arrays.asList(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(1));
+        final Function<Integer, Map<Transition, Collection<TileRef>>> extractor = i -> createPartial("a", i.intValue());
+        final Map<Transition, Collection<TileRef>> merged = LevelRipsExtraction.extract(sources, extractor);
+
+        assertEquals(2, merged.get(new Transition(TransitionType.CENTER, "a", "a")).size());
+    }
+
+    /**
+     * Test extraction cache, with identical levels extracted once and unchanged levels not extracted again.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testCache() throws IOException
+    {
+        final Media level1 = createLevel("level1.txt", "1");
+        final Media level2 = createLevel("level2.txt", "2");
+        final Media level3 = createLevel("level3.txt", "1");
+        final List<Media> levels = Arrays.asList(level1, level2, level3);
+
+        final AtomicInteger extracted = new AtomicInteger();
+        final Function<Media, Map<Transition, Collection<TileRef>>> extractor = level ->
+        {
+            extracted.incrementAndGet();
+            return createPartial(level.getName(), extracted.get());
+        };
+        final Map<Transition, Collection<TileRef>> expected = LevelRipsExtraction.extract(levels, extractor);
+        assertEquals(3, extracted.get());
+
+        extracted.set(0);
+        final Map<Transition, Collection<TileRef>> first = LevelRipsExtraction.extract(levels,
+                                                                                       cache,
+                                                                                       "context",
+                                                                                       extractor,
+                                                                                       TransitionsConfig::imports,
+                                                                                       TransitionsConfig::exports);
+        assertEquals(2, extracted.get());
+        assertEquals(2, cache.getFile().listFiles().length);
+
+        final Map<Transition, Collection<TileRef>> second = LevelRipsExtraction.extract(levels,
+                                                                                        cache,
+                                                                                        "context",
+                                                                                        extractor,
+                                                                                        TransitionsConfig::imports,
+                                                                                        TransitionsConfig::exports);
+        assertEquals(2, extracted.get());
+        assertEquals(first, second);
+        assertEquals(2, first.size());
+        assertNotEquals(expected, first);
+
+        LevelRipsExtraction.extract(levels,
+                                    cache,
+                                    "other",
+                                    extractor,
+                                    TransitionsConfig::imports,
+                                    TransitionsConfig::exports);
+        assertEquals(4, extracted.get());
+
+        assertTrue(level1.getFile().delete());
+        assertTrue(level2.getFile().delete());
+        assertTrue(level3.getFile().delete());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Update 500 moving {@link Fovable} on a 512x512 map with random trees, with square vision or line of sight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FogMapBenchmark
+{
+    /** Map size in tile. */
+    private static final int SIZE = 512;
+    /** Number of fovables. */
+    private static final int FOVABLES = 500;
+    /** Field of view in tile. */
+    private static final int FOV = 8;
+
+    /** Line of sight enabled. */
+    @Param({"false", "true"})
+    private boolean vision;
+    /** Setup configuration. */
+    private Media config;
+    /** Fog map. */
+    private FogMap fog;
+    /** Fovables. */
+    private List<Fovable> fovables;
+    /** Fovables transformable. */
+    private List<Transformable> transformables;
+    /** Movement random. */
+    private Random random;
+
+    /**
+     * Create map, fog and fovables.
+     */
+    @Setup
+    public void setup()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+        random = new Random(42L);
+
+        final Services services = new Services();
+        final MapTile map = services.add(UtilMap.createMap(SIZE));
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                if (random.nextInt(100) < 10)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+                }
+            }
+        }
+
+        Medias.setLoadFromJar(MapTileFog.class);
+        fog = new FogMap(1);
+        fog.create(map, Medias.create("fog.xml"));
+        Medias.setLoadFromJar(null);
+        if (vision)
+        {
+            fog.setVision(map, Collections.singleton(UtilMap.TREE));
+        }
+
+        final com.b3dgs.lionengine.game.feature.Setup setup = new com.b3dgs.lionengine.game.feature.Setup(config);
+        fovables = new ArrayList<>(FOVABLES);
+        transformables = new ArrayList<>(FOVABLES);
+        for (int i = 0; i < FOVABLES; i++)
+        {
+            final FeaturableModel object = new FeaturableModel();
+            final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+            transformable.teleport(random.nextInt(SIZE), random.nextInt(SIZE));
+            final Fovable fovable = object.addFeatureAndGet(new FovableModel(services));
+            fovable.setFov(FOV);
+            fovables.add(fovable);
+            transformables.add(transformable);
+        }
+        fog.update(0, fovables);
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        config.getFile().delete();
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Move a quarter of fovables by one tile, and update fog.
+     * 
+     * @return The fog map.
+     */
+    @Benchmark
+    public FogMap update()
+    {
+        for (int i = random.nextInt(4); i < FOVABLES; i += 4)
+        {
+            final Transformable transformable = transformables.get(i);
+            final double x = Math.max(0, Math.min(SIZE - 1, transformable.getX() + random.nextInt(3) - 1));
+            final double y = Math.max(0, Math.min(SIZE - 1, transformable.getY() + random.nextInt(3) - 1));
+            transformable.teleport(x, y);
+        }
+        fog.update(0, fovables);
+        return fog;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link FogMap}.
+ */
+public final class FogMapTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Get the fog configuration.
+     * 
+     * @return The fog configuration.
+     */
+    private static Media getFog()
+    {
+        Medias.setLoadFromJar(MapTileFog.class);
+        final Media fog = Medias.create("fog.xml");
+        Medias.setLoadFromJar(null);
+        return fog;
+    }
+
+    private final Services services = new Services();
+    private final MapTile map = services.add(UtilMap.createMap(24));
+
+    /**
+     * Create a fovable.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param fov The field of view.
+     * @return The created fovable.
+     */
+    private Fovable createFovable(int tx, int ty, int fov)
+    {
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(new Setup(config)));
+        transformable.teleport(tx, ty);
+        final Fovable fovable = object.addFeatureAndGet(new FovableModel(services));
+        fovable.setFov(fov);
+        return fovable;
+    }
+
+    /**
+     * Test fog tiles are the same as the ones resolved with {@link MapTileFog}, while fovables move.
+     */
+    @Test
+    public void testReference()
+    {
+        final Random random = new Random(42L);
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+
+        final MapTileFog visited = new MapTileFog();
+        visited.create(map, getFog(), null);
+        final MapTileFog visible = new MapTileFog();
+        visible.create(map, getFog(), null);
+
+        final List<Fovable> fovables = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            fovables.add(createFovable(6 + random.nextInt(12), 6 + random.nextInt(12), 1 + random.nextInt(4)));
+        }
+        for (int step = 0; step < 20; step++)
+        {
+            for (final Fovable fovable : fovables)
+            {
+                final Transformable transformable = fovable.getFeature(Transformable.class);
+                transformable.teleport(UtilMath.clamp(transformable.getX() + random.nextInt(3) - 1, 6, 17),
+                                       UtilMath.clamp(transformable.getY() + random.nextInt(3) - 1, 6, 17));
+            }
+            fog.update(0, fovables);
+            visited.update(fovables);
+            visible.reset();
+            visible.update(fovables);
+
+            for (int ty = 0; ty < map.getInTileHeight(); ty++)
+            {
+                for (int tx = 0; tx < map.getInTileWidth(); tx++)
+                {
+                    assertEquals(visible.getTile(tx, ty).getNumber(), fog.getFogTile(0, tx, ty));
+                    assertEquals(visited.getTile(tx, ty).getNumber(), fog.getHideTile(0, tx, ty));
+                    if (fog.isVisible(0, tx, ty))
+                    {
+                        assertEquals(MapTileFog.NO_FOG, visible.getTile(tx, ty).getNumber());
+                    }
+                    if (fog.isVisited(0, tx, ty))
+                    {
+                        assertEquals(MapTileFog.NO_FOG, visited.getTile(tx, ty).getNumber());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test fovables leaving and teams independence.
+     */
+    @Test
+    public void testTeams()
+    {
+        final FogMap fog = new FogMap(2);
+        fog.create(map, getFog());
+        assertEquals(2, fog.getTeams());
+
+        final Fovable first = createFovable(5, 5, 2);
+        final Fovable second = createFovable(7, 5, 2);
+        fog.update(0, Arrays.asList(first, second));
+        fog.update(1, Collections.singletonList(second));
+
+        assertTrue(fog.isVisible(0, 4, 5));
+        assertTrue(fog.isVisible(0, 6, 5));
+        assertFalse(fog.isVisible(1, 4, 5));
+        assertTrue(fog.isVisible(1, 6, 5));
+        assertFalse(fog.isVisited(1, 4, 5));
+
+        fog.remove(0, first);
+        fog.remove(0, first);
+
+        assertFalse(fog.isVisible(0, 4, 5));
+        assertTrue(fog.isVisible(0, 6, 5));
+        assertTrue(fog.isVisited(0, 4, 5));
+        assertEquals(MapTileFog.NO_FOG, fog.getHideTile(0, 4, 5));
+        assertEquals(MapTileFog.FOG, fog.getFogTile(0, 2, 5));
+
+        fog.update(0, Collections.emptyList());
+
+        assertFalse(fog.isVisible(0, 6, 5));
+        assertTrue(fog.isVisible(1, 6, 5));
+        assertEquals(MapTileFog.FOG, fog.getFogTile(0, 6, 5));
+    }
+
+    /**
+     * Test map borders are revealed.
+     */
+    @Test
+    public void testBorder()
+    {
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+        fog.update(0, Arrays.asList(createFovable(0, 0, 2), createFovable(23, 23, 2), createFovable(30, 30, 5)));
+
+        assertTrue(fog.isVisible(0, 0, 0));
+        assertTrue(fog.isVisible(0, 1, 1));
+        assertFalse(fog.isVisible(0, 2, 2));
+        assertTrue(fog.isVisible(0, 23, 23));
+        assertFalse(fog.isVisible(0, 21, 21));
+    }
+
+    /**
+     * Test tiles outside map are not visible nor visited, and have no fog, instead of reading another row.
+     */
+    @Test
+    public void testOutside()
+    {
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+        fog.update(0, Arrays.asList(createFovable(23, 4, 1), createFovable(0, 5, 1)));
+
+        assertTrue(fog.isVisible(0, 23, 4));
+        assertTrue(fog.isVisible(0, 0, 5));
+
+        assertFalse(fog.isVisible(0, -1, 5));
+        assertFalse(fog.isVisible(0, 24, 4));
+        assertFalse(fog.isVisible(0, 0, -1));
+        assertFalse(fog.isVisible(0, 0, 24));
+        assertFalse(fog.isVisited(0, -1, 5));
+        assertFalse(fog.isVisited(0, 24, 4));
+        assertEquals(MapTileFog.NO_FOG, fog.getFogTile(0, -1, 5));
+        assertEquals(MapTileFog.NO_FOG, fog.getHideTile(0, 24, 4));
+        assertEquals(MapTileFog.NO_FOG, fog.getHideTile(0, 0, 24));
+    }
+
+    /**
+     * Test line of sight, with blocking tiles changes.
+     */
+    @Test
+    public void testVision()
+    {
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 8, ty));
+        }
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+        final Fovable fovable = createFovable(5, 5, 5);
+        fog.update(0, Collections.singletonList(fovable));
+
+        assertTrue(fog.isVisible(0, 9, 5));
+        assertFalse(fog.isBlocking(8, 5));
+
+        fog.setVision(map, Collections.singleton(UtilMap.TREE));
+
+        assertTrue(fog.isBlocking(8, 5));
+        assertFalse(fog.isVisible(0, 9, 5));
+        assertTrue(fog.isVisited(0, 9, 5));
+
+        fog.update(0, Collections.singletonList(fovable));
+
+        assertTrue(fog.isVisible(0, 1, 1));
+        assertTrue(fog.isVisible(0, 8, 5));
+        assertFalse(fog.isVisible(0, 9, 5));
+        assertEquals(MapTileFog.FOG, fog.getFogTile(0, 10, 5));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 8, 5));
+        assertFalse(fog.isBlocking(8, 5));
+        fog.update(0, Collections.singletonList(fovable));
+
+        assertTrue(fog.isVisible(0, 9, 5));
+        assertFalse(fog.isVisible(0, 9, 1));
+
+        fovable.getFeature(Transformable.class).teleport(12, 5);
+        fog.update(0, Collections.singletonList(fovable));
+
+        assertFalse(fog.isVisible(0, 5, 5));
+        assertFalse(fog.isVisible(0, 7, 5));
+        assertTrue(fog.isVisible(0, 8, 5));
+        assertTrue(fog.isVisible(0, 8, 2));
+
+        fog.remove(0, fovable);
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                assertFalse(fog.isVisible(0, tx, ty));
+            }
+        }
+    }
+
+    /**
+     * Test vision listener is replaced when vision is set again.
+     */
+    @Test
+    public void testVisionReplaced()
+    {
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        final MapTile other = UtilMap.createMap(24);
+        UtilMap.fill(other, UtilMap.TILE_GROUND);
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+        fog.setVision(map, Collections.singleton(UtilMap.TREE));
+        fog.setVision(other, Collections.singleton(UtilMap.TREE));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 3, 3));
+
+        assertFalse(fog.isBlocking(3, 3));
+
+        other.setTile(other.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 3, 3));
+
+        assertTrue(fog.isBlocking(3, 3));
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new FogMap(0), "Invalid argument: 0 is not strictly superior to 0");
+
+        final FogMap fog = new FogMap(1);
+        fog.create(map, getFog());
+
+        assertThrows(() -> fog.update(1, Collections.emptyList()), FogMap.ERROR_TEAM + 1);
+        assertThrows(() -> fog.isVisible(-1, 0, 0), FogMap.ERROR_TEAM + -1);
+    }
+}
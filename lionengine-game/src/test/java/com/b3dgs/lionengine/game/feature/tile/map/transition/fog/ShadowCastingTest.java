@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link ShadowCasting}.
+ */
+public final class ShadowCastingTest
+{
+    /**
+     * Compute seen tiles as a flag array.
+     * 
+     * @param shadow The shadow casting.
+     * @param size The map size.
+     * @param tx The horizontal origin.
+     * @param ty The vertical origin.
+     * @param radius The radius.
+     * @return The seen flags.
+     */
+    private static boolean[] compute(ShadowCasting shadow, int size, int tx, int ty, int radius)
+    {
+        final int[] tiles = new int[size * size];
+        final int count = shadow.compute(tx, ty, radius, tiles);
+        final boolean[] seen = new boolean[size * size];
+        for (int i = 0; i < count; i++)
+        {
+            assertFalse(seen[tiles[i]]);
+            seen[tiles[i]] = true;
+        }
+        return seen;
+    }
+
+    /**
+     * Test vision without obstacle is the whole square, clipped by map.
+     */
+    @Test
+    public void testOpen()
+    {
+        final ShadowCasting shadow = new ShadowCasting(16, 16);
+
+        assertEquals(49, shadow.compute(5, 5, 3, new int[49]));
+        assertEquals(16, shadow.compute(0, 0, 3, new int[49]));
+        assertEquals(1, shadow.compute(5, 5, 0, new int[1]));
+        assertEquals(0, shadow.compute(5, 5, -1, new int[0]));
+
+        final boolean[] seen = compute(shadow, 16, 5, 5, 3);
+        for (int ty = 0; ty < 16; ty++)
+        {
+            for (int tx = 0; tx < 16; tx++)
+            {
+                assertEquals(Math.abs(tx - 5) <= 3 && Math.abs(ty - 5) <= 3, seen[ty * 16 + tx]);
+            }
+        }
+    }
+
+    /**
+     * Test walls are seen and stop vision.
+     */
+    @Test
+    public void testWall()
+    {
+        final ShadowCasting shadow = new ShadowCasting(16, 16);
+        for (int ty = 0; ty < 16; ty++)
+        {
+            assertTrue(shadow.setBlocking(8, ty, true));
+        }
+        assertFalse(shadow.setBlocking(8, 0, true));
+        assertTrue(shadow.isBlocking(8, 0));
+        assertTrue(shadow.isBlocking(-1, 0));
+        assertTrue(shadow.isBlocking(0, 16));
+        assertFalse(shadow.isBlocking(7, 0));
+
+        boolean[] seen = compute(shadow, 16, 5, 5, 6);
+        assertTrue(seen[5 * 16 + 7]);
+        assertTrue(seen[5 * 16 + 8]);
+        assertFalse(seen[5 * 16 + 9]);
+        assertFalse(seen[2 * 16 + 10]);
+
+        assertTrue(shadow.setBlocking(8, 5, false));
+        seen = compute(shadow, 16, 5, 5, 6);
+        assertTrue(seen[5 * 16 + 9]);
+        assertTrue(seen[5 * 16 + 11]);
+        assertFalse(seen[2 * 16 + 10]);
+    }
+
+    /**
+     * Test floor tiles vision is symmetric.
+     */
+    @Test
+    public void testSymmetry()
+    {
+        final int size = 24;
+        final int radius = 6;
+        final Random random = new Random(42L);
+        final ShadowCasting shadow = new ShadowCasting(size, size);
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                shadow.setBlocking(tx, ty, random.nextInt(100) < 20);
+            }
+        }
+
+        final boolean[][] seen = new boolean[size * size][];
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                seen[ty * size + tx] = compute(shadow, size, tx, ty, radius);
+            }
+        }
+        for (int a = 0; a < size * size; a++)
+        {
+            for (int b = 0; b < size * size; b++)
+            {
+                if (!shadow.isBlocking(a % size, a / size) && !shadow.isBlocking(b % size, b / size))
+                {
+                    assertEquals(seen[a][b], seen[b][a]);
+                }
+            }
+        }
+    }
+}
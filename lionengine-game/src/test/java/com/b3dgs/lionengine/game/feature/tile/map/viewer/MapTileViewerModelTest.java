@@ -17,12 +17,17 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -31,9 +36,12 @@ import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
 /**
@@ -41,6 +49,24 @@ import com.b3dgs.lionengine.graphic.drawable.Drawable;
  */
 public final class MapTileViewerModelTest
 {
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
     private final Services services = new Services();
     private final Graphic g = new GraphicMock();
     private ViewerMock viewer;
@@ -109,4 +135,70 @@ public final class MapTileViewerModelTest
         map.clear();
         mapViewer.render(g);
     }
+
+    /**
+     * Test the chunk cache, with cached and dynamic renderers.
+     */
+    @Test
+    public void testCache()
+    {
+        final Services services = new Services();
+        services.add(new ViewerMock()).set(0, 0);
+        final MapTileGame map = services.add(new MapTileGame());
+        final MapTileViewer mapViewer = new MapTileViewerModel(services);
+        mapViewer.prepare(map);
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(32, 16), 16, 16)));
+        map.create(16, 16, 64, 64);
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), 0, tx * 16.0, ty * 16.0));
+            }
+        }
+
+        final AtomicInteger draws = new AtomicInteger();
+        final Graphic graphic = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image, int x, int y)
+            {
+                draws.incrementAndGet();
+            }
+        };
+        final AtomicInteger baked = new AtomicInteger();
+        final AtomicInteger dynamic = new AtomicInteger();
+        mapViewer.clear();
+        mapViewer.addRenderer((output, source, tile, x, y) -> baked.incrementAndGet());
+        mapViewer.enableCache(8, Long.MAX_VALUE);
+
+        assertThrows(() -> mapViewer.enableCache(8, 0L), MapTileViewerModel.ERROR_CACHE);
+
+        mapViewer.addRenderer((output, source, tile, x, y) -> dynamic.incrementAndGet());
+
+        // 21x16 visible tiles, covered by 3x2 chunks
+        mapViewer.render(graphic);
+
+        assertEquals(6, draws.get());
+        assertEquals(6 * 64, baked.get());
+        assertEquals(21 * 16, dynamic.get());
+
+        mapViewer.render(graphic);
+
+        assertEquals(12, draws.get());
+        assertEquals(6 * 64, baked.get());
+        assertEquals(2 * 21 * 16, dynamic.get());
+
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 9 * 16.0, 16.0));
+        mapViewer.render(graphic);
+
+        assertEquals(7 * 64, baked.get());
+
+        mapViewer.disableCache();
+        mapViewer.render(graphic);
+
+        assertEquals(18, draws.get());
+        assertEquals(7 * 64 + 21 * 16, baked.get());
+        assertEquals(4 * 21 * 16, dynamic.get());
+    }
 }
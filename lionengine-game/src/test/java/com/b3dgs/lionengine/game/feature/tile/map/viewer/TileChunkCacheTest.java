@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013-2018 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link TileChunkCache}.
+ */
+public final class TileChunkCacheTest
+{
+    /** Chunk memory with 4x4 tiles of 2x2 pixels. */
+    private static final long CHUNK = 8L * 8L * 4L;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    private final Graphic g = new GraphicMock();
+    private final Collection<MapTileRenderer> renderers = new ArrayList<>();
+    private final MapTile map = new MapTileGame();
+
+    /**
+     * Create a filled map.
+     * 
+     * @param width The width in tile.
+     * @param height The height in tile.
+     */
+    private void createMap(int width, int height)
+    {
+        map.create(2, 2, width, height);
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), 0, tx * 2.0, ty * 2.0));
+            }
+        }
+    }
+
+    /**
+     * Test chunks eviction under budget, keeping rendered chunks.
+     */
+    @Test
+    public void testBudget()
+    {
+        createMap(16, 16);
+        final TileChunkCache cache = new TileChunkCache(map, renderers, 4, CHUNK * 2);
+
+        cache.render(g, 0, 0, 7, 7, 0.0, 32.0);
+
+        assertEquals(4, cache.getCount());
+        assertEquals(4, cache.getBaked());
+        assertEquals(4 * CHUNK, cache.getMemory());
+
+        cache.render(g, 8, 8, 11, 11, 0.0, 32.0);
+
+        assertEquals(2, cache.getCount());
+        assertEquals(5, cache.getBaked());
+        assertEquals(2 * CHUNK, cache.getMemory());
+
+        cache.render(g, 8, 8, 11, 11, 0.0, 32.0);
+
+        assertEquals(5, cache.getBaked());
+
+        cache.invalidate();
+
+        assertEquals(0, cache.getCount());
+        assertEquals(0L, cache.getMemory());
+    }
+
+    /**
+     * Test chunk invalidation on tile set, and clipped chunks on map border.
+     */
+    @Test
+    public void testInvalidate()
+    {
+        createMap(6, 6);
+        final TileChunkCache cache = new TileChunkCache(map, renderers, 4, Long.MAX_VALUE);
+        map.addListener(cache);
+
+        cache.render(g, -2, -2, 10, 10, 0.0, 12.0);
+
+        assertEquals(4, cache.getCount());
+        assertEquals(CHUNK + CHUNK / 2 + CHUNK / 2 + CHUNK / 4, cache.getMemory());
+
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 10.0, 10.0));
+
+        assertEquals(3, cache.getCount());
+
+        cache.render(g, 0, 0, 5, 5, 0.0, 12.0);
+
+        assertEquals(4, cache.getCount());
+        assertEquals(5, cache.getBaked());
+
+        createMap(4, 4);
+        cache.render(g, 0, 0, 5, 5, 0.0, 8.0);
+
+        assertEquals(1, cache.getCount());
+        assertEquals(CHUNK, cache.getMemory());
+    }
+}